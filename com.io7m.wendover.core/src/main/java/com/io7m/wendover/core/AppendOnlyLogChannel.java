@@ -0,0 +1,354 @@
+/*
+ * Copyright © 2026 Mark Raynsford <code@io7m.com> https://www.io7m.com
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY
+ * SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF OR
+ * IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+
+package com.io7m.wendover.core;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.ClosedChannelException;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * <p>
+ * An append-only log over a file channel that commits concurrent appends
+ * in groups.
+ * </p>
+ * <p>
+ * Each append is assigned its offset in the log immediately, and the data
+ * is copied into a pending group. A commit task running on an executor
+ * writes every pending append with a single gathering write, and then
+ * calls {@link FileChannel#force(boolean)} once for the whole group. While
+ * a group is being forced, further appends accumulate in the next group, so
+ * the number of forces falls as the rate of appends rises. The
+ * {@link LogAppend#durable()} future of each append is completed once its
+ * group has been forced.
+ * </p>
+ * <p>
+ * If a commit fails, the futures of every append in the group, and of every
+ * later append, are completed exceptionally. The log is then failed, and
+ * all further appends are rejected. If the executor rejects a commit task,
+ * the append that submitted it is withdrawn and the exception is thrown to
+ * the caller; the log remains usable.
+ * </p>
+ *
+ * @since 1.2.0
+ */
+
+public final class AppendOnlyLogChannel
+  implements WritableByteChannel
+{
+  private final FileChannel channel;
+  private final Executor executor;
+  private final ReentrantLock lock;
+  private final Condition committed;
+  private ArrayList<Pending> pending;
+  private long reserved;
+  private long durable;
+  private long commits;
+  private boolean committing;
+  private boolean closed;
+  private IOException failure;
+
+  /**
+   * An append-only log over a file channel. Data is appended after the
+   * existing contents of the file.
+   *
+   * @param inChannel  The file channel
+   * @param inExecutor The executor used to commit appends
+   *
+   * @throws IOException On errors obtaining the size of the file
+   */
+
+  public AppendOnlyLogChannel(
+    final FileChannel inChannel,
+    final Executor inExecutor)
+    throws IOException
+  {
+    this.channel =
+      Objects.requireNonNull(inChannel, "channel");
+    this.executor =
+      Objects.requireNonNull(inExecutor, "executor");
+
+    this.lock = new ReentrantLock();
+    this.committed = this.lock.newCondition();
+    this.pending = new ArrayList<>();
+    this.reserved = inChannel.size();
+    this.durable = this.reserved;
+    this.commits = 0L;
+  }
+
+  /**
+   * Append the remaining bytes of {@code src} to the log. The bytes are
+   * copied, and the position of {@code src} is advanced to its limit.
+   *
+   * @param src The data
+   *
+   * @return The offset of the data and a future completed when the data is
+   * durable
+   *
+   * @throws IOException If the log is closed or has failed
+   */
+
+  public LogAppend append(
+    final ByteBuffer src)
+    throws IOException
+  {
+    Objects.requireNonNull(src, "src");
+
+    final var copy = ByteBuffer.allocate(src.remaining());
+    copy.put(src).flip();
+
+    this.lock.lock();
+    try {
+      if (this.closed) {
+        throw new ClosedChannelException();
+      }
+      if (this.failure != null) {
+        throw new IOException("The log has failed", this.failure);
+      }
+
+      final var offset = this.reserved;
+      this.reserved += copy.remaining();
+
+      final var result =
+        new LogAppend(offset, copy.remaining(), new CompletableFuture<>());
+      this.pending.add(new Pending(copy, result));
+
+      if (!this.committing) {
+        this.committing = true;
+        try {
+          this.executor.execute(this::commit);
+        } catch (final RuntimeException e) {
+
+          /*
+           * No commit was running, so this append is the only one pending.
+           * Withdraw it entirely so that the next append reuses its offset
+           * rather than leaving a hole in the log.
+           */
+
+          this.committing = false;
+          this.reserved = offset;
+          this.failPending(new IOException(e));
+          throw e;
+        }
+      }
+      return result;
+    } finally {
+      this.lock.unlock();
+    }
+  }
+
+  /**
+   * Append the remaining bytes of {@code src} to the log without waiting for
+   * the data to become durable.
+   *
+   * @param src The data
+   *
+   * @return The number of bytes appended
+   *
+   * @throws IOException If the log is closed or has failed
+   */
+
+  @Override
+  public int write(
+    final ByteBuffer src)
+    throws IOException
+  {
+    return this.append(src).length();
+  }
+
+  /**
+   * @return The offset at which the next append will be placed
+   */
+
+  public long size()
+  {
+    this.lock.lock();
+    try {
+      return this.reserved;
+    } finally {
+      this.lock.unlock();
+    }
+  }
+
+  /**
+   * @return The offset below which all appended data is durable
+   */
+
+  public long durableOffset()
+  {
+    this.lock.lock();
+    try {
+      return this.durable;
+    } finally {
+      this.lock.unlock();
+    }
+  }
+
+  /**
+   * @return The number of groups that have been committed
+   */
+
+  public long commitCount()
+  {
+    this.lock.lock();
+    try {
+      return this.commits;
+    } finally {
+      this.lock.unlock();
+    }
+  }
+
+  private void commit()
+  {
+    while (true) {
+      final List<Pending> group;
+      this.lock.lock();
+      try {
+        if (this.pending.isEmpty() || this.failure != null) {
+          this.committing = false;
+          this.committed.signalAll();
+          return;
+        }
+        group = this.pending;
+        this.pending = new ArrayList<>();
+      } finally {
+        this.lock.unlock();
+      }
+
+      try {
+        this.writeGroup(group);
+      } catch (final IOException e) {
+        this.lock.lock();
+        try {
+          this.failure = e;
+          for (final var append : group) {
+            append.result().durable().completeExceptionally(e);
+          }
+          this.failPending(e);
+        } finally {
+          this.lock.unlock();
+        }
+        continue;
+      }
+
+      final var end = group.get(group.size() - 1).result().end();
+      this.lock.lock();
+      try {
+        this.durable = end;
+        ++this.commits;
+        this.committed.signalAll();
+      } finally {
+        this.lock.unlock();
+      }
+
+      for (final var append : group) {
+        append.result().durable().complete(null);
+      }
+    }
+  }
+
+  private void writeGroup(
+    final List<Pending> group)
+    throws IOException
+  {
+    final var buffers = new ByteBuffer[group.size()];
+    var remaining = 0L;
+    for (int index = 0; index < buffers.length; ++index) {
+      buffers[index] = group.get(index).data();
+      remaining += buffers[index].remaining();
+    }
+
+    this.channel.position(group.get(0).result().offset());
+    while (remaining > 0L) {
+      remaining -= this.channel.write(buffers);
+    }
+    this.channel.force(false);
+  }
+
+  private void failPending(
+    final IOException e)
+  {
+    for (final var append : this.pending) {
+      append.result().durable().completeExceptionally(e);
+    }
+    this.pending.clear();
+  }
+
+  @Override
+  public boolean isOpen()
+  {
+    this.lock.lock();
+    try {
+      return !this.closed;
+    } finally {
+      this.lock.unlock();
+    }
+  }
+
+  /**
+   * Close the log. Pending appends are committed before the file channel is
+   * closed.
+   *
+   * @throws IOException If the log has failed, on errors closing the file
+   *                     channel, or if interrupted
+   */
+
+  @Override
+  public void close()
+    throws IOException
+  {
+    final IOException failed;
+    this.lock.lock();
+    try {
+      if (this.closed) {
+        return;
+      }
+      this.closed = true;
+
+      while (this.committing) {
+        this.committed.await();
+      }
+      failed = this.failure;
+    } catch (final InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new InterruptedIOException();
+    } finally {
+      this.lock.unlock();
+      this.channel.close();
+    }
+
+    if (failed != null) {
+      throw new IOException("The log has failed", failed);
+    }
+  }
+
+  private record Pending(
+    ByteBuffer data,
+    LogAppend result)
+  {
+
+  }
+}
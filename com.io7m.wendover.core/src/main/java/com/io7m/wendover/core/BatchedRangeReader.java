@@ -0,0 +1,232 @@
+/*
+ * Copyright © 2026 Mark Raynsford <code@io7m.com> https://www.io7m.com
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY
+ * SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF OR
+ * IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+
+package com.io7m.wendover.core;
+
+import com.io7m.wendover.core.internal.PositionalIO;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.SeekableByteChannel;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * <p>
+ * A reader that performs a batch of small reads at arbitrary positions
+ * using as few reads of the underlying channel as possible.
+ * </p>
+ * <p>
+ * The reads in a batch are sorted by offset, and reads that overlap or
+ * are separated by no more than a configurable gap are coalesced into a
+ * single read of the channel, up to a maximum read size. The data read for
+ * a coalesced range is then copied into the destination buffers of the
+ * individual reads. A read that is not coalesced with any other is read
+ * directly into its destination buffer.
+ * </p>
+ * <p>
+ * The position of the channel is not modified. Channels that do not
+ * support I/O at absolute positions (such as
+ * {@link SubrangeSeekableByteChannel}) are read by seeking and restoring
+ * the position, and so must not be used by other threads during a batch.
+ * </p>
+ *
+ * @since 1.2.0
+ */
+
+public final class BatchedRangeReader
+{
+  private static final Comparator<BatchedRead> BY_OFFSET =
+    Comparator.comparingLong(BatchedRead::offset);
+
+  private final int gapThreshold;
+  private final int maxReadSize;
+
+  /**
+   * A reader that performs batches of reads.
+   *
+   * @param inGapThreshold The largest number of unrequested bytes between
+   *                       two reads that will be read in order to coalesce
+   *                       them
+   * @param inMaxReadSize  The largest size of a coalesced read
+   */
+
+  public BatchedRangeReader(
+    final int inGapThreshold,
+    final int inMaxReadSize)
+  {
+    if (inGapThreshold < 0) {
+      throw new IllegalArgumentException(
+        "Gap threshold %d must be non-negative"
+          .formatted(Integer.valueOf(inGapThreshold))
+      );
+    }
+    if (inMaxReadSize <= 0) {
+      throw new IllegalArgumentException(
+        "Maximum read size %d must be positive"
+          .formatted(Integer.valueOf(inMaxReadSize))
+      );
+    }
+
+    this.gapThreshold = inGapThreshold;
+    this.maxReadSize = inMaxReadSize;
+  }
+
+  /**
+   * @return The largest number of unrequested bytes read to coalesce reads
+   */
+
+  public int gapThreshold()
+  {
+    return this.gapThreshold;
+  }
+
+  /**
+   * @return The largest size of a coalesced read
+   */
+
+  public int maxReadSize()
+  {
+    return this.maxReadSize;
+  }
+
+  /**
+   * Perform a batch of reads. The position of each destination buffer is
+   * advanced by the number of bytes read into it, which is only less than
+   * the number of bytes remaining if the end of the channel was reached.
+   *
+   * @param channel The channel
+   * @param reads   The reads
+   *
+   * @return The total number of bytes read into all buffers
+   *
+   * @throws IOException On errors
+   */
+
+  public long read(
+    final SeekableByteChannel channel,
+    final List<BatchedRead> reads)
+    throws IOException
+  {
+    Objects.requireNonNull(channel, "channel");
+    Objects.requireNonNull(reads, "reads");
+
+    final var sorted = new ArrayList<BatchedRead>(reads.size());
+    for (final var read : reads) {
+      Objects.requireNonNull(read, "read");
+      if (read.buffer().hasRemaining()) {
+        sorted.add(read);
+      }
+    }
+    sorted.sort(BY_OFFSET);
+
+    ByteBuffer scratch = null;
+    var total = 0L;
+    var first = 0;
+    while (first < sorted.size()) {
+      final var head = sorted.get(first);
+      final var start = head.offset();
+      var end = start + head.buffer().remaining();
+
+      var last = first + 1;
+      while (last < sorted.size()) {
+        final var next = sorted.get(last);
+        final var nextEnd =
+          Math.max(end, next.offset() + next.buffer().remaining());
+        if (next.offset() - end > this.gapThreshold) {
+          break;
+        }
+        if (nextEnd - start > this.maxReadSize) {
+          break;
+        }
+        end = nextEnd;
+        ++last;
+      }
+
+      if (last == first + 1) {
+        final var buffer = head.buffer();
+        final var read = readFully(channel, buffer.slice(), start);
+        buffer.position(buffer.position() + read);
+        total += read;
+      } else {
+        final var length = (int) (end - start);
+        if (scratch == null || scratch.capacity() < length) {
+          scratch = ByteBuffer.allocate(length);
+        }
+        scratch.clear().limit(length);
+        final var available = readFully(channel, scratch, start);
+        total += scatter(sorted.subList(first, last), scratch, start, available);
+      }
+      first = last;
+    }
+    return total;
+  }
+
+  /**
+   * Copy the {@code available} bytes of {@code scratch}, which were read
+   * from {@code start}, into the buffers of the given reads.
+   */
+
+  private static long scatter(
+    final List<BatchedRead> reads,
+    final ByteBuffer scratch,
+    final long start,
+    final int available)
+  {
+    var total = 0L;
+    for (final var read : reads) {
+      final var buffer = read.buffer();
+      final var offset = (int) (read.offset() - start);
+      final var count =
+        Math.max(0, Math.min(buffer.remaining(), available - offset));
+
+      buffer.put(buffer.position(), scratch, offset, count);
+      buffer.position(buffer.position() + count);
+      total += count;
+    }
+    return total;
+  }
+
+  /**
+   * Read until {@code buffer} is full or the end of the channel is reached.
+   * A blocking channel that reads nothing would otherwise be retried
+   * forever, so it is treated as an error.
+   */
+
+  private static int readFully(
+    final SeekableByteChannel channel,
+    final ByteBuffer buffer,
+    final long position)
+    throws IOException
+  {
+    while (buffer.hasRemaining()) {
+      final var at = position + buffer.position();
+      final var r = PositionalIO.read(channel, buffer, at);
+      if (r == -1) {
+        break;
+      }
+      if (r == 0) {
+        throw new IOException(
+          "Channel read no bytes at position %s"
+            .formatted(Long.toUnsignedString(at))
+        );
+      }
+    }
+    return buffer.position();
+  }
+}
@@ -0,0 +1,54 @@
+/*
+ * Copyright © 2026 Mark Raynsford <code@io7m.com> https://www.io7m.com
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY
+ * SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF OR
+ * IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+
+package com.io7m.wendover.core;
+
+import java.nio.ByteBuffer;
+import java.util.Objects;
+
+/**
+ * A single read in a batch of reads. The bytes at {@code offset} are read
+ * into the remaining space of {@code buffer}.
+ *
+ * @param offset The absolute offset in the channel
+ * @param buffer The destination buffer
+ *
+ * @see BatchedRangeReader
+ * @since 1.2.0
+ */
+
+public record BatchedRead(
+  long offset,
+  ByteBuffer buffer)
+{
+  /**
+   * A single read in a batch of reads.
+   *
+   * @param offset The absolute offset in the channel
+   * @param buffer The destination buffer
+   */
+
+  public BatchedRead
+  {
+    Objects.requireNonNull(buffer, "buffer");
+
+    if (offset < 0L) {
+      throw new IllegalArgumentException(
+        "Offset %d must be non-negative".formatted(Long.valueOf(offset))
+      );
+    }
+  }
+}
@@ -0,0 +1,353 @@
+/*
+ * Copyright © 2026 Mark Raynsford <code@io7m.com> https://www.io7m.com
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY
+ * SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF OR
+ * IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+
+package com.io7m.wendover.core;
+
+import com.io7m.wendover.core.internal.ChannelLists;
+import com.io7m.wendover.core.internal.PositionalIO;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channel;
+import java.nio.channels.SeekableByteChannel;
+import java.util.Objects;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.zip.CRC32C;
+
+import static com.io7m.wendover.core.internal.Unsigned.minUnsigned;
+import static java.lang.Integer.toUnsignedLong;
+
+/**
+ * <p>
+ * A seekable byte channel that maintains a CRC32C checksum for each
+ * fixed-size block of the delegate channel, and verifies the checksums of
+ * the blocks touched by each read.
+ * </p>
+ * <p>
+ * The checksums are stored in a separate channel as one big-endian
+ * 32-bit value per block; the checksum of block {@code b} is stored at
+ * offset {@code 4 * b}. The final block of the delegate channel may be
+ * shorter than the block size, in which case its checksum covers only the
+ * bytes present. Writes and truncation update the stored checksums of the
+ * blocks they touch. Reads from arbitrary positions only need to read and
+ * verify the blocks containing the requested bytes, and raise
+ * {@link ChecksumMismatchException} if any of those blocks are corrupt.
+ * </p>
+ * <p>
+ * Closing this channel closes both the delegate and checksum channels.
+ * </p>
+ *
+ * @since 1.2.0
+ */
+
+public final class BlockChecksummedSeekableByteChannel
+  extends DelegatingSeekableByteChannel
+{
+  private final SeekableByteChannel checksums;
+  private final int blockSize;
+  private final ReentrantLock lock;
+  private final ByteBuffer block;
+  private final ByteBuffer stored;
+  private final CRC32C crc;
+
+  /**
+   * A seekable byte channel that maintains a checksum for each block of the
+   * delegate channel.
+   *
+   * @param inDelegate  The delegate channel
+   * @param inChecksums The channel holding the checksums
+   * @param inBlockSize The size of blocks
+   */
+
+  public BlockChecksummedSeekableByteChannel(
+    final SeekableByteChannel inDelegate,
+    final SeekableByteChannel inChecksums,
+    final int inBlockSize)
+  {
+    super(inDelegate);
+
+    this.checksums =
+      Objects.requireNonNull(inChecksums, "checksums");
+
+    if (inBlockSize <= 0) {
+      throw new IllegalArgumentException(
+        "Block size %d must be positive"
+          .formatted(Integer.valueOf(inBlockSize))
+      );
+    }
+
+    this.blockSize = inBlockSize;
+    this.lock = new ReentrantLock();
+    this.block = ByteBuffer.allocate(inBlockSize);
+    this.stored = ByteBuffer.allocate(4);
+    this.crc = new CRC32C();
+  }
+
+  /**
+   * @return The size of blocks
+   */
+
+  public int blockSize()
+  {
+    return this.blockSize;
+  }
+
+  /**
+   * Read the given block of the delegate channel into the block buffer, and
+   * return its checksum.
+   */
+
+  private int loadBlock(
+    final long index,
+    final long dataSize)
+    throws IOException
+  {
+    final var offset = index * this.blockSize;
+    final var length =
+      (int) minUnsigned(toUnsignedLong(this.blockSize), dataSize - offset);
+
+    this.block.clear();
+    this.block.limit(length);
+    while (this.block.hasRemaining()) {
+      final var r =
+        PositionalIO.read(
+          this.delegate(), this.block, offset + this.block.position());
+      if (r == -1) {
+        throw new IOException(
+          "Unexpected end of channel in block %d"
+            .formatted(Long.valueOf(index))
+        );
+      }
+      if (r == 0) {
+        throw new IOException(
+          "Channel read no bytes in block %d"
+            .formatted(Long.valueOf(index))
+        );
+      }
+    }
+
+    this.block.flip();
+    this.crc.reset();
+    this.crc.update(this.block);
+    this.block.flip();
+    return (int) this.crc.getValue();
+  }
+
+  private void storeChecksum(
+    final long index,
+    final long dataSize)
+    throws IOException
+  {
+    final var value = this.loadBlock(index, dataSize);
+    this.stored.clear();
+    this.stored.putInt(0, value);
+    while (this.stored.hasRemaining()) {
+      final var w =
+        PositionalIO.write(
+          this.checksums, this.stored, index * 4L + this.stored.position());
+      if (w == 0) {
+        throw new IOException(
+          "Channel wrote no checksum bytes for block %d"
+            .formatted(Long.valueOf(index))
+        );
+      }
+    }
+  }
+
+  private void verifyBlock(
+    final long index,
+    final long dataSize)
+    throws IOException
+  {
+    final var received = this.loadBlock(index, dataSize);
+
+    this.stored.clear();
+    while (this.stored.hasRemaining()) {
+      final var r =
+        PositionalIO.read(
+          this.checksums, this.stored, index * 4L + this.stored.position());
+      if (r == -1) {
+        throw new IOException(
+          "No checksum is stored for block %d"
+            .formatted(Long.valueOf(index))
+        );
+      }
+      if (r == 0) {
+        throw new IOException(
+          "Channel read no checksum bytes for block %d"
+            .formatted(Long.valueOf(index))
+        );
+      }
+    }
+
+    final var expected = this.stored.getInt(0);
+    if (expected != received) {
+      throw new ChecksumMismatchException(index, expected, received);
+    }
+  }
+
+  /**
+   * Recompute and store the checksums of every block of the delegate
+   * channel. This is typically used to create the checksums for a channel
+   * that was written without them.
+   *
+   * @throws IOException On errors
+   */
+
+  public void rebuildChecksums()
+    throws IOException
+  {
+    this.lock.lock();
+    try {
+      final var dataSize = this.delegate().size();
+      final var count = (dataSize + this.blockSize - 1) / this.blockSize;
+      for (long index = 0L; index < count; ++index) {
+        this.storeChecksum(index, dataSize);
+      }
+      this.checksums.truncate(count * 4L);
+    } finally {
+      this.lock.unlock();
+    }
+  }
+
+  @Override
+  public int read(
+    final ByteBuffer dst)
+    throws IOException
+  {
+    this.lock.lock();
+    try {
+      final var delegate = this.delegate();
+      final var position = delegate.position();
+      final var dataSize = delegate.size();
+      if (Long.compareUnsigned(position, dataSize) >= 0) {
+        return -1;
+      }
+
+      final var toRead =
+        (int) minUnsigned(
+          dataSize - position,
+          toUnsignedLong(dst.remaining())
+        );
+
+      var done = 0;
+      while (done < toRead) {
+        final var index = (position + done) / this.blockSize;
+        final var offset = (int) ((position + done) % this.blockSize);
+        this.verifyBlock(index, dataSize);
+
+        final var count =
+          Math.min(this.block.remaining() - offset, toRead - done);
+        dst.put(this.block.array(), offset, count);
+        done += count;
+      }
+
+      delegate.position(position + done);
+      return done;
+    } finally {
+      this.lock.unlock();
+    }
+  }
+
+  @Override
+  public int write(
+    final ByteBuffer src)
+    throws IOException
+  {
+    this.lock.lock();
+    try {
+      final var delegate = this.delegate();
+      final var position = delegate.position();
+      final var oldSize = delegate.size();
+      final var wrote = delegate.write(src);
+
+      if (wrote > 0) {
+        final var dataSize = delegate.size();
+
+        /*
+         * A write beyond the end of the channel also changes the blocks
+         * between the old end and the start of the write.
+         */
+
+        final var first = minUnsigned(position, oldSize) / this.blockSize;
+        final var last = (position + wrote - 1) / this.blockSize;
+        for (long index = first; index <= last; ++index) {
+          this.storeChecksum(index, dataSize);
+        }
+      }
+      return wrote;
+    } finally {
+      this.lock.unlock();
+    }
+  }
+
+  @Override
+  public SeekableByteChannel truncate(
+    final long newSize)
+    throws IOException
+  {
+    this.lock.lock();
+    try {
+      final var delegate = this.delegate();
+      final var oldSize = delegate.size();
+      delegate.truncate(newSize);
+
+      if (Long.compareUnsigned(newSize, oldSize) < 0) {
+        final var count = (newSize + this.blockSize - 1) / this.blockSize;
+        this.checksums.truncate(count * 4L);
+        if (newSize % this.blockSize != 0L) {
+          this.storeChecksum(newSize / this.blockSize, newSize);
+        }
+      }
+      return this;
+    } finally {
+      this.lock.unlock();
+    }
+  }
+
+  @Override
+  public long position()
+    throws IOException
+  {
+    this.lock.lock();
+    try {
+      return super.position();
+    } finally {
+      this.lock.unlock();
+    }
+  }
+
+  @Override
+  public SeekableByteChannel position(
+    final long newPosition)
+    throws IOException
+  {
+    this.lock.lock();
+    try {
+      super.position(newPosition);
+      return this;
+    } finally {
+      this.lock.unlock();
+    }
+  }
+
+  @Override
+  public void close()
+    throws IOException
+  {
+    ChannelLists.closeAll(new Channel[]{this.delegate(), this.checksums});
+  }
+}
@@ -16,9 +16,12 @@
 
 package com.io7m.wendover.core;
 
+import com.io7m.wendover.core.internal.ByteBufferAsynchronousFileChannel;
 import com.io7m.wendover.core.internal.ByteBufferChannel;
 
+import java.io.IOException;
 import java.nio.ByteBuffer;
+import java.nio.channels.AsynchronousFileChannel;
 import java.nio.channels.SeekableByteChannel;
 import java.util.Objects;
 
@@ -47,4 +50,102 @@ public final class ByteBufferChannels
     Objects.requireNonNull(buffer, "buffer");
     return new ByteBufferChannel(buffer);
   }
+
+  /**
+   * <p>
+   * Create a new seekable byte channel backed by a newly allocated direct
+   * byte buffer of the given capacity. The channel owns the buffer: the
+   * native memory of the buffer is released when the channel is closed,
+   * rather than when the buffer is garbage collected.
+   * </p>
+   * <p>
+   * Closing the channel waits for any read or write in progress to finish
+   * before releasing the memory, and any subsequent attempt to read or
+   * write raises {@link java.nio.channels.ClosedChannelException}.
+   * </p>
+   *
+   * @param capacity The capacity in bytes
+   *
+   * @return A byte channel
+   *
+   * @since 1.2.0
+   */
+
+  public static SeekableByteChannel allocateDirect(
+    final int capacity)
+  {
+    return new ByteBufferChannel(ByteBuffer.allocateDirect(capacity), true);
+  }
+
+  /**
+   * <p>
+   * Return a read-only buffer containing at most {@code length} bytes
+   * starting at the current position of the channel, and advance the
+   * position of the channel by the number of bytes returned. The returned
+   * buffer is empty if the position is at or beyond the end of the channel.
+   * </p>
+   * <p>
+   * If the channel implements {@link SliceReadableChannelType} (as do the
+   * channels returned by {@link #ofByteBuffer(ByteBuffer)}), the returned
+   * buffer shares the memory of the channel where possible. Otherwise, the
+   * bytes are read into a newly allocated buffer.
+   * </p>
+   *
+   * @param channel The channel
+   * @param length  The maximum number of bytes
+   *
+   * @return A read-only buffer
+   *
+   * @throws IOException On errors
+   * @since 1.2.0
+   */
+
+  public static ByteBuffer readSlice(
+    final SeekableByteChannel channel,
+    final int length)
+    throws IOException
+  {
+    Objects.requireNonNull(channel, "channel");
+
+    if (channel instanceof SliceReadableChannelType slices) {
+      return slices.readSlice(length);
+    }
+
+    if (length < 0) {
+      throw new IllegalArgumentException(
+        "Length %d must be non-negative".formatted(Integer.valueOf(length))
+      );
+    }
+
+    final var available =
+      Math.max(0L, channel.size() - channel.position());
+    final var buffer =
+      ByteBuffer.allocate((int) Math.min(available, length));
+
+    while (buffer.hasRemaining()) {
+      if (channel.read(buffer) == -1) {
+        break;
+      }
+    }
+    return buffer.flip().asReadOnlyBuffer();
+  }
+
+  /**
+   * Create a new asynchronous file channel from the given byte buffer. As
+   * the data is already in memory, operations on the returned channel
+   * complete immediately on the calling thread.
+   *
+   * @param buffer The byte buffer
+   *
+   * @return An asynchronous file channel
+   *
+   * @since 1.2.0
+   */
+
+  public static AsynchronousFileChannel ofByteBufferAsynchronous(
+    final ByteBuffer buffer)
+  {
+    Objects.requireNonNull(buffer, "buffer");
+    return new ByteBufferAsynchronousFileChannel(buffer);
+  }
 }
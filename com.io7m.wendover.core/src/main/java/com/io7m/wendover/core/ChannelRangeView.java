@@ -0,0 +1,191 @@
+/*
+ * Copyright © 2026 Mark Raynsford <code@io7m.com> https://www.io7m.com
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY
+ * SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF OR
+ * IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+
+package com.io7m.wendover.core;
+
+import com.io7m.wendover.core.internal.PositionalIO;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.SeekableByteChannel;
+import java.util.Objects;
+
+import static com.io7m.wendover.core.internal.Unsigned.checkRange;
+import static com.io7m.wendover.core.internal.Unsigned.intersectLength;
+import static java.lang.Integer.toUnsignedLong;
+
+/**
+ * <p>
+ * An immutable view of a range of a channel.
+ * </p>
+ * <p>
+ * A view holds only the channel, an offset, and a length. Views can be
+ * sliced into smaller views without limit, each slice being created with
+ * offset arithmetic alone, and so very large numbers of views over a single
+ * channel are cheap to create and hold. A view never owns the channel: the
+ * channel must be closed separately, after which reads of any view over it
+ * will fail.
+ * </p>
+ * <p>
+ * Views are read either with {@link #read(ByteBuffer, long)}, which uses
+ * an absolute position within the view, or with a cursor created on
+ * demand by {@link #openCursor()}. As with {@link SubrangeSeekableByteChannel},
+ * views over a {@link java.nio.channels.FileChannel} or over a channel
+ * created by {@link ByteBufferChannels#ofByteBuffer(ByteBuffer)} may be
+ * read concurrently, whereas views over any other channel must not be read
+ * by more than one thread at a time.
+ * </p>
+ *
+ * @param channel The channel
+ * @param offset  The offset of the view within the channel
+ * @param length  The number of bytes in the view
+ *
+ * @since 1.2.0
+ */
+
+public record ChannelRangeView(
+  SeekableByteChannel channel,
+  long offset,
+  long length)
+{
+  /**
+   * An immutable view of a range of a channel.
+   *
+   * @param channel The channel
+   * @param offset  The offset of the view within the channel
+   * @param length  The number of bytes in the view
+   */
+
+  public ChannelRangeView
+  {
+    Objects.requireNonNull(channel, "channel");
+    checkRange(offset, length);
+  }
+
+  /**
+   * Create a view of the whole of a channel, at its current size.
+   *
+   * @param channel The channel
+   *
+   * @return A view
+   *
+   * @throws IOException On errors obtaining the size of the channel
+   */
+
+  public static ChannelRangeView of(
+    final SeekableByteChannel channel)
+    throws IOException
+  {
+    return new ChannelRangeView(channel, 0L, channel.size());
+  }
+
+  /**
+   * Create a view of a range of this view.
+   *
+   * @param sliceOffset The offset of the range within this view
+   * @param sliceLength The number of bytes in the range
+   *
+   * @return A view
+   *
+   * @throws IllegalArgumentException If the range does not lie within
+   *                                  this view
+   */
+
+  public ChannelRangeView slice(
+    final long sliceOffset,
+    final long sliceLength)
+  {
+    if (sliceOffset < 0L
+        || sliceLength < 0L
+        || sliceOffset > this.length - sliceLength) {
+      throw new IllegalArgumentException(
+        "Range at offset %d of length %d is outside a view of length %d"
+          .formatted(
+            Long.valueOf(sliceOffset),
+            Long.valueOf(sliceLength),
+            Long.valueOf(this.length))
+      );
+    }
+    return new ChannelRangeView(
+      this.channel,
+      this.offset + sliceOffset,
+      sliceLength
+    );
+  }
+
+  /**
+   * Read from the view at the given position within the view, without
+   * modifying any state. At most the number of bytes between the position
+   * and the end of the view are read.
+   *
+   * @param dst      The destination buffer
+   * @param position The position within the view
+   *
+   * @return The number of bytes read, or {@code -1} if the position is at
+   * or beyond the end of the view
+   *
+   * @throws IOException On errors
+   */
+
+  public int read(
+    final ByteBuffer dst,
+    final long position)
+    throws IOException
+  {
+    Objects.requireNonNull(dst, "dst");
+
+    if (position < 0L) {
+      throw new IllegalArgumentException(
+        "Position %d must be non-negative".formatted(Long.valueOf(position))
+      );
+    }
+    if (position >= this.length) {
+      return -1;
+    }
+
+    final var toRead =
+      intersectLength(position, toUnsignedLong(dst.remaining()), this.length);
+
+    final var oldLimit = dst.limit();
+    try {
+      dst.limit(dst.position() + (int) toRead);
+      return PositionalIO.read(this.channel, dst, this.offset + position);
+    } finally {
+      dst.limit(oldLimit);
+    }
+  }
+
+  /**
+   * Open a cursor over this view. The cursor is a channel with its own
+   * position, starting at zero. Closing the cursor does not close the
+   * underlying channel.
+   *
+   * @return A new cursor
+   */
+
+  public SeekableByteChannel openCursor()
+  {
+    return new SubrangeSeekableByteChannel(
+      this.channel,
+      this.offset,
+      this.length,
+      context -> {
+
+      },
+      false
+    );
+  }
+}
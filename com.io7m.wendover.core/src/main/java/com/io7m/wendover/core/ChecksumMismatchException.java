@@ -0,0 +1,88 @@
+/*
+ * Copyright © 2026 Mark Raynsford <code@io7m.com> https://www.io7m.com
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY
+ * SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF OR
+ * IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+
+package com.io7m.wendover.core;
+
+import java.io.IOException;
+
+/**
+ * An exception raised when data read from a channel does not match its
+ * stored checksum.
+ *
+ * @see BlockChecksummedSeekableByteChannel
+ * @see ChecksummingSeekableByteChannel#verifyRead(int)
+ * @since 1.2.0
+ */
+
+public final class ChecksumMismatchException extends IOException
+{
+  private final long block;
+  private final int expected;
+  private final int received;
+
+  /**
+   * An exception raised when data read from a channel does not match its
+   * stored checksum.
+   *
+   * @param inBlock    The index of the block
+   * @param inExpected The stored checksum
+   * @param inReceived The checksum of the data that was read
+   */
+
+  public ChecksumMismatchException(
+    final long inBlock,
+    final int inExpected,
+    final int inReceived)
+  {
+    super(
+      "Checksum mismatch for block %d (expected %08x, received %08x)"
+        .formatted(
+          Long.valueOf(inBlock),
+          Integer.valueOf(inExpected),
+          Integer.valueOf(inReceived))
+    );
+    this.block = inBlock;
+    this.expected = inExpected;
+    this.received = inReceived;
+  }
+
+  /**
+   * @return The index of the block
+   */
+
+  public long block()
+  {
+    return this.block;
+  }
+
+  /**
+   * @return The stored checksum
+   */
+
+  public int expected()
+  {
+    return this.expected;
+  }
+
+  /**
+   * @return The checksum of the data that was read
+   */
+
+  public int received()
+  {
+    return this.received;
+  }
+}
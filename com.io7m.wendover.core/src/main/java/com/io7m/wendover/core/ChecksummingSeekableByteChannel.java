@@ -0,0 +1,215 @@
+/*
+ * Copyright © 2026 Mark Raynsford <code@io7m.com> https://www.io7m.com
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY
+ * SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF OR
+ * IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+
+package com.io7m.wendover.core;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.SeekableByteChannel;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.zip.CRC32C;
+
+/**
+ * <p>
+ * A seekable byte channel that computes running CRC32C checksums over the
+ * bytes read from and written to the delegate channel, in the order in which
+ * they are transferred.
+ * </p>
+ * <p>
+ * This allows the checksum of data to be computed as it is read or written,
+ * rather than in a separate pass over the data. The checksums cover a
+ * contiguous run of bytes: moving the position of the channel anywhere
+ * other than its current position, including by truncating the channel
+ * below its position, resets both checksums, so that they then cover the
+ * bytes transferred from the new position onwards.
+ * </p>
+ *
+ * @since 1.2.0
+ */
+
+public final class ChecksummingSeekableByteChannel
+  extends DelegatingSeekableByteChannel
+{
+  private final ReentrantLock lock;
+  private final CRC32C checksumRead;
+  private final CRC32C checksumWritten;
+
+  /**
+   * A seekable byte channel that computes running CRC32C checksums.
+   *
+   * @param inDelegate The delegate channel
+   */
+
+  public ChecksummingSeekableByteChannel(
+    final SeekableByteChannel inDelegate)
+  {
+    super(inDelegate);
+    this.lock = new ReentrantLock();
+    this.checksumRead = new CRC32C();
+    this.checksumWritten = new CRC32C();
+  }
+
+  /**
+   * Update the checksum with the bytes in {@code [start, buffer.position())}.
+   */
+
+  private static void update(
+    final CRC32C checksum,
+    final ByteBuffer buffer,
+    final int start)
+  {
+    final var view = buffer.duplicate();
+    view.limit(buffer.position());
+    view.position(start);
+    checksum.update(view);
+  }
+
+  @Override
+  public int read(
+    final ByteBuffer dst)
+    throws IOException
+  {
+    this.lock.lock();
+    try {
+      final var start = dst.position();
+      final var read = super.read(dst);
+      if (read > 0) {
+        update(this.checksumRead, dst, start);
+      }
+      return read;
+    } finally {
+      this.lock.unlock();
+    }
+  }
+
+  @Override
+  public int write(
+    final ByteBuffer src)
+    throws IOException
+  {
+    this.lock.lock();
+    try {
+      final var start = src.position();
+      final var wrote = super.write(src);
+      if (wrote > 0) {
+        update(this.checksumWritten, src, start);
+      }
+      return wrote;
+    } finally {
+      this.lock.unlock();
+    }
+  }
+
+  @Override
+  public SeekableByteChannel position(
+    final long newPosition)
+    throws IOException
+  {
+    this.lock.lock();
+    try {
+      if (super.position() != newPosition) {
+        super.position(newPosition);
+        this.checksumRead.reset();
+        this.checksumWritten.reset();
+      }
+      return this;
+    } finally {
+      this.lock.unlock();
+    }
+  }
+
+  @Override
+  public SeekableByteChannel truncate(
+    final long size)
+    throws IOException
+  {
+    this.lock.lock();
+    try {
+      final var position = super.position();
+      super.truncate(size);
+      if (super.position() != position) {
+        this.checksumRead.reset();
+        this.checksumWritten.reset();
+      }
+      return this;
+    } finally {
+      this.lock.unlock();
+    }
+  }
+
+  /**
+   * Check that the checksum of the bytes read so far matches the expected
+   * checksum. The bytes read are treated as a single block with index
+   * {@code 0}.
+   *
+   * @param expected The expected checksum
+   *
+   * @throws ChecksumMismatchException If the checksums do not match
+   */
+
+  public void verifyRead(
+    final int expected)
+    throws ChecksumMismatchException
+  {
+    final var received = this.checksumRead();
+    if (received != expected) {
+      throw new ChecksumMismatchException(0L, expected, received);
+    }
+  }
+
+  /**
+   * @return The CRC32C checksum of all bytes read so far
+   */
+
+  public int checksumRead()
+  {
+    this.lock.lock();
+    try {
+      return (int) this.checksumRead.getValue();
+    } finally {
+      this.lock.unlock();
+    }
+  }
+
+  /**
+   * @return The CRC32C checksum of all bytes written so far
+   */
+
+  public int checksumWritten()
+  {
+    this.lock.lock();
+    try {
+      return (int) this.checksumWritten.getValue();
+    } finally {
+      this.lock.unlock();
+    }
+  }
+
+  /**
+   * Reset both checksums to their initial values.
+   */
+
+  public void resetChecksums()
+  {
+    this.lock.lock();
+    try {
+      this.checksumRead.reset();
+      this.checksumWritten.reset();
+    } finally {
+      this.lock.unlock();
+    }
+  }
+}
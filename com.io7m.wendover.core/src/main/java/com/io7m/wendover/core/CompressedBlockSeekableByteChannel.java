@@ -0,0 +1,342 @@
+/*
+ * Copyright © 2026 Mark Raynsford <code@io7m.com> https://www.io7m.com
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY
+ * SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF OR
+ * IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+
+package com.io7m.wendover.core;
+
+import com.io7m.wendover.core.internal.AbstractLockingChannel;
+import com.io7m.wendover.core.internal.PositionalIO;
+
+import java.io.EOFException;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.NonWritableChannelException;
+import java.nio.channels.SeekableByteChannel;
+import java.util.Objects;
+import java.util.zip.DataFormatException;
+import java.util.zip.Inflater;
+
+import static com.io7m.wendover.core.CompressedBlockWritableChannel.MAGIC;
+import static com.io7m.wendover.core.CompressedBlockWritableChannel.TRAILER_SIZE;
+import static com.io7m.wendover.core.internal.Unsigned.minUnsigned;
+import static java.lang.Integer.toUnsignedLong;
+
+/**
+ * <p>
+ * A read-only seekable byte channel that decompresses data written by
+ * {@link CompressedBlockWritableChannel}.
+ * </p>
+ * <p>
+ * The block index is read when the channel is created. Because every block
+ * except the last has the same uncompressed size, the block containing any
+ * position is found directly, and only that block needs to be decompressed
+ * to read from it. The most recently decompressed block is retained, so
+ * sequential reads decompress each block once. Closing this channel closes
+ * the delegate channel.
+ * </p>
+ *
+ * @since 1.2.0
+ */
+
+public final class CompressedBlockSeekableByteChannel
+  extends AbstractLockingChannel
+{
+  private static final int FRAME_HEADER_SIZE = 8;
+
+  private final SeekableByteChannel delegate;
+  private final Inflater inflater;
+  private final long[] offsets;
+  private final int blockSize;
+  private final long size;
+  private final byte[] block;
+  private byte[] compressed;
+  private long blockLoaded;
+  private int blockLength;
+  private long position;
+
+  /**
+   * A read-only seekable byte channel that decompresses data.
+   *
+   * @param inDelegate The delegate channel
+   *
+   * @throws IOException On errors reading the index, or if the delegate
+   *                     channel does not contain compressed blocks
+   */
+
+  public CompressedBlockSeekableByteChannel(
+    final SeekableByteChannel inDelegate)
+    throws IOException
+  {
+    this.delegate =
+      Objects.requireNonNull(inDelegate, "delegate");
+
+    final var delegateSize = inDelegate.size();
+    if (delegateSize < TRAILER_SIZE) {
+      throw new IOException("Channel is too small to contain a trailer");
+    }
+
+    final var trailer = ByteBuffer.allocate(TRAILER_SIZE);
+    readFully(inDelegate, trailer, delegateSize - TRAILER_SIZE);
+    final var indexOffset = trailer.getLong(0);
+    final var blockCount = trailer.getLong(8);
+    final var inBlockSize = trailer.getInt(16);
+    final var inSize = trailer.getLong(20);
+    final var magic = trailer.getInt(28);
+
+    if (magic != MAGIC) {
+      throw new IOException(
+        "Unrecognized magic number %08x".formatted(Integer.valueOf(magic))
+      );
+    }
+    if (inBlockSize <= 0 || inSize < 0L) {
+      throw new IOException("Corrupt trailer");
+    }
+    if ((inSize + inBlockSize - 1) / inBlockSize != blockCount) {
+      throw new IOException("Corrupt trailer");
+    }
+    if (indexOffset + blockCount * 8L != delegateSize - TRAILER_SIZE) {
+      throw new IOException("Corrupt trailer");
+    }
+
+    final var index =
+      ByteBuffer.allocate(Math.toIntExact(blockCount * 8L));
+    readFully(inDelegate, index, indexOffset);
+
+    this.offsets = new long[(int) blockCount];
+    for (int i = 0; i < this.offsets.length; ++i) {
+      this.offsets[i] = index.getLong(i * 8);
+    }
+
+    this.blockSize = inBlockSize;
+    this.size = inSize;
+    this.inflater = new Inflater();
+    this.block = new byte[inBlockSize];
+    this.compressed = new byte[inBlockSize];
+    this.blockLoaded = -1L;
+    this.blockLength = 0;
+    this.position = 0L;
+  }
+
+  private static void readFully(
+    final SeekableByteChannel channel,
+    final ByteBuffer buffer,
+    final long offset)
+    throws IOException
+  {
+    while (buffer.hasRemaining()) {
+      final var at = offset + buffer.position();
+      final var r = PositionalIO.read(channel, buffer, at);
+      if (r == -1) {
+        throw new EOFException();
+      }
+      if (r == 0) {
+        throw new IOException(
+          "Channel read no bytes at position %s"
+            .formatted(Long.toUnsignedString(at))
+        );
+      }
+    }
+  }
+
+  /**
+   * @return The uncompressed size of blocks
+   */
+
+  public int blockSize()
+  {
+    return this.blockSize;
+  }
+
+  private void loadBlock(
+    final long index)
+    throws IOException
+  {
+    if (this.blockLoaded == index) {
+      return;
+    }
+    this.blockLoaded = -1L;
+
+    final var offset = this.offsets[(int) index];
+    final var header = ByteBuffer.allocate(FRAME_HEADER_SIZE);
+    readFully(this.delegate, header, offset);
+    final var length = header.getInt(0);
+    final var compressedLength = header.getInt(4);
+    if (length <= 0 || length > this.blockSize || compressedLength < 0) {
+      throw new IOException(
+        "Corrupt frame header for block %d".formatted(Long.valueOf(index))
+      );
+    }
+
+    if (compressedLength > this.compressed.length) {
+      this.compressed = new byte[compressedLength];
+    }
+    readFully(
+      this.delegate,
+      ByteBuffer.wrap(this.compressed, 0, compressedLength),
+      offset + FRAME_HEADER_SIZE
+    );
+
+    this.inflate(index, compressedLength, length);
+
+    this.blockLength = length;
+    this.blockLoaded = index;
+  }
+
+  private void inflate(
+    final long index,
+    final int compressedLength,
+    final int length)
+    throws IOException
+  {
+    this.inflater.reset();
+    this.inflater.setInput(this.compressed, 0, compressedLength);
+
+    var produced = 0;
+    try {
+      while (produced < length && !this.inflater.finished()) {
+        final var r =
+          this.inflater.inflate(this.block, produced, length - produced);
+        if (r == 0
+            && (this.inflater.needsInput() || this.inflater.needsDictionary())) {
+          break;
+        }
+        produced += r;
+      }
+    } catch (final DataFormatException e) {
+      throw new IOException(e);
+    }
+
+    if (produced != length) {
+      throw new IOException(
+        "Block %d decompressed to %d bytes, expected %d"
+          .formatted(
+            Long.valueOf(index),
+            Integer.valueOf(produced),
+            Integer.valueOf(length))
+      );
+    }
+  }
+
+  @Override
+  public int read(
+    final ByteBuffer dst)
+    throws IOException
+  {
+    this.checkIsOpen();
+
+    return this.<Integer>withStateModificationLock(() -> {
+      /*
+       * The inflater is ended by close() with the lock held, so the channel
+       * must be checked again now that the lock is held.
+       */
+
+      this.checkIsOpen();
+
+      if (Long.compareUnsigned(this.position, this.size) >= 0) {
+        return Integer.valueOf(-1);
+      }
+
+      final var toRead =
+        (int) minUnsigned(
+          this.size - this.position,
+          toUnsignedLong(dst.remaining())
+        );
+
+      var done = 0;
+      while (done < toRead) {
+        final var index = this.position / this.blockSize;
+        final var offset = (int) (this.position % this.blockSize);
+        this.loadBlock(index);
+
+        final var count = Math.min(this.blockLength - offset, toRead - done);
+        if (count <= 0) {
+          throw new IOException(
+            "Block %d is shorter than expected".formatted(Long.valueOf(index))
+          );
+        }
+        dst.put(this.block, offset, count);
+        done += count;
+        this.position += count;
+      }
+      return Integer.valueOf(done);
+    }).intValue();
+  }
+
+  @Override
+  public int write(
+    final ByteBuffer src)
+  {
+    throw new NonWritableChannelException();
+  }
+
+  @Override
+  public long position()
+  {
+    return this.readStateOptimistically(() -> this.position);
+  }
+
+  @Override
+  public SeekableByteChannel position(
+    final long newPosition)
+    throws IOException
+  {
+    if (newPosition < 0L) {
+      throw new IllegalArgumentException(
+        "Position %d must be non-negative"
+          .formatted(Long.valueOf(newPosition))
+      );
+    }
+
+    return this.withStateModificationLock(() -> {
+      this.position = newPosition;
+      return this;
+    });
+  }
+
+  @Override
+  public long size()
+  {
+    return this.size;
+  }
+
+  @Override
+  public SeekableByteChannel truncate(
+    final long newSize)
+  {
+    throw new NonWritableChannelException();
+  }
+
+  @Override
+  public boolean isOpen()
+  {
+    return !this.isMarkedClosed();
+  }
+
+  @Override
+  public void close()
+    throws IOException
+  {
+    if (this.markClosed()) {
+      try {
+        this.withStateModificationLock(() -> {
+          this.inflater.end();
+          return null;
+        });
+      } finally {
+        this.delegate.close();
+      }
+    }
+  }
+}
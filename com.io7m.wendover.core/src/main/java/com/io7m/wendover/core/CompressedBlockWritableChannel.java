@@ -0,0 +1,252 @@
+/*
+ * Copyright © 2026 Mark Raynsford <code@io7m.com> https://www.io7m.com
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY
+ * SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF OR
+ * IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+
+package com.io7m.wendover.core;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.ClosedChannelException;
+import java.nio.channels.WritableByteChannel;
+import java.util.Arrays;
+import java.util.Objects;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.zip.Deflater;
+
+/**
+ * <p>
+ * A writable channel that compresses data in independently compressed
+ * blocks, and writes a block index so that the data can be read back with
+ * random access using {@link CompressedBlockSeekableByteChannel}.
+ * </p>
+ * <p>
+ * Data written to this channel is divided into blocks of a fixed
+ * uncompressed size, each of which is compressed with {@link Deflater} and
+ * written to the delegate channel as a frame consisting of the big-endian
+ * 32-bit uncompressed length, the big-endian 32-bit compressed length, and
+ * the compressed bytes. Only the final block may be shorter than the block
+ * size. Closing the channel writes the final block, then the index (the
+ * big-endian 64-bit offset of each frame), then a trailer of
+ * {@value #TRAILER_SIZE} bytes: the offset of the index, the number of
+ * blocks, the block size, the total uncompressed size, and the magic number
+ * {@code 0x57444642}. The delegate channel is then closed.
+ * </p>
+ *
+ * @since 1.2.0
+ */
+
+public final class CompressedBlockWritableChannel
+  implements WritableByteChannel
+{
+  /**
+   * The magic number that ends every stream.
+   */
+
+  public static final int MAGIC = 0x57444642;
+
+  /**
+   * The size of the trailer in bytes.
+   */
+
+  public static final int TRAILER_SIZE = 32;
+
+  private static final int FRAME_HEADER_SIZE = 8;
+
+  private final WritableByteChannel delegate;
+  private final int blockSize;
+  private final Deflater deflater;
+  private final ReentrantLock lock;
+  private final ByteBuffer block;
+  private byte[] compressed;
+  private long[] offsets;
+  private long blockCount;
+  private long written;
+  private long uncompressedSize;
+  private boolean closed;
+
+  /**
+   * A writable channel that compresses data in independently compressed
+   * blocks.
+   *
+   * @param inDelegate  The delegate channel
+   * @param inBlockSize The uncompressed size of blocks
+   * @param inLevel     The compression level, in the range accepted by
+   *                    {@link Deflater#setLevel(int)}
+   */
+
+  public CompressedBlockWritableChannel(
+    final WritableByteChannel inDelegate,
+    final int inBlockSize,
+    final int inLevel)
+  {
+    this.delegate =
+      Objects.requireNonNull(inDelegate, "delegate");
+
+    if (inBlockSize <= 0) {
+      throw new IllegalArgumentException(
+        "Block size %d must be positive"
+          .formatted(Integer.valueOf(inBlockSize))
+      );
+    }
+
+    this.blockSize = inBlockSize;
+    this.deflater = new Deflater(inLevel);
+    this.lock = new ReentrantLock();
+    this.block = ByteBuffer.allocate(inBlockSize);
+    this.compressed = new byte[inBlockSize];
+    this.offsets = new long[16];
+    this.blockCount = 0L;
+    this.written = 0L;
+    this.uncompressedSize = 0L;
+    this.closed = false;
+  }
+
+  /**
+   * @return The uncompressed size of blocks
+   */
+
+  public int blockSize()
+  {
+    return this.blockSize;
+  }
+
+  @Override
+  public int write(
+    final ByteBuffer src)
+    throws IOException
+  {
+    this.lock.lock();
+    try {
+      if (this.closed) {
+        throw new ClosedChannelException();
+      }
+
+      final var total = src.remaining();
+      while (src.hasRemaining()) {
+        final var count = Math.min(src.remaining(), this.block.remaining());
+        this.block.put(this.block.position(), src, src.position(), count);
+        this.block.position(this.block.position() + count);
+        src.position(src.position() + count);
+
+        if (!this.block.hasRemaining()) {
+          this.writeBlock();
+        }
+      }
+      this.uncompressedSize += total;
+      return total;
+    } finally {
+      this.lock.unlock();
+    }
+  }
+
+  private void writeBlock()
+    throws IOException
+  {
+    final var length = this.block.position();
+
+    this.deflater.reset();
+    this.deflater.setInput(this.block.array(), 0, length);
+    this.deflater.finish();
+
+    var compressedLength = 0;
+    while (!this.deflater.finished()) {
+      if (compressedLength == this.compressed.length) {
+        this.compressed =
+          Arrays.copyOf(this.compressed, this.compressed.length * 2);
+      }
+      compressedLength += this.deflater.deflate(
+        this.compressed,
+        compressedLength,
+        this.compressed.length - compressedLength
+      );
+    }
+
+    if (this.blockCount == this.offsets.length) {
+      this.offsets = Arrays.copyOf(this.offsets, this.offsets.length * 2);
+    }
+    this.offsets[(int) this.blockCount] = this.written;
+    ++this.blockCount;
+
+    final var header = ByteBuffer.allocate(FRAME_HEADER_SIZE);
+    header.putInt(length);
+    header.putInt(compressedLength);
+    header.flip();
+    this.writeFully(header);
+    this.writeFully(ByteBuffer.wrap(this.compressed, 0, compressedLength));
+    this.block.clear();
+  }
+
+  private void writeFully(
+    final ByteBuffer buffer)
+    throws IOException
+  {
+    while (buffer.hasRemaining()) {
+      this.written += this.delegate.write(buffer);
+    }
+  }
+
+  @Override
+  public boolean isOpen()
+  {
+    this.lock.lock();
+    try {
+      return !this.closed;
+    } finally {
+      this.lock.unlock();
+    }
+  }
+
+  @Override
+  public void close()
+    throws IOException
+  {
+    this.lock.lock();
+    try {
+      if (this.closed) {
+        return;
+      }
+      this.closed = true;
+
+      try {
+        if (this.block.position() > 0) {
+          this.writeBlock();
+        }
+
+        final var indexOffset = this.written;
+        final var index =
+          ByteBuffer.allocate(Math.toIntExact(this.blockCount * 8L));
+        for (int i = 0; i < this.blockCount; ++i) {
+          index.putLong(this.offsets[i]);
+        }
+        index.flip();
+        this.writeFully(index);
+
+        final var trailer = ByteBuffer.allocate(TRAILER_SIZE);
+        trailer.putLong(indexOffset);
+        trailer.putLong(this.blockCount);
+        trailer.putInt(this.blockSize);
+        trailer.putLong(this.uncompressedSize);
+        trailer.putInt(MAGIC);
+        trailer.flip();
+        this.writeFully(trailer);
+      } finally {
+        this.deflater.end();
+        this.delegate.close();
+      }
+    } finally {
+      this.lock.unlock();
+    }
+  }
+}
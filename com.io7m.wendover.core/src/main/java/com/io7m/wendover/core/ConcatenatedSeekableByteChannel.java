@@ -0,0 +1,248 @@
+/*
+ * Copyright © 2026 Mark Raynsford <code@io7m.com> https://www.io7m.com
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY
+ * SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF OR
+ * IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+
+package com.io7m.wendover.core;
+
+import com.io7m.wendover.core.internal.AbstractLockingChannel;
+import com.io7m.wendover.core.internal.ChannelLists;
+import com.io7m.wendover.core.internal.PositionalIO;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.SeekableByteChannel;
+import java.util.List;
+import java.util.Objects;
+
+import static com.io7m.wendover.core.internal.Unsigned.addChecked;
+import static com.io7m.wendover.core.internal.Unsigned.intersectLength;
+import static com.io7m.wendover.core.internal.Unsigned.minUnsigned;
+import static java.lang.Integer.toUnsignedLong;
+
+/**
+ * <p>
+ * A seekable byte channel that presents an ordered list of channels as a
+ * single contiguous channel.
+ * </p>
+ * <p>
+ * The sizes of the delegate channels are captured when the channel is
+ * created; the delegates are not expected to change size afterwards. The
+ * delegate containing a given position is located with a binary search
+ * over the offsets at which each delegate starts. Reads and writes may span
+ * the boundaries between delegates. Closing this channel closes all of the
+ * delegates.
+ * </p>
+ *
+ * @since 1.2.0
+ */
+
+public final class ConcatenatedSeekableByteChannel
+  extends AbstractLockingChannel
+{
+  private final SeekableByteChannel[] delegates;
+  private final long[] starts;
+  private long position;
+
+  /**
+   * A seekable byte channel that presents an ordered list of channels as a
+   * single contiguous channel.
+   *
+   * @param inDelegates The delegate channels
+   *
+   * @throws IOException On errors obtaining the sizes of the delegates
+   */
+
+  public ConcatenatedSeekableByteChannel(
+    final List<? extends SeekableByteChannel> inDelegates)
+    throws IOException
+  {
+    Objects.requireNonNull(inDelegates, "delegates");
+
+    this.delegates = new SeekableByteChannel[inDelegates.size()];
+    this.starts = new long[inDelegates.size() + 1];
+
+    var offset = 0L;
+    for (int index = 0; index < this.delegates.length; ++index) {
+      final var delegate =
+        Objects.requireNonNull(inDelegates.get(index), "delegate");
+      this.delegates[index] = delegate;
+      this.starts[index] = offset;
+      offset = addChecked(offset, delegate.size());
+    }
+
+    this.starts[this.delegates.length] = offset;
+    this.position = 0L;
+  }
+
+  /**
+   * Find the index of the delegate containing {@code target}. This is the
+   * last delegate whose start offset is not greater than {@code target}, and
+   * so empty delegates are skipped naturally.
+   */
+
+  private int delegateFor(
+    final long target)
+  {
+    var low = 0;
+    var high = this.delegates.length - 1;
+    while (low < high) {
+      final var middle = (low + high + 1) >>> 1;
+      if (this.starts[middle] <= target) {
+        low = middle;
+      } else {
+        high = middle - 1;
+      }
+    }
+    return low;
+  }
+
+  private long limit()
+  {
+    return this.starts[this.delegates.length];
+  }
+
+  @Override
+  public int read(
+    final ByteBuffer dst)
+    throws IOException
+  {
+    this.checkIsOpen();
+
+    return this.<Integer>withStateModificationLock(() -> {
+      if (this.position >= this.limit()) {
+        return Integer.valueOf(-1);
+      }
+
+      var total = 0;
+      while (dst.hasRemaining() && this.position < this.limit()) {
+        final var r = this.transfer(dst, true);
+        if (r <= 0) {
+          if (total == 0 && r == -1) {
+            return Integer.valueOf(-1);
+          }
+          break;
+        }
+        total += r;
+      }
+      return Integer.valueOf(total);
+    }).intValue();
+  }
+
+  @Override
+  public int write(
+    final ByteBuffer src)
+    throws IOException
+  {
+    this.checkIsOpen();
+
+    return this.<Integer>withStateModificationLock(() -> {
+      var total = 0;
+      while (src.hasRemaining() && this.position < this.limit()) {
+        final var w = this.transfer(src, false);
+        if (w <= 0) {
+          break;
+        }
+        total += w;
+      }
+      return Integer.valueOf(total);
+    }).intValue();
+  }
+
+  /**
+   * Transfer data between the buffer and the delegate containing the
+   * current position, limited to the end of that delegate.
+   */
+
+  private int transfer(
+    final ByteBuffer buffer,
+    final boolean reading)
+    throws IOException
+  {
+    final var index =
+      this.delegateFor(this.position);
+    final var local =
+      this.position - this.starts[index];
+    final var size =
+      intersectLength(
+        this.position,
+        toUnsignedLong(buffer.remaining()),
+        this.starts[index + 1]
+      );
+
+    final var delegate = this.delegates[index];
+    final var oldLimit = buffer.limit();
+    final int count;
+    try {
+      buffer.limit(buffer.position() + Math.toIntExact(size));
+      if (reading) {
+        count = PositionalIO.read(delegate, buffer, local);
+      } else {
+        count = PositionalIO.write(delegate, buffer, local);
+      }
+    } finally {
+      buffer.limit(oldLimit);
+    }
+
+    if (count > 0) {
+      this.position += count;
+    }
+    return count;
+  }
+
+  @Override
+  public long position()
+  {
+    return this.readStateOptimistically(() -> this.position);
+  }
+
+  @Override
+  public SeekableByteChannel position(
+    final long newPosition)
+    throws IOException
+  {
+    return this.withStateModificationLock(() -> {
+      this.position = minUnsigned(newPosition, this.limit());
+      return this;
+    });
+  }
+
+  @Override
+  public long size()
+  {
+    return this.limit();
+  }
+
+  @Override
+  public SeekableByteChannel truncate(
+    final long size)
+  {
+    throw new UnsupportedOperationException();
+  }
+
+  @Override
+  public boolean isOpen()
+  {
+    return !this.isMarkedClosed();
+  }
+
+  @Override
+  public void close()
+    throws IOException
+  {
+    if (this.markClosed()) {
+      ChannelLists.closeAll(this.delegates);
+    }
+  }
+}
@@ -0,0 +1,457 @@
+/*
+ * Copyright © 2026 Mark Raynsford <code@io7m.com> https://www.io7m.com
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY
+ * SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF OR
+ * IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+
+package com.io7m.wendover.core;
+
+import com.io7m.wendover.core.internal.AbstractLockingChannel;
+import com.io7m.wendover.core.internal.PositionalIO;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.SeekableByteChannel;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Objects;
+import java.util.stream.LongStream;
+
+import static com.io7m.wendover.core.internal.Unsigned.maxUnsigned;
+import static com.io7m.wendover.core.internal.Unsigned.minUnsigned;
+import static com.io7m.wendover.core.internal.Unsigned.subtractSaturated;
+import static java.lang.Integer.toUnsignedLong;
+
+/**
+ * <p>
+ * A seekable byte channel that layers writes over a base channel that is
+ * never modified.
+ * </p>
+ * <p>
+ * The channel is divided into pages of a fixed size. The first write to a
+ * page copies the page from the base channel into an in-memory overlay, and
+ * the write is applied to the copy. Reads are served from the overlay for
+ * pages that have been written, and from the base channel otherwise. Any
+ * number of channels may share the same base channel, each holding only the
+ * pages it has written.
+ * </p>
+ * <p>
+ * The base channel is read using absolute reads where the base channel
+ * supports them (such as {@link java.nio.channels.FileChannel}), and so
+ * channels sharing a file channel as their base may be used concurrently.
+ * Otherwise, channels sharing the base channel must not be used
+ * concurrently. The base channel is never read while the lock of this
+ * channel is held, so a slow read of the base channel does not block other
+ * operations on this channel. Closing this channel discards the overlay
+ * but does not close the base channel.
+ * </p>
+ *
+ * @since 1.2.0
+ */
+
+public final class CopyOnWriteSeekableByteChannel
+  extends AbstractLockingChannel
+{
+  private final SeekableByteChannel base;
+  private final int pageSize;
+  private final HashMap<Long, byte[]> pages;
+  private final byte[] zeros;
+  private long baseVisible;
+  private long position;
+  private long size;
+
+  /**
+   * A seekable byte channel that layers writes over a base channel.
+   *
+   * @param inBase     The base channel
+   * @param inPageSize The size of pages
+   *
+   * @throws IOException On errors obtaining the size of the base channel
+   */
+
+  public CopyOnWriteSeekableByteChannel(
+    final SeekableByteChannel inBase,
+    final int inPageSize)
+    throws IOException
+  {
+    this.base = Objects.requireNonNull(inBase, "base");
+
+    if (inPageSize <= 0) {
+      throw new IllegalArgumentException(
+        "Page size %d must be positive"
+          .formatted(Integer.valueOf(inPageSize))
+      );
+    }
+
+    this.pageSize = inPageSize;
+    this.pages = new HashMap<>();
+    this.zeros = new byte[inPageSize];
+    this.size = inBase.size();
+    this.baseVisible = this.size;
+    this.position = 0L;
+  }
+
+  /**
+   * @return The size of pages
+   */
+
+  public int pageSize()
+  {
+    return this.pageSize;
+  }
+
+  /**
+   * @return The number of pages currently held in the overlay
+   */
+
+  public int overlayPageCount()
+  {
+    return this.<Integer>withStateReadingLock(
+        () -> Integer.valueOf(this.pages.size()))
+      .intValue();
+  }
+
+  /**
+   * Transfer {@code length} bytes of the base channel at {@code offset} into
+   * {@code target}. Bytes at or beyond {@code visible} are zero. This is
+   * called without the lock held, and so {@code visible} is a snapshot of
+   * the visible part of the base channel taken while the lock was held.
+   */
+
+  private void readBase(
+    final ByteBuffer target,
+    final long offset,
+    final int length,
+    final long visible)
+    throws IOException
+  {
+    final var fromBase =
+      (int) minUnsigned(
+        toUnsignedLong(length),
+        subtractSaturated(visible, offset)
+      );
+
+    final var slice = target.slice(target.position(), fromBase);
+    while (slice.hasRemaining()) {
+      final var at = offset + slice.position();
+      final var r = PositionalIO.read(this.base, slice, at);
+      if (r == -1) {
+        break;
+      }
+      if (r == 0) {
+        throw new IOException(
+          "Channel read no bytes at position %s"
+            .formatted(Long.toUnsignedString(at))
+        );
+      }
+    }
+
+    final var read = slice.position();
+    target.position(target.position() + read);
+    target.put(this.zeros, 0, length - read);
+  }
+
+  /**
+   * A range of a read that must be served from the base channel.
+   */
+
+  private record BaseSegment(
+    long offset,
+    int target,
+    int length)
+  {
+
+  }
+
+  /**
+   * A plan for copying pages from the base channel into the overlay, made
+   * with the lock held and carried out without it.
+   */
+
+  private record PagePlan(
+    long[] indices,
+    long visible,
+    int written)
+  {
+
+  }
+
+  @Override
+  public int read(
+    final ByteBuffer dst)
+    throws IOException
+  {
+    this.checkIsOpen();
+
+    /*
+     * With the lock held, reserve the range to be read, copy the parts of
+     * it that are held in the overlay, and note the parts that must come
+     * from the base channel. The base channel is then read without the
+     * lock held, so that slow reads of the base do not block other
+     * operations on this channel.
+     */
+
+    final var start = dst.position();
+    final var segments = new ArrayList<BaseSegment>();
+    final var snapshot = new long[1];
+
+    final var toRead = this.<Integer>withStateModificationLock(() -> {
+      this.checkIsOpen();
+
+      if (Long.compareUnsigned(this.position, this.size) >= 0) {
+        return Integer.valueOf(-1);
+      }
+
+      final var count =
+        (int) minUnsigned(
+          this.size - this.position,
+          toUnsignedLong(dst.remaining())
+        );
+
+      var done = 0;
+      while (done < count) {
+        final var index = this.position / this.pageSize;
+        final var offset = (int) (this.position % this.pageSize);
+        final var length = Math.min(this.pageSize - offset, count - done);
+
+        final var page = this.pages.get(Long.valueOf(index));
+        if (page != null) {
+          dst.put(start + done, page, offset, length);
+        } else {
+          addSegment(segments, this.position, start + done, length);
+        }
+
+        done += length;
+        this.position += length;
+      }
+
+      snapshot[0] = this.baseVisible;
+      return Integer.valueOf(count);
+    }).intValue();
+
+    if (toRead == -1) {
+      return -1;
+    }
+
+    for (final var segment : segments) {
+      this.readBase(
+        dst.slice(segment.target(), segment.length()),
+        segment.offset(),
+        segment.length(),
+        snapshot[0]
+      );
+    }
+
+    dst.position(start + toRead);
+    return toRead;
+  }
+
+  private static void addSegment(
+    final ArrayList<BaseSegment> segments,
+    final long offset,
+    final int target,
+    final int length)
+  {
+    if (!segments.isEmpty()) {
+      final var last = segments.get(segments.size() - 1);
+      if (last.offset() + last.length() == offset) {
+        segments.set(
+          segments.size() - 1,
+          new BaseSegment(last.offset(), last.target(), last.length() + length)
+        );
+        return;
+      }
+    }
+    segments.add(new BaseSegment(offset, target, length));
+  }
+
+  @Override
+  public int write(
+    final ByteBuffer src)
+    throws IOException
+  {
+    this.checkIsOpen();
+
+    /*
+     * A write first copies any pages that it touches and that are not yet
+     * in the overlay. The pages are read from the base channel without the
+     * lock held, and then installed with the lock held unless a truncation
+     * has changed the visible part of the base channel in the meantime.
+     * A page copied from the base channel holds exactly the bytes that
+     * reads would have returned, and so installing a page before it is
+     * written is not observable.
+     */
+
+    while (true) {
+      final var plan = this.withStateModificationLock(() -> {
+        this.checkIsOpen();
+
+        final var missing = this.missingPages(src.remaining());
+        if (missing.length == 0) {
+          final var written = this.writeOverlay(src);
+          return new PagePlan(missing, this.baseVisible, written);
+        }
+        return new PagePlan(missing, this.baseVisible, 0);
+      });
+
+      if (plan.indices().length == 0) {
+        return plan.written();
+      }
+
+      final var copies = new byte[plan.indices().length][];
+      for (int index = 0; index < copies.length; ++index) {
+        final var page = new byte[this.pageSize];
+        this.readBase(
+          ByteBuffer.wrap(page),
+          plan.indices()[index] * this.pageSize,
+          this.pageSize,
+          plan.visible()
+        );
+        copies[index] = page;
+      }
+
+      this.withStateModificationLock(() -> {
+        this.checkIsOpen();
+        if (this.baseVisible == plan.visible()) {
+          for (int index = 0; index < copies.length; ++index) {
+            this.pages.putIfAbsent(
+              Long.valueOf(plan.indices()[index]),
+              copies[index]
+            );
+          }
+        }
+        return null;
+      });
+    }
+  }
+
+  /**
+   * @return The indices of the pages in the range of {@code length} bytes
+   * at the current position that are not in the overlay
+   */
+
+  private long[] missingPages(
+    final int length)
+  {
+    if (length == 0) {
+      return new long[0];
+    }
+
+    final var first = this.position / this.pageSize;
+    final var last = (this.position + length - 1) / this.pageSize;
+    return LongStream.rangeClosed(first, last)
+      .filter(index -> !this.pages.containsKey(Long.valueOf(index)))
+      .toArray();
+  }
+
+  private int writeOverlay(
+    final ByteBuffer src)
+  {
+    final var toWrite = src.remaining();
+
+    var done = 0;
+    while (done < toWrite) {
+      final var index = this.position / this.pageSize;
+      final var offset = (int) (this.position % this.pageSize);
+      final var length = Math.min(this.pageSize - offset, toWrite - done);
+
+      src.get(this.pages.get(Long.valueOf(index)), offset, length);
+      done += length;
+      this.position += length;
+    }
+
+    this.size = maxUnsigned(this.size, this.position);
+    return done;
+  }
+
+  @Override
+  public long position()
+  {
+    return this.readStateOptimistically(() -> this.position);
+  }
+
+  @Override
+  public SeekableByteChannel position(
+    final long newPosition)
+    throws IOException
+  {
+    if (newPosition < 0L) {
+      throw new IllegalArgumentException(
+        "Position %d must be non-negative"
+          .formatted(Long.valueOf(newPosition))
+      );
+    }
+
+    return this.withStateModificationLock(() -> {
+      this.position = newPosition;
+      return this;
+    });
+  }
+
+  @Override
+  public long size()
+  {
+    return this.readStateOptimistically(() -> this.size);
+  }
+
+  @Override
+  public SeekableByteChannel truncate(
+    final long newSize)
+    throws IOException
+  {
+    this.checkIsOpen();
+
+    return this.withStateModificationLock(() -> {
+      if (Long.compareUnsigned(newSize, this.size) < 0) {
+        this.size = newSize;
+        this.baseVisible = minUnsigned(this.baseVisible, newSize);
+
+        /*
+         * Discard every page beyond the new size, and zero the tail of the
+         * page containing the new size so that the discarded bytes do not
+         * reappear if the channel is extended again.
+         */
+
+        final var lastIndex = newSize / this.pageSize;
+        this.pages.keySet().removeIf(k -> k.longValue() > lastIndex);
+
+        final var last = this.pages.get(Long.valueOf(lastIndex));
+        if (last != null) {
+          final var offset = (int) (newSize % this.pageSize);
+          System.arraycopy(
+            this.zeros, 0, last, offset, this.pageSize - offset);
+        }
+      }
+      this.position = minUnsigned(this.position, newSize);
+      return this;
+    });
+  }
+
+  @Override
+  public boolean isOpen()
+  {
+    return !this.isMarkedClosed();
+  }
+
+  @Override
+  public void close()
+    throws IOException
+  {
+    if (this.markClosed()) {
+      this.withStateModificationLock(() -> {
+        this.pages.clear();
+        return null;
+      });
+    }
+  }
+}
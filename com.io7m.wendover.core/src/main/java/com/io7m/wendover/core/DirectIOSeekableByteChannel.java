@@ -0,0 +1,445 @@
+/*
+ * Copyright © 2026 Mark Raynsford <code@io7m.com> https://www.io7m.com
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY
+ * SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF OR
+ * IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+
+package com.io7m.wendover.core;
+
+import com.io7m.wendover.core.internal.AbstractLockingChannel;
+import com.io7m.wendover.core.internal.AlignedBufferPool;
+import com.io7m.wendover.core.internal.AlignedBufferPool.AlignedBuffer;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.SeekableByteChannel;
+import java.nio.file.Files;
+import java.nio.file.OpenOption;
+import java.nio.file.Path;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Objects;
+
+import static com.io7m.wendover.core.internal.Unsigned.maxUnsigned;
+import static com.io7m.wendover.core.internal.Unsigned.minUnsigned;
+import static java.lang.Integer.toUnsignedLong;
+
+/**
+ * <p>
+ * A seekable byte channel that performs only block-aligned I/O on a file
+ * channel, so that the file can be opened for direct I/O
+ * ({@code O_DIRECT}) and bypass the operating system's page cache.
+ * </p>
+ * <p>
+ * Every read and write on the file channel uses an offset and length that
+ * are multiples of the block size, and a buffer whose address is aligned
+ * to the block size. Reads and writes at arbitrary positions and of
+ * arbitrary lengths are handled transparently: partial blocks at either
+ * end of a write are read, modified, and written back, and the file is
+ * truncated back to its logical size if a write of a tail block extends
+ * it.
+ * </p>
+ * <p>
+ * Aligned buffers are taken from a pool shared by all channels with the
+ * same block size and buffer size, held only for the duration of a single
+ * read or write, and then returned. A channel therefore holds no native
+ * memory while idle or after it is closed, and opening many channels does
+ * not allocate a buffer for each.
+ * </p>
+ * <p>
+ * Reads, writes, and truncation hold the channel's lock for the duration of
+ * their I/O, so that the read, modification, and write back of a partial
+ * block is never interleaved with another write to the same block. Any
+ * other operation on the channel, including {@link #position()}, waits for
+ * that I/O to complete.
+ * </p>
+ *
+ * @since 1.2.0
+ */
+
+public final class DirectIOSeekableByteChannel
+  extends AbstractLockingChannel
+{
+  private static final int DEFAULT_BUFFER_SIZE = 1024 * 1024;
+  private static final OpenOption DIRECT = findDirectOption();
+
+  private final FileChannel channel;
+  private final int blockSize;
+  private final int bufferSize;
+  private final AlignedBufferPool buffers;
+  private long position;
+  private long size;
+
+  /**
+   * A seekable byte channel that performs only block-aligned I/O.
+   *
+   * @param inChannel    The file channel, typically opened with
+   *                     {@code com.sun.nio.file.ExtendedOpenOption.DIRECT}
+   * @param inBlockSize  The block size, which must be a power of two
+   * @param inBufferSize The size of the aligned buffer, which is rounded up
+   *                     to a multiple of the block size
+   *
+   * @throws IOException On errors obtaining the size of the file
+   */
+
+  public DirectIOSeekableByteChannel(
+    final FileChannel inChannel,
+    final int inBlockSize,
+    final int inBufferSize)
+    throws IOException
+  {
+    this.channel =
+      Objects.requireNonNull(inChannel, "channel");
+
+    if (inBlockSize <= 0 || Integer.bitCount(inBlockSize) != 1) {
+      throw new IllegalArgumentException(
+        "Block size %d must be a positive power of two"
+          .formatted(Integer.valueOf(inBlockSize))
+      );
+    }
+    if (inBufferSize <= 0) {
+      throw new IllegalArgumentException(
+        "Buffer size %d must be positive"
+          .formatted(Integer.valueOf(inBufferSize))
+      );
+    }
+
+    this.blockSize = inBlockSize;
+    this.bufferSize =
+      Math.toIntExact(roundUp(inBufferSize, inBlockSize));
+    this.buffers =
+      AlignedBufferPool.shared(this.blockSize, this.bufferSize);
+    this.position = 0L;
+    this.size = inChannel.size();
+  }
+
+  /**
+   * Open a file for direct I/O. The block size is taken from the file store
+   * containing the file. {@code com.sun.nio.file.ExtendedOpenOption.DIRECT}
+   * is added to the given options.
+   *
+   * @param path    The file
+   * @param options The open options
+   *
+   * @return A channel
+   *
+   * @throws IOException                   On errors
+   * @throws UnsupportedOperationException If direct I/O is not supported
+   */
+
+  public static DirectIOSeekableByteChannel open(
+    final Path path,
+    final OpenOption... options)
+    throws IOException
+  {
+    Objects.requireNonNull(path, "path");
+
+    if (DIRECT == null) {
+      throw new UnsupportedOperationException(
+        "Direct I/O is not supported by this platform");
+    }
+
+    final var withDirect = new HashSet<>(List.of(options));
+    withDirect.add(DIRECT);
+
+    final var file = FileChannel.open(path, withDirect);
+    try {
+      final var store = Files.getFileStore(path);
+      return new DirectIOSeekableByteChannel(
+        file,
+        Math.toIntExact(store.getBlockSize()),
+        DEFAULT_BUFFER_SIZE
+      );
+    } catch (final IOException | RuntimeException e) {
+      file.close();
+      throw e;
+    }
+  }
+
+  /**
+   * Locate the {@code DIRECT} open option reflectively, as it lives in a
+   * JDK-specific package that produces warnings when referenced at compile
+   * time.
+   */
+
+  private static OpenOption findDirectOption()
+  {
+    try {
+      final var options =
+        Class.forName("com.sun.nio.file.ExtendedOpenOption")
+          .getEnumConstants();
+
+      for (final var option : options) {
+        if ("DIRECT".equals(((Enum<?>) option).name())) {
+          return (OpenOption) option;
+        }
+      }
+      return null;
+    } catch (final ClassNotFoundException | RuntimeException e) {
+      return null;
+    }
+  }
+
+  private static long roundUp(
+    final long value,
+    final int multiple)
+  {
+    return ((value + multiple - 1) / multiple) * multiple;
+  }
+
+  /**
+   * @return The block size
+   */
+
+  public int blockSize()
+  {
+    return this.blockSize;
+  }
+
+  /**
+   * Fill the remaining part of {@code target} from the file, where index
+   * {@code 0} of {@code target} corresponds to {@code offset} in the file.
+   * Reading stops at the end of the file and the remainder is zeroed.
+   */
+
+  private void readAligned(
+    final ByteBuffer target,
+    final long offset)
+    throws IOException
+  {
+    /*
+     * A short read only occurs at the end of the file, and leaves the
+     * buffer at an unaligned position that could not be read from again.
+     */
+
+    while (target.hasRemaining()) {
+      final var at = offset + target.position();
+      final var r = this.channel.read(target, at);
+      if (r == -1 || target.position() % this.blockSize != 0) {
+        break;
+      }
+      if (r == 0) {
+        throw new IOException(
+          "Channel read no bytes at position %s"
+            .formatted(Long.toUnsignedString(at))
+        );
+      }
+    }
+    while (target.hasRemaining()) {
+      target.put((byte) 0);
+    }
+  }
+
+  private void writeAligned(
+    final ByteBuffer source,
+    final long offset)
+    throws IOException
+  {
+    while (source.hasRemaining()) {
+      final var at = offset + source.position();
+      if (this.channel.write(source, at) == 0) {
+        throw new IOException(
+          "Channel wrote no bytes at position %s"
+            .formatted(Long.toUnsignedString(at))
+        );
+      }
+    }
+  }
+
+  @Override
+  public int read(
+    final ByteBuffer dst)
+    throws IOException
+  {
+    this.checkIsOpen();
+
+    return this.<Integer>withStateModificationLock(() -> {
+      this.checkIsOpen();
+
+      if (Long.compareUnsigned(this.position, this.size) >= 0) {
+        return Integer.valueOf(-1);
+      }
+
+      final var toRead =
+        (int) minUnsigned(
+          this.size - this.position,
+          toUnsignedLong(dst.remaining())
+        );
+
+      final var pooled = this.buffers.acquire();
+      try {
+        return Integer.valueOf(this.readUsing(pooled, dst, toRead));
+      } finally {
+        this.buffers.release(pooled);
+      }
+    }).intValue();
+  }
+
+  private int readUsing(
+    final AlignedBuffer pooled,
+    final ByteBuffer dst,
+    final int toRead)
+    throws IOException
+  {
+    final var aligned = pooled.buffer();
+    var done = 0;
+    while (done < toRead) {
+      final var at = this.position + done;
+      final var offset = (int) (at % this.blockSize);
+      final var start = at - offset;
+      final var count = Math.min(toRead - done, this.bufferSize - offset);
+      final var length = (int) roundUp(offset + count, this.blockSize);
+
+      aligned.clear().limit(length);
+      this.readAligned(aligned, start);
+      dst.put(dst.position(), aligned, offset, count);
+      dst.position(dst.position() + count);
+      done += count;
+    }
+
+    this.position += done;
+    return done;
+  }
+
+  @Override
+  public int write(
+    final ByteBuffer src)
+    throws IOException
+  {
+    this.checkIsOpen();
+
+    return this.<Integer>withStateModificationLock(() -> {
+      this.checkIsOpen();
+
+      final var pooled = this.buffers.acquire();
+      try {
+        return Integer.valueOf(this.writeUsing(pooled, src));
+      } finally {
+        this.buffers.release(pooled);
+      }
+    }).intValue();
+  }
+
+  private int writeUsing(
+    final AlignedBuffer pooled,
+    final ByteBuffer src)
+    throws IOException
+  {
+    final var toWrite = src.remaining();
+    final var aligned = pooled.buffer();
+
+    var done = 0;
+    var physicalEnd = 0L;
+    while (done < toWrite) {
+      final var at = this.position + done;
+      final var offset = (int) (at % this.blockSize);
+      final var start = at - offset;
+      final var count = Math.min(toWrite - done, this.bufferSize - offset);
+      final var length = (int) roundUp(offset + count, this.blockSize);
+
+      /*
+       * Partial blocks at either end must first be read so that the bytes
+       * around the written region are preserved.
+       */
+
+      if (offset != 0) {
+        this.readAligned(aligned.clear().limit(this.blockSize), start);
+      }
+      final var lastBlock = length - this.blockSize;
+      if ((offset + count) % this.blockSize != 0
+          && (lastBlock != 0 || offset == 0)) {
+        this.readAligned(
+          aligned.limit(length).position(lastBlock),
+          start
+        );
+      }
+
+      aligned.clear().limit(length);
+      aligned.put(offset, src, src.position(), count);
+      src.position(src.position() + count);
+      this.writeAligned(aligned, start);
+      physicalEnd = start + length;
+      done += count;
+    }
+
+    this.position += done;
+    this.size = maxUnsigned(this.size, this.position);
+    if (Long.compareUnsigned(physicalEnd, this.size) > 0) {
+      this.channel.truncate(this.size);
+    }
+    return done;
+  }
+
+  @Override
+  public long position()
+  {
+    return this.readStateOptimistically(() -> this.position);
+  }
+
+  @Override
+  public SeekableByteChannel position(
+    final long newPosition)
+    throws IOException
+  {
+    if (newPosition < 0L) {
+      throw new IllegalArgumentException(
+        "Position %d must be non-negative"
+          .formatted(Long.valueOf(newPosition))
+      );
+    }
+
+    return this.withStateModificationLock(() -> {
+      this.position = newPosition;
+      return this;
+    });
+  }
+
+  @Override
+  public long size()
+  {
+    return this.readStateOptimistically(() -> this.size);
+  }
+
+  @Override
+  public SeekableByteChannel truncate(
+    final long newSize)
+    throws IOException
+  {
+    this.checkIsOpen();
+
+    return this.withStateModificationLock(() -> {
+      if (Long.compareUnsigned(newSize, this.size) < 0) {
+        this.channel.truncate(newSize);
+        this.size = newSize;
+      }
+      this.position = minUnsigned(this.position, newSize);
+      return this;
+    });
+  }
+
+  @Override
+  public boolean isOpen()
+  {
+    return !this.isMarkedClosed();
+  }
+
+  @Override
+  public void close()
+    throws IOException
+  {
+    if (this.markClosed()) {
+      this.channel.close();
+    }
+  }
+}
@@ -0,0 +1,60 @@
+/*
+ * Copyright © 2026 Mark Raynsford <code@io7m.com> https://www.io7m.com
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY
+ * SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF OR
+ * IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+
+package com.io7m.wendover.core;
+
+import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * The result of appending data to an {@link AppendOnlyLogChannel}.
+ *
+ * @param offset  The offset in the log at which the data was placed
+ * @param length  The number of bytes appended
+ * @param durable A future completed when the data has been written and
+ *                forced to storage
+ *
+ * @since 1.2.0
+ */
+
+public record LogAppend(
+  long offset,
+  int length,
+  CompletableFuture<Void> durable)
+{
+  /**
+   * The result of appending data to an {@link AppendOnlyLogChannel}.
+   *
+   * @param offset  The offset in the log at which the data was placed
+   * @param length  The number of bytes appended
+   * @param durable A future completed when the data has been written and
+   *                forced to storage
+   */
+
+  public LogAppend
+  {
+    Objects.requireNonNull(durable, "durable");
+  }
+
+  /**
+   * @return The offset of the byte following the appended data
+   */
+
+  public long end()
+  {
+    return this.offset + this.length;
+  }
+}
@@ -0,0 +1,246 @@
+/*
+ * Copyright © 2026 Mark Raynsford <code@io7m.com> https://www.io7m.com
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY
+ * SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF OR
+ * IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+
+package com.io7m.wendover.core;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.util.Arrays;
+import java.util.Objects;
+import java.util.TreeMap;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.locks.ReentrantLock;
+
+import static com.io7m.wendover.core.internal.Unsigned.maxUnsigned;
+
+/**
+ * <p>
+ * A writer that splits large payloads into chunks, and writes the chunks
+ * concurrently to a file channel using absolute writes.
+ * </p>
+ * <p>
+ * The writer tracks the <i>contiguous frontier</i>: the largest offset
+ * {@code f} such that every byte in {@code [0, f)} has been written by a
+ * completed chunk. This is the parallel counterpart of the uppermost
+ * position tracked by {@link UpperRangeTrackingSeekableByteChannel}.
+ * Payloads submitted to the writer are expected not to overlap.
+ * </p>
+ *
+ * @since 1.2.0
+ */
+
+public final class ParallelChunkedWriter
+{
+  private final FileChannel channel;
+  private final Executor executor;
+  private final int chunkSize;
+  private final ReentrantLock lock;
+  private final TreeMap<Long, Long> completedBeyondFrontier;
+  private volatile long frontier;
+  private volatile long uppermost;
+
+  /**
+   * A writer that splits large payloads into chunks.
+   *
+   * @param inChannel   The file channel
+   * @param inExecutor  The executor used to write chunks
+   * @param inChunkSize The size of chunks
+   */
+
+  public ParallelChunkedWriter(
+    final FileChannel inChannel,
+    final Executor inExecutor,
+    final int inChunkSize)
+  {
+    this.channel =
+      Objects.requireNonNull(inChannel, "channel");
+    this.executor =
+      Objects.requireNonNull(inExecutor, "executor");
+
+    if (inChunkSize <= 0) {
+      throw new IllegalArgumentException(
+        "Chunk size %d must be positive"
+          .formatted(Integer.valueOf(inChunkSize))
+      );
+    }
+
+    this.chunkSize = inChunkSize;
+    this.lock = new ReentrantLock();
+    this.completedBeyondFrontier = new TreeMap<>();
+    this.frontier = 0L;
+    this.uppermost = 0L;
+  }
+
+  /**
+   * <p>
+   * Write the remaining bytes of {@code src} at the given absolute position.
+   * The buffer's position is immediately advanced to its limit, but the
+   * contents of the buffer must not be modified until the returned future
+   * has completed.
+   * </p>
+   *
+   * @param position The absolute position
+   * @param src      The source buffer
+   *
+   * @return A future that completes when every chunk has been written
+   *
+   * @throws RejectedExecutionException If the executor rejects a chunk,
+   *                                    once every chunk already submitted
+   *                                    has finished or been skipped
+   */
+
+  public CompletableFuture<Void> write(
+    final long position,
+    final ByteBuffer src)
+  {
+    Objects.requireNonNull(src, "src");
+
+    if (position < 0L) {
+      throw new IllegalArgumentException(
+        "Position %d must be non-negative".formatted(Long.valueOf(position))
+      );
+    }
+
+    final var total = src.remaining();
+    final var base = src.position();
+    final var count = total == 0 ? 0 : (total - 1) / this.chunkSize + 1;
+    final var futures = new CompletableFuture<?>[count];
+    final var abandoned = new AtomicBoolean(false);
+
+    for (int index = 0; index < count; ++index) {
+      final var offset = index * this.chunkSize;
+      final var length = Math.min(this.chunkSize, total - offset);
+      final var slice = src.slice(base + offset, length);
+      final var chunkPosition = position + offset;
+
+      final var future = new CompletableFuture<Void>();
+      futures[index] = future;
+      try {
+        this.executor.execute(() -> {
+          if (abandoned.get()) {
+            future.cancel(false);
+            return;
+          }
+          try {
+            this.writeChunk(slice, chunkPosition);
+            future.complete(null);
+          } catch (final Throwable e) {
+            future.completeExceptionally(e);
+          }
+        });
+      } catch (final RuntimeException e) {
+        abandoned.set(true);
+        awaitQuietly(Arrays.copyOf(futures, index));
+        throw e;
+      }
+    }
+
+    src.position(src.limit());
+    return CompletableFuture.allOf(futures);
+  }
+
+  /**
+   * Wait for chunks that were submitted before a submission failed, so that
+   * none of them is still using the caller's buffer when the failure is
+   * raised. Chunks that have not started are skipped.
+   */
+
+  private static void awaitQuietly(
+    final CompletableFuture<?>[] futures)
+  {
+    CompletableFuture.allOf(futures)
+      .handle((ignored, e) -> null)
+      .join();
+  }
+
+  private void writeChunk(
+    final ByteBuffer slice,
+    final long position)
+    throws IOException
+  {
+    while (slice.hasRemaining()) {
+      final var at = position + slice.position();
+      if (this.channel.write(slice, at) <= 0) {
+        throw new IOException(
+          "Channel wrote no bytes at position %s"
+            .formatted(Long.toUnsignedString(at))
+        );
+      }
+    }
+    this.complete(position, position + slice.limit());
+  }
+
+  /**
+   * Record the range {@code [start, end)} as written, and advance the
+   * frontier over any ranges that have become contiguous with it.
+   */
+
+  private void complete(
+    final long start,
+    final long end)
+  {
+    this.lock.lock();
+    try {
+      this.uppermost = maxUnsigned(this.uppermost, end);
+
+      if (Long.compareUnsigned(start, this.frontier) > 0) {
+        this.completedBeyondFrontier.merge(
+          Long.valueOf(start),
+          Long.valueOf(end),
+          (x, y) -> Long.valueOf(maxUnsigned(x.longValue(), y.longValue()))
+        );
+        return;
+      }
+
+      var newFrontier = maxUnsigned(this.frontier, end);
+      while (!this.completedBeyondFrontier.isEmpty()) {
+        final var first = this.completedBeyondFrontier.firstEntry();
+        if (Long.compareUnsigned(first.getKey().longValue(), newFrontier) > 0) {
+          break;
+        }
+        this.completedBeyondFrontier.pollFirstEntry();
+        newFrontier = maxUnsigned(newFrontier, first.getValue().longValue());
+      }
+      this.frontier = newFrontier;
+    } finally {
+      this.lock.unlock();
+    }
+  }
+
+  /**
+   * @return The largest offset {@code f} such that every byte before
+   * {@code f} has been written
+   */
+
+  public long contiguousWritten()
+  {
+    return this.frontier;
+  }
+
+  /**
+   * @return The uppermost position that has been written by any completed
+   * chunk
+   */
+
+  public long uppermostWritten()
+  {
+    return this.uppermost;
+  }
+}
@@ -0,0 +1,284 @@
+/*
+ * Copyright © 2026 Mark Raynsford <code@io7m.com> https://www.io7m.com
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY
+ * SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF OR
+ * IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+
+package com.io7m.wendover.core;
+
+import com.io7m.wendover.core.internal.PositionalIO;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.SeekableByteChannel;
+import java.util.Arrays;
+import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * <p>
+ * A reader that splits a large region of a channel into chunks, and reads
+ * the chunks concurrently into a destination buffer.
+ * </p>
+ * <p>
+ * Channels that support I/O at absolute positions (such as
+ * {@link java.nio.channels.FileChannel}) are read concurrently directly.
+ * Alternatively, a {@link SeekableByteChannelFactoryType} can be provided
+ * that opens an independent channel (such as a
+ * {@link SubrangeSeekableByteChannel} over a newly opened file) for each
+ * chunk.
+ * </p>
+ *
+ * @since 1.2.0
+ */
+
+public final class ParallelRangeReader
+{
+  private final Executor executor;
+  private final int chunkSize;
+
+  /**
+   * A reader that splits a large region of a channel into chunks.
+   *
+   * @param inExecutor  The executor used to read chunks
+   * @param inChunkSize The size of chunks
+   */
+
+  public ParallelRangeReader(
+    final Executor inExecutor,
+    final int inChunkSize)
+  {
+    this.executor =
+      Objects.requireNonNull(inExecutor, "executor");
+
+    if (inChunkSize <= 0) {
+      throw new IllegalArgumentException(
+        "Chunk size %d must be positive"
+          .formatted(Integer.valueOf(inChunkSize))
+      );
+    }
+    this.chunkSize = inChunkSize;
+  }
+
+  /**
+   * @return The size of chunks
+   */
+
+  public int chunkSize()
+  {
+    return this.chunkSize;
+  }
+
+  /**
+   * <p>
+   * Read {@code dst.remaining()} bytes from the channel starting at
+   * {@code position}. The position of the channel is not modified.
+   * </p>
+   * <p>
+   * If the channel does not support I/O at absolute positions, the region
+   * is read sequentially on the calling thread.
+   * </p>
+   *
+   * @param channel  The channel
+   * @param position The absolute position at which to start reading
+   * @param dst      The destination buffer
+   *
+   * @return The number of bytes read; this is only less than the number of
+   * bytes requested if the end of the channel was reached
+   *
+   * @throws IOException On errors
+   */
+
+  public int read(
+    final SeekableByteChannel channel,
+    final long position,
+    final ByteBuffer dst)
+    throws IOException
+  {
+    Objects.requireNonNull(channel, "channel");
+    Objects.requireNonNull(dst, "dst");
+    checkPosition(position);
+
+    if (PositionalIO.isStateless(channel)) {
+      return this.readChunks(dst, (slice, offset) -> {
+        return readFully(channel, slice, position + offset);
+      });
+    }
+
+    final var read = readFully(channel, dst.slice(), position);
+    dst.position(dst.position() + read);
+    return read;
+  }
+
+  /**
+   * Read {@code dst.remaining()} bytes starting at {@code position} from
+   * channels produced by the given factory. A new channel is opened and
+   * closed for each chunk.
+   *
+   * @param channels The channel factory
+   * @param position The absolute position at which to start reading
+   * @param dst      The destination buffer
+   *
+   * @return The number of bytes read; this is only less than the number of
+   * bytes requested if the end of the channel was reached
+   *
+   * @throws IOException On errors
+   */
+
+  public int read(
+    final SeekableByteChannelFactoryType channels,
+    final long position,
+    final ByteBuffer dst)
+    throws IOException
+  {
+    Objects.requireNonNull(channels, "channels");
+    Objects.requireNonNull(dst, "dst");
+    checkPosition(position);
+
+    return this.readChunks(dst, (slice, offset) -> {
+      try (var channel = channels.open()) {
+        return readFully(channel, slice, position + offset);
+      }
+    });
+  }
+
+  private int readChunks(
+    final ByteBuffer dst,
+    final ChunkReaderType reader)
+    throws IOException
+  {
+    final var total = dst.remaining();
+    final var count = total == 0 ? 0 : (total - 1) / this.chunkSize + 1;
+    final var results = new int[count];
+    final var futures = new CompletableFuture<?>[count];
+    final var base = dst.position();
+    final var abandoned = new AtomicBoolean(false);
+
+    for (int index = 0; index < count; ++index) {
+      final var chunk = index;
+      final var offset = index * this.chunkSize;
+      final var length = Math.min(this.chunkSize, total - offset);
+      final var slice = dst.slice(base + offset, length);
+
+      try {
+        futures[index] = CompletableFuture.runAsync(() -> {
+          if (abandoned.get()) {
+            return;
+          }
+          try {
+            results[chunk] = reader.read(slice, offset);
+          } catch (final IOException e) {
+            throw new UncheckedIOException(e);
+          }
+        }, this.executor);
+      } catch (final RuntimeException e) {
+
+        /*
+         * Chunks that were already submitted must not be left writing into
+         * the caller's buffer after this method has failed.
+         */
+
+        abandoned.set(true);
+        CompletableFuture.allOf(Arrays.copyOf(futures, index))
+          .handle((ignored, x) -> null)
+          .join();
+        throw e;
+      }
+    }
+
+    joinAll(futures);
+
+    /*
+     * Only the bytes up to the first short chunk are considered to have
+     * been read; a short chunk can only occur at the end of the channel.
+     */
+
+    var read = 0;
+    for (int index = 0; index < count; ++index) {
+      final var expected =
+        Math.min(this.chunkSize, total - index * this.chunkSize);
+      read += results[index];
+      if (results[index] < expected) {
+        break;
+      }
+    }
+
+    dst.position(base + read);
+    return read;
+  }
+
+  private static void joinAll(
+    final CompletableFuture<?>[] futures)
+    throws IOException
+  {
+    try {
+      CompletableFuture.allOf(futures).join();
+    } catch (final CompletionException e) {
+      final var cause = e.getCause();
+      if (cause instanceof UncheckedIOException io) {
+        throw io.getCause();
+      }
+      throw e;
+    }
+  }
+
+  /**
+   * Read until {@code slice} is full or the end of the channel is reached.
+   * A blocking channel that reads nothing is misbehaving, and retrying it
+   * would spin forever on a pool thread, so it is treated as an error.
+   */
+
+  private static int readFully(
+    final SeekableByteChannel channel,
+    final ByteBuffer slice,
+    final long position)
+    throws IOException
+  {
+    while (slice.hasRemaining()) {
+      final var at = position + slice.position();
+      final var r = PositionalIO.read(channel, slice, at);
+      if (r == -1) {
+        break;
+      }
+      if (r == 0) {
+        throw new IOException(
+          "Channel read no bytes at position %s"
+            .formatted(Long.toUnsignedString(at))
+        );
+      }
+    }
+    return slice.position();
+  }
+
+  private static void checkPosition(
+    final long position)
+  {
+    if (position < 0L) {
+      throw new IllegalArgumentException(
+        "Position %d must be non-negative".formatted(Long.valueOf(position))
+      );
+    }
+  }
+
+  private interface ChunkReaderType
+  {
+    int read(
+      ByteBuffer slice,
+      int offset)
+      throws IOException;
+  }
+}
@@ -0,0 +1,1091 @@
+/*
+ * Copyright © 2026 Mark Raynsford <code@io7m.com> https://www.io7m.com
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY
+ * SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF OR
+ * IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+
+package com.io7m.wendover.core;
+
+import com.io7m.wendover.core.internal.ByteBufferChannel;
+import com.io7m.wendover.core.internal.PositionalIO;
+
+import java.io.EOFException;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.ClosedChannelException;
+import java.nio.channels.SeekableByteChannel;
+import java.util.Objects;
+
+/**
+ * <p>
+ * An accessor that reads and writes primitive values and arrays of
+ * primitive values on a seekable byte channel, using an explicit byte
+ * order.
+ * </p>
+ * <p>
+ * For channels created by {@link ByteBufferChannels#ofByteBuffer(ByteBuffer)}
+ * (for example, over a mapped file), values are read directly from the
+ * buffer of the channel, with no intermediate copy and no channel read per
+ * value. For any other channel, reads are served from a window of the
+ * channel that is held in memory, so that decoding many small values does
+ * not require a channel read per value; the window is refilled with an
+ * absolute read whenever a value falls outside it. No buffer is allocated
+ * per value in either case. Writes are encoded into a reusable buffer and
+ * written with absolute writes; a write that overlaps the window discards
+ * the window.
+ * </p>
+ * <p>
+ * The accessor maintains its own position, used by the relative methods,
+ * and never modifies the position of the channel. When reading through a
+ * window, the accessor assumes that the channel is not modified by anything
+ * else while the accessor is in use; call {@link #invalidate()} if it is.
+ * Accessors are not safe for use by multiple threads.
+ * </p>
+ *
+ * @since 1.2.0
+ */
+
+public final class PrimitiveChannelAccessor
+{
+  private static final int DEFAULT_WINDOW_SIZE = 8192;
+
+  private final SeekableByteChannel channel;
+  private final ByteOrder order;
+  private final ByteBuffer window;
+  private final ByteBuffer output;
+  private final boolean direct;
+  private long windowStart;
+  private long position;
+
+  /**
+   * An accessor with a default window size.
+   *
+   * @param inChannel The channel
+   * @param inOrder   The byte order
+   */
+
+  public PrimitiveChannelAccessor(
+    final SeekableByteChannel inChannel,
+    final ByteOrder inOrder)
+  {
+    this(inChannel, inOrder, DEFAULT_WINDOW_SIZE);
+  }
+
+  /**
+   * An accessor that reads and writes primitive values.
+   *
+   * @param inChannel    The channel
+   * @param inOrder      The byte order
+   * @param inWindowSize The size of the window, which must be at least 8
+   */
+
+  public PrimitiveChannelAccessor(
+    final SeekableByteChannel inChannel,
+    final ByteOrder inOrder,
+    final int inWindowSize)
+  {
+    this.channel =
+      Objects.requireNonNull(inChannel, "channel");
+    this.order =
+      Objects.requireNonNull(inOrder, "order");
+
+    if (inWindowSize < 8) {
+      throw new IllegalArgumentException(
+        "Window size %d must be at least 8"
+          .formatted(Integer.valueOf(inWindowSize))
+      );
+    }
+
+    final var shared =
+      inChannel instanceof ByteBufferChannel buffers
+        ? buffers.sharedView()
+        : null;
+
+    if (shared != null) {
+      this.window = shared.order(inOrder);
+      this.direct = true;
+    } else {
+      this.window = ByteBuffer.allocate(inWindowSize).order(inOrder);
+      this.window.limit(0);
+      this.direct = false;
+    }
+
+    this.output = ByteBuffer.allocate(inWindowSize).order(inOrder);
+    this.windowStart = 0L;
+    this.position = 0L;
+  }
+
+  /**
+   * @return The byte order
+   */
+
+  public ByteOrder order()
+  {
+    return this.order;
+  }
+
+  /**
+   * @return The channel
+   */
+
+  public SeekableByteChannel channel()
+  {
+    return this.channel;
+  }
+
+  /**
+   * @return {@code true} if values are read directly from the buffer of
+   * the channel rather than through a window
+   */
+
+  public boolean isDirect()
+  {
+    return this.direct;
+  }
+
+  /**
+   * @return The position used by relative reads and writes
+   */
+
+  public long position()
+  {
+    return this.position;
+  }
+
+  /**
+   * Set the position used by relative reads and writes.
+   *
+   * @param newPosition The new position
+   *
+   * @return this
+   */
+
+  public PrimitiveChannelAccessor position(
+    final long newPosition)
+  {
+    checkPosition(newPosition);
+    this.position = newPosition;
+    return this;
+  }
+
+  /**
+   * Discard any data held in the window, so that subsequent reads observe
+   * modifications made to the channel by other means. This has no effect
+   * if values are read directly from the buffer of the channel.
+   */
+
+  public void invalidate()
+  {
+    if (!this.direct) {
+      this.window.limit(0);
+    }
+  }
+
+  private static void checkPosition(
+    final long at)
+  {
+    if (at < 0L) {
+      throw new IllegalArgumentException(
+        "Position %d must be non-negative".formatted(Long.valueOf(at))
+      );
+    }
+  }
+
+  private static EOFException endOfChannel(
+    final long at,
+    final int size)
+  {
+    return new EOFException(
+      "Reading %d bytes at position %d would exceed the end of the channel"
+        .formatted(Integer.valueOf(size), Long.valueOf(at))
+    );
+  }
+
+  /**
+   * @return The index within the window of the {@code size} bytes at
+   * {@code at}, refilling the window if necessary
+   */
+
+  private int windowIndex(
+    final long at,
+    final int size)
+    throws IOException
+  {
+    checkPosition(at);
+
+    if (this.direct) {
+      if (!this.channel.isOpen()) {
+        throw new ClosedChannelException();
+      }
+      if (at + size > this.channel.size()) {
+        throw endOfChannel(at, size);
+      }
+      return (int) at;
+    }
+
+    final var offset = at - this.windowStart;
+    if (offset >= 0L && offset + size <= this.window.limit()) {
+      return (int) offset;
+    }
+
+    this.window.clear();
+    this.windowStart = at;
+    try {
+      while (this.window.hasRemaining()) {
+        final var r =
+          PositionalIO.read(
+            this.channel, this.window, at + this.window.position());
+        if (r == -1) {
+          break;
+        }
+        if (r == 0) {
+          throw new IOException(
+            "Unable to read %d bytes at position %d"
+              .formatted(Integer.valueOf(size), Long.valueOf(at))
+          );
+        }
+      }
+    } finally {
+      this.window.flip();
+    }
+
+    if (this.window.limit() < size) {
+      throw endOfChannel(at, size);
+    }
+    return 0;
+  }
+
+  /**
+   * Write the contents of the output buffer at {@code at}.
+   */
+
+  private void writeOutput(
+    final long at)
+    throws IOException
+  {
+    checkPosition(at);
+
+    this.output.flip();
+    final var size = this.output.remaining();
+    while (this.output.hasRemaining()) {
+      final var w =
+        PositionalIO.write(
+          this.channel, this.output, at + this.output.position());
+      if (w <= 0) {
+        throw new IOException(
+          "Unable to write %d bytes at position %d"
+            .formatted(Integer.valueOf(size), Long.valueOf(at))
+        );
+      }
+    }
+
+    final var windowEnd = this.windowStart + this.window.limit();
+    if (at < windowEnd && this.windowStart < at + size) {
+      this.invalidate();
+    }
+  }
+
+  /**
+   * @return The output buffer, cleared and ready for encoding
+   */
+
+  private ByteBuffer encode()
+  {
+    return this.output.clear();
+  }
+
+  /**
+   * Transfer {@code length} elements of {@code width} bytes between the
+   * channel and an array, starting at the current position, in as few
+   * window-sized steps as possible.
+   */
+
+  private void readElements(
+    final int width,
+    final int length,
+    final ElementTransferType transfer)
+    throws IOException
+  {
+    final var perStep = Math.max(1, this.window.capacity() / width);
+    var done = 0;
+    while (done < length) {
+      final var count = Math.min(perStep, length - done);
+      final var bytes = count * width;
+      final var index = this.windowIndex(this.position, bytes);
+      transfer.transfer(
+        this.window.slice(index, bytes).order(this.order), done, count);
+      this.position += bytes;
+      done += count;
+    }
+  }
+
+  private void writeElements(
+    final int width,
+    final int length,
+    final ElementTransferType transfer)
+    throws IOException
+  {
+    final var perStep = this.output.capacity() / width;
+    var done = 0;
+    while (done < length) {
+      final var count = Math.min(perStep, length - done);
+      final var bytes = count * width;
+      final var target = this.encode();
+      transfer.transfer(target.slice(0, bytes).order(this.order), done, count);
+      target.position(bytes);
+      this.writeOutput(this.position);
+      this.position += bytes;
+      done += count;
+    }
+  }
+
+  /**
+   * A transfer of {@code count} elements between a buffer and an array,
+   * starting at element {@code done} of the transfer.
+   */
+
+  private interface ElementTransferType
+  {
+    void transfer(
+      ByteBuffer buffer,
+      int done,
+      int count);
+  }
+
+  /**
+   * Read a {@code byte} at the current position, and advance the
+   * position by 1.
+   *
+   * @return The value
+   *
+   * @throws IOException On errors, or if the end of the channel is reached
+   */
+
+  public byte readByte()
+    throws IOException
+  {
+    final var value = this.readByte(this.position);
+    this.position += Byte.BYTES;
+    return value;
+  }
+
+  /**
+   * Read a {@code byte} at the given absolute position.
+   *
+   * @param at The absolute position
+   *
+   * @return The value
+   *
+   * @throws IOException On errors, or if the end of the channel is reached
+   */
+
+  public byte readByte(
+    final long at)
+    throws IOException
+  {
+    return this.window.get(this.windowIndex(at, Byte.BYTES));
+  }
+
+  /**
+   * Write a {@code byte} at the current position, and advance the
+   * position by 1.
+   *
+   * @param value The value
+   *
+   * @throws IOException On errors
+   */
+
+  public void writeByte(
+    final byte value)
+    throws IOException
+  {
+    this.writeByte(this.position, value);
+    this.position += Byte.BYTES;
+  }
+
+  /**
+   * Write a {@code byte} at the given absolute position.
+   *
+   * @param at    The absolute position
+   * @param value The value
+   *
+   * @throws IOException On errors
+   */
+
+  public void writeByte(
+    final long at,
+    final byte value)
+    throws IOException
+  {
+    this.encode().put(value);
+    this.writeOutput(at);
+  }
+
+  /**
+   * Read a {@code short} at the current position, and advance the
+   * position by 2.
+   *
+   * @return The value
+   *
+   * @throws IOException On errors, or if the end of the channel is reached
+   */
+
+  public short readShort()
+    throws IOException
+  {
+    final var value = this.readShort(this.position);
+    this.position += Short.BYTES;
+    return value;
+  }
+
+  /**
+   * Read a {@code short} at the given absolute position.
+   *
+   * @param at The absolute position
+   *
+   * @return The value
+   *
+   * @throws IOException On errors, or if the end of the channel is reached
+   */
+
+  public short readShort(
+    final long at)
+    throws IOException
+  {
+    return this.window.getShort(this.windowIndex(at, Short.BYTES));
+  }
+
+  /**
+   * Write a {@code short} at the current position, and advance the
+   * position by 2.
+   *
+   * @param value The value
+   *
+   * @throws IOException On errors
+   */
+
+  public void writeShort(
+    final short value)
+    throws IOException
+  {
+    this.writeShort(this.position, value);
+    this.position += Short.BYTES;
+  }
+
+  /**
+   * Write a {@code short} at the given absolute position.
+   *
+   * @param at    The absolute position
+   * @param value The value
+   *
+   * @throws IOException On errors
+   */
+
+  public void writeShort(
+    final long at,
+    final short value)
+    throws IOException
+  {
+    this.encode().putShort(value);
+    this.writeOutput(at);
+  }
+
+  /**
+   * Read a {@code int} at the current position, and advance the
+   * position by 4.
+   *
+   * @return The value
+   *
+   * @throws IOException On errors, or if the end of the channel is reached
+   */
+
+  public int readInt()
+    throws IOException
+  {
+    final var value = this.readInt(this.position);
+    this.position += Integer.BYTES;
+    return value;
+  }
+
+  /**
+   * Read a {@code int} at the given absolute position.
+   *
+   * @param at The absolute position
+   *
+   * @return The value
+   *
+   * @throws IOException On errors, or if the end of the channel is reached
+   */
+
+  public int readInt(
+    final long at)
+    throws IOException
+  {
+    return this.window.getInt(this.windowIndex(at, Integer.BYTES));
+  }
+
+  /**
+   * Write a {@code int} at the current position, and advance the
+   * position by 4.
+   *
+   * @param value The value
+   *
+   * @throws IOException On errors
+   */
+
+  public void writeInt(
+    final int value)
+    throws IOException
+  {
+    this.writeInt(this.position, value);
+    this.position += Integer.BYTES;
+  }
+
+  /**
+   * Write a {@code int} at the given absolute position.
+   *
+   * @param at    The absolute position
+   * @param value The value
+   *
+   * @throws IOException On errors
+   */
+
+  public void writeInt(
+    final long at,
+    final int value)
+    throws IOException
+  {
+    this.encode().putInt(value);
+    this.writeOutput(at);
+  }
+
+  /**
+   * Read a {@code long} at the current position, and advance the
+   * position by 8.
+   *
+   * @return The value
+   *
+   * @throws IOException On errors, or if the end of the channel is reached
+   */
+
+  public long readLong()
+    throws IOException
+  {
+    final var value = this.readLong(this.position);
+    this.position += Long.BYTES;
+    return value;
+  }
+
+  /**
+   * Read a {@code long} at the given absolute position.
+   *
+   * @param at The absolute position
+   *
+   * @return The value
+   *
+   * @throws IOException On errors, or if the end of the channel is reached
+   */
+
+  public long readLong(
+    final long at)
+    throws IOException
+  {
+    return this.window.getLong(this.windowIndex(at, Long.BYTES));
+  }
+
+  /**
+   * Write a {@code long} at the current position, and advance the
+   * position by 8.
+   *
+   * @param value The value
+   *
+   * @throws IOException On errors
+   */
+
+  public void writeLong(
+    final long value)
+    throws IOException
+  {
+    this.writeLong(this.position, value);
+    this.position += Long.BYTES;
+  }
+
+  /**
+   * Write a {@code long} at the given absolute position.
+   *
+   * @param at    The absolute position
+   * @param value The value
+   *
+   * @throws IOException On errors
+   */
+
+  public void writeLong(
+    final long at,
+    final long value)
+    throws IOException
+  {
+    this.encode().putLong(value);
+    this.writeOutput(at);
+  }
+
+  /**
+   * Read a {@code float} at the current position, and advance the
+   * position by 4.
+   *
+   * @return The value
+   *
+   * @throws IOException On errors, or if the end of the channel is reached
+   */
+
+  public float readFloat()
+    throws IOException
+  {
+    final var value = this.readFloat(this.position);
+    this.position += Float.BYTES;
+    return value;
+  }
+
+  /**
+   * Read a {@code float} at the given absolute position.
+   *
+   * @param at The absolute position
+   *
+   * @return The value
+   *
+   * @throws IOException On errors, or if the end of the channel is reached
+   */
+
+  public float readFloat(
+    final long at)
+    throws IOException
+  {
+    return this.window.getFloat(this.windowIndex(at, Float.BYTES));
+  }
+
+  /**
+   * Write a {@code float} at the current position, and advance the
+   * position by 4.
+   *
+   * @param value The value
+   *
+   * @throws IOException On errors
+   */
+
+  public void writeFloat(
+    final float value)
+    throws IOException
+  {
+    this.writeFloat(this.position, value);
+    this.position += Float.BYTES;
+  }
+
+  /**
+   * Write a {@code float} at the given absolute position.
+   *
+   * @param at    The absolute position
+   * @param value The value
+   *
+   * @throws IOException On errors
+   */
+
+  public void writeFloat(
+    final long at,
+    final float value)
+    throws IOException
+  {
+    this.encode().putFloat(value);
+    this.writeOutput(at);
+  }
+
+  /**
+   * Read a {@code double} at the current position, and advance the
+   * position by 8.
+   *
+   * @return The value
+   *
+   * @throws IOException On errors, or if the end of the channel is reached
+   */
+
+  public double readDouble()
+    throws IOException
+  {
+    final var value = this.readDouble(this.position);
+    this.position += Double.BYTES;
+    return value;
+  }
+
+  /**
+   * Read a {@code double} at the given absolute position.
+   *
+   * @param at The absolute position
+   *
+   * @return The value
+   *
+   * @throws IOException On errors, or if the end of the channel is reached
+   */
+
+  public double readDouble(
+    final long at)
+    throws IOException
+  {
+    return this.window.getDouble(this.windowIndex(at, Double.BYTES));
+  }
+
+  /**
+   * Write a {@code double} at the current position, and advance the
+   * position by 8.
+   *
+   * @param value The value
+   *
+   * @throws IOException On errors
+   */
+
+  public void writeDouble(
+    final double value)
+    throws IOException
+  {
+    this.writeDouble(this.position, value);
+    this.position += Double.BYTES;
+  }
+
+  /**
+   * Write a {@code double} at the given absolute position.
+   *
+   * @param at    The absolute position
+   * @param value The value
+   *
+   * @throws IOException On errors
+   */
+
+  public void writeDouble(
+    final long at,
+    final double value)
+    throws IOException
+  {
+    this.encode().putDouble(value);
+    this.writeOutput(at);
+  }
+
+  /**
+   * Read {@code length} values of type {@code byte} into {@code dst}
+   * starting at {@code offset}, reading from the current position and
+   * advancing the position past the values.
+   *
+   * @param dst    The destination array
+   * @param offset The offset within the array
+   * @param length The number of values
+   *
+   * @throws IOException On errors, or if the end of the channel is reached
+   */
+
+  public void readBytes(
+    final byte[] dst,
+    final int offset,
+    final int length)
+    throws IOException
+  {
+    Objects.checkFromIndexSize(offset, length, dst.length);
+    this.readElements(
+      Byte.BYTES,
+      length,
+      (b, done, count) -> b.get(0, dst, offset + done, count)
+    );
+  }
+
+  /**
+   * Write {@code length} values of type {@code byte} from {@code src}
+   * starting at {@code offset}, writing at the current position and
+   * advancing the position past the values.
+   *
+   * @param src    The source array
+   * @param offset The offset within the array
+   * @param length The number of values
+   *
+   * @throws IOException On errors
+   */
+
+  public void writeBytes(
+    final byte[] src,
+    final int offset,
+    final int length)
+    throws IOException
+  {
+    Objects.checkFromIndexSize(offset, length, src.length);
+    this.writeElements(
+      Byte.BYTES,
+      length,
+      (b, done, count) -> b.put(0, src, offset + done, count)
+    );
+  }
+
+  /**
+   * Read {@code length} values of type {@code short} into {@code dst}
+   * starting at {@code offset}, reading from the current position and
+   * advancing the position past the values.
+   *
+   * @param dst    The destination array
+   * @param offset The offset within the array
+   * @param length The number of values
+   *
+   * @throws IOException On errors, or if the end of the channel is reached
+   */
+
+  public void readShorts(
+    final short[] dst,
+    final int offset,
+    final int length)
+    throws IOException
+  {
+    Objects.checkFromIndexSize(offset, length, dst.length);
+    this.readElements(
+      Short.BYTES,
+      length,
+      (b, done, count) -> b.asShortBuffer().get(dst, offset + done, count)
+    );
+  }
+
+  /**
+   * Write {@code length} values of type {@code short} from {@code src}
+   * starting at {@code offset}, writing at the current position and
+   * advancing the position past the values.
+   *
+   * @param src    The source array
+   * @param offset The offset within the array
+   * @param length The number of values
+   *
+   * @throws IOException On errors
+   */
+
+  public void writeShorts(
+    final short[] src,
+    final int offset,
+    final int length)
+    throws IOException
+  {
+    Objects.checkFromIndexSize(offset, length, src.length);
+    this.writeElements(
+      Short.BYTES,
+      length,
+      (b, done, count) -> b.asShortBuffer().put(src, offset + done, count)
+    );
+  }
+
+  /**
+   * Read {@code length} values of type {@code int} into {@code dst}
+   * starting at {@code offset}, reading from the current position and
+   * advancing the position past the values.
+   *
+   * @param dst    The destination array
+   * @param offset The offset within the array
+   * @param length The number of values
+   *
+   * @throws IOException On errors, or if the end of the channel is reached
+   */
+
+  public void readInts(
+    final int[] dst,
+    final int offset,
+    final int length)
+    throws IOException
+  {
+    Objects.checkFromIndexSize(offset, length, dst.length);
+    this.readElements(
+      Integer.BYTES,
+      length,
+      (b, done, count) -> b.asIntBuffer().get(dst, offset + done, count)
+    );
+  }
+
+  /**
+   * Write {@code length} values of type {@code int} from {@code src}
+   * starting at {@code offset}, writing at the current position and
+   * advancing the position past the values.
+   *
+   * @param src    The source array
+   * @param offset The offset within the array
+   * @param length The number of values
+   *
+   * @throws IOException On errors
+   */
+
+  public void writeInts(
+    final int[] src,
+    final int offset,
+    final int length)
+    throws IOException
+  {
+    Objects.checkFromIndexSize(offset, length, src.length);
+    this.writeElements(
+      Integer.BYTES,
+      length,
+      (b, done, count) -> b.asIntBuffer().put(src, offset + done, count)
+    );
+  }
+
+  /**
+   * Read {@code length} values of type {@code long} into {@code dst}
+   * starting at {@code offset}, reading from the current position and
+   * advancing the position past the values.
+   *
+   * @param dst    The destination array
+   * @param offset The offset within the array
+   * @param length The number of values
+   *
+   * @throws IOException On errors, or if the end of the channel is reached
+   */
+
+  public void readLongs(
+    final long[] dst,
+    final int offset,
+    final int length)
+    throws IOException
+  {
+    Objects.checkFromIndexSize(offset, length, dst.length);
+    this.readElements(
+      Long.BYTES,
+      length,
+      (b, done, count) -> b.asLongBuffer().get(dst, offset + done, count)
+    );
+  }
+
+  /**
+   * Write {@code length} values of type {@code long} from {@code src}
+   * starting at {@code offset}, writing at the current position and
+   * advancing the position past the values.
+   *
+   * @param src    The source array
+   * @param offset The offset within the array
+   * @param length The number of values
+   *
+   * @throws IOException On errors
+   */
+
+  public void writeLongs(
+    final long[] src,
+    final int offset,
+    final int length)
+    throws IOException
+  {
+    Objects.checkFromIndexSize(offset, length, src.length);
+    this.writeElements(
+      Long.BYTES,
+      length,
+      (b, done, count) -> b.asLongBuffer().put(src, offset + done, count)
+    );
+  }
+
+  /**
+   * Read {@code length} values of type {@code float} into {@code dst}
+   * starting at {@code offset}, reading from the current position and
+   * advancing the position past the values.
+   *
+   * @param dst    The destination array
+   * @param offset The offset within the array
+   * @param length The number of values
+   *
+   * @throws IOException On errors, or if the end of the channel is reached
+   */
+
+  public void readFloats(
+    final float[] dst,
+    final int offset,
+    final int length)
+    throws IOException
+  {
+    Objects.checkFromIndexSize(offset, length, dst.length);
+    this.readElements(
+      Float.BYTES,
+      length,
+      (b, done, count) -> b.asFloatBuffer().get(dst, offset + done, count)
+    );
+  }
+
+  /**
+   * Write {@code length} values of type {@code float} from {@code src}
+   * starting at {@code offset}, writing at the current position and
+   * advancing the position past the values.
+   *
+   * @param src    The source array
+   * @param offset The offset within the array
+   * @param length The number of values
+   *
+   * @throws IOException On errors
+   */
+
+  public void writeFloats(
+    final float[] src,
+    final int offset,
+    final int length)
+    throws IOException
+  {
+    Objects.checkFromIndexSize(offset, length, src.length);
+    this.writeElements(
+      Float.BYTES,
+      length,
+      (b, done, count) -> b.asFloatBuffer().put(src, offset + done, count)
+    );
+  }
+
+  /**
+   * Read {@code length} values of type {@code double} into {@code dst}
+   * starting at {@code offset}, reading from the current position and
+   * advancing the position past the values.
+   *
+   * @param dst    The destination array
+   * @param offset The offset within the array
+   * @param length The number of values
+   *
+   * @throws IOException On errors, or if the end of the channel is reached
+   */
+
+  public void readDoubles(
+    final double[] dst,
+    final int offset,
+    final int length)
+    throws IOException
+  {
+    Objects.checkFromIndexSize(offset, length, dst.length);
+    this.readElements(
+      Double.BYTES,
+      length,
+      (b, done, count) -> b.asDoubleBuffer().get(dst, offset + done, count)
+    );
+  }
+
+  /**
+   * Write {@code length} values of type {@code double} from {@code src}
+   * starting at {@code offset}, writing at the current position and
+   * advancing the position past the values.
+   *
+   * @param src    The source array
+   * @param offset The offset within the array
+   * @param length The number of values
+   *
+   * @throws IOException On errors
+   */
+
+  public void writeDoubles(
+    final double[] src,
+    final int offset,
+    final int length)
+    throws IOException
+  {
+    Objects.checkFromIndexSize(offset, length, src.length);
+    this.writeElements(
+      Double.BYTES,
+      length,
+      (b, done, count) -> b.asDoubleBuffer().put(src, offset + done, count)
+    );
+  }
+}
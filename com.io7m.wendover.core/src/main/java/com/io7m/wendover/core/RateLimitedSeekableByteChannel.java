@@ -0,0 +1,156 @@
+/*
+ * Copyright © 2026 Mark Raynsford <code@io7m.com> https://www.io7m.com
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY
+ * SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF OR
+ * IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+
+package com.io7m.wendover.core;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.SeekableByteChannel;
+import java.util.Objects;
+
+import static com.io7m.wendover.core.internal.Unsigned.minUnsigned;
+import static java.lang.Integer.toUnsignedLong;
+
+/**
+ * <p>
+ * A seekable byte channel that limits the rate of reads and writes using
+ * token buckets.
+ * </p>
+ * <p>
+ * Each read or write takes the bytes it transfers from the corresponding
+ * bucket, waiting until they are available. Transfers are limited to the
+ * burst size of the bucket, and bytes that a read does not transfer are
+ * returned to the bucket. The same bucket may be given for reads and
+ * writes, and buckets may be shared between channels to limit the combined
+ * rate of all of them. Closing this channel closes the delegate channel.
+ * </p>
+ *
+ * @since 1.2.0
+ */
+
+public final class RateLimitedSeekableByteChannel
+  extends DelegatingSeekableByteChannel
+{
+  private final TokenBucket reads;
+  private final TokenBucket writes;
+
+  /**
+   * A seekable byte channel that limits the rate of reads and writes.
+   *
+   * @param inDelegate The delegate channel
+   * @param inReads    The bucket limiting reads
+   * @param inWrites   The bucket limiting writes
+   */
+
+  public RateLimitedSeekableByteChannel(
+    final SeekableByteChannel inDelegate,
+    final TokenBucket inReads,
+    final TokenBucket inWrites)
+  {
+    super(inDelegate);
+
+    this.reads =
+      Objects.requireNonNull(inReads, "reads");
+    this.writes =
+      Objects.requireNonNull(inWrites, "writes");
+  }
+
+  /**
+   * @return The bucket limiting reads
+   */
+
+  public TokenBucket reads()
+  {
+    return this.reads;
+  }
+
+  /**
+   * @return The bucket limiting writes
+   */
+
+  public TokenBucket writes()
+  {
+    return this.writes;
+  }
+
+  private static int limitOf(
+    final ByteBuffer buffer,
+    final TokenBucket bucket)
+  {
+    return (int) minUnsigned(
+      toUnsignedLong(buffer.remaining()),
+      bucket.burst()
+    );
+  }
+
+  @Override
+  public int read(
+    final ByteBuffer dst)
+    throws IOException
+  {
+    final var length = limitOf(dst, this.reads);
+    if (length == 0) {
+      return this.delegate().read(dst);
+    }
+
+    this.reads.acquire(length);
+
+    final var slice = dst.slice(dst.position(), length);
+    final int r;
+    try {
+      r = this.delegate().read(slice);
+    } catch (final IOException e) {
+      this.reads.release(length);
+      throw e;
+    }
+
+    final var transferred = Math.max(r, 0);
+    if (transferred < length) {
+      this.reads.release(length - transferred);
+    }
+    dst.position(dst.position() + transferred);
+    return r;
+  }
+
+  @Override
+  public int write(
+    final ByteBuffer src)
+    throws IOException
+  {
+    final var length = limitOf(src, this.writes);
+    if (length == 0) {
+      return this.delegate().write(src);
+    }
+
+    this.writes.acquire(length);
+
+    final var slice = src.slice(src.position(), length);
+    final int w;
+    try {
+      w = this.delegate().write(slice);
+    } catch (final IOException e) {
+      this.writes.release(length);
+      throw e;
+    }
+
+    final var transferred = Math.max(w, 0);
+    if (transferred < length) {
+      this.writes.release(length - transferred);
+    }
+    src.position(src.position() + transferred);
+    return w;
+  }
+}
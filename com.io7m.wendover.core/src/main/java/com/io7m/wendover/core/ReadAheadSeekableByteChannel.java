@@ -0,0 +1,426 @@
+/*
+ * Copyright © 2026 Mark Raynsford <code@io7m.com> https://www.io7m.com
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY
+ * SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF OR
+ * IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+
+package com.io7m.wendover.core;
+
+import com.io7m.wendover.core.internal.AbstractLockingChannel;
+import com.io7m.wendover.core.internal.PositionalIO;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.SeekableByteChannel;
+import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.locks.ReentrantLock;
+
+import static com.io7m.wendover.core.internal.Unsigned.minUnsigned;
+
+/**
+ * <p>
+ * A seekable byte channel that detects sequential reads, and reads the
+ * following block of the delegate channel ahead of time on a background
+ * executor.
+ * </p>
+ * <p>
+ * Reads are served from aligned blocks of a fixed size. Once
+ * {@value #SEQUENTIAL_THRESHOLD} consecutive reads have each started where
+ * the previous one ended, every read that leaves the current block fully
+ * loaded also starts reading the next block into a second buffer, so that
+ * a consumer scanning the channel rarely has to wait for I/O. Reads at
+ * other positions are served synchronously and reset the detection.
+ * Writes and truncation pass through to the delegate and discard any
+ * blocks that have been read.
+ * </p>
+ * <p>
+ * The delegate should not be modified other than through this channel
+ * while it is in use. Delegates that do not support I/O at absolute
+ * positions are accessed under a lock, so background reads never observe a
+ * position set by another operation. Closing this channel closes the
+ * delegate.
+ * </p>
+ * <p>
+ * Reads, writes, and truncation hold the channel's lock while they perform
+ * I/O on the delegate or wait for a block being read ahead, as the blocks
+ * that have been read must stay consistent with the delegate. Any other
+ * operation on the channel, including {@link #position()}, waits for that
+ * I/O to complete.
+ * </p>
+ *
+ * @since 1.2.0
+ */
+
+public final class ReadAheadSeekableByteChannel
+  extends AbstractLockingChannel
+{
+  /**
+   * The number of consecutive sequential reads after which read-ahead
+   * begins.
+   */
+
+  public static final int SEQUENTIAL_THRESHOLD = 2;
+
+  private final SeekableByteChannel delegate;
+  private final Executor executor;
+  private final int blockSize;
+  private final ReentrantLock delegateLock;
+  private final boolean stateless;
+  private Block current;
+  private ByteBuffer spare;
+  private CompletableFuture<Block> pending;
+  private long pendingStart;
+  private long position;
+  private long lastReadEnd;
+  private int sequentialReads;
+  private volatile long blocksReadAhead;
+
+  /**
+   * A seekable byte channel that reads ahead during sequential reads.
+   *
+   * @param inDelegate  The delegate channel
+   * @param inExecutor  The executor used for background reads
+   * @param inBlockSize The size of blocks
+   */
+
+  public ReadAheadSeekableByteChannel(
+    final SeekableByteChannel inDelegate,
+    final Executor inExecutor,
+    final int inBlockSize)
+  {
+    this.delegate =
+      Objects.requireNonNull(inDelegate, "delegate");
+    this.executor =
+      Objects.requireNonNull(inExecutor, "executor");
+
+    if (inBlockSize <= 0) {
+      throw new IllegalArgumentException(
+        "Block size %d must be positive"
+          .formatted(Integer.valueOf(inBlockSize))
+      );
+    }
+
+    this.blockSize = inBlockSize;
+    this.delegateLock = new ReentrantLock();
+    this.stateless = PositionalIO.isStateless(inDelegate);
+    this.position = 0L;
+    this.lastReadEnd = -1L;
+    this.sequentialReads = 0;
+    this.blocksReadAhead = 0L;
+  }
+
+  /**
+   * @return The size of blocks
+   */
+
+  public int blockSize()
+  {
+    return this.blockSize;
+  }
+
+  /**
+   * @return The number of reads that were served by a block that had been
+   * read ahead
+   */
+
+  public long blocksReadAhead()
+  {
+    return this.blocksReadAhead;
+  }
+
+  private Block fetch(
+    final ByteBuffer buffer,
+    final long start)
+    throws IOException
+  {
+    if (!this.stateless) {
+      this.delegateLock.lock();
+    }
+    try {
+      buffer.clear();
+      while (buffer.hasRemaining()) {
+        final var at = start + buffer.position();
+        final var r = PositionalIO.read(this.delegate, buffer, at);
+        if (r == -1) {
+          break;
+        }
+        if (r == 0) {
+          throw new IOException(
+            "Channel read no bytes at position %s"
+              .formatted(Long.toUnsignedString(at))
+          );
+        }
+      }
+      return new Block(start, buffer, buffer.position());
+    } finally {
+      if (!this.stateless) {
+        this.delegateLock.unlock();
+      }
+    }
+  }
+
+  /**
+   * Discard any blocks that have been read, along with any block being
+   * read in the background. The buffer of a background read remains owned
+   * by the background task, and so is not reused.
+   */
+
+  private void discard()
+  {
+    if (this.pending != null) {
+      this.pending = null;
+      this.spare = null;
+    }
+    this.current = null;
+  }
+
+  private ByteBuffer takeSpare()
+  {
+    final var buffer = this.spare;
+    this.spare = null;
+    if (buffer != null) {
+      return buffer;
+    }
+    return ByteBuffer.allocate(this.blockSize);
+  }
+
+  private void replaceCurrent(
+    final Block block)
+  {
+    if (this.current != null) {
+      this.spare = this.current.buffer;
+    }
+    this.current = block;
+  }
+
+  private Block blockAt(
+    final long start)
+    throws IOException
+  {
+    if (this.current != null && this.current.start == start) {
+      return this.current;
+    }
+
+    if (this.pending != null && this.pendingStart == start) {
+      final var future = this.pending;
+      this.pending = null;
+
+      final Block block;
+      try {
+        block = future.join();
+      } catch (final CompletionException e) {
+        if (e.getCause() instanceof IOException io) {
+          throw io;
+        }
+        throw e;
+      }
+
+      this.blocksReadAhead = this.blocksReadAhead + 1L;
+      this.replaceCurrent(block);
+      return block;
+    }
+
+    if (this.pending != null) {
+      this.pending = null;
+      this.spare = null;
+    }
+
+    final var block = this.fetch(this.takeSpare(), start);
+    this.replaceCurrent(block);
+    return block;
+  }
+
+  private void readAhead()
+  {
+    final var block = this.current;
+    if (this.pending != null || block == null) {
+      return;
+    }
+    if (block.length < this.blockSize) {
+      return;
+    }
+
+    final var start = block.start + this.blockSize;
+    final var buffer = this.takeSpare();
+    final var future = new CompletableFuture<Block>();
+    this.pending = future;
+    this.pendingStart = start;
+
+    this.executor.execute(() -> {
+      try {
+        future.complete(this.fetch(buffer, start));
+      } catch (final Throwable e) {
+        future.completeExceptionally(e);
+      }
+    });
+  }
+
+  @Override
+  public int read(
+    final ByteBuffer dst)
+    throws IOException
+  {
+    this.checkIsOpen();
+
+    return this.<Integer>withStateModificationLock(() -> {
+      if (this.position == this.lastReadEnd) {
+        ++this.sequentialReads;
+      } else {
+        this.sequentialReads = 0;
+      }
+
+      var total = 0;
+      var eof = false;
+      while (dst.hasRemaining()) {
+        final var offsetInBlock = (int) (this.position % this.blockSize);
+        final var block = this.blockAt(this.position - offsetInBlock);
+        if (offsetInBlock >= block.length) {
+          eof = true;
+          break;
+        }
+
+        final var count =
+          Math.min(block.length - offsetInBlock, dst.remaining());
+        dst.put(dst.position(), block.buffer, offsetInBlock, count);
+        dst.position(dst.position() + count);
+        this.position += count;
+        total += count;
+
+        if (block.length < this.blockSize) {
+          eof = this.position == block.start + block.length;
+          break;
+        }
+      }
+
+      this.lastReadEnd = this.position;
+      if (this.sequentialReads >= SEQUENTIAL_THRESHOLD) {
+        this.readAhead();
+      }
+
+      if (total == 0 && eof) {
+        return Integer.valueOf(-1);
+      }
+      return Integer.valueOf(total);
+    }).intValue();
+  }
+
+  @Override
+  public int write(
+    final ByteBuffer src)
+    throws IOException
+  {
+    this.checkIsOpen();
+
+    return this.<Integer>withStateModificationLock(() -> {
+      this.discard();
+      this.sequentialReads = 0;
+
+      this.delegateLock.lock();
+      try {
+        final var wrote = PositionalIO.write(this.delegate, src, this.position);
+        this.position += wrote;
+        return Integer.valueOf(wrote);
+      } finally {
+        this.delegateLock.unlock();
+      }
+    }).intValue();
+  }
+
+  @Override
+  public long position()
+  {
+    return this.readStateOptimistically(() -> this.position);
+  }
+
+  @Override
+  public SeekableByteChannel position(
+    final long newPosition)
+    throws IOException
+  {
+    if (newPosition < 0L) {
+      throw new IllegalArgumentException(
+        "Position %d must be non-negative"
+          .formatted(Long.valueOf(newPosition))
+      );
+    }
+
+    return this.withStateModificationLock(() -> {
+      this.position = newPosition;
+      return this;
+    });
+  }
+
+  @Override
+  public long size()
+    throws IOException
+  {
+    this.delegateLock.lock();
+    try {
+      return this.delegate.size();
+    } finally {
+      this.delegateLock.unlock();
+    }
+  }
+
+  @Override
+  public SeekableByteChannel truncate(
+    final long newSize)
+    throws IOException
+  {
+    this.checkIsOpen();
+
+    return this.withStateModificationLock(() -> {
+      this.discard();
+      this.sequentialReads = 0;
+
+      this.delegateLock.lock();
+      try {
+        this.delegate.truncate(newSize);
+      } finally {
+        this.delegateLock.unlock();
+      }
+      this.position = minUnsigned(this.position, newSize);
+      return this;
+    });
+  }
+
+  @Override
+  public boolean isOpen()
+  {
+    return !this.isMarkedClosed();
+  }
+
+  @Override
+  public void close()
+    throws IOException
+  {
+    if (this.markClosed()) {
+      this.withStateModificationLock(() -> {
+        this.discard();
+        return null;
+      });
+      this.delegate.close();
+    }
+  }
+
+  private record Block(
+    long start,
+    ByteBuffer buffer,
+    int length)
+  {
+
+  }
+}
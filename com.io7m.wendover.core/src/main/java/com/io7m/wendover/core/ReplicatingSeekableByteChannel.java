@@ -0,0 +1,571 @@
+/*
+ * Copyright © 2026 Mark Raynsford <code@io7m.com> https://www.io7m.com
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY
+ * SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF OR
+ * IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+
+package com.io7m.wendover.core;
+
+import com.io7m.wendover.core.internal.ChannelLists;
+import com.io7m.wendover.core.internal.PositionalIO;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channel;
+import java.nio.channels.SeekableByteChannel;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.TreeMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * <p>
+ * A seekable byte channel that mirrors every write and truncation of a
+ * primary channel to one or more secondary channels.
+ * </p>
+ * <p>
+ * Reads, positions, and sizes are served by the primary channel alone. Each
+ * write is performed on the primary channel, and the bytes that the primary
+ * channel accepted are then written to every secondary channel at the same
+ * position. Replication is either <i>synchronous</i>, in which case a write
+ * does not return until every secondary channel has been written, or
+ * <i>asynchronous</i>, in which case writes are placed in a bounded queue
+ * that is drained on an executor. Writes block the caller while the queue
+ * is full, and adjacent queued writes are coalesced into single writes of
+ * the secondary channels. {@link #flush()} waits until the queue is empty.
+ * </p>
+ * <p>
+ * If writing to a secondary channel fails and the channel is
+ * <i>failure-tolerant</i>, the secondary channel is detached: it receives no
+ * further writes, and the failure is reported by
+ * {@link #secondaryFailures()}. Otherwise, the failure is raised to the
+ * caller, either immediately (synchronous replication) or by the next write,
+ * truncation, flush, or close (asynchronous replication), and as the
+ * secondary channels can no longer be assumed to match the primary, every
+ * subsequent write and truncation fails. Closing this
+ * channel closes the primary and all secondary channels.
+ * </p>
+ *
+ * @since 1.2.0
+ */
+
+public final class ReplicatingSeekableByteChannel
+  extends DelegatingSeekableByteChannel
+{
+  private static final int MAXIMUM_MERGED_SIZE = Integer.MAX_VALUE - 8;
+
+  private final SeekableByteChannel[] secondaries;
+  private final boolean failureTolerant;
+  private final Executor executor;
+  private final int queueCapacity;
+  private final ReentrantLock writeLock;
+  private final ReentrantLock queueLock;
+  private final Condition queueChanged;
+  private final ArrayDeque<OperationType> queue;
+  private final TreeMap<Integer, IOException> failures;
+  private IOException failure;
+  private boolean draining;
+
+  private ReplicatingSeekableByteChannel(
+    final SeekableByteChannel inPrimary,
+    final List<? extends SeekableByteChannel> inSecondaries,
+    final boolean inFailureTolerant,
+    final Executor inExecutor,
+    final int inQueueCapacity)
+  {
+    super(inPrimary);
+
+    Objects.requireNonNull(inSecondaries, "secondaries");
+    if (inSecondaries.isEmpty()) {
+      throw new IllegalArgumentException(
+        "At least one secondary channel is required");
+    }
+
+    this.secondaries = new SeekableByteChannel[inSecondaries.size()];
+    for (int index = 0; index < this.secondaries.length; ++index) {
+      this.secondaries[index] =
+        Objects.requireNonNull(inSecondaries.get(index), "secondary");
+    }
+
+    this.failureTolerant = inFailureTolerant;
+    this.executor = inExecutor;
+    this.queueCapacity = inQueueCapacity;
+    this.writeLock = new ReentrantLock();
+    this.queueLock = new ReentrantLock();
+    this.queueChanged = this.queueLock.newCondition();
+    this.queue = new ArrayDeque<>();
+    this.failures = new TreeMap<>();
+    this.failure = null;
+    this.draining = false;
+  }
+
+  /**
+   * Create a channel that replicates writes synchronously.
+   *
+   * @param primary         The primary channel
+   * @param secondaries     The secondary channels
+   * @param failureTolerant {@code true} if failing secondary channels should
+   *                        be detached rather than failing writes
+   *
+   * @return A replicating channel
+   */
+
+  public static ReplicatingSeekableByteChannel synchronous(
+    final SeekableByteChannel primary,
+    final List<? extends SeekableByteChannel> secondaries,
+    final boolean failureTolerant)
+  {
+    return new ReplicatingSeekableByteChannel(
+      primary, secondaries, failureTolerant, null, 0);
+  }
+
+  /**
+   * Create a channel that replicates writes asynchronously.
+   *
+   * @param primary         The primary channel
+   * @param secondaries     The secondary channels
+   * @param failureTolerant {@code true} if failing secondary channels should
+   *                        be detached rather than failing writes
+   * @param executor        The executor used to write secondary channels
+   * @param queueCapacity   The maximum number of writes and truncations
+   *                        that may be queued
+   *
+   * @return A replicating channel
+   */
+
+  public static ReplicatingSeekableByteChannel asynchronous(
+    final SeekableByteChannel primary,
+    final List<? extends SeekableByteChannel> secondaries,
+    final boolean failureTolerant,
+    final Executor executor,
+    final int queueCapacity)
+  {
+    Objects.requireNonNull(executor, "executor");
+
+    if (queueCapacity <= 0) {
+      throw new IllegalArgumentException(
+        "Queue capacity %d must be positive"
+          .formatted(Integer.valueOf(queueCapacity))
+      );
+    }
+
+    return new ReplicatingSeekableByteChannel(
+      primary, secondaries, failureTolerant, executor, queueCapacity);
+  }
+
+  /**
+   * @return {@code true} if writes are replicated asynchronously
+   */
+
+  public boolean isAsynchronous()
+  {
+    return this.executor != null;
+  }
+
+  /**
+   * @return The failures of detached secondary channels, keyed by the index
+   * of the secondary channel
+   */
+
+  public Map<Integer, IOException> secondaryFailures()
+  {
+    this.queueLock.lock();
+    try {
+      return Map.copyOf(this.failures);
+    } finally {
+      this.queueLock.unlock();
+    }
+  }
+
+  @Override
+  public int write(
+    final ByteBuffer src)
+    throws IOException
+  {
+    this.writeLock.lock();
+    try {
+      this.checkFailure();
+
+      final var start = src.position();
+      final var position = this.delegate().position();
+      final var wrote = this.delegate().write(src);
+      if (wrote > 0) {
+        final var data =
+          src.duplicate().position(start).limit(start + wrote);
+        this.replicate(new Write(position, data));
+      }
+      return wrote;
+    } finally {
+      this.writeLock.unlock();
+    }
+  }
+
+  @Override
+  public SeekableByteChannel truncate(
+    final long size)
+    throws IOException
+  {
+    this.writeLock.lock();
+    try {
+      this.checkFailure();
+      this.delegate().truncate(size);
+      this.replicate(new Truncate(size));
+      return this;
+    } finally {
+      this.writeLock.unlock();
+    }
+  }
+
+  /**
+   * Wait until every queued write has been applied to the secondary
+   * channels. If writes are replicated synchronously, this method returns
+   * immediately.
+   *
+   * @throws IOException If replication has failed and the channel is not
+   *                     failure-tolerant, or if interrupted
+   */
+
+  public void flush()
+    throws IOException
+  {
+    if (this.isAsynchronous()) {
+      this.queueLock.lock();
+      try {
+        while (this.draining) {
+          this.queueChanged.await();
+        }
+      } catch (final InterruptedException e) {
+        Thread.currentThread().interrupt();
+        throw new InterruptedIOException();
+      } finally {
+        this.queueLock.unlock();
+      }
+    }
+    this.checkFailure();
+  }
+
+  private void checkFailure()
+    throws IOException
+  {
+    this.queueLock.lock();
+    try {
+      if (this.failure != null) {
+        throw new IOException("Replication failed", this.failure);
+      }
+    } finally {
+      this.queueLock.unlock();
+    }
+  }
+
+  private void replicate(
+    final OperationType operation)
+    throws IOException
+  {
+    if (!this.isAsynchronous()) {
+      this.apply(List.of(operation));
+      this.checkFailure();
+      return;
+    }
+
+    /*
+     * Queued writes must not share the caller's buffer, which the caller is
+     * free to reuse as soon as this method returns.
+     */
+
+    final OperationType queued;
+    if (operation instanceof Write write) {
+      final var copy = ByteBuffer.allocate(write.data().remaining());
+      copy.put(write.data()).flip();
+      queued = new Write(write.position(), copy);
+    } else {
+      queued = operation;
+    }
+
+    this.queueLock.lock();
+    try {
+      while (this.queue.size() >= this.queueCapacity) {
+        this.queueChanged.await();
+      }
+      this.queue.add(queued);
+      if (!this.draining) {
+        this.draining = true;
+        try {
+          this.executor.execute(this::drain);
+        } catch (final RuntimeException e) {
+          this.queue.removeLast();
+          this.draining = false;
+          throw e;
+        }
+      }
+    } catch (final InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new InterruptedIOException();
+    } finally {
+      this.queueLock.unlock();
+    }
+  }
+
+  private void drain()
+  {
+    var finished = false;
+    try {
+      while (true) {
+        final List<OperationType> batch;
+        this.queueLock.lock();
+        try {
+          if (this.queue.isEmpty()) {
+            this.draining = false;
+            this.queueChanged.signalAll();
+            finished = true;
+            return;
+          }
+          batch = coalesce(this.queue);
+          this.queue.clear();
+          this.queueChanged.signalAll();
+        } finally {
+          this.queueLock.unlock();
+        }
+        this.apply(batch);
+      }
+    } catch (final RuntimeException | Error e) {
+
+      /*
+       * The secondary channels can no longer be assumed to match the
+       * primary, whatever the failure policy.
+       */
+
+      this.queueLock.lock();
+      try {
+        this.queue.clear();
+        this.setFailure(new IOException("Replication task failed", e));
+      } finally {
+        this.queueLock.unlock();
+      }
+      throw e;
+    } finally {
+      if (!finished) {
+        this.queueLock.lock();
+        try {
+          this.draining = false;
+          this.queueChanged.signalAll();
+        } finally {
+          this.queueLock.unlock();
+        }
+      }
+    }
+  }
+
+  /**
+   * Merge runs of queued writes in which each write starts where the
+   * previous one ended. A run is cut short before its size would exceed the
+   * largest buffer that can be allocated.
+   */
+
+  private static List<OperationType> coalesce(
+    final ArrayDeque<OperationType> operations)
+  {
+    final var result = new ArrayList<OperationType>(operations.size());
+    final var run = new ArrayList<Write>();
+
+    var runSize = 0L;
+    for (final var operation : operations) {
+      if (operation instanceof Write write) {
+        final var size = write.data().remaining();
+        if (!run.isEmpty()) {
+          final var last = run.get(run.size() - 1);
+          final var adjacent =
+            last.position() + last.data().remaining() == write.position();
+          if (!adjacent || runSize + size > MAXIMUM_MERGED_SIZE) {
+            result.add(merge(run));
+            run.clear();
+            runSize = 0L;
+          }
+        }
+        run.add(write);
+        runSize += size;
+      } else {
+        if (!run.isEmpty()) {
+          result.add(merge(run));
+          run.clear();
+          runSize = 0L;
+        }
+        result.add(operation);
+      }
+    }
+    if (!run.isEmpty()) {
+      result.add(merge(run));
+    }
+    return result;
+  }
+
+  private static Write merge(
+    final List<Write> run)
+  {
+    if (run.size() == 1) {
+      return run.get(0);
+    }
+
+    var size = 0;
+    for (final var write : run) {
+      size += write.data().remaining();
+    }
+    final var data = ByteBuffer.allocate(size);
+    for (final var write : run) {
+      data.put(write.data().duplicate());
+    }
+    return new Write(run.get(0).position(), data.flip());
+  }
+
+  /**
+   * Apply operations to every attached secondary channel, recording any
+   * failures.
+   */
+
+  private void apply(
+    final List<OperationType> operations)
+  {
+    for (int index = 0; index < this.secondaries.length; ++index) {
+      if (this.isDetached(index)) {
+        continue;
+      }
+
+      try {
+        for (final var operation : operations) {
+          operation.apply(this.secondaries[index]);
+        }
+      } catch (final IOException e) {
+        this.recordFailure(index, e);
+      } catch (final RuntimeException e) {
+        this.recordFailure(index, new IOException(e));
+      }
+    }
+  }
+
+  private boolean isDetached(
+    final int index)
+  {
+    this.queueLock.lock();
+    try {
+      return this.failures.containsKey(Integer.valueOf(index));
+    } finally {
+      this.queueLock.unlock();
+    }
+  }
+
+  private void recordFailure(
+    final int index,
+    final IOException e)
+  {
+    this.queueLock.lock();
+    try {
+      if (this.failureTolerant) {
+        this.failures.put(Integer.valueOf(index), e);
+      } else {
+        this.setFailure(e);
+      }
+    } finally {
+      this.queueLock.unlock();
+    }
+  }
+
+  private void setFailure(
+    final IOException e)
+  {
+    if (this.failure == null) {
+      this.failure = e;
+    } else {
+      this.failure.addSuppressed(e);
+    }
+  }
+
+  /**
+   * Close the channel. Any queued writes are applied first, and then the
+   * primary and secondary channels are closed.
+   *
+   * @throws IOException If replication failed, or on errors closing channels
+   */
+
+  @Override
+  public void close()
+    throws IOException
+  {
+    if (!this.isOpen()) {
+      return;
+    }
+
+    this.writeLock.lock();
+    try {
+      final var channels = new Channel[this.secondaries.length + 1];
+      channels[0] = this.delegate();
+      System.arraycopy(
+        this.secondaries, 0, channels, 1, this.secondaries.length);
+
+      try {
+        this.flush();
+      } finally {
+        ChannelLists.closeAll(channels);
+      }
+    } finally {
+      this.writeLock.unlock();
+    }
+  }
+
+  private interface OperationType
+  {
+    void apply(SeekableByteChannel channel)
+      throws IOException;
+  }
+
+  private record Write(
+    long position,
+    ByteBuffer data)
+    implements OperationType
+  {
+    @Override
+    public void apply(
+      final SeekableByteChannel channel)
+      throws IOException
+    {
+      final var buffer = this.data.duplicate();
+      while (buffer.hasRemaining()) {
+        final var w = PositionalIO.write(
+          channel,
+          buffer,
+          this.position + (buffer.position() - this.data.position())
+        );
+        if (w <= 0) {
+          throw new IOException("Secondary channel did not accept any bytes");
+        }
+      }
+    }
+  }
+
+  private record Truncate(
+    long size)
+    implements OperationType
+  {
+    @Override
+    public void apply(
+      final SeekableByteChannel channel)
+      throws IOException
+    {
+      channel.truncate(this.size);
+    }
+  }
+}
@@ -0,0 +1,299 @@
+/*
+ * Copyright © 2026 Mark Raynsford <code@io7m.com> https://www.io7m.com
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY
+ * SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF OR
+ * IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+
+package com.io7m.wendover.core;
+
+import com.io7m.wendover.core.internal.PaddedLong;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.ClosedByInterruptException;
+import java.nio.channels.ClosedChannelException;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.channels.WritableByteChannel;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * <p>
+ * A fixed-capacity circular buffer exposed as a pair of channels: bytes
+ * written to the {@link #sink()} channel are read from the
+ * {@link #source()} channel.
+ * </p>
+ * <p>
+ * The pipe supports exactly one producer thread and one consumer thread at
+ * a time, and uses no locks: the read and write indices are published
+ * through volatile fields that are padded to avoid false sharing, and a
+ * thread that must wait for space or data parks until the other side
+ * unparks it. Writes block until every byte has been written; reads block
+ * until at least one byte is available. Once the sink is closed, reads
+ * return the remaining data followed by end-of-stream. Once the source is
+ * closed, writes fail.
+ * </p>
+ *
+ * @since 1.2.0
+ */
+
+public final class RingBufferPipe
+{
+  private final byte[] data;
+  private final PaddedLong head;
+  private final PaddedLong tail;
+  private final Sink sink;
+  private final Source source;
+  private volatile Thread waitingProducer;
+  private volatile Thread waitingConsumer;
+  private volatile boolean sinkClosed;
+  private volatile boolean sourceClosed;
+
+  /**
+   * A fixed-capacity circular buffer exposed as a pair of channels.
+   *
+   * @param inCapacity The capacity of the buffer in bytes
+   */
+
+  public RingBufferPipe(
+    final int inCapacity)
+  {
+    if (inCapacity <= 0) {
+      throw new IllegalArgumentException(
+        "Capacity %d must be positive"
+          .formatted(Integer.valueOf(inCapacity))
+      );
+    }
+
+    this.data = new byte[inCapacity];
+    this.head = new PaddedLong(0L);
+    this.tail = new PaddedLong(0L);
+    this.sink = new Sink();
+    this.source = new Source();
+  }
+
+  /**
+   * @return The capacity of the buffer in bytes
+   */
+
+  public int capacity()
+  {
+    return this.data.length;
+  }
+
+  /**
+   * @return The channel to which the producer writes
+   */
+
+  public WritableByteChannel sink()
+  {
+    return this.sink;
+  }
+
+  /**
+   * @return The channel from which the consumer reads
+   */
+
+  public ReadableByteChannel source()
+  {
+    return this.source;
+  }
+
+  private static void unpark(
+    final Thread thread)
+  {
+    if (thread != null) {
+      LockSupport.unpark(thread);
+    }
+  }
+
+  private final class Sink implements WritableByteChannel
+  {
+    private long cachedTail;
+
+    Sink()
+    {
+      this.cachedTail = 0L;
+    }
+
+    @Override
+    public int write(
+      final ByteBuffer src)
+      throws IOException
+    {
+      if (RingBufferPipe.this.sinkClosed) {
+        throw new ClosedChannelException();
+      }
+
+      final var pipe = RingBufferPipe.this;
+      final var capacity = pipe.data.length;
+      final var total = src.remaining();
+
+      while (src.hasRemaining()) {
+        if (pipe.sourceClosed) {
+          throw new IOException("The source channel of the pipe is closed");
+        }
+
+        final var writeIndex = pipe.head.get();
+        var free = capacity - (writeIndex - this.cachedTail);
+        if (free == 0L) {
+          this.cachedTail = pipe.tail.get();
+          free = capacity - (writeIndex - this.cachedTail);
+          if (free == 0L) {
+            this.awaitSpace();
+            continue;
+          }
+        }
+
+        final var count = (int) Math.min(free, src.remaining());
+        final var offset = (int) (writeIndex % capacity);
+        final var first = Math.min(count, capacity - offset);
+        src.get(pipe.data, offset, first);
+        src.get(pipe.data, 0, count - first);
+
+        pipe.head.set(writeIndex + count);
+        unpark(pipe.waitingConsumer);
+      }
+      return total;
+    }
+
+    private void awaitSpace()
+      throws IOException
+    {
+      final var pipe = RingBufferPipe.this;
+
+      /*
+       * The waiting thread is published before the space is checked again,
+       * and the consumer advances the tail before checking for a waiting
+       * thread, so at least one side always observes the other.
+       */
+
+      pipe.waitingProducer = Thread.currentThread();
+      try {
+        final var full =
+          pipe.head.get() - pipe.tail.get() == pipe.data.length;
+        if (full && !pipe.sourceClosed) {
+          LockSupport.park(pipe);
+        }
+      } finally {
+        pipe.waitingProducer = null;
+      }
+
+      if (Thread.interrupted()) {
+        this.close();
+        Thread.currentThread().interrupt();
+        throw new ClosedByInterruptException();
+      }
+    }
+
+    @Override
+    public boolean isOpen()
+    {
+      return !RingBufferPipe.this.sinkClosed;
+    }
+
+    @Override
+    public void close()
+    {
+      RingBufferPipe.this.sinkClosed = true;
+      unpark(RingBufferPipe.this.waitingConsumer);
+    }
+  }
+
+  private final class Source implements ReadableByteChannel
+  {
+    private long cachedHead;
+
+    Source()
+    {
+      this.cachedHead = 0L;
+    }
+
+    @Override
+    public int read(
+      final ByteBuffer dst)
+      throws IOException
+    {
+      if (RingBufferPipe.this.sourceClosed) {
+        throw new ClosedChannelException();
+      }
+      if (!dst.hasRemaining()) {
+        return 0;
+      }
+
+      final var pipe = RingBufferPipe.this;
+      final var capacity = pipe.data.length;
+
+      while (true) {
+        final var readIndex = pipe.tail.get();
+        var available = this.cachedHead - readIndex;
+        if (available == 0L) {
+          final var closed = pipe.sinkClosed;
+          this.cachedHead = pipe.head.get();
+          available = this.cachedHead - readIndex;
+          if (available == 0L) {
+            if (closed) {
+              return -1;
+            }
+            this.awaitData();
+            continue;
+          }
+        }
+
+        final var count = (int) Math.min(available, dst.remaining());
+        final var offset = (int) (readIndex % capacity);
+        final var first = Math.min(count, capacity - offset);
+        dst.put(pipe.data, offset, first);
+        dst.put(pipe.data, 0, count - first);
+
+        pipe.tail.set(readIndex + count);
+        unpark(pipe.waitingProducer);
+        return count;
+      }
+    }
+
+    private void awaitData()
+      throws IOException
+    {
+      final var pipe = RingBufferPipe.this;
+
+      pipe.waitingConsumer = Thread.currentThread();
+      try {
+        final var empty = pipe.head.get() == pipe.tail.get();
+        if (empty && !pipe.sinkClosed) {
+          LockSupport.park(pipe);
+        }
+      } finally {
+        pipe.waitingConsumer = null;
+      }
+
+      if (Thread.interrupted()) {
+        this.close();
+        Thread.currentThread().interrupt();
+        throw new ClosedByInterruptException();
+      }
+    }
+
+    @Override
+    public boolean isOpen()
+    {
+      return !RingBufferPipe.this.sourceClosed;
+    }
+
+    @Override
+    public void close()
+    {
+      RingBufferPipe.this.sourceClosed = true;
+      unpark(RingBufferPipe.this.waitingProducer);
+    }
+  }
+}
@@ -0,0 +1,55 @@
+/*
+ * Copyright © 2026 Mark Raynsford <code@io7m.com> https://www.io7m.com
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY
+ * SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF OR
+ * IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+
+package com.io7m.wendover.core;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.SeekableByteChannel;
+
+/**
+ * A channel that can return the bytes at its current position as a buffer
+ * without copying them.
+ *
+ * @see ByteBufferChannels#readSlice(SeekableByteChannel, int)
+ * @since 1.2.0
+ */
+
+public interface SliceReadableChannelType extends SeekableByteChannel
+{
+  /**
+   * <p>
+   * Return a read-only buffer containing at most {@code length} bytes
+   * starting at the current position, and advance the position by the
+   * number of bytes returned. The returned buffer is empty if the position
+   * is at or beyond the end of the channel.
+   * </p>
+   * <p>
+   * Where possible, the returned buffer shares the memory of the channel
+   * rather than copying it, and so subsequent writes to the channel may be
+   * visible through the buffer.
+   * </p>
+   *
+   * @param length The maximum number of bytes
+   *
+   * @return A read-only buffer
+   *
+   * @throws IOException On errors
+   */
+
+  ByteBuffer readSlice(int length)
+    throws IOException;
+}
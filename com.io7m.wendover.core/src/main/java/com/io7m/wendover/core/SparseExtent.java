@@ -0,0 +1,65 @@
+/*
+ * Copyright © 2026 Mark Raynsford <code@io7m.com> https://www.io7m.com
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY
+ * SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF OR
+ * IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+
+package com.io7m.wendover.core;
+
+import static com.io7m.wendover.core.internal.Unsigned.checkRange;
+
+/**
+ * A region of a sparse channel that is backed by storage.
+ *
+ * @param offset The offset of the first byte of the extent
+ * @param length The number of bytes in the extent
+ *
+ * @see SparseSeekableByteChannel
+ * @since 1.2.0
+ */
+
+public record SparseExtent(
+  long offset,
+  long length)
+{
+  /**
+   * A region of a sparse channel that is backed by storage.
+   *
+   * @param offset The offset of the first byte of the extent
+   * @param length The number of bytes in the extent
+   */
+
+  public SparseExtent
+  {
+    if (offset < 0L) {
+      throw new IllegalArgumentException(
+        "Offset %d must be non-negative".formatted(Long.valueOf(offset))
+      );
+    }
+    if (length <= 0L) {
+      throw new IllegalArgumentException(
+        "Length %d must be positive".formatted(Long.valueOf(length))
+      );
+    }
+    checkRange(offset, length);
+  }
+
+  /**
+   * @return The offset of the byte following the last byte of the extent
+   */
+
+  public long end()
+  {
+    return this.offset + this.length;
+  }
+}
@@ -0,0 +1,312 @@
+/*
+ * Copyright © 2026 Mark Raynsford <code@io7m.com> https://www.io7m.com
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY
+ * SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF OR
+ * IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+
+package com.io7m.wendover.core;
+
+import com.io7m.wendover.core.internal.AbstractLockingChannel;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.SeekableByteChannel;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.TreeMap;
+
+import static com.io7m.wendover.core.internal.Unsigned.maxUnsigned;
+import static com.io7m.wendover.core.internal.Unsigned.minUnsigned;
+import static java.lang.Integer.toUnsignedLong;
+
+/**
+ * <p>
+ * An in-memory seekable byte channel that only stores the regions that have
+ * been written.
+ * </p>
+ * <p>
+ * The channel is divided into blocks of a fixed size. Storage is allocated
+ * for a block the first time that non-zero data is written to it; blocks
+ * that have never been allocated are <i>holes</i>, and read as zeros. The
+ * allocated blocks are reported as a list of {@link SparseExtent} values so
+ * that copying utilities can skip the holes.
+ * </p>
+ *
+ * @since 1.2.0
+ */
+
+public final class SparseSeekableByteChannel
+  extends AbstractLockingChannel
+{
+  private final int blockSize;
+  private final TreeMap<Long, byte[]> blocks;
+  private final byte[] zeros;
+  private long position;
+  private long size;
+
+  /**
+   * An in-memory seekable byte channel that only stores the regions that
+   * have been written.
+   *
+   * @param inBlockSize The size of blocks
+   */
+
+  public SparseSeekableByteChannel(
+    final int inBlockSize)
+  {
+    if (inBlockSize <= 0) {
+      throw new IllegalArgumentException(
+        "Block size %d must be positive"
+          .formatted(Integer.valueOf(inBlockSize))
+      );
+    }
+
+    this.blockSize = inBlockSize;
+    this.blocks = new TreeMap<>();
+    this.zeros = new byte[inBlockSize];
+    this.position = 0L;
+    this.size = 0L;
+  }
+
+  /**
+   * @return The size of blocks
+   */
+
+  public int blockSize()
+  {
+    return this.blockSize;
+  }
+
+  /**
+   * @return The number of bytes of storage currently allocated
+   */
+
+  public long allocatedBytes()
+  {
+    return this.readStateOptimistically(
+      () -> (long) this.blocks.size() * this.blockSize);
+  }
+
+  /**
+   * Determine the regions of the channel that are backed by storage.
+   * Adjacent allocated blocks are merged into a single extent, and no
+   * extent extends beyond the size of the channel. Every byte of the
+   * channel that is not within an extent is zero.
+   *
+   * @return The allocated extents in ascending order of offset
+   */
+
+  public List<SparseExtent> extents()
+  {
+    return this.withStateReadingLock(() -> {
+      final var extents = new ArrayList<SparseExtent>();
+
+      var start = -1L;
+      var end = -1L;
+      for (final var index : this.blocks.keySet()) {
+        final var blockStart = index.longValue() * this.blockSize;
+        if (blockStart != end) {
+          addExtent(extents, start, end, this.size);
+          start = blockStart;
+        }
+        end = blockStart + this.blockSize;
+      }
+      addExtent(extents, start, end, this.size);
+      return List.copyOf(extents);
+    });
+  }
+
+  private static void addExtent(
+    final List<SparseExtent> extents,
+    final long start,
+    final long end,
+    final long size)
+  {
+    if (start >= 0L) {
+      final var clipped = Math.min(end, size);
+      if (clipped > start) {
+        extents.add(new SparseExtent(start, clipped - start));
+      }
+    }
+  }
+
+  private static boolean isZero(
+    final ByteBuffer src,
+    final int length)
+  {
+    final var base = src.position();
+    for (int index = 0; index < length; ++index) {
+      if (src.get(base + index) != 0) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  @Override
+  public int read(
+    final ByteBuffer dst)
+    throws IOException
+  {
+    this.checkIsOpen();
+
+    return this.<Integer>withStateModificationLock(() -> {
+      if (Long.compareUnsigned(this.position, this.size) >= 0) {
+        return Integer.valueOf(-1);
+      }
+
+      final var toRead =
+        (int) minUnsigned(
+          this.size - this.position,
+          toUnsignedLong(dst.remaining())
+        );
+
+      var done = 0;
+      while (done < toRead) {
+        final var index = this.position / this.blockSize;
+        final var offset = (int) (this.position % this.blockSize);
+        final var length = Math.min(this.blockSize - offset, toRead - done);
+
+        final var block = this.blocks.get(Long.valueOf(index));
+        if (block != null) {
+          dst.put(block, offset, length);
+        } else {
+          dst.put(this.zeros, 0, length);
+        }
+
+        done += length;
+        this.position += length;
+      }
+      return Integer.valueOf(done);
+    }).intValue();
+  }
+
+  @Override
+  public int write(
+    final ByteBuffer src)
+    throws IOException
+  {
+    this.checkIsOpen();
+
+    return this.<Integer>withStateModificationLock(() -> {
+      final var toWrite = src.remaining();
+
+      var done = 0;
+      while (done < toWrite) {
+        final var index = this.position / this.blockSize;
+        final var offset = (int) (this.position % this.blockSize);
+        final var length = Math.min(this.blockSize - offset, toWrite - done);
+
+        /*
+         * Writing zeros into a hole leaves the hole in place.
+         */
+
+        final var key = Long.valueOf(index);
+        var block = this.blocks.get(key);
+        if (block == null && isZero(src, length)) {
+          src.position(src.position() + length);
+        } else {
+          if (block == null) {
+            block = new byte[this.blockSize];
+            this.blocks.put(key, block);
+          }
+          src.get(block, offset, length);
+        }
+
+        done += length;
+        this.position += length;
+      }
+
+      this.size = maxUnsigned(this.size, this.position);
+      return Integer.valueOf(done);
+    }).intValue();
+  }
+
+  @Override
+  public long position()
+  {
+    return this.readStateOptimistically(() -> this.position);
+  }
+
+  @Override
+  public SeekableByteChannel position(
+    final long newPosition)
+    throws IOException
+  {
+    if (newPosition < 0L) {
+      throw new IllegalArgumentException(
+        "Position %d must be non-negative"
+          .formatted(Long.valueOf(newPosition))
+      );
+    }
+
+    return this.withStateModificationLock(() -> {
+      this.position = newPosition;
+      return this;
+    });
+  }
+
+  @Override
+  public long size()
+  {
+    return this.readStateOptimistically(() -> this.size);
+  }
+
+  @Override
+  public SeekableByteChannel truncate(
+    final long newSize)
+    throws IOException
+  {
+    this.checkIsOpen();
+
+    return this.withStateModificationLock(() -> {
+      if (Long.compareUnsigned(newSize, this.size) < 0) {
+        this.size = newSize;
+
+        final var lastIndex = newSize / this.blockSize;
+        this.blocks.tailMap(Long.valueOf(lastIndex), false).clear();
+
+        final var offset = (int) (newSize % this.blockSize);
+        if (offset == 0) {
+          this.blocks.remove(Long.valueOf(lastIndex));
+        } else {
+          final var last = this.blocks.get(Long.valueOf(lastIndex));
+          if (last != null) {
+            System.arraycopy(
+              this.zeros, 0, last, offset, this.blockSize - offset);
+          }
+        }
+      }
+      this.position = minUnsigned(this.position, newSize);
+      return this;
+    });
+  }
+
+  @Override
+  public boolean isOpen()
+  {
+    return !this.isMarkedClosed();
+  }
+
+  @Override
+  public void close()
+    throws IOException
+  {
+    if (this.markClosed()) {
+      this.withStateModificationLock(() -> {
+        this.blocks.clear();
+        return null;
+      });
+    }
+  }
+}
@@ -0,0 +1,463 @@
+/*
+ * Copyright © 2026 Mark Raynsford <code@io7m.com> https://www.io7m.com
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY
+ * SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF OR
+ * IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+
+package com.io7m.wendover.core;
+
+import com.io7m.wendover.core.internal.AbstractLockingChannel;
+import com.io7m.wendover.core.internal.ChannelLists;
+import com.io7m.wendover.core.internal.PositionalIO;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.SeekableByteChannel;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static com.io7m.wendover.core.internal.Unsigned.addChecked;
+import static com.io7m.wendover.core.internal.Unsigned.intersectLength;
+import static com.io7m.wendover.core.internal.Unsigned.maxUnsigned;
+import static com.io7m.wendover.core.internal.Unsigned.minUnsigned;
+import static java.lang.Integer.toUnsignedLong;
+
+/**
+ * <p>
+ * A seekable byte channel that stripes its data across a number of delegate
+ * channels, in the manner of RAID-0.
+ * </p>
+ * <p>
+ * The data is divided into stripes of a fixed size, and stripe {@code s}
+ * is stored in delegate {@code s mod N} at offset
+ * {@code (s / N) * stripeSize}. A read or write that touches more than one
+ * delegate performs the I/O for each delegate concurrently on the given
+ * executor; each delegate is only ever accessed by one task at a time.
+ * </p>
+ * <p>
+ * The initial size of the channel is the length of the longest prefix of
+ * stripes that is fully present in the delegates. Closing this channel
+ * closes all of the delegates.
+ * </p>
+ *
+ * @since 1.2.0
+ */
+
+public final class StripedSeekableByteChannel
+  extends AbstractLockingChannel
+{
+  private final SeekableByteChannel[] delegates;
+  private final int stripeSize;
+  private final Executor executor;
+  private long position;
+  private long size;
+
+  /**
+   * A seekable byte channel that stripes its data across a number of
+   * delegate channels.
+   *
+   * @param inDelegates  The delegate channels
+   * @param inStripeSize The size of stripes
+   * @param inExecutor   The executor used to perform I/O on delegates
+   *
+   * @throws IOException On errors obtaining the sizes of the delegates
+   */
+
+  public StripedSeekableByteChannel(
+    final List<? extends SeekableByteChannel> inDelegates,
+    final int inStripeSize,
+    final Executor inExecutor)
+    throws IOException
+  {
+    Objects.requireNonNull(inDelegates, "delegates");
+    this.executor = Objects.requireNonNull(inExecutor, "executor");
+
+    if (inDelegates.isEmpty()) {
+      throw new IllegalArgumentException("At least one delegate is required");
+    }
+    if (inStripeSize <= 0) {
+      throw new IllegalArgumentException(
+        "Stripe size %d must be positive"
+          .formatted(Integer.valueOf(inStripeSize))
+      );
+    }
+
+    this.stripeSize = inStripeSize;
+    this.delegates = new SeekableByteChannel[inDelegates.size()];
+    for (int index = 0; index < this.delegates.length; ++index) {
+      this.delegates[index] =
+        Objects.requireNonNull(inDelegates.get(index), "delegate");
+    }
+
+    this.size = this.initialSize();
+    this.position = 0L;
+  }
+
+  /**
+   * Determine the first stripe that is not fully present. Every stripe
+   * before it is complete, and the channel ends with whatever part of that
+   * stripe is present.
+   */
+
+  private long initialSize()
+    throws IOException
+  {
+    final var count = this.delegates.length;
+
+    var firstIncomplete = Long.MAX_VALUE;
+    var partial = 0L;
+    for (int index = 0; index < count; ++index) {
+      final var delegateSize = this.delegates[index].size();
+      final var rows = delegateSize / this.stripeSize;
+      final var stripe = rows * count + index;
+      if (stripe < firstIncomplete) {
+        firstIncomplete = stripe;
+        partial = delegateSize % this.stripeSize;
+      }
+    }
+    return firstIncomplete * this.stripeSize + partial;
+  }
+
+  /**
+   * @return The size of stripes
+   */
+
+  public int stripeSize()
+  {
+    return this.stripeSize;
+  }
+
+  /**
+   * Divide the logical range {@code [start, start + length)} into pieces
+   * that each fall within a single stripe, grouped by delegate. The end of
+   * the range is checked once, so that no piece can overflow.
+   */
+
+  private Plan plan(
+    final long start,
+    final int length)
+  {
+    addChecked(start, toUnsignedLong(length));
+
+    final var byDelegate = new ArrayList<List<Piece>>(this.delegates.length);
+    for (int index = 0; index < this.delegates.length; ++index) {
+      byDelegate.add(new ArrayList<>());
+    }
+
+    var offset = 0;
+    var ordinal = 0;
+    while (offset < length) {
+      final var logical = start + offset;
+      final var stripe = logical / this.stripeSize;
+      final var within = (int) (logical % this.stripeSize);
+      final var delegate = (int) (stripe % this.delegates.length);
+      final var row = stripe / this.delegates.length;
+      final var count = Math.min(this.stripeSize - within, length - offset);
+
+      byDelegate.get(delegate).add(new Piece(
+        ordinal,
+        row * this.stripeSize + within,
+        offset,
+        count
+      ));
+      offset += count;
+      ++ordinal;
+    }
+    return new Plan(byDelegate, ordinal);
+  }
+
+  /**
+   * Execute a plan, running the pieces for each delegate as a separate
+   * task when more than one delegate is involved.
+   *
+   * @return The number of contiguous bytes transferred
+   */
+
+  private int execute(
+    final Plan plan,
+    final ByteBuffer buffer,
+    final boolean reading)
+    throws IOException
+  {
+    final var results = new int[plan.pieceCount];
+    final var lengths = new int[plan.pieceCount];
+    final var base = buffer.position();
+
+    final var active = new ArrayList<Integer>();
+    for (int index = 0; index < this.delegates.length; ++index) {
+      final var pieces = plan.byDelegate.get(index);
+      for (final var piece : pieces) {
+        lengths[piece.ordinal] = piece.length;
+      }
+      if (!pieces.isEmpty()) {
+        active.add(Integer.valueOf(index));
+      }
+    }
+
+    if (active.size() == 1) {
+      this.runPieces(
+        active.get(0).intValue(), plan, buffer, base, results, reading);
+    } else {
+      this.runConcurrently(active, plan, buffer, base, results, reading);
+    }
+
+    var total = 0;
+    for (int index = 0; index < plan.pieceCount; ++index) {
+      total += results[index];
+      if (results[index] < lengths[index]) {
+        break;
+      }
+    }
+    return total;
+  }
+
+  private void runConcurrently(
+    final List<Integer> active,
+    final Plan plan,
+    final ByteBuffer buffer,
+    final int base,
+    final int[] results,
+    final boolean reading)
+    throws IOException
+  {
+    final var futures = new CompletableFuture<?>[active.size()];
+    final var abandoned = new AtomicBoolean(false);
+
+    int index = 0;
+    try {
+      for (; index < futures.length; ++index) {
+        final var delegate = active.get(index).intValue();
+        final var future = new CompletableFuture<Void>();
+        futures[index] = future;
+        this.executor.execute(() -> {
+          if (abandoned.get()) {
+            future.complete(null);
+            return;
+          }
+          try {
+            this.runPieces(delegate, plan, buffer, base, results, reading);
+            future.complete(null);
+          } catch (final Throwable e) {
+            future.completeExceptionally(e);
+          }
+        });
+      }
+    } catch (final RuntimeException e) {
+      /*
+       * The executor refused a task. Tasks that have not yet started are
+       * skipped, and those that have are allowed to finish so that nothing
+       * touches the buffer or the delegates once the exception is raised.
+       */
+
+      abandoned.set(true);
+      CompletableFuture.allOf(Arrays.copyOf(futures, index))
+        .handle((ignored, x) -> null)
+        .join();
+      throw e;
+    }
+
+    try {
+      CompletableFuture.allOf(futures).join();
+    } catch (final CompletionException e) {
+      if (e.getCause() instanceof IOException io) {
+        throw io;
+      }
+      throw e;
+    }
+  }
+
+  private void runPieces(
+    final int delegateIndex,
+    final Plan plan,
+    final ByteBuffer buffer,
+    final int base,
+    final int[] results,
+    final boolean reading)
+    throws IOException
+  {
+    final var delegate = this.delegates[delegateIndex];
+    for (final var piece : plan.byDelegate.get(delegateIndex)) {
+      final var slice = buffer.slice(base + piece.bufferOffset, piece.length);
+      while (slice.hasRemaining()) {
+        final var at = piece.delegatePosition + slice.position();
+        final int r;
+        if (reading) {
+          r = PositionalIO.read(delegate, slice, at);
+        } else {
+          r = PositionalIO.write(delegate, slice, at);
+        }
+        if (r <= 0) {
+          break;
+        }
+      }
+      results[piece.ordinal] = slice.position();
+    }
+  }
+
+  @Override
+  public int read(
+    final ByteBuffer dst)
+    throws IOException
+  {
+    this.checkIsOpen();
+
+    return this.<Integer>withStateModificationLock(() -> {
+      if (Long.compareUnsigned(this.position, this.size) >= 0) {
+        return Integer.valueOf(-1);
+      }
+
+      final var toRead =
+        (int) intersectLength(
+          this.position,
+          toUnsignedLong(dst.remaining()),
+          this.size
+        );
+
+      final var read =
+        this.execute(this.plan(this.position, toRead), dst, true);
+
+      dst.position(dst.position() + read);
+      this.position += read;
+      return Integer.valueOf(read);
+    }).intValue();
+  }
+
+  @Override
+  public int write(
+    final ByteBuffer src)
+    throws IOException
+  {
+    this.checkIsOpen();
+
+    return this.<Integer>withStateModificationLock(() -> {
+      final var wrote =
+        this.execute(this.plan(this.position, src.remaining()), src, false);
+
+      src.position(src.position() + wrote);
+      this.position += wrote;
+      this.size = maxUnsigned(this.size, this.position);
+      return Integer.valueOf(wrote);
+    }).intValue();
+  }
+
+  @Override
+  public long position()
+  {
+    return this.readStateOptimistically(() -> this.position);
+  }
+
+  @Override
+  public SeekableByteChannel position(
+    final long newPosition)
+    throws IOException
+  {
+    if (newPosition < 0L) {
+      throw new IllegalArgumentException(
+        "Position %d must be non-negative"
+          .formatted(Long.valueOf(newPosition))
+      );
+    }
+
+    return this.withStateModificationLock(() -> {
+      this.position = newPosition;
+      return this;
+    });
+  }
+
+  @Override
+  public long size()
+  {
+    return this.readStateOptimistically(() -> this.size);
+  }
+
+  @Override
+  public SeekableByteChannel truncate(
+    final long newSize)
+    throws IOException
+  {
+    this.checkIsOpen();
+
+    return this.withStateModificationLock(() -> {
+      if (Long.compareUnsigned(newSize, this.size) < 0) {
+        for (int index = 0; index < this.delegates.length; ++index) {
+          this.delegates[index].truncate(this.delegateShare(index, newSize));
+        }
+        this.size = newSize;
+      }
+      this.position = minUnsigned(this.position, newSize);
+      return this;
+    });
+  }
+
+  /**
+   * @return The number of bytes that delegate {@code index} holds for a
+   * channel of size {@code logicalSize}
+   */
+
+  private long delegateShare(
+    final int index,
+    final long logicalSize)
+  {
+    final var count = this.delegates.length;
+    final var fullStripes = logicalSize / this.stripeSize;
+    final var partial = logicalSize % this.stripeSize;
+
+    var stripes = fullStripes / count;
+    if (index < fullStripes % count) {
+      ++stripes;
+    }
+
+    var share = stripes * this.stripeSize;
+    if (fullStripes % count == index) {
+      share += partial;
+    }
+    return share;
+  }
+
+  @Override
+  public boolean isOpen()
+  {
+    return !this.isMarkedClosed();
+  }
+
+  @Override
+  public void close()
+    throws IOException
+  {
+    if (this.markClosed()) {
+      ChannelLists.closeAll(this.delegates);
+    }
+  }
+
+  private record Piece(
+    int ordinal,
+    long delegatePosition,
+    int bufferOffset,
+    int length)
+  {
+
+  }
+
+  private record Plan(
+    List<List<Piece>> byDelegate,
+    int pieceCount)
+  {
+
+  }
+}
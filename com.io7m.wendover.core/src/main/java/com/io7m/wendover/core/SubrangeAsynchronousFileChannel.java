@@ -0,0 +1,363 @@
+/*
+ * Copyright © 2026 Mark Raynsford <code@io7m.com> https://www.io7m.com
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY
+ * SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF OR
+ * IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+
+package com.io7m.wendover.core;
+
+import com.io7m.wendover.core.internal.FutureCompletionHandler;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.AsynchronousFileChannel;
+import java.nio.channels.ClosedChannelException;
+import java.nio.channels.CompletionHandler;
+import java.nio.channels.FileLock;
+import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static com.io7m.wendover.core.internal.Unsigned.checkRange;
+import static com.io7m.wendover.core.internal.Unsigned.intersectLength;
+import static java.lang.Integer.toUnsignedLong;
+
+/**
+ * <p>
+ * An asynchronous file channel that can address a subset of a delegate
+ * channel.
+ * </p>
+ * <p>
+ * This is the asynchronous counterpart of {@link SubrangeSeekableByteChannel}:
+ * positions are translated by the base offset, and reads and writes are
+ * clamped to the limit. As asynchronous file channels have no notion of a
+ * current position, instances may be freely shared between threads.
+ * </p>
+ *
+ * @since 1.2.0
+ */
+
+public final class SubrangeAsynchronousFileChannel
+  extends AsynchronousFileChannel
+{
+  private final CloseOperationType<SubrangeAsynchronousFileChannel> onClose;
+  private final AsynchronousFileChannel delegate;
+  private final long baseStart;
+  private final long relativeLimit;
+  private final AtomicBoolean closed;
+
+  /**
+   * An asynchronous file channel that can address a subset of a delegate
+   * channel.
+   *
+   * @param inDelegate The delegate channel
+   * @param inBase     The base offset
+   * @param inLimit    The number of bytes that can be addressed
+   * @param inOnClose  A function executed when the channel is closed
+   */
+
+  public SubrangeAsynchronousFileChannel(
+    final AsynchronousFileChannel inDelegate,
+    final long inBase,
+    final long inLimit,
+    final CloseOperationType<SubrangeAsynchronousFileChannel> inOnClose)
+  {
+    this.delegate =
+      Objects.requireNonNull(inDelegate, "delegate");
+    this.onClose =
+      Objects.requireNonNull(inOnClose, "inOnClose");
+
+    checkRange(inBase, inLimit);
+
+    this.relativeLimit = inLimit;
+    this.baseStart = inBase;
+    this.closed = new AtomicBoolean(false);
+  }
+
+  /**
+   * An asynchronous file channel that can address a subset of a delegate
+   * channel.
+   *
+   * @param inDelegate The delegate channel
+   * @param inBase     The base offset
+   * @param inLimit    The number of bytes that can be addressed
+   */
+
+  public SubrangeAsynchronousFileChannel(
+    final AsynchronousFileChannel inDelegate,
+    final long inBase,
+    final long inLimit)
+  {
+    this(inDelegate, inBase, inLimit, context -> {
+
+    });
+  }
+
+  private static void checkPosition(
+    final long position)
+  {
+    if (position < 0L) {
+      throw new IllegalArgumentException(
+        "Position %d must be non-negative".formatted(Long.valueOf(position))
+      );
+    }
+  }
+
+  @Override
+  public long size()
+    throws IOException
+  {
+    this.checkIsOpen();
+    return this.relativeLimit;
+  }
+
+  @Override
+  public AsynchronousFileChannel truncate(
+    final long size)
+  {
+    throw new UnsupportedOperationException();
+  }
+
+  @Override
+  public void force(
+    final boolean metaData)
+    throws IOException
+  {
+    this.checkIsOpen();
+    this.delegate.force(metaData);
+  }
+
+  @Override
+  public <A> void lock(
+    final long position,
+    final long size,
+    final boolean shared,
+    final A attachment,
+    final CompletionHandler<FileLock, ? super A> handler)
+  {
+    throw new UnsupportedOperationException();
+  }
+
+  @Override
+  public Future<FileLock> lock(
+    final long position,
+    final long size,
+    final boolean shared)
+  {
+    throw new UnsupportedOperationException();
+  }
+
+  @Override
+  public FileLock tryLock(
+    final long position,
+    final long size,
+    final boolean shared)
+  {
+    throw new UnsupportedOperationException();
+  }
+
+  @Override
+  public <A> void read(
+    final ByteBuffer dst,
+    final long position,
+    final A attachment,
+    final CompletionHandler<Integer, ? super A> handler)
+  {
+    Objects.requireNonNull(dst, "dst");
+    Objects.requireNonNull(handler, "handler");
+    checkPosition(position);
+
+    if (this.closed.get()) {
+      handler.failed(new ClosedChannelException(), attachment);
+      return;
+    }
+
+    /*
+     * The largest amount of data that can be read is either the space
+     * in the buffer, or the remaining space in this limited channel; whichever
+     * is smaller.
+     */
+
+    if (Long.compareUnsigned(position, this.relativeLimit) >= 0) {
+      handler.completed(Integer.valueOf(-1), attachment);
+      return;
+    }
+
+    final var toRead =
+      intersectLength(
+        position,
+        toUnsignedLong(dst.remaining()),
+        this.relativeLimit
+      );
+
+    /*
+     * Temporarily set the limit on the destination buffer so that the
+     * underlying channel doesn't read too much data. The limit can only be
+     * restored once the delegate has finished with the buffer.
+     */
+
+    final var oldLimit = dst.limit();
+    dst.limit(dst.position() + Math.toIntExact(toRead));
+
+    try {
+      this.delegate.read(
+        dst,
+        this.baseStart + position,
+        attachment,
+        new RestoringLimitHandler<>(dst, oldLimit, handler)
+      );
+    } catch (final RuntimeException e) {
+      dst.limit(oldLimit);
+      throw e;
+    }
+  }
+
+  @Override
+  public CompletableFuture<Integer> read(
+    final ByteBuffer dst,
+    final long position)
+  {
+    final var future = new CompletableFuture<Integer>();
+    this.read(dst, position, future, new FutureCompletionHandler<>());
+    return future;
+  }
+
+  @Override
+  public <A> void write(
+    final ByteBuffer src,
+    final long position,
+    final A attachment,
+    final CompletionHandler<Integer, ? super A> handler)
+  {
+    Objects.requireNonNull(src, "src");
+    Objects.requireNonNull(handler, "handler");
+    checkPosition(position);
+
+    if (this.closed.get()) {
+      handler.failed(new ClosedChannelException(), attachment);
+      return;
+    }
+
+    /*
+     * The largest amount of data that can be written is either the space
+     * in the buffer, or the remaining space in this limited channel; whichever
+     * is smaller.
+     */
+
+    if (Long.compareUnsigned(position, this.relativeLimit) >= 0) {
+      handler.completed(Integer.valueOf(0), attachment);
+      return;
+    }
+
+    final var toWrite =
+      intersectLength(
+        position,
+        toUnsignedLong(src.remaining()),
+        this.relativeLimit
+      );
+
+    final var oldLimit = src.limit();
+    src.limit(src.position() + Math.toIntExact(toWrite));
+
+    try {
+      this.delegate.write(
+        src,
+        this.baseStart + position,
+        attachment,
+        new RestoringLimitHandler<>(src, oldLimit, handler)
+      );
+    } catch (final RuntimeException e) {
+      src.limit(oldLimit);
+      throw e;
+    }
+  }
+
+  @Override
+  public CompletableFuture<Integer> write(
+    final ByteBuffer src,
+    final long position)
+  {
+    final var future = new CompletableFuture<Integer>();
+    this.write(src, position, future, new FutureCompletionHandler<>());
+    return future;
+  }
+
+  @Override
+  public boolean isOpen()
+  {
+    return !this.closed.get() && this.delegate.isOpen();
+  }
+
+  @Override
+  public void close()
+    throws IOException
+  {
+    if (this.closed.compareAndSet(false, true)) {
+      try {
+        this.onClose.execute(this);
+      } finally {
+        this.delegate.close();
+      }
+    }
+  }
+
+  private void checkIsOpen()
+    throws ClosedChannelException
+  {
+    if (this.closed.get()) {
+      throw new ClosedChannelException();
+    }
+  }
+
+  /**
+   * A handler that restores the limit of a buffer before passing on the
+   * result of an operation.
+   */
+
+  private static final class RestoringLimitHandler<A>
+    implements CompletionHandler<Integer, A>
+  {
+    private final ByteBuffer buffer;
+    private final int oldLimit;
+    private final CompletionHandler<Integer, ? super A> handler;
+
+    RestoringLimitHandler(
+      final ByteBuffer inBuffer,
+      final int inOldLimit,
+      final CompletionHandler<Integer, ? super A> inHandler)
+    {
+      this.buffer = inBuffer;
+      this.oldLimit = inOldLimit;
+      this.handler = inHandler;
+    }
+
+    @Override
+    public void completed(
+      final Integer result,
+      final A attachment)
+    {
+      this.buffer.limit(this.oldLimit);
+      this.handler.completed(result, attachment);
+    }
+
+    @Override
+    public void failed(
+      final Throwable exception,
+      final A attachment)
+    {
+      this.buffer.limit(this.oldLimit);
+      this.handler.failed(exception, attachment);
+    }
+  }
+}
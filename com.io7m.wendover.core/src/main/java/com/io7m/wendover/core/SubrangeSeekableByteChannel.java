@@ -17,17 +17,40 @@
 package com.io7m.wendover.core;
 
 import com.io7m.wendover.core.internal.AbstractLockingChannel;
+import com.io7m.wendover.core.internal.PositionalIO;
 
 import java.io.IOException;
 import java.nio.ByteBuffer;
 import java.nio.channels.SeekableByteChannel;
 import java.util.Objects;
 
+import static com.io7m.wendover.core.internal.Unsigned.checkRange;
+import static com.io7m.wendover.core.internal.Unsigned.intersectLength;
 import static com.io7m.wendover.core.internal.Unsigned.minUnsigned;
+import static com.io7m.wendover.core.internal.Unsigned.subtractSaturated;
 import static java.lang.Integer.toUnsignedLong;
 
 /**
+ * <p>
  * A seekable byte channel that can address a subset of a delegate channel.
+ * </p>
+ * <p>
+ * If the delegate is a {@link java.nio.channels.FileChannel} or a channel
+ * created by {@link ByteBufferChannels#ofByteBuffer(ByteBuffer)},
+ * reads and writes use absolute positions and never modify the position of
+ * the delegate, and no locks are held while the delegate performs I/O. Many
+ * channels may therefore safely share a single such delegate. Any other
+ * delegate has its position saved and restored around each operation,
+ * and so must not be shared between threads.
+ * </p>
+ * <p>
+ * Concurrent reads and writes on a single channel with such a delegate each
+ * claim a separate range of the channel, starting at its position. If an
+ * operation transfers fewer bytes than it claimed after another operation
+ * has claimed the following range, the position is not wound back, and so
+ * the untransferred bytes are skipped. Threads that must see every byte
+ * should use their own channels or {@link ChannelRangeView}.
+ * </p>
  */
 
 public final class SubrangeSeekableByteChannel
@@ -35,6 +58,7 @@ public final class SubrangeSeekableByteChannel
 {
   private final CloseOperationType<SubrangeSeekableByteChannel> onClose;
   private final SeekableByteChannel delegate;
+  private final boolean ownsDelegate;
   private final long baseStart;
   private final long relativeLimit;
   private long relativePosition;
@@ -53,12 +77,37 @@ public final class SubrangeSeekableByteChannel
     final long inBase,
     final long inLimit,
     final CloseOperationType<SubrangeSeekableByteChannel> inOnClose)
+  {
+    this(inDelegate, inBase, inLimit, inOnClose, true);
+  }
+
+  /**
+   * A seekable byte channel that can address a subset of a delegate channel.
+   *
+   * @param inDelegate     The delegate channel
+   * @param inBase         The base offset
+   * @param inLimit        The number of bytes that can be addressed
+   * @param inOnClose      A function executed when the channel is closed
+   * @param inOwnsDelegate {@code true} if closing this channel closes the
+   *                       delegate
+   */
+
+  SubrangeSeekableByteChannel(
+    final SeekableByteChannel inDelegate,
+    final long inBase,
+    final long inLimit,
+    final CloseOperationType<SubrangeSeekableByteChannel> inOnClose,
+    final boolean inOwnsDelegate)
   {
     this.delegate =
       Objects.requireNonNull(inDelegate, "delegate");
     this.onClose =
       Objects.requireNonNull(inOnClose, "inOnClose");
 
+    checkRange(inBase, inLimit);
+
+    this.ownsDelegate = inOwnsDelegate;
+
     this.relativePosition = 0L;
     this.relativeLimit = inLimit;
     this.baseStart = inBase;
@@ -89,6 +138,10 @@ public final class SubrangeSeekableByteChannel
   {
     this.checkIsOpen();
 
+    if (PositionalIO.isStateless(this.delegate)) {
+      return this.readClaimed(dst);
+    }
+
     return this.<Integer>withStateModificationLock(() -> {
 
       /*
@@ -110,45 +163,71 @@ public final class SubrangeSeekableByteChannel
         minUnsigned(dstRemaining, srcRemaining);
 
       /*
-       * Temporarily set the limit on the destination buffer so that the
-       * underlying channel doesn't read too much data.
+       * The delegate's position has to be modified in order to read from
+       * it, so the lock is necessarily held across the read.
        */
 
-      final var oldLimit = dst.limit();
-      try {
-        dst.limit(dst.position() + Math.toIntExact(toRead));
+      final var read =
+        this.readDelegate(dst, this.relativePosition, toRead);
+      if (read == -1) {
+        return Integer.valueOf(-1);
+      }
 
-        /*
-         * Store and restore the delegate's position.
-         */
+      this.relativePosition += toUnsignedLong(read);
+      return Integer.valueOf(read);
+    }).intValue();
+  }
 
-        final var oldPosition = this.delegate.position();
-        try {
-          this.delegate.position(this.baseStart + this.relativePosition);
+  /**
+   * Read from a delegate that supports positional reads. The lock is only
+   * held long enough to claim a range of this channel; the read itself
+   * happens without any locks held so that other threads (including those
+   * using other channels over the same delegate) are never blocked on I/O.
+   */
 
-          /*
-           * Correctly signal EOF if necessary.
-           */
+  private int readClaimed(
+    final ByteBuffer dst)
+    throws IOException
+  {
+    final var claim =
+      this.claim(toUnsignedLong(dst.remaining()));
 
-          final var read = this.delegate.read(dst);
-          if (read == -1) {
-            return Integer.valueOf(-1);
-          }
+    if (claim.isEOF()) {
+      return -1;
+    }
 
-          this.relativePosition += toUnsignedLong(read);
-          return Integer.valueOf(read);
-        } finally {
-          this.delegate.position(oldPosition);
-        }
-      } finally {
-        dst.limit(oldLimit);
-      }
-    }).intValue();
+    var read = -1;
+    try {
+      read = this.readDelegate(dst, claim.position(), claim.size());
+      return read;
+    } finally {
+      this.release(claim, read == -1 ? 0L : toUnsignedLong(read));
+    }
+  }
+
+  private int readDelegate(
+    final ByteBuffer dst,
+    final long position,
+    final long toRead)
+    throws IOException
+  {
+    /*
+     * Temporarily set the limit on the destination buffer so that the
+     * underlying channel doesn't read too much data.
+     */
+
+    final var oldLimit = dst.limit();
+    try {
+      dst.limit(dst.position() + Math.toIntExact(toRead));
+      return PositionalIO.read(this.delegate, dst, this.baseStart + position);
+    } finally {
+      dst.limit(oldLimit);
+    }
   }
 
   private long remaining()
   {
-    return this.relativeLimit - this.relativePosition;
+    return subtractSaturated(this.relativeLimit, this.relativePosition);
   }
 
   @Override
@@ -158,6 +237,10 @@ public final class SubrangeSeekableByteChannel
   {
     this.checkIsOpen();
 
+    if (PositionalIO.isStateless(this.delegate)) {
+      return this.writeClaimed(src);
+    }
+
     return this.<Integer>withStateModificationLock(() -> {
 
       /*
@@ -173,40 +256,100 @@ public final class SubrangeSeekableByteChannel
       final var toWrite =
         minUnsigned(dstRemaining, srcRemaining);
 
-      /*
-       * Temporarily set the limit on the source buffer so that the
-       * underlying channel doesn't write too much data.
-       */
+      final var wrote =
+        this.writeDelegate(src, this.relativePosition, toWrite);
 
-      final var oldLimit = src.limit();
-      try {
-        src.limit(Math.toIntExact(toWrite));
-
-        /*
-         * Store and restore the underlying channel position after writing.
-         */
-
-        final var oldPosition = this.delegate.position();
-        try {
-          this.delegate.position(this.baseStart + this.relativePosition);
-          final var wrote = this.delegate.write(src);
-          this.relativePosition += toUnsignedLong(wrote);
-          return Integer.valueOf(wrote);
-        } finally {
-          this.delegate.position(oldPosition);
-        }
-      } finally {
-        src.limit(oldLimit);
-      }
+      this.relativePosition += toUnsignedLong(wrote);
+      return Integer.valueOf(wrote);
     }).intValue();
   }
 
+  /**
+   * Write to a delegate that supports positional writes. As with reads,
+   * no lock is held during the write itself.
+   */
+
+  private int writeClaimed(
+    final ByteBuffer src)
+    throws IOException
+  {
+    final var claim =
+      this.claim(toUnsignedLong(src.remaining()));
+
+    var wrote = 0;
+    try {
+      wrote = this.writeDelegate(src, claim.position(), claim.size());
+      return wrote;
+    } finally {
+      this.release(claim, toUnsignedLong(wrote));
+    }
+  }
+
+  private int writeDelegate(
+    final ByteBuffer src,
+    final long position,
+    final long toWrite)
+    throws IOException
+  {
+    /*
+     * Temporarily set the limit on the source buffer so that the
+     * underlying channel doesn't write too much data.
+     */
+
+    final var oldLimit = src.limit();
+    try {
+      src.limit(src.position() + Math.toIntExact(toWrite));
+      return PositionalIO.write(this.delegate, src, this.baseStart + position);
+    } finally {
+      src.limit(oldLimit);
+    }
+  }
+
+  /**
+   * Claim up to {@code size} bytes of this channel starting at the current
+   * position, advancing the position past the claimed range.
+   */
+
+  private Claim claim(
+    final long size)
+    throws IOException
+  {
+    return this.withStateModificationLock(() -> {
+      final var claimed =
+        intersectLength(this.relativePosition, size, this.relativeLimit);
+      final var claim =
+        new Claim(this.relativePosition, claimed, this.remaining() == 0L);
+      this.relativePosition += claimed;
+      return claim;
+    });
+  }
+
+  /**
+   * Release the part of a claim that was not used by a short read or write.
+   * The position is only wound back if no other operation has moved it
+   * since the claim was made; otherwise, the unused part of the claim is
+   * skipped, as described in the class documentation.
+   */
+
+  private void release(
+    final Claim claim,
+    final long used)
+    throws IOException
+  {
+    if (Long.compareUnsigned(used, claim.size()) < 0) {
+      this.withStateModificationLock(() -> {
+        if (this.relativePosition == claim.position() + claim.size()) {
+          this.relativePosition = claim.position() + used;
+        }
+        return null;
+      });
+    }
+  }
+
   @Override
   public long position()
   {
-    return this.<Long>withStateReadingLock(
-        () -> Long.valueOf(this.relativePosition))
-      .longValue();
+    return this.readStateOptimistically(() -> this.relativePosition);
   }
 
   @Override
@@ -223,9 +366,7 @@ public final class SubrangeSeekableByteChannel
   @Override
   public long size()
   {
-    return this.<Long>withStateReadingLock(
-        () -> Long.valueOf(this.relativeLimit))
-      .longValue();
+    return this.relativeLimit;
   }
 
   @Override
@@ -238,19 +379,29 @@ public final class SubrangeSeekableByteChannel
   @Override
   public boolean isOpen()
   {
-    return this.delegate.isOpen();
+    return !this.isMarkedClosed() && this.delegate.isOpen();
   }
 
   @Override
   public void close()
     throws IOException
   {
-    if (this.closedAtomic().compareAndSet(false, true)) {
+    if (this.markClosed()) {
       try {
         this.onClose.execute(this);
       } finally {
-        this.delegate.close();
+        if (this.ownsDelegate) {
+          this.delegate.close();
+        }
       }
     }
   }
+
+  private record Claim(
+    long position,
+    long size,
+    boolean isEOF)
+  {
+
+  }
 }
@@ -0,0 +1,143 @@
+/*
+ * Copyright © 2026 Mark Raynsford <code@io7m.com> https://www.io7m.com
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY
+ * SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF OR
+ * IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+
+package com.io7m.wendover.core;
+
+import java.time.Duration;
+import java.util.Objects;
+
+/**
+ * A policy that determines when a {@link SyncingSeekableByteChannel} forces
+ * written data to storage.
+ *
+ * @param byteInterval The number of bytes written after which data is
+ *                     forced, or {@code 0} to never force based on the
+ *                     number of bytes written
+ * @param timeInterval The time after the previous force after which a write
+ *                     forces data, or {@link Duration#ZERO} to never force
+ *                     based on time
+ * @param onClose      {@code true} if unforced data is forced when the
+ *                     channel is closed
+ * @param metadata     {@code true} if file metadata is forced along with
+ *                     file content
+ *
+ * @see java.nio.channels.FileChannel#force(boolean)
+ * @since 1.2.0
+ */
+
+public record SyncPolicy(
+  long byteInterval,
+  Duration timeInterval,
+  boolean onClose,
+  boolean metadata)
+{
+  /**
+   * A policy that determines when data is forced to storage.
+   *
+   * @param byteInterval The number of bytes written after which data is
+   *                     forced, or {@code 0} to never force based on the
+   *                     number of bytes written
+   * @param timeInterval The time after the previous force after which a
+   *                     write forces data, or {@link Duration#ZERO} to never
+   *                     force based on time
+   * @param onClose      {@code true} if unforced data is forced when the
+   *                     channel is closed
+   * @param metadata     {@code true} if file metadata is forced along with
+   *                     file content
+   */
+
+  public SyncPolicy
+  {
+    Objects.requireNonNull(timeInterval, "timeInterval");
+
+    if (byteInterval < 0L) {
+      throw new IllegalArgumentException(
+        "Byte interval %d must be non-negative"
+          .formatted(Long.valueOf(byteInterval))
+      );
+    }
+    if (timeInterval.isNegative()) {
+      throw new IllegalArgumentException(
+        "Time interval %s must be non-negative".formatted(timeInterval)
+      );
+    }
+  }
+
+  /**
+   * @param metadata {@code true} if file metadata should be forced
+   *
+   * @return A policy that forces data only when the channel is closed
+   */
+
+  public static SyncPolicy onCloseOnly(
+    final boolean metadata)
+  {
+    return new SyncPolicy(0L, Duration.ZERO, true, metadata);
+  }
+
+  /**
+   * @param metadata {@code true} if file metadata should be forced
+   *
+   * @return A policy that forces data only on explicit barriers
+   */
+
+  public static SyncPolicy explicitOnly(
+    final boolean metadata)
+  {
+    return new SyncPolicy(0L, Duration.ZERO, false, metadata);
+  }
+
+  /**
+   * @param bytes    The number of bytes written after which data is forced
+   * @param metadata {@code true} if file metadata should be forced
+   *
+   * @return A policy that forces data every {@code bytes} bytes and on close
+   */
+
+  public static SyncPolicy everyBytes(
+    final long bytes,
+    final boolean metadata)
+  {
+    if (bytes <= 0L) {
+      throw new IllegalArgumentException(
+        "Byte interval %d must be positive".formatted(Long.valueOf(bytes))
+      );
+    }
+    return new SyncPolicy(bytes, Duration.ZERO, true, metadata);
+  }
+
+  /**
+   * @param interval The time after which a write forces data
+   * @param metadata {@code true} if file metadata should be forced
+   *
+   * @return A policy that forces data on the first write after each
+   * {@code interval} has elapsed, and on close
+   */
+
+  public static SyncPolicy everyInterval(
+    final Duration interval,
+    final boolean metadata)
+  {
+    Objects.requireNonNull(interval, "interval");
+
+    if (interval.isZero() || interval.isNegative()) {
+      throw new IllegalArgumentException(
+        "Time interval %s must be positive".formatted(interval)
+      );
+    }
+    return new SyncPolicy(0L, interval, true, metadata);
+  }
+}
@@ -0,0 +1,323 @@
+/*
+ * Copyright © 2026 Mark Raynsford <code@io7m.com> https://www.io7m.com
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY
+ * SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF OR
+ * IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+
+package com.io7m.wendover.core;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.SeekableByteChannel;
+import java.time.Duration;
+import java.util.Objects;
+import java.util.concurrent.locks.ReentrantLock;
+
+import static com.io7m.wendover.core.internal.Unsigned.maxUnsigned;
+
+/**
+ * <p>
+ * A seekable byte channel that forces data written to a file channel to
+ * storage according to a {@link SyncPolicy}.
+ * </p>
+ * <p>
+ * Data can be forced after a number of bytes has been written, on the first
+ * write after an interval of time has elapsed, when the channel is closed,
+ * or at explicit barriers using {@link #barrier()}. Time-based forcing
+ * happens on the write path: no thread is started, and so data written
+ * after the last write of a burst is forced only by the next barrier or by
+ * closing the channel.
+ * </p>
+ * <p>
+ * The channel tracks the highest offset that has been written, and the
+ * highest offset that was written before the most recent force. Data
+ * below {@link #durableOffset()} is known to have reached storage.
+ * </p>
+ * <p>
+ * Every operation except {@link #isOpen()} holds the lock of the channel,
+ * including reads and both forms of {@code position}. The written offset is
+ * derived from the position of the file after each write, so no other
+ * operation on this channel can move that position between a write and
+ * the recording of its end.
+ * </p>
+ *
+ * @since 1.2.0
+ */
+
+public final class SyncingSeekableByteChannel
+  extends DelegatingSeekableByteChannel
+{
+  private final SyncPolicy policy;
+  private final long intervalNanos;
+  private final ReentrantLock lock;
+  private long unsyncedBytes;
+  private long writtenOffset;
+  private long durableOffset;
+  private long lastSync;
+  private long syncCount;
+  private boolean dirty;
+
+  /**
+   * A seekable byte channel that forces data according to a policy.
+   *
+   * @param inFile   The file channel
+   * @param inPolicy The policy
+   */
+
+  public SyncingSeekableByteChannel(
+    final FileChannel inFile,
+    final SyncPolicy inPolicy)
+  {
+    super(inFile);
+
+    this.policy =
+      Objects.requireNonNull(inPolicy, "policy");
+
+    this.intervalNanos = saturatedNanos(inPolicy.timeInterval());
+    this.lock = new ReentrantLock();
+    this.lastSync = System.nanoTime();
+  }
+
+  /**
+   * Intervals too long to count in nanoseconds are treated as the longest
+   * interval that can be counted, which is still almost three centuries.
+   */
+
+  private static long saturatedNanos(
+    final Duration interval)
+  {
+    try {
+      return interval.toNanos();
+    } catch (final ArithmeticException e) {
+      return Long.MAX_VALUE;
+    }
+  }
+
+  private FileChannel file()
+  {
+    return (FileChannel) this.delegate();
+  }
+
+  /**
+   * @return The policy
+   */
+
+  public SyncPolicy policy()
+  {
+    return this.policy;
+  }
+
+  @Override
+  public int read(
+    final ByteBuffer dst)
+    throws IOException
+  {
+    this.lock.lock();
+    try {
+      return this.file().read(dst);
+    } finally {
+      this.lock.unlock();
+    }
+  }
+
+  @Override
+  public long position()
+    throws IOException
+  {
+    this.lock.lock();
+    try {
+      return this.file().position();
+    } finally {
+      this.lock.unlock();
+    }
+  }
+
+  @Override
+  public SeekableByteChannel position(
+    final long newPosition)
+    throws IOException
+  {
+    this.lock.lock();
+    try {
+      this.file().position(newPosition);
+      return this;
+    } finally {
+      this.lock.unlock();
+    }
+  }
+
+  @Override
+  public long size()
+    throws IOException
+  {
+    this.lock.lock();
+    try {
+      return this.file().size();
+    } finally {
+      this.lock.unlock();
+    }
+  }
+
+  @Override
+  public int write(
+    final ByteBuffer src)
+    throws IOException
+  {
+    this.lock.lock();
+    try {
+      final var wrote = this.file().write(src);
+      if (wrote > 0) {
+        this.dirty = true;
+        this.unsyncedBytes += wrote;
+        this.writtenOffset =
+          maxUnsigned(this.writtenOffset, this.file().position());
+
+        if (this.isSyncDue()) {
+          this.sync();
+        }
+      }
+      return wrote;
+    } finally {
+      this.lock.unlock();
+    }
+  }
+
+  private boolean isSyncDue()
+  {
+    final var bytes = this.policy.byteInterval();
+    if (bytes > 0L && this.unsyncedBytes >= bytes) {
+      return true;
+    }
+
+    if (this.intervalNanos == 0L) {
+      return false;
+    }
+    return System.nanoTime() - this.lastSync >= this.intervalNanos;
+  }
+
+  @Override
+  public SeekableByteChannel truncate(
+    final long size)
+    throws IOException
+  {
+    this.lock.lock();
+    try {
+      this.file().truncate(size);
+      this.dirty = true;
+      this.writtenOffset = Math.min(this.writtenOffset, size);
+      this.durableOffset = Math.min(this.durableOffset, size);
+      return this;
+    } finally {
+      this.lock.unlock();
+    }
+  }
+
+  /**
+   * Force all data written so far to storage, regardless of the policy.
+   *
+   * @return The durable offset after forcing
+   *
+   * @throws IOException On errors
+   */
+
+  public long barrier()
+    throws IOException
+  {
+    this.lock.lock();
+    try {
+      if (this.dirty) {
+        this.sync();
+      }
+      return this.durableOffset;
+    } finally {
+      this.lock.unlock();
+    }
+  }
+
+  private void sync()
+    throws IOException
+  {
+    final var offset = this.writtenOffset;
+    this.file().force(this.policy.metadata());
+    this.durableOffset = offset;
+    this.unsyncedBytes = 0L;
+    this.dirty = false;
+    this.lastSync = System.nanoTime();
+    ++this.syncCount;
+  }
+
+  /**
+   * @return The highest offset written by this channel
+   */
+
+  public long writtenOffset()
+  {
+    this.lock.lock();
+    try {
+      return this.writtenOffset;
+    } finally {
+      this.lock.unlock();
+    }
+  }
+
+  /**
+   * @return The offset below which all data written by this channel is
+   * known to have been forced to storage
+   */
+
+  public long durableOffset()
+  {
+    this.lock.lock();
+    try {
+      return this.durableOffset;
+    } finally {
+      this.lock.unlock();
+    }
+  }
+
+  /**
+   * @return The number of times data has been forced
+   */
+
+  public long syncCount()
+  {
+    this.lock.lock();
+    try {
+      return this.syncCount;
+    } finally {
+      this.lock.unlock();
+    }
+  }
+
+  @Override
+  public void close()
+    throws IOException
+  {
+    this.lock.lock();
+    try {
+      if (!this.file().isOpen()) {
+        return;
+      }
+      try {
+        if (this.policy.onClose() && this.dirty) {
+          this.sync();
+        }
+      } finally {
+        this.file().close();
+      }
+    } finally {
+      this.lock.unlock();
+    }
+  }
+}
@@ -0,0 +1,238 @@
+/*
+ * Copyright © 2026 Mark Raynsford <code@io7m.com> https://www.io7m.com
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY
+ * SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF OR
+ * IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+
+package com.io7m.wendover.core;
+
+import java.io.InterruptedIOException;
+import java.util.Objects;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.LongSupplier;
+
+/**
+ * <p>
+ * A lock-free token bucket that limits the rate at which bytes are
+ * transferred.
+ * </p>
+ * <p>
+ * The bucket refills at a fixed number of bytes per second, and holds at most
+ * a burst of bytes. The state of the bucket is a single timestamp updated by
+ * compare-and-set, and so a bucket may be shared by any number of channels
+ * and threads to enforce an aggregate budget. Acquisitions that exceed the
+ * available bytes reserve their bytes immediately and then wait until the
+ * reservation falls due, so waiting threads are served in the order that
+ * they arrived.
+ * </p>
+ *
+ * @see RateLimitedSeekableByteChannel
+ * @since 1.2.0
+ */
+
+public final class TokenBucket
+{
+  private static final long NANOS_PER_SECOND = 1_000_000_000L;
+
+  private final long bytesPerSecond;
+  private final long burst;
+  private final long burstNanos;
+  private final LongSupplier clock;
+  private final AtomicLong theoreticalArrival;
+
+  /*
+   * The bucket is represented by the time at which it would be full again if
+   * nothing else were taken from it. Taking bytes moves that time forward by
+   * the time needed to refill them, and bytes are available if the result is
+   * no further ahead of the current time than the time needed to refill an
+   * empty bucket.
+   */
+
+  /**
+   * A token bucket using the system clock.
+   *
+   * @param inBytesPerSecond The rate at which the bucket refills
+   * @param inBurst          The maximum number of bytes held in the bucket
+   */
+
+  public TokenBucket(
+    final long inBytesPerSecond,
+    final long inBurst)
+  {
+    this(inBytesPerSecond, inBurst, System::nanoTime);
+  }
+
+  /**
+   * A token bucket.
+   *
+   * @param inBytesPerSecond The rate at which the bucket refills
+   * @param inBurst          The maximum number of bytes held in the bucket
+   * @param inClock          A clock returning monotonic time in nanoseconds
+   */
+
+  public TokenBucket(
+    final long inBytesPerSecond,
+    final long inBurst,
+    final LongSupplier inClock)
+  {
+    this.clock = Objects.requireNonNull(inClock, "clock");
+
+    if (inBytesPerSecond <= 0L) {
+      throw new IllegalArgumentException(
+        "Rate %d must be positive".formatted(Long.valueOf(inBytesPerSecond))
+      );
+    }
+    if (inBurst <= 0L || inBurst > Long.MAX_VALUE / NANOS_PER_SECOND) {
+      throw new IllegalArgumentException(
+        "Burst %d must be positive and at most %d"
+          .formatted(
+            Long.valueOf(inBurst),
+            Long.valueOf(Long.MAX_VALUE / NANOS_PER_SECOND))
+      );
+    }
+
+    this.bytesPerSecond = inBytesPerSecond;
+    this.burst = inBurst;
+    this.burstNanos = this.costOf(inBurst);
+    this.theoreticalArrival = new AtomicLong(inClock.getAsLong());
+  }
+
+  /**
+   * @return The rate at which the bucket refills
+   */
+
+  public long bytesPerSecond()
+  {
+    return this.bytesPerSecond;
+  }
+
+  /**
+   * @return The maximum number of bytes held in the bucket
+   */
+
+  public long burst()
+  {
+    return this.burst;
+  }
+
+  /**
+   * @return The time needed to refill {@code bytes} bytes, rounded up so
+   * that no non-empty acquisition is free at rates above one byte per
+   * nanosecond
+   */
+
+  private long costOf(
+    final long bytes)
+  {
+    final var scaled = bytes * NANOS_PER_SECOND;
+    final var cost = scaled / this.bytesPerSecond;
+    if (cost * this.bytesPerSecond != scaled) {
+      return cost + 1L;
+    }
+    return cost;
+  }
+
+  private void checkBytes(
+    final long bytes)
+  {
+    if (bytes < 0L || bytes > this.burst) {
+      throw new IllegalArgumentException(
+        "Byte count %d must be in the range [0, %d]"
+          .formatted(Long.valueOf(bytes), Long.valueOf(this.burst))
+      );
+    }
+  }
+
+  /**
+   * Take {@code bytes} bytes from the bucket if they are available now.
+   *
+   * @param bytes The number of bytes, at most {@link #burst()}
+   *
+   * @return {@code true} if the bytes were taken
+   */
+
+  public boolean tryAcquire(
+    final long bytes)
+  {
+    this.checkBytes(bytes);
+
+    final var cost = this.costOf(bytes);
+    while (true) {
+      final var now = this.clock.getAsLong();
+      final var arrival = this.theoreticalArrival.get();
+      final var next = Math.max(arrival, now) + cost;
+      if (next - now > this.burstNanos) {
+        return false;
+      }
+      if (this.theoreticalArrival.compareAndSet(arrival, next)) {
+        return true;
+      }
+    }
+  }
+
+  /**
+   * Take {@code bytes} bytes from the bucket, waiting until they are
+   * available.
+   *
+   * @param bytes The number of bytes, at most {@link #burst()}
+   *
+   * @throws InterruptedIOException If the thread is interrupted while waiting;
+   *                                the interrupt status remains set
+   */
+
+  public void acquire(
+    final long bytes)
+    throws InterruptedIOException
+  {
+    this.checkBytes(bytes);
+
+    final var cost = this.costOf(bytes);
+    long next;
+    while (true) {
+      final var now = this.clock.getAsLong();
+      final var arrival = this.theoreticalArrival.get();
+      next = Math.max(arrival, now) + cost;
+      if (this.theoreticalArrival.compareAndSet(arrival, next)) {
+        break;
+      }
+    }
+
+    final var due = next - this.burstNanos;
+    while (true) {
+      final var wait = due - this.clock.getAsLong();
+      if (wait <= 0L) {
+        return;
+      }
+      LockSupport.parkNanos(this, wait);
+      if (Thread.interrupted()) {
+        this.release(bytes);
+        Thread.currentThread().interrupt();
+        throw new InterruptedIOException();
+      }
+    }
+  }
+
+  /**
+   * Return {@code bytes} bytes that were acquired but not used to the bucket.
+   *
+   * @param bytes The number of bytes, at most {@link #burst()}
+   */
+
+  public void release(
+    final long bytes)
+  {
+    this.checkBytes(bytes);
+    this.theoreticalArrival.addAndGet(-this.costOf(bytes));
+  }
+}
@@ -18,22 +18,71 @@
 package com.io7m.wendover.core.internal;
 
 import java.io.IOException;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
 import java.nio.channels.ClosedChannelException;
 import java.nio.channels.SeekableByteChannel;
-import java.util.concurrent.atomic.AtomicBoolean;
-import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.concurrent.locks.StampedLock;
+import java.util.function.LongSupplier;
 import java.util.function.Supplier;
 
 /**
+ * <p>
  * An abstract channel that protects state reading and writing with locks.
+ * </p>
+ * <p>
+ * Only {@code java.util.concurrent} locks are used; implementations must not
+ * use {@code synchronized} blocks, as a virtual thread blocked inside a
+ * monitor pins its carrier thread. Implementations should also avoid holding
+ * locks across blocking I/O where the delegate allows it (such as by using
+ * positional I/O on file channels), and should hold them only long enough to
+ * read or update their own state.
+ * </p>
+ * <p>
+ * The exception is a channel whose state is a view of the delegate's data
+ * that must change together with the I/O, such as a cache of blocks that
+ * have been read, or a block that is read, modified, and written back. Such
+ * a channel holds the modification lock for the duration of that I/O, and
+ * says so in its documentation, because every other operation on the
+ * channel, including reading its position, then waits for the I/O to
+ * complete.
+ * </p>
+ * <p>
+ * Applications may hold very large numbers of channels, most of which are
+ * never used, and so the per-instance cost is kept small: the closed flag
+ * is a single field updated with a {@link VarHandle}, and the lock is only
+ * allocated the first time that it is needed. The lock is a
+ * {@link StampedLock}, which is a single object rather than the four
+ * objects of a {@code ReentrantReadWriteLock}, but still admits any number
+ * of concurrent readers. Simple values such as the position and size are
+ * read with {@link #readStateOptimistically(LongSupplier)}, which takes no
+ * lock at all unless a modification is in progress.
+ * </p>
+ * <p>
+ * The lock is not reentrant: functions executed with the lock held must not
+ * call other methods of the channel that take the lock.
+ * </p>
  */
 
 public abstract class AbstractLockingChannel implements SeekableByteChannel
 {
-  private final ReentrantReadWriteLock lockRW;
-  private final ReentrantReadWriteLock.ReadLock lockR;
-  private final ReentrantReadWriteLock.WriteLock lockW;
-  private final AtomicBoolean closed;
+  private static final VarHandle CLOSED;
+  private static final VarHandle LOCK;
+
+  static {
+    try {
+      final var lookup = MethodHandles.lookup();
+      CLOSED = lookup.findVarHandle(
+        AbstractLockingChannel.class, "closed", boolean.class);
+      LOCK = lookup.findVarHandle(
+        AbstractLockingChannel.class, "lock", StampedLock.class);
+    } catch (final ReflectiveOperationException e) {
+      throw new ExceptionInInitializerError(e);
+    }
+  }
+
+  private volatile boolean closed;
+  private volatile StampedLock lock;
 
   /**
    * An abstract channel that protects state reading and writing with locks.
@@ -41,10 +90,7 @@ public abstract class AbstractLockingChannel implements SeekableByteChannel
 
   public AbstractLockingChannel()
   {
-    this.lockRW = new ReentrantReadWriteLock();
-    this.lockR = this.lockRW.readLock();
-    this.lockW = this.lockRW.writeLock();
-    this.closed = new AtomicBoolean(false);
+
   }
 
   /**
@@ -52,28 +98,85 @@ public abstract class AbstractLockingChannel implements SeekableByteChannel
    * closed flag has been set.
    *
    * @throws ClosedChannelException If the channel is closed
-   * @see #closedAtomic()
+   * @see #isMarkedClosed()
    */
 
   protected final void checkIsOpen()
     throws ClosedChannelException
   {
-    if (this.closed.get()) {
+    if (this.closed) {
       throw new ClosedChannelException();
     }
   }
 
   /**
-   * @return A boolean flag indicating whether or not the channel is closed
+   * @return {@code true} if the closed flag has been set
    */
 
-  protected final AtomicBoolean closedAtomic()
+  protected final boolean isMarkedClosed()
   {
     return this.closed;
   }
 
   /**
-   * Obtain a lock used to read the state of this channel.
+   * Set the closed flag.
+   *
+   * @return {@code true} if this call set the flag, or {@code false} if the
+   * flag was already set
+   */
+
+  protected final boolean markClosed()
+  {
+    return CLOSED.compareAndSet(this, false, true);
+  }
+
+  private StampedLock lock()
+  {
+    final var existing = this.lock;
+    if (existing != null) {
+      return existing;
+    }
+
+    final var created = new StampedLock();
+    final var witness =
+      (StampedLock) LOCK.compareAndExchange(this, null, created);
+    return witness == null ? created : witness;
+  }
+
+  /**
+   * Read a single value of the state of this channel without taking a lock.
+   * The function is evaluated again with the reading lock held if the state
+   * was modified while it was being evaluated, and so it must be free of side
+   * effects and must tolerate observing inconsistent state.
+   *
+   * @param f A function that reads state
+   *
+   * @return The value returned by {@code f}
+   */
+
+  protected final long readStateOptimistically(
+    final LongSupplier f)
+  {
+    final var held = this.lock();
+    final var stamp = held.tryOptimisticRead();
+    if (stamp != 0L) {
+      final var value = f.getAsLong();
+      if (held.validate(stamp)) {
+        return value;
+      }
+    }
+
+    final var readStamp = held.readLock();
+    try {
+      return f.getAsLong();
+    } finally {
+      held.unlockRead(readStamp);
+    }
+  }
+
+  /**
+   * Obtain a lock used to read the state of this channel. Any number of
+   * threads may hold the reading lock at the same time.
    *
    * @param <T> The type of returned values
    * @param f   A function executed with locks
@@ -84,32 +187,63 @@ public abstract class AbstractLockingChannel implements SeekableByteChannel
   protected final <T> T withStateReadingLock(
     final Supplier<T> f)
   {
-    this.lockR.lock();
+    final var held = this.lock();
+    final var stamp = held.readLock();
     try {
       return f.get();
     } finally {
-      this.lockR.unlock();
+      held.unlockRead(stamp);
     }
   }
 
   /**
-   * Obtain a lock used to modify the state of this channel.
+   * Obtain a lock used to read the state of this channel, executing a
+   * function that may raise I/O exceptions. Any number of threads may hold
+   * the reading lock at the same time.
    *
    * @param <T> The type of returned values
    * @param f   A function executed with locks
    *
    * @return The value returned by {@code f}
+   *
+   * @throws IOException If {@code f} raises an exception
+   */
+
+  protected final <T> T withStateReadingLockChecked(
+    final WithLockType<T> f)
+    throws IOException
+  {
+    final var held = this.lock();
+    final var stamp = held.readLock();
+    try {
+      return f.execute();
+    } finally {
+      held.unlockRead(stamp);
+    }
+  }
+
+  /**
+   * Obtain a lock used to modify the state of this channel. The lock
+   * excludes all other readers and writers.
+   *
+   * @param <T> The type of returned values
+   * @param f   A function executed with locks
+   *
+   * @return The value returned by {@code f}
+   *
+   * @throws IOException If {@code f} raises an exception
    */
 
   protected final <T> T withStateModificationLock(
     final WithLockType<T> f)
     throws IOException
   {
-    this.lockW.lock();
+    final var held = this.lock();
+    final var stamp = held.writeLock();
     try {
       return f.execute();
     } finally {
-      this.lockW.unlock();
+      held.unlockWrite(stamp);
     }
   }
 
@@ -0,0 +1,158 @@
+/*
+ * Copyright © 2026 Mark Raynsford <code@io7m.com> https://www.io7m.com
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY
+ * SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF OR
+ * IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+
+package com.io7m.wendover.core.internal;
+
+import java.nio.ByteBuffer;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * <p>
+ * A pool of direct byte buffers whose addresses are aligned to a block
+ * size, for use with direct I/O.
+ * </p>
+ * <p>
+ * Buffers are taken from the pool for the duration of an operation and
+ * returned afterwards. At most a fixed number of idle buffers are retained;
+ * the native memory of any buffer returned beyond that is released
+ * immediately with {@link DirectBuffers#release(ByteBuffer)}. Pools are
+ * shared between all users with the same block size and buffer size, so
+ * that opening and closing many channels does not repeatedly allocate and
+ * release large buffers.
+ * </p>
+ */
+
+public final class AlignedBufferPool
+{
+  private static final int MAXIMUM_IDLE = 8;
+
+  private static final ConcurrentHashMap<Geometry, AlignedBufferPool> SHARED =
+    new ConcurrentHashMap<>();
+
+  private final int blockSize;
+  private final int bufferSize;
+  private final int maximumIdle;
+  private final ConcurrentLinkedQueue<AlignedBuffer> idle;
+  private final AtomicInteger idleCount;
+
+  private AlignedBufferPool(
+    final int inBlockSize,
+    final int inBufferSize,
+    final int inMaximumIdle)
+  {
+    this.blockSize = inBlockSize;
+    this.bufferSize = inBufferSize;
+    this.maximumIdle = inMaximumIdle;
+    this.idle = new ConcurrentLinkedQueue<>();
+    this.idleCount = new AtomicInteger(0);
+  }
+
+  /**
+   * @param blockSize  The block size, which must be a power of two
+   * @param bufferSize The buffer size, which must be a multiple of the
+   *                   block size
+   *
+   * @return The shared pool for the given block and buffer size
+   */
+
+  public static AlignedBufferPool shared(
+    final int blockSize,
+    final int bufferSize)
+  {
+    return SHARED.computeIfAbsent(
+      new Geometry(blockSize, bufferSize),
+      g -> new AlignedBufferPool(g.blockSize, g.bufferSize, MAXIMUM_IDLE)
+    );
+  }
+
+  /**
+   * @return The number of idle buffers currently retained by the pool
+   */
+
+  public int idleCount()
+  {
+    return this.idleCount.get();
+  }
+
+  /**
+   * Take a buffer from the pool, allocating a new buffer if none are idle.
+   * The returned buffer is cleared, and its limit is the buffer size.
+   *
+   * @return A buffer
+   */
+
+  public AlignedBuffer acquire()
+  {
+    final var existing = this.idle.poll();
+    if (existing != null) {
+      this.idleCount.decrementAndGet();
+      existing.buffer().clear();
+      return existing;
+    }
+
+    final var base =
+      ByteBuffer.allocateDirect(this.bufferSize + this.blockSize);
+    final var aligned =
+      base.alignedSlice(this.blockSize);
+    aligned.limit(this.bufferSize);
+    return new AlignedBuffer(base, aligned.slice());
+  }
+
+  /**
+   * Return a buffer to the pool. The buffer must have been acquired from
+   * this pool, and must not be accessed afterwards.
+   *
+   * @param buffer The buffer
+   */
+
+  public void release(
+    final AlignedBuffer buffer)
+  {
+    Objects.requireNonNull(buffer, "buffer");
+
+    if (this.idleCount.incrementAndGet() <= this.maximumIdle) {
+      this.idle.add(buffer);
+    } else {
+      this.idleCount.decrementAndGet();
+      DirectBuffers.release(buffer.base());
+    }
+  }
+
+  /**
+   * An aligned buffer.
+   *
+   * @param base   The allocated buffer, whose memory is released when the
+   *               buffer is discarded
+   * @param buffer The aligned region of the allocated buffer
+   */
+
+  public record AlignedBuffer(
+    ByteBuffer base,
+    ByteBuffer buffer)
+  {
+
+  }
+
+  private record Geometry(
+    int blockSize,
+    int bufferSize)
+  {
+
+  }
+}
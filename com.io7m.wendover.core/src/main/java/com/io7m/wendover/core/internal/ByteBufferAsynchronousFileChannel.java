@@ -0,0 +1,242 @@
+/*
+ * Copyright © 2026 Mark Raynsford <code@io7m.com> https://www.io7m.com
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY
+ * SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF OR
+ * IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+
+
+package com.io7m.wendover.core.internal;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.AsynchronousFileChannel;
+import java.nio.channels.ClosedChannelException;
+import java.nio.channels.CompletionHandler;
+import java.nio.channels.FileLock;
+import java.nio.channels.NonWritableChannelException;
+import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static com.io7m.wendover.core.internal.Unsigned.minUnsigned;
+import static java.lang.Integer.toUnsignedLong;
+
+/**
+ * An asynchronous file channel based on a byte buffer. As the data is
+ * already in memory, all operations complete immediately on the calling
+ * thread.
+ */
+
+public final class ByteBufferAsynchronousFileChannel
+  extends AsynchronousFileChannel
+{
+  private final ByteBuffer buffer;
+  private final long limitInitial;
+  private final AtomicBoolean closed;
+  private final AtomicLong limit;
+
+  /**
+   * An asynchronous file channel based on a byte buffer.
+   *
+   * @param inBuffer The buffer to read/write
+   */
+
+  public ByteBufferAsynchronousFileChannel(
+    final ByteBuffer inBuffer)
+  {
+    this.buffer = Objects.requireNonNull(inBuffer, "buffer");
+    this.limitInitial = toUnsignedLong(inBuffer.capacity());
+    this.limit = new AtomicLong(this.limitInitial);
+    this.closed = new AtomicBoolean(false);
+  }
+
+  private static void checkPosition(
+    final long position)
+  {
+    if (position < 0L) {
+      throw new IllegalArgumentException(
+        "Position %d must be non-negative".formatted(Long.valueOf(position))
+      );
+    }
+  }
+
+  @Override
+  public long size()
+    throws IOException
+  {
+    this.checkIsOpen();
+    return this.limit.get();
+  }
+
+  @Override
+  public AsynchronousFileChannel truncate(
+    final long size)
+    throws IOException
+  {
+    checkPosition(size);
+    this.checkIsOpen();
+
+    this.limit.accumulateAndGet(size, Unsigned::minUnsigned);
+    return this;
+  }
+
+  @Override
+  public void force(
+    final boolean metaData)
+    throws IOException
+  {
+    this.checkIsOpen();
+  }
+
+  @Override
+  public <A> void lock(
+    final long position,
+    final long size,
+    final boolean shared,
+    final A attachment,
+    final CompletionHandler<FileLock, ? super A> handler)
+  {
+    throw new UnsupportedOperationException();
+  }
+
+  @Override
+  public Future<FileLock> lock(
+    final long position,
+    final long size,
+    final boolean shared)
+  {
+    throw new UnsupportedOperationException();
+  }
+
+  @Override
+  public FileLock tryLock(
+    final long position,
+    final long size,
+    final boolean shared)
+  {
+    throw new UnsupportedOperationException();
+  }
+
+  @Override
+  public <A> void read(
+    final ByteBuffer dst,
+    final long position,
+    final A attachment,
+    final CompletionHandler<Integer, ? super A> handler)
+  {
+    Objects.requireNonNull(dst, "dst");
+    Objects.requireNonNull(handler, "handler");
+    checkPosition(position);
+
+    if (this.closed.get()) {
+      handler.failed(new ClosedChannelException(), attachment);
+      return;
+    }
+
+    final var currentLimit = this.limit.get();
+    if (Long.compareUnsigned(position, currentLimit) >= 0) {
+      handler.completed(Integer.valueOf(-1), attachment);
+      return;
+    }
+
+    final var toRead =
+      Math.toIntExact(minUnsigned(
+        currentLimit - position,
+        toUnsignedLong(dst.remaining())
+      ));
+
+    final var dstPosition = dst.position();
+    dst.put(dstPosition, this.buffer, Math.toIntExact(position), toRead);
+    dst.position(dstPosition + toRead);
+    handler.completed(Integer.valueOf(toRead), attachment);
+  }
+
+  @Override
+  public CompletableFuture<Integer> read(
+    final ByteBuffer dst,
+    final long position)
+  {
+    final var future = new CompletableFuture<Integer>();
+    this.read(dst, position, future, new FutureCompletionHandler<>());
+    return future;
+  }
+
+  @Override
+  public <A> void write(
+    final ByteBuffer src,
+    final long position,
+    final A attachment,
+    final CompletionHandler<Integer, ? super A> handler)
+  {
+    Objects.requireNonNull(src, "src");
+    Objects.requireNonNull(handler, "handler");
+    checkPosition(position);
+
+    if (this.buffer.isReadOnly()) {
+      throw new NonWritableChannelException();
+    }
+    if (this.closed.get()) {
+      handler.failed(new ClosedChannelException(), attachment);
+      return;
+    }
+
+    final var currentLimit = this.limit.get();
+    if (Long.compareUnsigned(position, currentLimit) >= 0) {
+      handler.completed(Integer.valueOf(0), attachment);
+      return;
+    }
+
+    final var toWrite =
+      Math.toIntExact(minUnsigned(
+        currentLimit - position,
+        toUnsignedLong(src.remaining())
+      ));
+
+    final var srcPosition = src.position();
+    this.buffer.put(Math.toIntExact(position), src, srcPosition, toWrite);
+    src.position(srcPosition + toWrite);
+    handler.completed(Integer.valueOf(toWrite), attachment);
+  }
+
+  @Override
+  public CompletableFuture<Integer> write(
+    final ByteBuffer src,
+    final long position)
+  {
+    final var future = new CompletableFuture<Integer>();
+    this.write(src, position, future, new FutureCompletionHandler<>());
+    return future;
+  }
+
+  @Override
+  public boolean isOpen()
+  {
+    return !this.closed.get();
+  }
+
+  @Override
+  public void close()
+  {
+    this.closed.set(true);
+  }
+
+  private void checkIsOpen()
+    throws ClosedChannelException
+  {
+    if (this.closed.get()) {
+      throw new ClosedChannelException();
+    }
+  }
+}
@@ -17,6 +17,8 @@
 
 package com.io7m.wendover.core.internal;
 
+import com.io7m.wendover.core.SliceReadableChannelType;
+
 import java.io.IOException;
 import java.nio.ByteBuffer;
 import java.nio.ReadOnlyBufferException;
@@ -24,20 +26,44 @@ import java.nio.channels.NonWritableChannelException;
 import java.nio.channels.SeekableByteChannel;
 import java.util.Objects;
 
+import static com.io7m.wendover.core.internal.Unsigned.maxUnsigned;
 import static com.io7m.wendover.core.internal.Unsigned.minUnsigned;
 import static java.lang.Integer.toUnsignedLong;
 
 /**
+ * <p>
  * A seekable byte channel based on a byte buffer.
+ * </p>
+ * <p>
+ * The buffer is only ever accessed through a private duplicate using
+ * absolute bulk transfers, and so the position and limit of the buffer are
+ * neither modified nor observed. The channel also supports reads and
+ * writes at absolute positions that do not modify the position of the
+ * channel, which {@link PositionalIO} uses in preference to seeking.
+ * </p>
+ * <p>
+ * Reads do not take the exclusive lock while copying data: positional reads
+ * take no lock at all (or only the shared reading lock if the channel owns
+ * its buffer, so that the memory of the buffer cannot be released while it
+ * is being read), and relative reads take the exclusive lock only long
+ * enough to advance the position. Any number of threads may therefore read
+ * from the channel at the same time. Writes, truncation, and closing take
+ * the exclusive lock.
+ * </p>
  */
 
 public final class ByteBufferChannel
   extends AbstractLockingChannel
+  implements SliceReadableChannelType
 {
+  private static final byte[] ZEROS = new byte[4096];
+
+  private final ByteBuffer owner;
   private final ByteBuffer buffer;
+  private final boolean owned;
   private final long limitInitial;
   private long position;
-  private long limit;
+  private volatile long limit;
 
   /**
    * A seekable byte channel based on a byte buffer.
@@ -48,7 +74,24 @@ public final class ByteBufferChannel
   public ByteBufferChannel(
     final ByteBuffer inBuffer)
   {
-    this.buffer = Objects.requireNonNull(inBuffer, "buffer");
+    this(inBuffer, false);
+  }
+
+  /**
+   * A seekable byte channel based on a byte buffer.
+   *
+   * @param inBuffer The buffer to read/write
+   * @param inOwned  {@code true} if the channel owns the buffer, and should
+   *                 release its memory when the channel is closed
+   */
+
+  public ByteBufferChannel(
+    final ByteBuffer inBuffer,
+    final boolean inOwned)
+  {
+    this.owner = Objects.requireNonNull(inBuffer, "buffer");
+    this.buffer = inBuffer.duplicate().clear();
+    this.owned = inOwned;
     this.position = 0L;
     this.limitInitial = toUnsignedLong(inBuffer.capacity());
     this.limit = this.limitInitial;
@@ -61,28 +104,137 @@ public final class ByteBufferChannel
   {
     this.checkIsOpen();
 
+    /*
+     * Reserve the range to be read and advance the position with the lock
+     * held, and then copy the data without it. A truncation between the two
+     * steps clamps the position, and the copy then reads fewer bytes.
+     */
+
+    final var remaining = toUnsignedLong(dst.remaining());
+    final var at = this.withStateModificationLock(() -> {
+      final var start = this.position;
+      final var end = this.limit;
+      if (Long.compareUnsigned(start, end) >= 0) {
+        return Long.valueOf(-1L);
+      }
+      this.position = start + minUnsigned(end - start, remaining);
+      return Long.valueOf(start);
+    }).longValue();
+
+    if (at == -1L) {
+      return -1;
+    }
+    return this.read(dst, at);
+  }
+
+  /**
+   * Read from the channel at the given absolute position, without modifying
+   * the position of the channel.
+   *
+   * @param dst The destination buffer
+   * @param at  The absolute position
+   *
+   * @return The number of bytes read, or {@code -1} on EOF
+   *
+   * @throws IOException On errors
+   */
+
+  public int read(
+    final ByteBuffer dst,
+    final long at)
+    throws IOException
+  {
+    this.checkIsOpen();
+
+    if (!this.owned) {
+      return this.readAt(dst, at);
+    }
+
+    return this.<Integer>withStateReadingLockChecked(() -> {
+      this.checkIsOpen();
+      return Integer.valueOf(this.readAt(dst, at));
+    }).intValue();
+  }
+
+  /**
+   * Copy bytes at {@code at} into {@code dst} using an absolute bulk
+   * transfer from a duplicate of the buffer, so that neither the position
+   * nor the limit of any shared buffer is ever modified.
+   */
+
+  private int readAt(
+    final ByteBuffer dst,
+    final long at)
+  {
+    final var end = this.limit;
+    if (Long.compareUnsigned(at, end) >= 0) {
+      return -1;
+    }
+
+    final var count =
+      (int) minUnsigned(end - at, toUnsignedLong(dst.remaining()));
+
+    dst.put(dst.position(), this.buffer.duplicate(), (int) at, count);
+    dst.position(dst.position() + count);
+    return count;
+  }
+
+  /**
+   * {@inheritDoc}
+   *
+   * <p>
+   * If the channel owns its buffer, the bytes are copied, as the memory of
+   * the buffer is released when the channel is closed.
+   * </p>
+   */
+
+  @Override
+  public ByteBuffer readSlice(
+    final int length)
+    throws IOException
+  {
+    if (length < 0) {
+      throw new IllegalArgumentException(
+        "Length %d must be non-negative".formatted(Integer.valueOf(length))
+      );
+    }
+
+    this.checkIsOpen();
+
     return this.withStateModificationLock(() -> {
-      this.buffer.position(Math.toIntExact(this.position));
-      final var w =
-        minUnsigned(
-          toUnsignedLong(this.buffer.remaining()),
-          toUnsignedLong(dst.remaining())
-        );
+      this.checkIsOpen();
 
-      try {
-        this.buffer.limit(Math.toIntExact(this.position + w));
-        if (this.buffer.remaining() == 0) {
-          return Integer.valueOf(-1);
-        }
+      final var available =
+        Long.compareUnsigned(this.position, this.limit) < 0
+          ? this.limit - this.position
+          : 0L;
+      final var size =
+        (int) minUnsigned(available, toUnsignedLong(length));
+      final var slice =
+        this.buffer.slice(Math.toIntExact(this.position), size);
 
-        dst.put(this.buffer);
-      } finally {
-        this.buffer.limit(this.buffer.capacity());
+      this.position += size;
+      if (this.owned) {
+        final var copy = ByteBuffer.allocate(size);
+        copy.put(slice);
+        return copy.flip().asReadOnlyBuffer();
       }
+      return slice.asReadOnlyBuffer();
+    });
+  }
 
-      this.position(this.position + w);
-      return Integer.valueOf(Math.toIntExact(w));
-    }).intValue();
+  /**
+   * @return A read-only view of the whole buffer of the channel, or
+   * {@code null} if the channel owns its buffer (the memory of an owned
+   * buffer is released when the channel is closed, and so must not escape)
+   */
+
+  public ByteBuffer sharedView()
+  {
+    if (this.owned) {
+      return null;
+    }
+    return this.buffer.asReadOnlyBuffer();
   }
 
   @Override
@@ -92,39 +244,92 @@ public final class ByteBufferChannel
   {
     this.checkIsOpen();
 
-    return this.withStateModificationLock(() -> {
-      this.buffer.position(Math.toIntExact(this.position));
-      if (this.buffer.remaining() == 0) {
-        return Integer.valueOf(-1);
+    return this.<Integer>withStateModificationLock(() -> {
+      this.checkIsOpen();
+      final var w = this.writeAt(src, this.position);
+      if (w > 0) {
+        this.position += w;
       }
+      return Integer.valueOf(w);
+    }).intValue();
+  }
 
-      final var w =
-        minUnsigned(
-          toUnsignedLong(this.buffer.remaining()),
-          toUnsignedLong(src.remaining())
-        );
+  /**
+   * Write to the channel at the given absolute position, without modifying
+   * the position of the channel.
+   *
+   * @param src The source buffer
+   * @param at  The absolute position
+   *
+   * @return The number of bytes written, or {@code -1} if the position is
+   * at the end of the underlying buffer
+   *
+   * @throws IOException On errors
+   */
 
-      final var oldLimit = src.limit();
-      try {
-        src.limit(Math.toIntExact(w));
-        this.buffer.put(src);
-      } catch (final ReadOnlyBufferException e) {
-        throw new NonWritableChannelException();
-      } finally {
-        src.limit(oldLimit);
-      }
+  public int write(
+    final ByteBuffer src,
+    final long at)
+    throws IOException
+  {
+    this.checkIsOpen();
 
-      this.position(this.position + w);
-      return Integer.valueOf(Math.toIntExact(w));
+    return this.<Integer>withStateModificationLock(() -> {
+      this.checkIsOpen();
+      return Integer.valueOf(this.writeAt(src, at));
     }).intValue();
   }
 
+  /**
+   * Copy bytes from {@code src} to {@code at} using an absolute bulk
+   * transfer. Writing beyond the current size of the channel (up to the
+   * capacity of the buffer) extends the channel, and the gap between the
+   * old size and {@code at} is filled with zeros so that bytes discarded by
+   * an earlier truncation do not reappear.
+   */
+
+  private int writeAt(
+    final ByteBuffer src,
+    final long at)
+  {
+    if (Long.compareUnsigned(at, this.limitInitial) >= 0) {
+      return -1;
+    }
+
+    final var count =
+      (int) minUnsigned(
+        this.limitInitial - at,
+        toUnsignedLong(src.remaining())
+      );
+
+    try {
+      this.zeroFill(this.limit, at);
+      this.buffer.put((int) at, src, src.position(), count);
+    } catch (final ReadOnlyBufferException e) {
+      throw new NonWritableChannelException();
+    }
+
+    src.position(src.position() + count);
+    this.limit = maxUnsigned(this.limit, at + count);
+    return count;
+  }
+
+  private void zeroFill(
+    final long from,
+    final long to)
+  {
+    var index = from;
+    while (Long.compareUnsigned(index, to) < 0) {
+      final var count = (int) minUnsigned(to - index, ZEROS.length);
+      this.buffer.put((int) index, ZEROS, 0, count);
+      index += count;
+    }
+  }
+
   @Override
   public long position()
   {
-    return this.withStateReadingLock(
-        () -> Long.valueOf(this.position))
-      .longValue();
+    return this.readStateOptimistically(() -> this.position);
   }
 
   @Override
@@ -145,9 +350,7 @@ public final class ByteBufferChannel
   @Override
   public long size()
   {
-    return this.withStateReadingLock(
-        () -> Long.valueOf(this.limit))
-      .longValue();
+    return this.readStateOptimistically(() -> this.limit);
   }
 
   @Override
@@ -168,7 +371,7 @@ public final class ByteBufferChannel
       }
 
       this.limit = size;
-      this.position(this.position);
+      this.position = minUnsigned(this.position, size);
       return this;
     });
   }
@@ -176,12 +379,26 @@ public final class ByteBufferChannel
   @Override
   public boolean isOpen()
   {
-    return !this.closedAtomic().get();
+    return !this.isMarkedClosed();
   }
 
+  /**
+   * Close the channel. If the channel owns its buffer, the memory of the
+   * buffer is released once no other thread is accessing it; every access
+   * to the buffer checks that the channel is open while holding the lock.
+   *
+   * @throws IOException On errors
+   */
+
   @Override
   public void close()
+    throws IOException
   {
-    this.closedAtomic().set(true);
+    if (this.markClosed() && this.owned) {
+      this.withStateModificationLock(() -> {
+        DirectBuffers.release(this.owner);
+        return null;
+      });
+    }
   }
 }
@@ -0,0 +1,63 @@
+/*
+ * Copyright © 2026 Mark Raynsford <code@io7m.com> https://www.io7m.com
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY
+ * SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF OR
+ * IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+
+package com.io7m.wendover.core.internal;
+
+import java.io.IOException;
+import java.nio.channels.Channel;
+
+/**
+ * Functions over lists of channels.
+ */
+
+public final class ChannelLists
+{
+  private ChannelLists()
+  {
+
+  }
+
+  /**
+   * Close all of the given channels. Every channel is closed even if closing
+   * one of them fails; the first exception raised is rethrown with any
+   * others added as suppressed exceptions.
+   *
+   * @param channels The channels
+   *
+   * @throws IOException If closing any channel fails
+   */
+
+  public static void closeAll(
+    final Channel[] channels)
+    throws IOException
+  {
+    IOException exception = null;
+    for (final var channel : channels) {
+      try {
+        channel.close();
+      } catch (final IOException e) {
+        if (exception == null) {
+          exception = e;
+        } else {
+          exception.addSuppressed(e);
+        }
+      }
+    }
+    if (exception != null) {
+      throw exception;
+    }
+  }
+}
@@ -0,0 +1,99 @@
+/*
+ * Copyright © 2026 Mark Raynsford <code@io7m.com> https://www.io7m.com
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY
+ * SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF OR
+ * IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+
+package com.io7m.wendover.core.internal;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.nio.ByteBuffer;
+
+/**
+ * <p>
+ * Functions to release the native memory of direct byte buffers without
+ * waiting for the garbage collector.
+ * </p>
+ * <p>
+ * The memory is released using {@code sun.misc.Unsafe.invokeCleaner} from
+ * the {@code jdk.unsupported} module, which is located reflectively rather
+ * than referenced at compile time. If the method cannot be located,
+ * releasing a buffer does nothing and the memory is reclaimed when the
+ * buffer is garbage collected.
+ * </p>
+ */
+
+public final class DirectBuffers
+{
+  private static final MethodHandle INVOKE_CLEANER = findInvokeCleaner();
+
+  private DirectBuffers()
+  {
+
+  }
+
+  private static MethodHandle findInvokeCleaner()
+  {
+    try {
+      final var unsafeClass =
+        Class.forName("sun.misc.Unsafe");
+      final var theUnsafe =
+        unsafeClass.getDeclaredField("theUnsafe");
+      theUnsafe.setAccessible(true);
+
+      return MethodHandles.lookup()
+        .findVirtual(
+          unsafeClass,
+          "invokeCleaner",
+          MethodType.methodType(void.class, ByteBuffer.class))
+        .bindTo(theUnsafe.get(null));
+    } catch (final ReflectiveOperationException | RuntimeException e) {
+      return null;
+    }
+  }
+
+  /**
+   * @return {@code true} if direct buffers can be released explicitly
+   */
+
+  public static boolean isReleaseSupported()
+  {
+    return INVOKE_CLEANER != null;
+  }
+
+  /**
+   * Release the native memory of the given buffer. The buffer must be a
+   * direct buffer allocated with {@link ByteBuffer#allocateDirect(int)} (not
+   * a slice or duplicate), and must not be accessed afterwards.
+   *
+   * @param buffer The buffer
+   */
+
+  public static void release(
+    final ByteBuffer buffer)
+  {
+    if (!buffer.isDirect() || INVOKE_CLEANER == null) {
+      return;
+    }
+
+    try {
+      INVOKE_CLEANER.invokeExact(buffer);
+    } catch (final RuntimeException | Error e) {
+      throw e;
+    } catch (final Throwable e) {
+      throw new IllegalStateException(e);
+    }
+  }
+}
@@ -0,0 +1,56 @@
+/*
+ * Copyright © 2026 Mark Raynsford <code@io7m.com> https://www.io7m.com
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY
+ * SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF OR
+ * IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+
+
+package com.io7m.wendover.core.internal;
+
+import java.nio.channels.CompletionHandler;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * A completion handler that completes the future given as the attachment.
+ *
+ * @param <T> The type of results
+ */
+
+public final class FutureCompletionHandler<T>
+  implements CompletionHandler<T, CompletableFuture<T>>
+{
+  /**
+   * A completion handler that completes the future given as the attachment.
+   */
+
+  public FutureCompletionHandler()
+  {
+
+  }
+
+  @Override
+  public void completed(
+    final T result,
+    final CompletableFuture<T> future)
+  {
+    future.complete(result);
+  }
+
+  @Override
+  public void failed(
+    final Throwable exception,
+    final CompletableFuture<T> future)
+  {
+    future.completeExceptionally(exception);
+  }
+}
@@ -0,0 +1,79 @@
+/*
+ * Copyright © 2026 Mark Raynsford <code@io7m.com> https://www.io7m.com
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY
+ * SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF OR
+ * IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+
+package com.io7m.wendover.core.internal;
+
+/**
+ * <p>
+ * A volatile {@code long} value surrounded by padding, so that values that
+ * are written by different threads do not share a cache line.
+ * </p>
+ * <p>
+ * The padding fields are never read; they exist only to occupy space on
+ * either side of the value. The JVM is free to reorder the fields declared
+ * within a single class, so the padding is declared in a class hierarchy
+ * instead: the fields of a superclass are always laid out before those of
+ * its subclasses, and so the padding of {@link PaddedLongLhsPadding} always
+ * precedes the value of {@link PaddedLongValue}, which always precedes the
+ * padding declared here.
+ * </p>
+ */
+
+@SuppressWarnings("unused")
+public final class PaddedLong extends PaddedLongValue
+{
+  private long q0;
+  private long q1;
+  private long q2;
+  private long q3;
+  private long q4;
+  private long q5;
+  private long q6;
+  private long q7;
+
+  /**
+   * A padded value.
+   *
+   * @param initial The initial value
+   */
+
+  public PaddedLong(
+    final long initial)
+  {
+    this.setValue(initial);
+  }
+
+  /**
+   * @return The current value
+   */
+
+  public long get()
+  {
+    return this.getValue();
+  }
+
+  /**
+   * Set the value.
+   *
+   * @param newValue The new value
+   */
+
+  public void set(
+    final long newValue)
+  {
+    this.setValue(newValue);
+  }
+}
@@ -0,0 +1,128 @@
+/*
+ * Copyright © 2026 Mark Raynsford <code@io7m.com> https://www.io7m.com
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY
+ * SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF OR
+ * IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+
+
+package com.io7m.wendover.core.internal;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.SeekableByteChannel;
+
+/**
+ * <p>
+ * Functions to perform I/O at absolute positions on arbitrary channels.
+ * </p>
+ * <p>
+ * File channels and channels over byte buffers are accessed using their
+ * positional read and write methods, which neither observe nor modify the
+ * channel's position and can therefore be called concurrently. Any other
+ * channel is accessed by saving the position of the channel, seeking,
+ * performing the I/O, and then restoring the position; callers are
+ * responsible for ensuring that no other thread accesses such a channel at
+ * the same time.
+ * </p>
+ */
+
+public final class PositionalIO
+{
+  private PositionalIO()
+  {
+
+  }
+
+  /**
+   * @param channel The channel
+   *
+   * @return {@code true} if the channel supports I/O at absolute positions
+   * without modifying any channel state
+   */
+
+  public static boolean isStateless(
+    final SeekableByteChannel channel)
+  {
+    return channel instanceof FileChannel
+           || channel instanceof ByteBufferChannel;
+  }
+
+  /**
+   * Read from the channel at the given absolute position.
+   *
+   * @param channel  The channel
+   * @param dst      The destination buffer
+   * @param position The absolute position
+   *
+   * @return The number of bytes read, or {@code -1} on EOF
+   *
+   * @throws IOException On errors
+   */
+
+  public static int read(
+    final SeekableByteChannel channel,
+    final ByteBuffer dst,
+    final long position)
+    throws IOException
+  {
+    if (channel instanceof FileChannel file) {
+      return file.read(dst, position);
+    }
+    if (channel instanceof ByteBufferChannel buffer) {
+      return buffer.read(dst, position);
+    }
+
+    final var oldPosition = channel.position();
+    try {
+      channel.position(position);
+      return channel.read(dst);
+    } finally {
+      channel.position(oldPosition);
+    }
+  }
+
+  /**
+   * Write to the channel at the given absolute position.
+   *
+   * @param channel  The channel
+   * @param src      The source buffer
+   * @param position The absolute position
+   *
+   * @return The number of bytes written
+   *
+   * @throws IOException On errors
+   */
+
+  public static int write(
+    final SeekableByteChannel channel,
+    final ByteBuffer src,
+    final long position)
+    throws IOException
+  {
+    if (channel instanceof FileChannel file) {
+      return file.write(src, position);
+    }
+    if (channel instanceof ByteBufferChannel buffer) {
+      return buffer.write(src, position);
+    }
+
+    final var oldPosition = channel.position();
+    try {
+      channel.position(position);
+      return channel.write(src);
+    } finally {
+      channel.position(oldPosition);
+    }
+  }
+}
@@ -64,4 +64,128 @@ public final class Unsigned
     }
     return y;
   }
+
+  /**
+   * @return {@code 1} if {@code r = x - y} borrowed into the top bit,
+   * otherwise {@code 0}
+   */
+
+  private static long borrow(
+    final long x,
+    final long y,
+    final long r)
+  {
+    final var under = ~x & y;
+    final var equal = ~(x ^ y) & r;
+    return (under | equal) >>> 63;
+  }
+
+  /**
+   * Subtract {@code y} from {@code x} as unsigned values, saturating at
+   * zero. The borrow out of the top bit is computed from the operands and
+   * the result and used as a mask, so no branch is needed.
+   *
+   * @param x The left value
+   * @param y The right value
+   *
+   * @return The saturated difference
+   */
+
+  public static long subtractSaturated(
+    final long x,
+    final long y)
+  {
+    final var r = x - y;
+    return r & (borrow(x, y, r) - 1L);
+  }
+
+  /**
+   * Add {@code y} to {@code x} as unsigned values, failing if the sum
+   * exceeds {@link Long#MAX_VALUE}, the largest position that a channel can
+   * have.
+   *
+   * @param x The left value
+   * @param y The right value
+   *
+   * @return The sum
+   *
+   * @throws ArithmeticException If the sum is not a valid position
+   */
+
+  public static long addChecked(
+    final long x,
+    final long y)
+  {
+    final var r = x + y;
+    if ((x | y | r) < 0L) {
+      throw new ArithmeticException(
+        "Sum of %s and %s exceeds the largest position"
+          .formatted(Long.toUnsignedString(x), Long.toUnsignedString(y))
+      );
+    }
+    return r;
+  }
+
+  /**
+   * Intersect the range {@code [position, position + length)} with the
+   * range {@code [0, end)}, as unsigned values. This is the number of bytes
+   * that a transfer of {@code length} bytes at {@code position} can move
+   * in a channel or range that ends at {@code end}, and is zero if
+   * {@code position} is at or beyond {@code end}.
+   *
+   * @param position The start of the transfer
+   * @param length   The length of the transfer
+   * @param end      The end of the channel or range
+   *
+   * @return The length of the intersection
+   */
+
+  public static long intersectLength(
+    final long position,
+    final long length,
+    final long end)
+  {
+    return minUnsigned(subtractSaturated(end, position), length);
+  }
+
+  /**
+   * Check that a range of a channel is valid. A range is valid if its
+   * offset and length are non-negative, and its end lies at or before
+   * {@link Long#MAX_VALUE}; in that case, adding any position within the
+   * range to the offset cannot overflow, and so callers need no further
+   * checks when translating positions.
+   *
+   * @param offset The offset of the range
+   * @param length The length of the range
+   *
+   * @return The end of the range ({@code offset + length})
+   *
+   * @throws IllegalArgumentException If the range is not valid
+   */
+
+  public static long checkRange(
+    final long offset,
+    final long length)
+  {
+    if (offset < 0L) {
+      throw new IllegalArgumentException(
+        "Offset %d must be non-negative".formatted(Long.valueOf(offset))
+      );
+    }
+    if (length < 0L) {
+      throw new IllegalArgumentException(
+        "Length %d must be non-negative".formatted(Long.valueOf(length))
+      );
+    }
+
+    try {
+      return Math.addExact(offset, length);
+    } catch (final ArithmeticException e) {
+      throw new IllegalArgumentException(
+        "Range at offset %d of length %d overflows"
+          .formatted(Long.valueOf(offset), Long.valueOf(length)),
+        e
+      );
+    }
+  }
 }
@@ -19,7 +19,7 @@
  */
 
 @Export
-@Version("1.1.1")
+@Version("1.2.0")
 package com.io7m.wendover.core;
 
 import org.osgi.annotation.bundle.Export;
@@ -23,5 +23,7 @@ module com.io7m.wendover.core
   requires static org.osgi.annotation.bundle;
   requires static org.osgi.annotation.versioning;
 
+  requires jdk.unsupported;
+
   exports com.io7m.wendover.core;
 }
@@ -0,0 +1,276 @@
+/*
+ * Copyright © 2026 Mark Raynsford <code@io7m.com> https://www.io7m.com
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY
+ * SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF OR
+ * IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+
+package com.io7m.wendover.tests;
+
+import com.io7m.wendover.core.AppendOnlyLogChannel;
+import com.io7m.wendover.core.LogAppend;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.ClosedChannelException;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static java.nio.file.StandardOpenOption.CREATE;
+import static java.nio.file.StandardOpenOption.READ;
+import static java.nio.file.StandardOpenOption.WRITE;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public final class AppendOnlyLogChannelTest
+{
+  private Path directory;
+  private Path file;
+  private ExecutorService executor;
+
+  @BeforeEach
+  public void setup()
+    throws IOException
+  {
+    this.directory =
+      WNTestDirectories.createTempDirectory();
+    this.file =
+      this.directory.resolve("log.bin");
+    this.executor =
+      Executors.newSingleThreadExecutor();
+  }
+
+  @AfterEach
+  public void tearDown()
+    throws IOException
+  {
+    this.executor.shutdown();
+    WNTestDirectories.deleteDirectory(this.directory);
+  }
+
+  private static ByteBuffer text(
+    final String text)
+  {
+    return ByteBuffer.wrap(text.getBytes(UTF_8));
+  }
+
+  /**
+   * Appends queued while no commit is running are committed as one group
+   * with a single force.
+   *
+   * @throws Exception On errors
+   */
+
+  @Test
+  public void testGroupCommit()
+    throws Exception
+  {
+    Files.writeString(this.file, "HEADER", UTF_8);
+
+    final var tasks = new ArrayDeque<Runnable>();
+    final Executor manual = tasks::add;
+
+    final var log = new AppendOnlyLogChannel(
+      FileChannel.open(this.file, READ, WRITE), manual);
+    try {
+      assertEquals(6L, log.size());
+
+      final var appends = new ArrayList<LogAppend>();
+      for (int index = 0; index < 10; ++index) {
+        appends.add(log.append(text("<%d>".formatted(Integer.valueOf(index)))));
+      }
+
+      assertEquals(6L, appends.get(0).offset());
+      assertEquals(9L, appends.get(1).offset());
+      assertEquals(36L, log.size());
+      assertEquals(6L, log.durableOffset());
+      assertFalse(appends.get(9).durable().isDone());
+
+      assertEquals(1, tasks.size());
+      tasks.remove().run();
+
+      assertEquals(1L, log.commitCount());
+      assertEquals(36L, log.durableOffset());
+      for (final var append : appends) {
+        assertTrue(append.durable().isDone());
+      }
+    } finally {
+      while (!tasks.isEmpty()) {
+        tasks.remove().run();
+      }
+      log.close();
+    }
+
+    assertEquals(
+      "HEADER<0><1><2><3><4><5><6><7><8><9>",
+      Files.readString(this.file, UTF_8)
+    );
+  }
+
+  /**
+   * Concurrent appends from many threads each land at their own offset.
+   *
+   * @throws Exception On errors
+   */
+
+  @Test
+  public void testConcurrentAppends()
+    throws Exception
+  {
+    final var appends = new ConcurrentLinkedQueue<LogAppend>();
+    final var threads = new ArrayList<Thread>();
+
+    try (var log = new AppendOnlyLogChannel(
+      FileChannel.open(this.file, CREATE, READ, WRITE), this.executor)) {
+      for (int t = 0; t < 8; ++t) {
+        final var thread = t;
+        threads.add(new Thread(() -> {
+          for (int index = 0; index < 200; ++index) {
+            try {
+              appends.add(log.append(
+                text("%d:%03d;".formatted(
+                  Integer.valueOf(thread), Integer.valueOf(index)))));
+            } catch (final IOException e) {
+              throw new IllegalStateException(e);
+            }
+          }
+        }));
+      }
+      for (final var thread : threads) {
+        thread.start();
+      }
+      for (final var thread : threads) {
+        thread.join();
+      }
+
+      CompletableFuture.allOf(
+        appends.stream()
+          .map(LogAppend::durable)
+          .toArray(CompletableFuture[]::new)
+      ).get();
+
+      assertEquals(1600, appends.size());
+      assertEquals(1600L * 6L, log.durableOffset());
+      assertTrue(log.commitCount() <= 1600L);
+    }
+
+    final var data = Files.readString(this.file, UTF_8);
+    assertEquals(1600 * 6, data.length());
+    for (final var append : appends) {
+      final var record =
+        data.substring((int) append.offset(), (int) append.end());
+      assertTrue(record.matches("[0-7]:[0-9]{3};"), record);
+    }
+  }
+
+  /**
+   * A failed commit fails the appends in it and every later append.
+   *
+   * @throws Exception On errors
+   */
+
+  @Test
+  public void testFailure()
+    throws Exception
+  {
+    final var tasks = new ArrayDeque<Runnable>();
+    final Executor manual = tasks::add;
+    final var channel = FileChannel.open(this.file, CREATE, READ, WRITE);
+
+    final var log = new AppendOnlyLogChannel(channel, manual);
+    final var append = log.append(text("ABC"));
+    channel.close();
+    tasks.remove().run();
+
+    assertThrows(ExecutionException.class, () -> append.durable().get());
+    assertThrows(IOException.class, () -> log.append(text("DEF")));
+    assertThrows(IOException.class, log::close);
+    assertEquals(0L, log.durableOffset());
+  }
+
+  /**
+   * An append whose commit task is rejected by the executor is withdrawn,
+   * and the next append takes its offset.
+   *
+   * @throws Exception On errors
+   */
+
+  @Test
+  public void testRejectedCommit()
+    throws Exception
+  {
+    final var reject = new AtomicBoolean(true);
+    final Executor executor = task -> {
+      if (reject.getAndSet(false)) {
+        throw new RejectedExecutionException();
+      }
+      task.run();
+    };
+
+    final var log = new AppendOnlyLogChannel(
+      FileChannel.open(this.file, CREATE, READ, WRITE), executor);
+
+    assertThrows(RejectedExecutionException.class, () -> {
+      log.append(text("ABC"));
+    });
+    assertEquals(0L, log.size());
+
+    final var append = log.append(text("DEF"));
+    append.durable().get();
+    assertEquals(0L, append.offset());
+    assertEquals(3L, log.durableOffset());
+    log.close();
+
+    assertEquals("DEF", Files.readString(this.file, UTF_8));
+  }
+
+  /**
+   * Closing the log commits pending appends, and further appends are
+   * rejected.
+   *
+   * @throws Exception On errors
+   */
+
+  @Test
+  public void testClose()
+    throws Exception
+  {
+    final var log = new AppendOnlyLogChannel(
+      FileChannel.open(this.file, CREATE, READ, WRITE), this.executor);
+
+    assertEquals(3, log.write(text("ABC")));
+    log.close();
+    log.close();
+
+    assertFalse(log.isOpen());
+    assertEquals(3L, log.durableOffset());
+    assertEquals("ABC", Files.readString(this.file, UTF_8));
+    assertThrows(ClosedChannelException.class, () -> log.append(text("D")));
+  }
+}
@@ -0,0 +1,256 @@
+/*
+ * Copyright © 2026 Mark Raynsford <code@io7m.com> https://www.io7m.com
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY
+ * SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF OR
+ * IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+
+package com.io7m.wendover.tests;
+
+import com.io7m.wendover.core.BatchedRangeReader;
+import com.io7m.wendover.core.BatchedRead;
+import com.io7m.wendover.core.ByteBufferChannels;
+import com.io7m.wendover.core.DelegatingSeekableByteChannel;
+import com.io7m.wendover.core.SubrangeSeekableByteChannel;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.SeekableByteChannel;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+public final class BatchedRangeReaderTest
+{
+  private static final String ALPHABET =
+    "ABCDEFGHIJKLMNOPQRSTUVWXYZ";
+
+  private static SeekableByteChannel alphabet()
+  {
+    return ByteBufferChannels.ofByteBuffer(
+      ByteBuffer.wrap(ALPHABET.getBytes(UTF_8)));
+  }
+
+  private static BatchedRead request(
+    final long offset,
+    final int length)
+  {
+    return new BatchedRead(offset, ByteBuffer.allocate(length));
+  }
+
+  private static String contents(
+    final BatchedRead read)
+  {
+    final var buffer = read.buffer();
+    return new String(
+      buffer.array(), 0, buffer.position(), UTF_8);
+  }
+
+  /**
+   * Nearby reads are coalesced into a single read of the channel, and each
+   * buffer receives its own bytes.
+   *
+   * @throws Exception On errors
+   */
+
+  @Test
+  public void testCoalesced()
+    throws Exception
+  {
+    final var channel = new CountingChannel(alphabet());
+    final var reads = List.of(
+      request(10L, 2),
+      request(0L, 3),
+      request(4L, 2),
+      request(5L, 3)
+    );
+
+    final var reader = new BatchedRangeReader(2, 1024);
+    assertEquals(10L, reader.read(channel, reads));
+    assertEquals(1, channel.reads);
+    assertEquals(0L, channel.position());
+
+    assertEquals("KL", contents(reads.get(0)));
+    assertEquals("ABC", contents(reads.get(1)));
+    assertEquals("EF", contents(reads.get(2)));
+    assertEquals("FGH", contents(reads.get(3)));
+  }
+
+  /**
+   * Reads separated by more than the gap threshold, or that would exceed
+   * the maximum read size, are not coalesced.
+   *
+   * @throws Exception On errors
+   */
+
+  @Test
+  public void testNotCoalesced()
+    throws Exception
+  {
+    final var channel = new CountingChannel(alphabet());
+    final var reads = List.of(
+      request(0L, 2),
+      request(5L, 2),
+      request(8L, 2),
+      request(10L, 2)
+    );
+
+    new BatchedRangeReader(2, 4).read(channel, reads);
+    assertEquals(3, channel.reads);
+    assertEquals("AB", contents(reads.get(0)));
+    assertEquals("FG", contents(reads.get(1)));
+    assertEquals("IJ", contents(reads.get(2)));
+    assertEquals("KL", contents(reads.get(3)));
+  }
+
+  /**
+   * Reads at the end of the channel are short.
+   *
+   * @throws Exception On errors
+   */
+
+  @Test
+  public void testEndOfChannel()
+    throws Exception
+  {
+    final var reads = List.of(
+      request(20L, 4),
+      request(24L, 4),
+      request(30L, 4)
+    );
+
+    assertEquals(6L, new BatchedRangeReader(8, 64).read(alphabet(), reads));
+    assertEquals("UVWX", contents(reads.get(0)));
+    assertEquals("YZ", contents(reads.get(1)));
+    assertEquals("", contents(reads.get(2)));
+
+    final var alone = request(24L, 4);
+    assertEquals(
+      2L, new BatchedRangeReader(0, 64).read(alphabet(), List.of(alone)));
+    assertEquals("YZ", contents(alone));
+  }
+
+  /**
+   * Random batches over a subrange channel agree with direct reads, and
+   * the position of the channel is preserved.
+   *
+   * @throws Exception On errors
+   */
+
+  @Test
+  public void testRandomSubrange()
+    throws Exception
+  {
+    final var random = new Random(0x5eedL);
+    final var data = new byte[4096];
+    random.nextBytes(data);
+
+    final var subrange =
+      new SubrangeSeekableByteChannel(
+        ByteBufferChannels.ofByteBuffer(ByteBuffer.wrap(data)),
+        1024L,
+        2048L
+      );
+    subrange.position(100L);
+
+    final var reader = new BatchedRangeReader(16, 256);
+    for (int iteration = 0; iteration < 100; ++iteration) {
+      final var reads = new ArrayList<BatchedRead>();
+      for (int index = 0; index < 50; ++index) {
+        reads.add(request(random.nextInt(2100), random.nextInt(40)));
+      }
+
+      reader.read(subrange, reads);
+      assertEquals(100L, subrange.position());
+
+      for (final var read : reads) {
+        final var expected =
+          (int) Math.max(0L, Math.min(
+            read.buffer().capacity(), 2048L - read.offset()));
+        assertEquals(expected, read.buffer().position());
+        for (int index = 0; index < expected; ++index) {
+          assertEquals(
+            data[(int) (1024L + read.offset()) + index],
+            read.buffer().get(index)
+          );
+        }
+      }
+    }
+  }
+
+  /**
+   * A channel that reads no bytes fails the batch rather than being retried
+   * forever.
+   *
+   * @throws Exception On errors
+   */
+
+  @Test
+  public void testReadNoProgress()
+    throws Exception
+  {
+    final var channel = Mockito.mock(SeekableByteChannel.class);
+    final var reader = new BatchedRangeReader(2, 1024);
+
+    assertThrows(IOException.class, () -> {
+      reader.read(channel, List.of(request(0L, 3)));
+    });
+  }
+
+  /**
+   * Invalid arguments are rejected.
+   *
+   * @throws Exception On errors
+   */
+
+  @Test
+  public void testInvalid()
+    throws Exception
+  {
+    assertThrows(IllegalArgumentException.class, () -> {
+      new BatchedRangeReader(-1, 1);
+    });
+    assertThrows(IllegalArgumentException.class, () -> {
+      new BatchedRangeReader(0, 0);
+    });
+    assertThrows(IllegalArgumentException.class, () -> {
+      request(-1L, 1);
+    });
+  }
+
+  private static final class CountingChannel
+    extends DelegatingSeekableByteChannel
+  {
+    private int reads;
+
+    CountingChannel(
+      final SeekableByteChannel inDelegate)
+    {
+      super(inDelegate);
+    }
+
+    @Override
+    public int read(
+      final ByteBuffer dst)
+      throws IOException
+    {
+      ++this.reads;
+      return super.read(dst);
+    }
+  }
+}
@@ -0,0 +1,265 @@
+/*
+ * Copyright © 2026 Mark Raynsford <code@io7m.com> https://www.io7m.com
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY
+ * SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF OR
+ * IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+
+package com.io7m.wendover.tests;
+
+import com.io7m.wendover.core.BlockChecksummedSeekableByteChannel;
+import com.io7m.wendover.core.ByteBufferChannels;
+import com.io7m.wendover.core.ChecksumMismatchException;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.SeekableByteChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.zip.CRC32C;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static java.nio.file.StandardOpenOption.CREATE;
+import static java.nio.file.StandardOpenOption.READ;
+import static java.nio.file.StandardOpenOption.WRITE;
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+public final class BlockChecksummedSeekableByteChannelTest
+{
+  private static final String ALPHABET =
+    "ABCDEFGHIJKLMNOPQRSTUVWXYZ";
+
+  private Path directory;
+  private Path data;
+  private Path sums;
+
+  @BeforeEach
+  public void setup()
+    throws IOException
+  {
+    this.directory =
+      WNTestDirectories.createTempDirectory();
+    this.data =
+      this.directory.resolve("data.bin");
+    this.sums =
+      this.directory.resolve("data.crc");
+  }
+
+  @AfterEach
+  public void tearDown()
+    throws IOException
+  {
+    WNTestDirectories.deleteDirectory(this.directory);
+  }
+
+  private BlockChecksummedSeekableByteChannel open()
+    throws IOException
+  {
+    return new BlockChecksummedSeekableByteChannel(
+      FileChannel.open(this.data, CREATE, READ, WRITE),
+      FileChannel.open(this.sums, CREATE, READ, WRITE),
+      8
+    );
+  }
+
+  private static int crc32c(
+    final String text)
+  {
+    final var crc = new CRC32C();
+    crc.update(text.getBytes(UTF_8));
+    return (int) crc.getValue();
+  }
+
+  /**
+   * Writing stores one checksum per block.
+   *
+   * @throws Exception On errors
+   */
+
+  @Test
+  public void testWriteStoresChecksums()
+    throws Exception
+  {
+    try (var ch = this.open()) {
+      ch.write(ByteBuffer.wrap(ALPHABET.getBytes(UTF_8)));
+    }
+
+    final var stored = ByteBuffer.wrap(Files.readAllBytes(this.sums));
+    assertEquals(16, stored.capacity());
+    assertEquals(crc32c("ABCDEFGH"), stored.getInt(0));
+    assertEquals(crc32c("IJKLMNOP"), stored.getInt(4));
+    assertEquals(crc32c("QRSTUVWX"), stored.getInt(8));
+    assertEquals(crc32c("YZ"), stored.getInt(12));
+  }
+
+  /**
+   * Reads from arbitrary positions are verified and return the data.
+   *
+   * @throws Exception On errors
+   */
+
+  @Test
+  public void testReadPositioned()
+    throws Exception
+  {
+    try (var ch = this.open()) {
+      ch.write(ByteBuffer.wrap(ALPHABET.getBytes(UTF_8)));
+      ch.position(6L);
+      ch.write(ByteBuffer.wrap("ghij".getBytes(UTF_8)));
+
+      for (int start = 0; start < 26; ++start) {
+        final var length = 26 - start;
+        final var dst = new byte[length];
+        ch.position(start);
+        assertEquals(length, ch.read(ByteBuffer.wrap(dst)));
+        assertArrayEquals(
+          "ABCDEFghijKLMNOPQRSTUVWXYZ".substring(start).getBytes(UTF_8),
+          dst
+        );
+        assertEquals(26L, ch.position());
+      }
+      assertEquals(-1, ch.read(ByteBuffer.allocate(1)));
+    }
+  }
+
+  /**
+   * Corrupted blocks are detected on read.
+   *
+   * @throws Exception On errors
+   */
+
+  @Test
+  public void testCorruption()
+    throws Exception
+  {
+    try (var ch = this.open()) {
+      ch.write(ByteBuffer.wrap(ALPHABET.getBytes(UTF_8)));
+    }
+
+    try (var raw = FileChannel.open(this.data, WRITE)) {
+      raw.write(ByteBuffer.wrap("!".getBytes(UTF_8)), 10L);
+    }
+
+    try (var ch = this.open()) {
+      final var dst = ByteBuffer.allocate(4);
+      assertEquals(4, ch.read(dst));
+
+      ch.position(20L);
+      assertEquals(4, ch.read(dst.clear()));
+
+      ch.position(9L);
+      final var ex = assertThrows(ChecksumMismatchException.class, () -> {
+        ch.read(dst.clear());
+      });
+      assertEquals(1L, ex.block());
+      assertEquals(crc32c("IJKLMNOP"), ex.expected());
+      assertEquals(crc32c("IJ!LMNOP"), ex.received());
+      assertEquals(9L, ch.position());
+
+      ch.rebuildChecksums();
+      assertEquals(4, ch.read(dst.clear()));
+      assertArrayEquals("J!LM".getBytes(UTF_8), dst.array());
+    }
+  }
+
+  /**
+   * Writing beyond the end of the channel and truncating keep the
+   * checksums consistent.
+   *
+   * @throws Exception On errors
+   */
+
+  @Test
+  public void testExtendAndTruncate()
+    throws Exception
+  {
+    try (var ch = this.open()) {
+      ch.write(ByteBuffer.wrap("ABC".getBytes(UTF_8)));
+      ch.position(18L);
+      ch.write(ByteBuffer.wrap("S".getBytes(UTF_8)));
+      assertEquals(12L, Files.size(this.sums));
+
+      final var dst = new byte[19];
+      ch.position(0L);
+      assertEquals(19, ch.read(ByteBuffer.wrap(dst)));
+      assertArrayEquals(
+        "ABC\0\0\0\0\0\0\0\0\0\0\0\0\0\0\0S".getBytes(UTF_8),
+        dst
+      );
+
+      ch.truncate(2L);
+      assertEquals(4L, Files.size(this.sums));
+      ch.position(0L);
+      final var rest = new byte[2];
+      assertEquals(2, ch.read(ByteBuffer.wrap(rest)));
+      assertArrayEquals("AB".getBytes(UTF_8), rest);
+    }
+  }
+
+  /**
+   * Closing the channel closes both channels.
+   *
+   * @throws Exception On errors
+   */
+
+  @Test
+  public void testClose()
+    throws Exception
+  {
+    final var d = FileChannel.open(this.data, CREATE, READ, WRITE);
+    final var s = FileChannel.open(this.sums, CREATE, READ, WRITE);
+    final var ch = new BlockChecksummedSeekableByteChannel(d, s, 8);
+    ch.close();
+    assertFalse(ch.isOpen());
+    assertFalse(d.isOpen());
+    assertFalse(s.isOpen());
+  }
+
+  /**
+   * Channels that transfer no bytes fail the operation rather than being
+   * retried forever.
+   *
+   * @throws Exception On errors
+   */
+
+  @Test
+  public void testNoProgress()
+    throws Exception
+  {
+    final var stuck = Mockito.mock(SeekableByteChannel.class);
+    Mockito.when(stuck.size()).thenReturn(Long.valueOf(16L));
+
+    final var data =
+      ByteBufferChannels.ofByteBuffer(ByteBuffer.allocate(16));
+
+    final var stuckData =
+      new BlockChecksummedSeekableByteChannel(stuck, data, 8);
+    assertThrows(IOException.class, () -> {
+      stuckData.read(ByteBuffer.allocate(4));
+    });
+
+    final var stuckSums =
+      new BlockChecksummedSeekableByteChannel(data, stuck, 8);
+    assertThrows(IOException.class, () -> {
+      stuckSums.read(ByteBuffer.allocate(4));
+    });
+    assertThrows(IOException.class, stuckSums::rebuildChecksums);
+  }
+}
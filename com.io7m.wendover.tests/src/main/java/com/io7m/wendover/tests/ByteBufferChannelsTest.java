@@ -17,6 +17,7 @@
 package com.io7m.wendover.tests;
 
 import com.io7m.wendover.core.ByteBufferChannels;
+import com.io7m.wendover.core.SubrangeSeekableByteChannel;
 import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -24,6 +25,9 @@ import org.junit.jupiter.api.Test;
 import java.io.ByteArrayInputStream;
 import java.io.ByteArrayOutputStream;
 import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.lang.management.BufferPoolMXBean;
+import java.lang.management.ManagementFactory;
 import java.nio.ByteBuffer;
 import java.nio.channels.Channels;
 import java.nio.channels.ClosedChannelException;
@@ -32,6 +36,13 @@ import java.nio.channels.NonWritableChannelException;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.StampedLock;
 
 import static java.nio.channels.FileChannel.MapMode.READ_WRITE;
 import static java.nio.charset.StandardCharsets.UTF_8;
@@ -40,6 +51,7 @@ import static java.nio.file.StandardOpenOption.WRITE;
 import static org.junit.jupiter.api.Assertions.assertArrayEquals;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.junit.jupiter.api.Assertions.assertTimeoutPreemptively;
 import static org.junit.jupiter.api.Assertions.assertTrue;
@@ -197,6 +209,29 @@ public final class ByteBufferChannelsTest
     }
   }
 
+  /**
+   * Writing from a buffer that doesn't start at position zero works.
+   *
+   * @throws Exception On errors.
+   */
+
+  @Test
+  public void testWriteOffsetSource()
+    throws Exception
+  {
+    final var backing = new byte[4];
+    final var buffer = ByteBuffer.wrap(backing);
+
+    try (var channel = ByteBufferChannels.ofByteBuffer(buffer)) {
+      final var src = ByteBuffer.wrap("0123456789".getBytes(UTF_8));
+      src.position(5);
+      assertEquals(4, channel.write(src));
+      assertEquals(9, src.position());
+      assertEquals(10, src.limit());
+      assertArrayEquals("5678".getBytes(UTF_8), backing);
+    }
+  }
+
   /**
    * Basic reading works.
    *
@@ -427,4 +462,539 @@ public final class ByteBufferChannelsTest
       }
     }
   }
+
+  /**
+   * Asynchronous reading works.
+   *
+   * @throws Exception On errors.
+   */
+
+  @Test
+  public void testAsynchronousRead()
+    throws Exception
+  {
+    final var backing = "111111222222333333".getBytes(UTF_8);
+    final var buffer = ByteBuffer.wrap(backing);
+
+    try (var channel = ByteBufferChannels.ofByteBufferAsynchronous(buffer)) {
+      assertEquals(18L, channel.size());
+
+      final var bb = new byte[4];
+      final var b = ByteBuffer.wrap(bb);
+      assertEquals(4, channel.read(b, 4L).get());
+      assertArrayEquals("1122".getBytes(UTF_8), bb);
+      assertEquals(4, b.position());
+
+      b.clear();
+      assertEquals(2, channel.read(b, 16L).get());
+      assertEquals(2, b.position());
+
+      b.clear();
+      assertEquals(-1, channel.read(b, 18L).get());
+      assertEquals(0, buffer.position());
+    }
+  }
+
+  /**
+   * Asynchronous writing works.
+   *
+   * @throws Exception On errors.
+   */
+
+  @Test
+  public void testAsynchronousWrite()
+    throws Exception
+  {
+    final var backing = new byte[8];
+    final var buffer = ByteBuffer.wrap(backing);
+
+    try (var channel = ByteBufferChannels.ofByteBufferAsynchronous(buffer)) {
+      final var src = ByteBuffer.wrap("ABCDEF".getBytes(UTF_8));
+      assertEquals(4, channel.write(src, 4L).get());
+      assertEquals(4, src.position());
+      assertEquals(0, channel.write(src, 8L).get());
+      assertEquals(4, src.position());
+      assertArrayEquals("\0\0\0\0ABCD".getBytes(UTF_8), backing);
+    }
+  }
+
+  /**
+   * Asynchronous truncation works.
+   *
+   * @throws Exception On errors.
+   */
+
+  @Test
+  public void testAsynchronousTruncate()
+    throws Exception
+  {
+    final var buffer = ByteBuffer.allocate(128);
+
+    try (var channel = ByteBufferChannels.ofByteBufferAsynchronous(buffer)) {
+      channel.truncate(256L);
+      assertEquals(128L, channel.size());
+      channel.truncate(32L);
+      assertEquals(32L, channel.size());
+      assertEquals(-1, channel.read(ByteBuffer.allocate(4), 32L).get());
+      channel.force(true);
+    }
+  }
+
+  /**
+   * Concurrent asynchronous truncations never grow the channel.
+   *
+   * @throws Exception On errors.
+   */
+
+  @Test
+  public void testAsynchronousTruncateConcurrent()
+    throws Exception
+  {
+    final var buffer = ByteBuffer.allocate(1024);
+
+    try (var channel = ByteBufferChannels.ofByteBufferAsynchronous(buffer)) {
+      final var threads = new ArrayList<Thread>();
+      for (int index = 0; index < 8; ++index) {
+        final var size = 100L + index;
+        threads.add(new Thread(() -> {
+          for (int count = 0; count < 1000; ++count) {
+            try {
+              channel.truncate(size);
+            } catch (final IOException e) {
+              throw new UncheckedIOException(e);
+            }
+          }
+        }));
+      }
+      for (final var thread : threads) {
+        thread.start();
+      }
+      for (final var thread : threads) {
+        thread.join();
+      }
+      assertEquals(100L, channel.size());
+    }
+  }
+
+  /**
+   * Asynchronous writing to a read-only buffer fails.
+   *
+   * @throws Exception On errors.
+   */
+
+  @Test
+  public void testAsynchronousWriteReadOnly()
+    throws Exception
+  {
+    final var buffer =
+      ByteBuffer.allocate(8)
+        .asReadOnlyBuffer();
+
+    try (var channel = ByteBufferChannels.ofByteBufferAsynchronous(buffer)) {
+      assertThrows(NonWritableChannelException.class, () -> {
+        channel.write(ByteBuffer.wrap("ABCD".getBytes(UTF_8)), 0L);
+      });
+    }
+  }
+
+  /**
+   * Asynchronous I/O on closed channels fails.
+   *
+   * @throws Exception On errors.
+   */
+
+  @Test
+  public void testAsynchronousClosed()
+    throws Exception
+  {
+    final var buffer = ByteBuffer.allocate(8);
+    final var channel = ByteBufferChannels.ofByteBufferAsynchronous(buffer);
+
+    assertTrue(channel.isOpen());
+    channel.close();
+    assertFalse(channel.isOpen());
+
+    final var ex0 =
+      assertThrows(ExecutionException.class, () -> {
+        channel.read(ByteBuffer.allocate(4), 0L).get();
+      });
+    assertInstanceOf(ClosedChannelException.class, ex0.getCause());
+
+    final var ex1 =
+      assertThrows(ExecutionException.class, () -> {
+        channel.write(ByteBuffer.allocate(4), 0L).get();
+      });
+    assertInstanceOf(ClosedChannelException.class, ex1.getCause());
+
+    assertThrows(ClosedChannelException.class, channel::size);
+    assertThrows(UnsupportedOperationException.class, channel::tryLock);
+  }
+
+  private static long directMemoryUsed()
+  {
+    return ManagementFactory.getPlatformMXBeans(BufferPoolMXBean.class)
+      .stream()
+      .filter(pool -> "direct".equals(pool.getName()))
+      .mapToLong(BufferPoolMXBean::getMemoryUsed)
+      .sum();
+  }
+
+  /**
+   * Channels over allocated direct memory work, and release the memory on
+   * close without waiting for garbage collection.
+   *
+   * @throws Exception On errors.
+   */
+
+  @Test
+  public void testAllocateDirect()
+    throws Exception
+  {
+    final var size = 64 * 1024 * 1024;
+    final var before = directMemoryUsed();
+
+    final var channel = ByteBufferChannels.allocateDirect(size);
+    assertEquals(size, channel.size());
+    assertTrue(directMemoryUsed() >= before + size);
+
+    channel.position(100L);
+    channel.write(ByteBuffer.wrap("Hello".getBytes(UTF_8)));
+    channel.position(100L);
+    final var data = new byte[5];
+    assertEquals(5, channel.read(ByteBuffer.wrap(data)));
+    assertArrayEquals("Hello".getBytes(UTF_8), data);
+
+    channel.close();
+    channel.close();
+    assertFalse(channel.isOpen());
+    assertTrue(directMemoryUsed() < before + size);
+
+    assertThrows(ClosedChannelException.class, () -> {
+      channel.read(ByteBuffer.allocate(1));
+    });
+    assertThrows(ClosedChannelException.class, () -> {
+      channel.write(ByteBuffer.allocate(1));
+    });
+  }
+
+  /**
+   * Closing an allocated channel while other threads are using it never
+   * exposes released memory.
+   *
+   * @throws Exception On errors.
+   */
+
+  @Test
+  public void testAllocateDirectCloseConcurrent()
+    throws Exception
+  {
+    for (int attempt = 0; attempt < 20; ++attempt) {
+      final var channel = ByteBufferChannels.allocateDirect(4096);
+      final var errors = new ConcurrentLinkedQueue<Throwable>();
+      final var threads = new ArrayList<Thread>();
+
+      for (int index = 0; index < 4; ++index) {
+        final var thread = new Thread(() -> {
+          final var buffer = ByteBuffer.allocate(4096);
+          try {
+            while (true) {
+              channel.position(0L);
+              channel.read(buffer.clear());
+            }
+          } catch (final ClosedChannelException e) {
+            // Expected
+          } catch (final Throwable e) {
+            errors.add(e);
+          }
+        });
+        threads.add(thread);
+        thread.start();
+      }
+
+      Thread.sleep(5L);
+      channel.close();
+      for (final var thread : threads) {
+        thread.join();
+      }
+      assertEquals(List.of(), List.copyOf(errors));
+    }
+  }
+
+  /**
+   * Slices of byte buffer channels share memory with the buffer.
+   *
+   * @throws Exception On errors.
+   */
+
+  @Test
+  public void testReadSlice()
+    throws Exception
+  {
+    final var buffer = ByteBuffer.wrap("ABCDEFGH".getBytes(UTF_8));
+    final var channel = ByteBufferChannels.ofByteBuffer(buffer);
+    channel.position(2L);
+
+    final var slice = ByteBufferChannels.readSlice(channel, 4);
+    assertTrue(slice.isReadOnly());
+    assertEquals(0, slice.position());
+    assertEquals(4, slice.remaining());
+    assertEquals('C', slice.get(0));
+    assertEquals(6L, channel.position());
+
+    buffer.put(2, (byte) 'c');
+    assertEquals('c', slice.get(0));
+
+    assertEquals(2, ByteBufferChannels.readSlice(channel, 100).remaining());
+    assertEquals(0, ByteBufferChannels.readSlice(channel, 100).remaining());
+    assertEquals(8L, channel.position());
+
+    assertThrows(IllegalArgumentException.class, () -> {
+      ByteBufferChannels.readSlice(channel, -1);
+    });
+    channel.close();
+    assertThrows(ClosedChannelException.class, () -> {
+      ByteBufferChannels.readSlice(channel, 1);
+    });
+  }
+
+  /**
+   * Slices of channels that own their memory are copies.
+   *
+   * @throws Exception On errors.
+   */
+
+  @Test
+  public void testReadSliceOwned()
+    throws Exception
+  {
+    final var channel = ByteBufferChannels.allocateDirect(8);
+    channel.write(ByteBuffer.wrap("ABCD".getBytes(UTF_8)));
+    channel.position(0L);
+
+    final var slice = ByteBufferChannels.readSlice(channel, 4);
+    channel.close();
+
+    final var data = new byte[4];
+    slice.get(data);
+    assertArrayEquals("ABCD".getBytes(UTF_8), data);
+  }
+
+  /**
+   * Slices of other channels are read into new buffers.
+   *
+   * @throws Exception On errors.
+   */
+
+  @Test
+  public void testReadSliceFallback()
+    throws Exception
+  {
+    final var file = this.directory.resolve("file.txt");
+    Files.writeString(file, "ABCDEFGH", UTF_8);
+
+    try (var channel = FileChannel.open(file, READ)) {
+      channel.position(5L);
+      final var slice = ByteBufferChannels.readSlice(channel, 4);
+      assertTrue(slice.isReadOnly());
+      assertEquals(3, slice.remaining());
+      assertEquals('F', slice.get(0));
+      assertEquals(8L, channel.position());
+      assertEquals(0, ByteBufferChannels.readSlice(channel, 4).remaining());
+    }
+  }
+
+  /**
+   * Reading and writing never modify the position or limit of the
+   * underlying buffer.
+   *
+   * @throws Exception On errors
+   */
+
+  @Test
+  public void testBufferUnmodified()
+    throws Exception
+  {
+    final var buffer = ByteBuffer.wrap("ABCDEFGH".getBytes(UTF_8));
+    buffer.position(3);
+    buffer.limit(5);
+
+    try (var channel = ByteBufferChannels.ofByteBuffer(buffer)) {
+      final var data = ByteBuffer.allocate(8);
+      assertEquals(8, channel.read(data));
+      assertEquals("ABCDEFGH", new String(data.array(), UTF_8));
+
+      channel.position(2L);
+      assertEquals(2, channel.write(ByteBuffer.wrap("cd".getBytes(UTF_8))));
+      assertEquals(4L, channel.position());
+
+      assertEquals(3, buffer.position());
+      assertEquals(5, buffer.limit());
+      assertEquals("ABcdEFGH", new String(buffer.array(), UTF_8));
+    }
+  }
+
+  /**
+   * Reads never return data beyond the truncated size of the channel, and
+   * writes beyond the truncated size extend the channel again.
+   *
+   * @throws Exception On errors
+   */
+
+  @Test
+  public void testReadWriteAfterTruncate()
+    throws Exception
+  {
+    final var buffer = ByteBuffer.wrap("ABCDEFGH".getBytes(UTF_8));
+
+    try (var channel = ByteBufferChannels.ofByteBuffer(buffer)) {
+      channel.truncate(4L);
+
+      final var data = ByteBuffer.allocate(8);
+      channel.position(0L);
+      assertEquals(4, channel.read(data));
+      assertEquals(-1, channel.read(data));
+      assertEquals("ABCD", new String(data.array(), 0, 4, UTF_8));
+
+      assertEquals(2, channel.write(ByteBuffer.wrap("ef".getBytes(UTF_8))));
+      assertEquals(6L, channel.size());
+      assertEquals(6L, channel.position());
+    }
+  }
+
+  /**
+   * Writing beyond the truncated size of the channel fills the gap with
+   * zeros rather than exposing the truncated bytes.
+   *
+   * @throws Exception On errors
+   */
+
+  @Test
+  public void testWriteBeyondTruncateZeroFills()
+    throws Exception
+  {
+    final var buffer = ByteBuffer.wrap("ABCDEFGHIJKL".getBytes(UTF_8));
+
+    try (var channel = ByteBufferChannels.ofByteBuffer(buffer)) {
+      channel.truncate(4L);
+
+      final var sub =
+        new SubrangeSeekableByteChannel(channel, 8L, 4L, c -> {
+
+        });
+      assertEquals(2, sub.write(ByteBuffer.wrap("xy".getBytes(UTF_8))));
+      assertEquals(10L, channel.size());
+      assertEquals(0L, channel.position());
+
+      final var data = ByteBuffer.allocate(10);
+      assertEquals(10, channel.read(data));
+      assertEquals("ABCD\0\0\0\0xy", new String(data.array(), UTF_8));
+    }
+  }
+
+  /**
+   * A positional read proceeds while another reader is in progress: the
+   * shared lock of a channel that owns its buffer is held on one thread
+   * (exactly as a reader holds it while copying), and a positional read on
+   * another thread completes regardless.
+   *
+   * @throws Exception On errors
+   */
+
+  @Test
+  public void testReadersOverlap()
+    throws Exception
+  {
+    try (var channel = ByteBufferChannels.allocateDirect(16)) {
+      channel.write(ByteBuffer.wrap("ABCDEFGHIJKLMNOP".getBytes(UTF_8)));
+      channel.size();
+
+      final var field =
+        Class.forName("com.io7m.wendover.core.internal.AbstractLockingChannel")
+          .getDeclaredField("lock");
+      field.setAccessible(true);
+      final var lock = (StampedLock) field.get(channel);
+
+      final var stamp = lock.readLock();
+      try {
+        final var done = new CountDownLatch(1);
+        final var target = ByteBuffer.allocate(4);
+        final var reader = new Thread(() -> {
+          try {
+            final var sub =
+              new SubrangeSeekableByteChannel(channel, 4L, 4L, c -> {
+
+              });
+            sub.read(target);
+            done.countDown();
+          } catch (final IOException e) {
+            throw new IllegalStateException(e);
+          }
+        });
+        reader.start();
+
+        assertTrue(done.await(10L, TimeUnit.SECONDS));
+        assertEquals("EFGH", new String(target.array(), UTF_8));
+        assertFalse(lock.isWriteLocked());
+        assertEquals(0L, lock.tryWriteLock());
+        reader.join();
+      } finally {
+        lock.unlockRead(stamp);
+      }
+    }
+  }
+
+  /**
+   * Many threads may read a channel concurrently through subrange channels,
+   * none of which modify the position of the channel.
+   *
+   * @throws Exception On errors
+   */
+
+  @Test
+  public void testConcurrentSubrangeReads()
+    throws Exception
+  {
+    final var data = new byte[4096];
+    for (int index = 0; index < data.length; ++index) {
+      data[index] = (byte) index;
+    }
+
+    final var channel =
+      ByteBufferChannels.ofByteBuffer(ByteBuffer.wrap(data));
+    final var failures = new ConcurrentLinkedQueue<Throwable>();
+    final var threads = new ArrayList<Thread>();
+
+    for (int t = 0; t < 8; ++t) {
+      final var base = t * 512L;
+      threads.add(new Thread(() -> {
+        try {
+          for (int iteration = 0; iteration < 200; ++iteration) {
+            final var sub =
+              new SubrangeSeekableByteChannel(channel, base, 512L, c -> {
+
+              });
+            final var target = ByteBuffer.allocate(512);
+            while (target.hasRemaining()) {
+              sub.read(target);
+            }
+            for (int index = 0; index < 512; ++index) {
+              assertEquals((byte) (base + index), target.get(index));
+            }
+          }
+        } catch (final Throwable e) {
+          failures.add(e);
+        }
+      }));
+    }
+
+    for (final var thread : threads) {
+      thread.start();
+    }
+    for (final var thread : threads) {
+      thread.join();
+    }
+
+    assertEquals(List.of(), List.copyOf(failures));
+    assertEquals(0L, channel.position());
+  }
 }
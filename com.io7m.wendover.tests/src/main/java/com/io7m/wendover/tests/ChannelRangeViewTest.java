@@ -0,0 +1,206 @@
+/*
+ * Copyright © 2026 Mark Raynsford <code@io7m.com> https://www.io7m.com
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY
+ * SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF OR
+ * IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+
+package com.io7m.wendover.tests;
+
+import com.io7m.wendover.core.ByteBufferChannels;
+import com.io7m.wendover.core.ChannelRangeView;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.ClosedChannelException;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static java.nio.file.StandardOpenOption.READ;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public final class ChannelRangeViewTest
+{
+  private static final String ALPHABET =
+    "ABCDEFGHIJKLMNOPQRSTUVWXYZ";
+
+  private Path directory;
+  private Path file;
+
+  @BeforeEach
+  public void setup()
+    throws IOException
+  {
+    this.directory =
+      WNTestDirectories.createTempDirectory();
+    this.file =
+      this.directory.resolve("file.bin");
+
+    Files.writeString(this.file, ALPHABET, UTF_8);
+  }
+
+  @AfterEach
+  public void tearDown()
+    throws IOException
+  {
+    WNTestDirectories.deleteDirectory(this.directory);
+  }
+
+  private static String readAt(
+    final ChannelRangeView view,
+    final long position,
+    final int length)
+    throws IOException
+  {
+    final var buffer = ByteBuffer.allocate(length);
+    final var r = view.read(buffer, position);
+    if (r == -1) {
+      return null;
+    }
+    return new String(buffer.array(), 0, r, UTF_8);
+  }
+
+  /**
+   * Slices of slices address the correct parts of the channel.
+   *
+   * @throws Exception On errors
+   */
+
+  @Test
+  public void testSliceOfSlice()
+    throws Exception
+  {
+    try (var channel = FileChannel.open(this.file, READ)) {
+      final var all = ChannelRangeView.of(channel);
+      assertEquals(26L, all.length());
+
+      final var middle = all.slice(5L, 15L);
+      final var inner = middle.slice(3L, 6L);
+      assertEquals(8L, inner.offset());
+      assertEquals(6L, inner.length());
+
+      assertEquals("FGHIJKLMNOPQRST", readAt(middle, 0L, 100));
+      assertEquals("IJKLMN", readAt(inner, 0L, 100));
+      assertEquals("LMN", readAt(inner, 3L, 100));
+      assertEquals("KL", readAt(inner, 2L, 2));
+      assertEquals(null, readAt(inner, 6L, 1));
+      assertEquals(0L, channel.position());
+
+      final var empty = inner.slice(6L, 0L);
+      assertEquals(null, readAt(empty, 0L, 1));
+    }
+  }
+
+  /**
+   * Cursors have their own positions, and closing them does not close the
+   * channel.
+   *
+   * @throws Exception On errors
+   */
+
+  @Test
+  public void testCursors()
+    throws Exception
+  {
+    final var channel =
+      ByteBufferChannels.ofByteBuffer(
+        ByteBuffer.wrap(ALPHABET.getBytes(UTF_8)));
+    final var view =
+      ChannelRangeView.of(channel).slice(10L, 10L);
+
+    try (var c0 = view.openCursor();
+         var c1 = view.openCursor()) {
+      final var b0 = ByteBuffer.allocate(4);
+      final var b1 = ByteBuffer.allocate(100);
+      assertEquals(4, c0.read(b0));
+      assertEquals(10, c1.read(b1));
+      assertEquals(4L, c0.position());
+      assertEquals(-1, c1.read(ByteBuffer.allocate(1)));
+
+      assertEquals("KLMN", new String(b0.array(), UTF_8));
+      assertEquals("KLMNOPQRST", new String(b1.array(), 0, 10, UTF_8));
+
+      c0.close();
+      assertFalse(c0.isOpen());
+      assertTrue(c1.isOpen());
+      assertThrows(ClosedChannelException.class, () -> {
+        c0.read(ByteBuffer.allocate(1));
+      });
+    }
+
+    assertTrue(channel.isOpen());
+    assertEquals(0L, channel.position());
+  }
+
+  /**
+   * Views over a closed channel cannot be read.
+   *
+   * @throws Exception On errors
+   */
+
+  @Test
+  public void testClosedChannel()
+    throws Exception
+  {
+    final ChannelRangeView view;
+    try (var channel = FileChannel.open(this.file, READ)) {
+      view = ChannelRangeView.of(channel).slice(1L, 2L);
+    }
+
+    assertThrows(ClosedChannelException.class, () -> {
+      view.read(ByteBuffer.allocate(1), 0L);
+    });
+    assertFalse(view.openCursor().isOpen());
+  }
+
+  /**
+   * Invalid ranges are rejected.
+   *
+   * @throws Exception On errors
+   */
+
+  @Test
+  public void testInvalid()
+    throws Exception
+  {
+    final var channel =
+      ByteBufferChannels.ofByteBuffer(ByteBuffer.allocate(10));
+    final var view = ChannelRangeView.of(channel);
+
+    assertThrows(IllegalArgumentException.class, () -> {
+      view.slice(-1L, 1L);
+    });
+    assertThrows(IllegalArgumentException.class, () -> {
+      view.slice(0L, -1L);
+    });
+    assertThrows(IllegalArgumentException.class, () -> {
+      view.slice(5L, 6L);
+    });
+    assertThrows(IllegalArgumentException.class, () -> {
+      view.slice(1L, Long.MAX_VALUE);
+    });
+    assertThrows(IllegalArgumentException.class, () -> {
+      new ChannelRangeView(channel, Long.MAX_VALUE, 1L);
+    });
+    assertThrows(IllegalArgumentException.class, () -> {
+      view.read(ByteBuffer.allocate(1), -1L);
+    });
+  }
+}
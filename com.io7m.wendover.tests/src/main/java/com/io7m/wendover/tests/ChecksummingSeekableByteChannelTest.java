@@ -0,0 +1,221 @@
+/*
+ * Copyright © 2026 Mark Raynsford <code@io7m.com> https://www.io7m.com
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY
+ * SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF OR
+ * IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+
+package com.io7m.wendover.tests;
+
+import com.io7m.wendover.core.ByteBufferChannels;
+import com.io7m.wendover.core.ChecksumMismatchException;
+import com.io7m.wendover.core.ChecksummingSeekableByteChannel;
+import org.junit.jupiter.api.Test;
+
+import java.nio.ByteBuffer;
+import java.util.zip.CRC32C;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+public final class ChecksummingSeekableByteChannelTest
+{
+  private static int crc32c(
+    final String text)
+  {
+    final var crc = new CRC32C();
+    crc.update(text.getBytes(UTF_8));
+    return (int) crc.getValue();
+  }
+
+  /**
+   * Checksums of written data are computed.
+   *
+   * @throws Exception On errors
+   */
+
+  @Test
+  public void testWrite()
+    throws Exception
+  {
+    final var buffer = ByteBuffer.allocate(32);
+    try (var ch = new ChecksummingSeekableByteChannel(
+      ByteBufferChannels.ofByteBuffer(buffer))) {
+      assertEquals(0, ch.checksumWritten());
+
+      final var src = ByteBuffer.wrap("xxHelloxx".getBytes(UTF_8));
+      src.position(2);
+      src.limit(7);
+      ch.write(src);
+      ch.write(ByteBuffer.wrap(", World".getBytes(UTF_8)));
+
+      assertEquals(crc32c("Hello, World"), ch.checksumWritten());
+      assertEquals(0, ch.checksumRead());
+    }
+  }
+
+  /**
+   * Checksums of read data are computed.
+   *
+   * @throws Exception On errors
+   */
+
+  @Test
+  public void testRead()
+    throws Exception
+  {
+    final var text = "The quick brown fox jumps over the lazy dog";
+    final var buffer = ByteBuffer.wrap(text.getBytes(UTF_8));
+    try (var ch = new ChecksummingSeekableByteChannel(
+      ByteBufferChannels.ofByteBuffer(buffer))) {
+      final var dst = ByteBuffer.allocate(10);
+      while (true) {
+        dst.clear();
+        if (ch.read(dst) == -1) {
+          break;
+        }
+      }
+      assertEquals(crc32c(text), ch.checksumRead());
+
+      ch.resetChecksums();
+      assertEquals(0, ch.checksumRead());
+
+      ch.position(4L);
+      final var dst2 = ByteBuffer.allocateDirect(5);
+      ch.read(dst2);
+      assertEquals(crc32c("quick"), ch.checksumRead());
+    }
+  }
+
+  /**
+   * Data that does not match an expected checksum is detected.
+   *
+   * @throws Exception On errors
+   */
+
+  @Test
+  public void testReadMismatch()
+    throws Exception
+  {
+    final var buffer = ByteBuffer.wrap("Hello, Wor!d".getBytes(UTF_8));
+    try (var ch = new ChecksummingSeekableByteChannel(
+      ByteBufferChannels.ofByteBuffer(buffer))) {
+      final var dst = ByteBuffer.allocate(12);
+      assertEquals(12, ch.read(dst));
+
+      final var ex =
+        assertThrows(ChecksumMismatchException.class, () -> {
+          ch.verifyRead(crc32c("Hello, World"));
+        });
+      assertEquals(0L, ex.block());
+      assertEquals(crc32c("Hello, World"), ex.expected());
+      assertEquals(crc32c("Hello, Wor!d"), ex.received());
+
+      ch.verifyRead(crc32c("Hello, Wor!d"));
+    }
+  }
+
+  /**
+   * Moving the position resets the running checksums, and the checksums
+   * then cover the bytes transferred from the new position. Setting the
+   * position to the current position does not reset them.
+   *
+   * @throws Exception On errors
+   */
+
+  @Test
+  public void testPositionResets()
+    throws Exception
+  {
+    final var buffer = ByteBuffer.allocate(32);
+    try (var ch = new ChecksummingSeekableByteChannel(
+      ByteBufferChannels.ofByteBuffer(buffer))) {
+      ch.write(ByteBuffer.wrap("Hello".getBytes(UTF_8)));
+      ch.position(5L);
+      ch.write(ByteBuffer.wrap(", World".getBytes(UTF_8)));
+      assertEquals(crc32c("Hello, World"), ch.checksumWritten());
+
+      ch.position(0L);
+      assertEquals(0, ch.checksumWritten());
+      assertEquals(0, ch.checksumRead());
+
+      final var dst = ByteBuffer.allocate(5);
+      ch.read(dst);
+      assertEquals(crc32c("Hello"), ch.checksumRead());
+
+      ch.position(7L);
+      assertEquals(0, ch.checksumRead());
+      ch.read(dst.clear());
+      assertEquals(crc32c("World"), ch.checksumRead());
+      assertEquals(12L, ch.position());
+    }
+  }
+
+  /**
+   * Zero-length transfers and reads at the end of the channel do not
+   * change the checksums.
+   *
+   * @throws Exception On errors
+   */
+
+  @Test
+  public void testEmptyAndEOF()
+    throws Exception
+  {
+    final var buffer = ByteBuffer.wrap("Hello".getBytes(UTF_8));
+    try (var ch = new ChecksummingSeekableByteChannel(
+      ByteBufferChannels.ofByteBuffer(buffer))) {
+      assertEquals(0, ch.read(ByteBuffer.allocate(0)));
+      assertEquals(0, ch.write(ByteBuffer.allocate(0)));
+      assertEquals(0, ch.checksumRead());
+      assertEquals(0, ch.checksumWritten());
+
+      final var dst = ByteBuffer.allocate(8);
+      assertEquals(5, ch.read(dst));
+      assertEquals(-1, ch.read(dst.clear()));
+      assertEquals(0, dst.position());
+      assertEquals(crc32c("Hello"), ch.checksumRead());
+
+      ch.verifyRead(crc32c("Hello"));
+      ch.resetChecksums();
+      ch.verifyRead(0);
+    }
+  }
+
+  /**
+   * Truncating the channel below its position resets the checksums, as
+   * moving the position does. Truncating it elsewhere does not.
+   *
+   * @throws Exception On errors
+   */
+
+  @Test
+  public void testTruncateResets()
+    throws Exception
+  {
+    final var buffer = ByteBuffer.allocate(32);
+    try (var ch = new ChecksummingSeekableByteChannel(
+      ByteBufferChannels.ofByteBuffer(buffer))) {
+      ch.write(ByteBuffer.wrap("Hello, World".getBytes(UTF_8)));
+      ch.truncate(20L);
+      assertEquals(crc32c("Hello, World"), ch.checksumWritten());
+
+      ch.truncate(5L);
+      assertEquals(5L, ch.position());
+      assertEquals(0, ch.checksumWritten());
+
+      ch.write(ByteBuffer.wrap("!".getBytes(UTF_8)));
+      assertEquals(crc32c("!"), ch.checksumWritten());
+    }
+  }
+}
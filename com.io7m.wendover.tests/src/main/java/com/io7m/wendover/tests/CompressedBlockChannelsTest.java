@@ -0,0 +1,331 @@
+/*
+ * Copyright © 2026 Mark Raynsford <code@io7m.com> https://www.io7m.com
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY
+ * SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF OR
+ * IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+
+package com.io7m.wendover.tests;
+
+import com.io7m.wendover.core.CompressedBlockSeekableByteChannel;
+import com.io7m.wendover.core.CompressedBlockWritableChannel;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.ClosedChannelException;
+import java.nio.channels.FileChannel;
+import java.nio.channels.NonWritableChannelException;
+import java.nio.channels.SeekableByteChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.zip.Deflater;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static java.nio.file.StandardOpenOption.CREATE;
+import static java.nio.file.StandardOpenOption.READ;
+import static java.nio.file.StandardOpenOption.WRITE;
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public final class CompressedBlockChannelsTest
+{
+  private Path directory;
+  private Path file;
+
+  @BeforeEach
+  public void setup()
+    throws IOException
+  {
+    this.directory =
+      WNTestDirectories.createTempDirectory();
+    this.file =
+      this.directory.resolve("data.z");
+  }
+
+  @AfterEach
+  public void tearDown()
+    throws IOException
+  {
+    WNTestDirectories.deleteDirectory(this.directory);
+  }
+
+  private static byte[] logData()
+  {
+    final var text = new StringBuilder();
+    for (int index = 0; index < 2000; ++index) {
+      text.append("%06d: an entry in the log\n".formatted(index));
+    }
+    return text.toString().getBytes(UTF_8);
+  }
+
+  private void writeCompressed(
+    final byte[] data,
+    final int blockSize)
+    throws IOException
+  {
+    try (var ch = new CompressedBlockWritableChannel(
+      FileChannel.open(this.file, CREATE, WRITE), blockSize, Deflater.BEST_SPEED)) {
+      final var src = ByteBuffer.wrap(data);
+      while (src.hasRemaining()) {
+        final var slice = src.slice(
+          src.position(), Math.min(777, src.remaining()));
+        assertEquals(slice.remaining(), ch.write(slice));
+        src.position(src.position() + slice.capacity());
+      }
+    }
+  }
+
+  /**
+   * Data round-trips through compression, and the output is smaller.
+   *
+   * @throws Exception On errors
+   */
+
+  @Test
+  public void testRoundTrip()
+    throws Exception
+  {
+    final var data = logData();
+    this.writeCompressed(data, 4096);
+    assertTrue(Files.size(this.file) < data.length / 2);
+
+    try (var ch = new CompressedBlockSeekableByteChannel(
+      FileChannel.open(this.file, READ))) {
+      assertEquals(data.length, ch.size());
+      assertEquals(4096, ch.blockSize());
+
+      final var out = ByteBuffer.allocate(data.length + 10);
+      while (ch.read(out) != -1) {
+        // Continue
+      }
+      assertEquals(data.length, out.position());
+      assertArrayEquals(data, Arrays.copyOf(out.array(), data.length));
+    }
+  }
+
+  /**
+   * Reads from arbitrary positions work.
+   *
+   * @throws Exception On errors
+   */
+
+  @Test
+  public void testRandomAccess()
+    throws Exception
+  {
+    final var data = logData();
+    this.writeCompressed(data, 1000);
+
+    final var random = new Random(0x5eedL);
+    try (var ch = new CompressedBlockSeekableByteChannel(
+      FileChannel.open(this.file, READ))) {
+      for (int index = 0; index < 200; ++index) {
+        final var start = random.nextInt(data.length);
+        final var length = Math.min(random.nextInt(3000), data.length - start);
+        final var out = new byte[length];
+
+        ch.position(start);
+        final var buffer = ByteBuffer.wrap(out);
+        while (buffer.hasRemaining()) {
+          ch.read(buffer);
+        }
+        assertArrayEquals(
+          Arrays.copyOfRange(data, start, start + length),
+          out
+        );
+        assertEquals(start + length, ch.position());
+      }
+    }
+  }
+
+  /**
+   * Empty streams can be written and read.
+   *
+   * @throws Exception On errors
+   */
+
+  @Test
+  public void testEmpty()
+    throws Exception
+  {
+    this.writeCompressed(new byte[0], 16);
+
+    try (var ch = new CompressedBlockSeekableByteChannel(
+      FileChannel.open(this.file, READ))) {
+      assertEquals(0L, ch.size());
+      assertEquals(-1, ch.read(ByteBuffer.allocate(1)));
+    }
+  }
+
+  /**
+   * The reading channel is read-only, and channels refuse I/O after
+   * closing.
+   *
+   * @throws Exception On errors
+   */
+
+  @Test
+  public void testReadOnlyAndClosed()
+    throws Exception
+  {
+    this.writeCompressed("Hello".getBytes(UTF_8), 16);
+
+    final var ch = new CompressedBlockSeekableByteChannel(
+      FileChannel.open(this.file, READ));
+    assertThrows(NonWritableChannelException.class, () -> {
+      ch.write(ByteBuffer.allocate(1));
+    });
+    assertThrows(NonWritableChannelException.class, () -> {
+      ch.truncate(0L);
+    });
+    ch.close();
+    assertFalse(ch.isOpen());
+    assertThrows(ClosedChannelException.class, () -> {
+      ch.read(ByteBuffer.allocate(1));
+    });
+
+    final var w = new CompressedBlockWritableChannel(
+      FileChannel.open(this.file, WRITE), 16, Deflater.DEFAULT_COMPRESSION);
+    w.close();
+    w.close();
+    assertFalse(w.isOpen());
+    assertThrows(ClosedChannelException.class, () -> {
+      w.write(ByteBuffer.allocate(1));
+    });
+  }
+
+  /**
+   * Reads racing with close either succeed or fail with a closed channel
+   * exception; they never observe a released inflater.
+   *
+   * @throws Exception On errors
+   */
+
+  @Test
+  public void testReadRacingClose()
+    throws Exception
+  {
+    final var data = logData();
+    this.writeCompressed(data, 64);
+
+    for (int attempt = 0; attempt < 20; ++attempt) {
+      final var ch = new CompressedBlockSeekableByteChannel(
+        FileChannel.open(this.file, READ));
+      final var failures = new ConcurrentLinkedQueue<Throwable>();
+      final var threads = new ArrayList<Thread>();
+
+      for (int t = 0; t < 4; ++t) {
+        final var random = new Random(t);
+        threads.add(new Thread(() -> {
+          try {
+            while (true) {
+              ch.position(random.nextInt(data.length));
+              ch.read(ByteBuffer.allocate(100));
+            }
+          } catch (final ClosedChannelException e) {
+            // Expected
+          } catch (final Throwable e) {
+            failures.add(e);
+          }
+        }));
+      }
+
+      for (final var thread : threads) {
+        thread.start();
+      }
+      Thread.sleep(2L);
+      ch.close();
+      for (final var thread : threads) {
+        thread.join();
+      }
+      assertEquals(List.of(), List.copyOf(failures));
+    }
+  }
+
+  /**
+   * Channels that are not compressed are rejected.
+   *
+   * @throws Exception On errors
+   */
+
+  @Test
+  public void testNotCompressed()
+    throws Exception
+  {
+    Files.write(this.file, new byte[64]);
+    try (var raw = FileChannel.open(this.file, READ)) {
+      assertThrows(IOException.class, () -> {
+        new CompressedBlockSeekableByteChannel(raw);
+      });
+    }
+
+    Files.write(this.file, new byte[4]);
+    try (var raw = FileChannel.open(this.file, READ)) {
+      assertThrows(IOException.class, () -> {
+        new CompressedBlockSeekableByteChannel(raw);
+      });
+    }
+  }
+
+  /**
+   * A delegate that reads no bytes fails opening the channel rather than
+   * being retried forever.
+   *
+   * @throws Exception On errors
+   */
+
+  @Test
+  public void testReadNoProgress()
+    throws Exception
+  {
+    final var delegate = Mockito.mock(SeekableByteChannel.class);
+    Mockito.when(delegate.size()).thenReturn(Long.valueOf(1024L));
+
+    assertThrows(IOException.class, () -> {
+      new CompressedBlockSeekableByteChannel(delegate);
+    });
+  }
+
+  /**
+   * Negative positions are rejected.
+   *
+   * @throws Exception On errors
+   */
+
+  @Test
+  public void testPositionNegative()
+    throws Exception
+  {
+    this.writeCompressed(logData(), 16);
+
+    try (var ch = new CompressedBlockSeekableByteChannel(
+      FileChannel.open(this.file, READ))) {
+      ch.position(10L);
+      assertThrows(IllegalArgumentException.class, () -> {
+        ch.position(-1L);
+      });
+      assertEquals(10L, ch.position());
+    }
+  }
+}
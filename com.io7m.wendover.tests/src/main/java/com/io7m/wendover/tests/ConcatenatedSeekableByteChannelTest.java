@@ -0,0 +1,274 @@
+/*
+ * Copyright © 2026 Mark Raynsford <code@io7m.com> https://www.io7m.com
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY
+ * SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF OR
+ * IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+
+package com.io7m.wendover.tests;
+
+import com.io7m.wendover.core.ByteBufferChannels;
+import com.io7m.wendover.core.ConcatenatedSeekableByteChannel;
+import com.io7m.wendover.core.SubrangeSeekableByteChannel;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.ClosedChannelException;
+import java.nio.channels.FileChannel;
+import java.nio.channels.SeekableByteChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static java.nio.file.StandardOpenOption.READ;
+import static java.nio.file.StandardOpenOption.WRITE;
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.times;
+
+public final class ConcatenatedSeekableByteChannelTest
+{
+  private Path directory;
+  private Path file;
+
+  @BeforeEach
+  public void setup()
+    throws IOException
+  {
+    this.directory =
+      WNTestDirectories.createTempDirectory();
+    this.file =
+      this.directory.resolve("file.bin");
+
+    Files.writeString(this.file, "AAAABBBBCCCCDDDD", UTF_8);
+  }
+
+  @AfterEach
+  public void tearDown()
+    throws IOException
+  {
+    WNTestDirectories.deleteDirectory(this.directory);
+  }
+
+  private static SeekableByteChannel bytes(
+    final String text)
+  {
+    return ByteBufferChannels.ofByteBuffer(
+      ByteBuffer.wrap(text.getBytes(UTF_8)));
+  }
+
+  /**
+   * Reading across delegate boundaries works.
+   *
+   * @throws Exception On errors
+   */
+
+  @Test
+  public void testReadSpanning()
+    throws Exception
+  {
+    try (var ch = new ConcatenatedSeekableByteChannel(List.of(
+      bytes("0123"),
+      bytes(""),
+      bytes("45"),
+      bytes("6789")
+    ))) {
+      assertEquals(10L, ch.size());
+
+      final var data = new byte[7];
+      assertEquals(7, ch.read(ByteBuffer.wrap(data)));
+      assertArrayEquals("0123456".getBytes(UTF_8), data);
+      assertEquals(7L, ch.position());
+
+      final var rest = new byte[7];
+      assertEquals(3, ch.read(ByteBuffer.wrap(rest)));
+      assertArrayEquals("789\0\0\0\0".getBytes(UTF_8), rest);
+      assertEquals(-1, ch.read(ByteBuffer.wrap(rest)));
+    }
+  }
+
+  /**
+   * Reading from arbitrary positions works.
+   *
+   * @throws Exception On errors
+   */
+
+  @Test
+  public void testReadPositioned()
+    throws Exception
+  {
+    final var text = "abcdefghijklmnopqrstuvwxyz";
+
+    try (var fileChannel = FileChannel.open(this.file, READ)) {
+      try (var ch = new ConcatenatedSeekableByteChannel(List.of(
+        bytes("abc"),
+        bytes("def"),
+        bytes(""),
+        bytes("ghijklmnopq"),
+        bytes("r"),
+        bytes("stuvwxyz")
+      ))) {
+        for (int start = 0; start < text.length(); ++start) {
+          for (int length = 1; start + length <= text.length(); ++length) {
+            final var data = new byte[length];
+            ch.position(start);
+            assertEquals(length, ch.read(ByteBuffer.wrap(data)));
+            assertEquals(
+              text.substring(start, start + length),
+              new String(data, UTF_8)
+            );
+          }
+        }
+
+        ch.position(1000L);
+        assertEquals(26L, ch.position());
+      }
+    }
+  }
+
+  /**
+   * Subranges of files can be concatenated.
+   *
+   * @throws Exception On errors
+   */
+
+  @Test
+  public void testSubranges()
+    throws Exception
+  {
+    try (var fileChannel = FileChannel.open(this.file, READ, WRITE)) {
+      final var ch = new ConcatenatedSeekableByteChannel(List.of(
+        new SubrangeSeekableByteChannel(fileChannel, 12L, 4L),
+        new SubrangeSeekableByteChannel(fileChannel, 0L, 4L)
+      ));
+
+      final var data = new byte[8];
+      assertEquals(8, ch.read(ByteBuffer.wrap(data)));
+      assertArrayEquals("DDDDAAAA".getBytes(UTF_8), data);
+
+      ch.position(2L);
+      assertEquals(4, ch.write(ByteBuffer.wrap("xyzw".getBytes(UTF_8))));
+      assertEquals(6L, ch.position());
+      assertEquals("zwAABBBBCCCCDDxy", Files.readString(this.file, UTF_8));
+    }
+  }
+
+  /**
+   * Writes are limited to the size of the channel.
+   *
+   * @throws Exception On errors
+   */
+
+  @Test
+  public void testWriteLimited()
+    throws Exception
+  {
+    final var backing0 = new byte[2];
+    final var backing1 = new byte[3];
+
+    try (var ch = new ConcatenatedSeekableByteChannel(List.of(
+      ByteBufferChannels.ofByteBuffer(ByteBuffer.wrap(backing0)),
+      ByteBufferChannels.ofByteBuffer(ByteBuffer.wrap(backing1))
+    ))) {
+      final var src = ByteBuffer.wrap("0123456".getBytes(UTF_8));
+      assertEquals(5, ch.write(src));
+      assertEquals(5, src.position());
+      assertEquals(0, ch.write(src));
+      assertArrayEquals("01".getBytes(UTF_8), backing0);
+      assertArrayEquals("234".getBytes(UTF_8), backing1);
+    }
+  }
+
+  /**
+   * An empty list of channels is an empty channel.
+   *
+   * @throws Exception On errors
+   */
+
+  @Test
+  public void testEmpty()
+    throws Exception
+  {
+    try (var ch = new ConcatenatedSeekableByteChannel(List.of())) {
+      assertEquals(0L, ch.size());
+      assertEquals(-1, ch.read(ByteBuffer.allocate(10)));
+      assertEquals(0, ch.write(ByteBuffer.allocate(10)));
+      assertThrows(UnsupportedOperationException.class, () -> {
+        ch.truncate(0L);
+      });
+    }
+  }
+
+  /**
+   * Delegates whose combined size exceeds the largest position are
+   * rejected.
+   *
+   * @throws Exception On errors
+   */
+
+  @Test
+  public void testSizeOverflow()
+    throws Exception
+  {
+    final var d0 = Mockito.mock(SeekableByteChannel.class);
+    final var d1 = Mockito.mock(SeekableByteChannel.class);
+    Mockito.when(d0.size()).thenReturn(Long.valueOf(Long.MAX_VALUE));
+    Mockito.when(d1.size()).thenReturn(Long.valueOf(1L));
+
+    assertThrows(ArithmeticException.class, () -> {
+      new ConcatenatedSeekableByteChannel(List.of(d0, d1));
+    });
+  }
+
+  /**
+   * Closing the channel closes all delegates.
+   *
+   * @throws Exception On errors
+   */
+
+  @Test
+  public void testClose()
+    throws Exception
+  {
+    final var d0 = Mockito.mock(SeekableByteChannel.class);
+    final var d1 = Mockito.mock(SeekableByteChannel.class);
+    Mockito.doThrow(new IOException("0")).when(d0).close();
+    Mockito.doThrow(new IOException("1")).when(d1).close();
+
+    final var ch = new ConcatenatedSeekableByteChannel(List.of(d0, d1));
+    assertTrue(ch.isOpen());
+
+    final var ex = assertThrows(IOException.class, ch::close);
+    assertEquals("0", ex.getMessage());
+    assertEquals("1", ex.getSuppressed()[0].getMessage());
+    assertFalse(ch.isOpen());
+    ch.close();
+
+    Mockito.verify(d0, times(1)).close();
+    Mockito.verify(d1, times(1)).close();
+
+    assertThrows(ClosedChannelException.class, () -> {
+      ch.read(ByteBuffer.allocate(1));
+    });
+    assertThrows(ClosedChannelException.class, () -> {
+      ch.write(ByteBuffer.allocate(1));
+    });
+  }
+}
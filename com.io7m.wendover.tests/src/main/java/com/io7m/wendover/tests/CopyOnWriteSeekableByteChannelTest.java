@@ -0,0 +1,331 @@
+/*
+ * Copyright © 2026 Mark Raynsford <code@io7m.com> https://www.io7m.com
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY
+ * SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF OR
+ * IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+
+package com.io7m.wendover.tests;
+
+import com.io7m.wendover.core.CopyOnWriteSeekableByteChannel;
+import com.io7m.wendover.core.DelegatingSeekableByteChannel;
+import com.io7m.wendover.core.ReadOnlySeekableByteChannel;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.ClosedChannelException;
+import java.nio.channels.FileChannel;
+import java.nio.channels.SeekableByteChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static java.nio.file.StandardOpenOption.READ;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public final class CopyOnWriteSeekableByteChannelTest
+{
+  private static final String ALPHABET =
+    "ABCDEFGHIJKLMNOPQRSTUVWXYZ";
+
+  private Path directory;
+  private Path file;
+
+  @BeforeEach
+  public void setup()
+    throws IOException
+  {
+    this.directory =
+      WNTestDirectories.createTempDirectory();
+    this.file =
+      this.directory.resolve("base.bin");
+
+    Files.writeString(this.file, ALPHABET, UTF_8);
+  }
+
+  @AfterEach
+  public void tearDown()
+    throws IOException
+  {
+    WNTestDirectories.deleteDirectory(this.directory);
+  }
+
+  private static String readAll(
+    final SeekableByteChannel ch)
+    throws IOException
+  {
+    final var data = new byte[Math.toIntExact(ch.size())];
+    ch.position(0L);
+    final var buffer = ByteBuffer.wrap(data);
+    while (buffer.hasRemaining()) {
+      if (ch.read(buffer) == -1) {
+        break;
+      }
+    }
+    return new String(data, UTF_8);
+  }
+
+  /**
+   * Reads without writes return the base data.
+   *
+   * @throws Exception On errors
+   */
+
+  @Test
+  public void testReadBase()
+    throws Exception
+  {
+    try (var base = FileChannel.open(this.file, READ)) {
+      try (var ch = new CopyOnWriteSeekableByteChannel(base, 4)) {
+        assertEquals(26L, ch.size());
+        assertEquals(ALPHABET, readAll(ch));
+        assertEquals(0, ch.overlayPageCount());
+        assertEquals(-1, ch.read(ByteBuffer.allocate(1)));
+      }
+      assertTrue(base.isOpen());
+    }
+  }
+
+  /**
+   * Writes are visible in the channel, but not in the base or in other
+   * channels sharing the base.
+   *
+   * @throws Exception On errors
+   */
+
+  @Test
+  public void testWriteIsolated()
+    throws Exception
+  {
+    try (var base = FileChannel.open(this.file, READ)) {
+      final var readOnly = new ReadOnlySeekableByteChannel(base);
+
+      try (var fork0 = new CopyOnWriteSeekableByteChannel(readOnly, 4);
+           var fork1 = new CopyOnWriteSeekableByteChannel(readOnly, 4)) {
+        fork0.position(6L);
+        assertEquals(5, fork0.write(ByteBuffer.wrap("abcde".getBytes(UTF_8))));
+        assertEquals(11L, fork0.position());
+        assertEquals(2, fork0.overlayPageCount());
+
+        fork1.position(24L);
+        assertEquals(4, fork1.write(ByteBuffer.wrap("wxyz".getBytes(UTF_8))));
+        assertEquals(28L, fork1.size());
+
+        assertEquals("ABCDEFabcdeLMNOPQRSTUVWXYZ", readAll(fork0));
+        assertEquals("ABCDEFGHIJKLMNOPQRSTUVWXwxyz", readAll(fork1));
+      }
+    }
+
+    assertEquals(ALPHABET, Files.readString(this.file, UTF_8));
+  }
+
+  /**
+   * Writing beyond the end of the channel leaves zeros in the gap.
+   *
+   * @throws Exception On errors
+   */
+
+  @Test
+  public void testWriteBeyondEnd()
+    throws Exception
+  {
+    try (var base = FileChannel.open(this.file, READ)) {
+      try (var ch = new CopyOnWriteSeekableByteChannel(base, 4)) {
+        ch.position(30L);
+        ch.write(ByteBuffer.wrap("!".getBytes(UTF_8)));
+        assertEquals(31L, ch.size());
+        assertEquals(ALPHABET + "\0\0\0\0!", readAll(ch));
+      }
+    }
+  }
+
+  /**
+   * Truncated data does not reappear when the channel is extended again.
+   *
+   * @throws Exception On errors
+   */
+
+  @Test
+  public void testTruncate()
+    throws Exception
+  {
+    try (var base = FileChannel.open(this.file, READ)) {
+      try (var ch = new CopyOnWriteSeekableByteChannel(base, 4)) {
+        ch.position(8L);
+        ch.write(ByteBuffer.wrap("ijkl".getBytes(UTF_8)));
+        ch.position(20L);
+
+        ch.truncate(10L);
+        assertEquals(10L, ch.size());
+        assertEquals(10L, ch.position());
+        assertEquals("ABCDEFGHij", readAll(ch));
+
+        ch.position(14L);
+        ch.write(ByteBuffer.wrap("o".getBytes(UTF_8)));
+        assertEquals("ABCDEFGHij\0\0\0\0o", readAll(ch));
+      }
+    }
+    assertEquals(ALPHABET, Files.readString(this.file, UTF_8));
+  }
+
+  /**
+   * The base channel is read without the lock held: while a write is
+   * blocked copying a page from the base, other operations on the channel
+   * proceed.
+   *
+   * @throws Exception On errors
+   */
+
+  @Test
+  public void testBaseReadOutsideLock()
+    throws Exception
+  {
+    final var entered = new CountDownLatch(1);
+    final var release = new CountDownLatch(1);
+
+    try (var file = FileChannel.open(this.file, READ)) {
+      final var base = new DelegatingSeekableByteChannel(file) {
+        @Override
+        public int read(
+          final ByteBuffer dst)
+          throws IOException
+        {
+          entered.countDown();
+          try {
+            release.await();
+          } catch (final InterruptedException e) {
+            throw new IOException(e);
+          }
+          return super.read(dst);
+        }
+      };
+
+      try (var ch = new CopyOnWriteSeekableByteChannel(base, 4)) {
+        final var error = new AtomicReference<Throwable>();
+        final var writer = new Thread(() -> {
+          try {
+            ch.write(ByteBuffer.wrap("ab".getBytes(UTF_8)));
+          } catch (final Throwable e) {
+            error.set(e);
+          }
+        });
+        writer.start();
+
+        assertTrue(entered.await(10L, TimeUnit.SECONDS));
+        assertEquals(0, ch.overlayPageCount());
+        assertEquals(26L, ch.size());
+        assertEquals(0L, ch.position());
+
+        release.countDown();
+        writer.join();
+        assertEquals(null, error.get());
+        assertEquals(1, ch.overlayPageCount());
+        assertEquals("abCDEFGHIJKLMNOPQRSTUVWXYZ", readAll(ch));
+      }
+    }
+  }
+
+  /**
+   * Closing the channel does not close the base.
+   *
+   * @throws Exception On errors
+   */
+
+  @Test
+  public void testClose()
+    throws Exception
+  {
+    try (var base = FileChannel.open(this.file, READ)) {
+      final var ch = new CopyOnWriteSeekableByteChannel(base, 4);
+      ch.close();
+      ch.close();
+      assertFalse(ch.isOpen());
+      assertTrue(base.isOpen());
+
+      assertThrows(ClosedChannelException.class, () -> {
+        ch.read(ByteBuffer.allocate(1));
+      });
+      assertThrows(ClosedChannelException.class, () -> {
+        ch.write(ByteBuffer.allocate(1));
+      });
+    }
+  }
+
+  /**
+   * Invalid page sizes are rejected.
+   *
+   * @throws Exception On errors
+   */
+
+  @Test
+  public void testInvalidPageSize()
+    throws Exception
+  {
+    try (var base = FileChannel.open(this.file, READ)) {
+      assertThrows(IllegalArgumentException.class, () -> {
+        new CopyOnWriteSeekableByteChannel(base, 0);
+      });
+    }
+  }
+
+  /**
+   * A base channel that reads no bytes fails the read rather than being
+   * retried forever.
+   *
+   * @throws Exception On errors
+   */
+
+  @Test
+  public void testReadNoProgress()
+    throws Exception
+  {
+    final var base = Mockito.mock(SeekableByteChannel.class);
+    Mockito.when(base.size()).thenReturn(Long.valueOf(16L));
+
+    try (var ch = new CopyOnWriteSeekableByteChannel(base, 4)) {
+      assertThrows(IOException.class, () -> {
+        ch.read(ByteBuffer.allocate(4));
+      });
+    }
+  }
+
+  /**
+   * Negative positions are rejected.
+   *
+   * @throws Exception On errors
+   */
+
+  @Test
+  public void testPositionNegative()
+    throws Exception
+  {
+    try (var base = FileChannel.open(this.file, READ)) {
+      try (var ch = new CopyOnWriteSeekableByteChannel(base, 4)) {
+        ch.position(10L);
+        assertThrows(IllegalArgumentException.class, () -> {
+          ch.position(-1L);
+        });
+        assertEquals(10L, ch.position());
+      }
+    }
+  }
+}
@@ -0,0 +1,498 @@
+/*
+ * Copyright © 2026 Mark Raynsford <code@io7m.com> https://www.io7m.com
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY
+ * SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF OR
+ * IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+
+package com.io7m.wendover.tests;
+
+import com.io7m.wendover.core.DirectIOSeekableByteChannel;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Assumptions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.ClosedChannelException;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileLock;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.Random;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static java.nio.file.StandardOpenOption.CREATE;
+import static java.nio.file.StandardOpenOption.READ;
+import static java.nio.file.StandardOpenOption.WRITE;
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+public final class DirectIOSeekableByteChannelTest
+{
+  private static final int BLOCK_SIZE = 512;
+
+  private Path directory;
+  private Path file;
+
+  @BeforeEach
+  public void setup()
+    throws IOException
+  {
+    this.directory =
+      WNTestDirectories.createTempDirectory();
+    this.file =
+      this.directory.resolve("file.bin");
+  }
+
+  @AfterEach
+  public void tearDown()
+    throws IOException
+  {
+    WNTestDirectories.deleteDirectory(this.directory);
+  }
+
+  private DirectIOSeekableByteChannel openChecked(
+    final int bufferSize)
+    throws IOException
+  {
+    return new DirectIOSeekableByteChannel(
+      new AlignmentCheckingChannel(
+        FileChannel.open(this.file, CREATE, READ, WRITE)),
+      BLOCK_SIZE,
+      bufferSize
+    );
+  }
+
+  /**
+   * Reads and writes at arbitrary positions and of arbitrary lengths agree
+   * with a simple model, and only aligned I/O reaches the file.
+   *
+   * @throws Exception On errors
+   */
+
+  @Test
+  public void testUnalignedAgreesWithModel()
+    throws Exception
+  {
+    final var random = new Random(0x5eedL);
+    var model = new byte[0];
+
+    try (var ch = this.openChecked(BLOCK_SIZE * 4)) {
+      for (int iteration = 0; iteration < 300; ++iteration) {
+        final var position = random.nextInt(BLOCK_SIZE * 12);
+        final var length = 1 + random.nextInt(BLOCK_SIZE * 6);
+
+        if (random.nextBoolean()) {
+          final var data = new byte[length];
+          random.nextBytes(data);
+          ch.position(position);
+          assertEquals(length, ch.write(ByteBuffer.wrap(data)));
+
+          if (model.length < position + length) {
+            model = Arrays.copyOf(model, position + length);
+          }
+          System.arraycopy(data, 0, model, position, length);
+          assertEquals(model.length, ch.size());
+          assertEquals(model.length, Files.size(this.file));
+        } else {
+          final var data = new byte[length];
+          ch.position(position);
+          final var r = ch.read(ByteBuffer.wrap(data));
+          if (position >= model.length) {
+            assertEquals(-1, r);
+          } else {
+            final var expected = Math.min(length, model.length - position);
+            assertEquals(expected, r);
+            assertArrayEquals(
+              Arrays.copyOfRange(model, position, position + expected),
+              Arrays.copyOf(data, expected)
+            );
+            assertEquals(position + expected, ch.position());
+          }
+        }
+      }
+    }
+
+    assertArrayEquals(model, Files.readAllBytes(this.file));
+  }
+
+  /**
+   * Truncation shrinks the file, and later writes beyond the truncated
+   * size leave zeros in the gap.
+   *
+   * @throws Exception On errors
+   */
+
+  @Test
+  public void testTruncate()
+    throws Exception
+  {
+    try (var ch = this.openChecked(BLOCK_SIZE)) {
+      ch.write(ByteBuffer.wrap("ABCDEFGHIJ".getBytes(UTF_8)));
+      ch.truncate(4L);
+      assertEquals(4L, ch.size());
+      assertEquals(4L, ch.position());
+
+      ch.position(6L);
+      ch.write(ByteBuffer.wrap("Z".getBytes(UTF_8)));
+      assertEquals(7L, ch.size());
+    }
+
+    assertEquals("ABCD\0\0Z", Files.readString(this.file, UTF_8));
+  }
+
+  /**
+   * Opening a file for direct I/O works where the file system supports it.
+   *
+   * @throws Exception On errors
+   */
+
+  @Test
+  public void testOpenDirect()
+    throws Exception
+  {
+    final DirectIOSeekableByteChannel ch;
+    try {
+      ch = DirectIOSeekableByteChannel.open(this.file, CREATE, READ, WRITE);
+    } catch (final UnsupportedOperationException | IOException e) {
+      Assumptions.abort("Direct I/O is not supported: " + e);
+      return;
+    }
+
+    try (ch) {
+      ch.position(3L);
+      assertEquals(5, ch.write(ByteBuffer.wrap("hello".getBytes(UTF_8))));
+      assertEquals(8L, ch.size());
+
+      final var data = new byte[8];
+      ch.position(0L);
+      assertEquals(8, ch.read(ByteBuffer.wrap(data)));
+      assertEquals("\0\0\0hello", new String(data, UTF_8));
+    }
+
+    assertEquals(8L, Files.size(this.file));
+  }
+
+  /**
+   * Closing the channel closes the file channel.
+   *
+   * @throws Exception On errors
+   */
+
+  @Test
+  public void testClose()
+    throws Exception
+  {
+    final var file = FileChannel.open(this.file, CREATE, READ, WRITE);
+    final var ch = new DirectIOSeekableByteChannel(file, BLOCK_SIZE, 4096);
+    ch.write(ByteBuffer.wrap("x".getBytes(UTF_8)));
+    ch.close();
+    ch.close();
+
+    assertFalse(ch.isOpen());
+    assertFalse(file.isOpen());
+    assertThrows(ClosedChannelException.class, () -> {
+      ch.read(ByteBuffer.allocate(1));
+    });
+    assertThrows(ClosedChannelException.class, () -> {
+      ch.write(ByteBuffer.allocate(1));
+    });
+  }
+
+  /**
+   * Aligned buffers are borrowed from a shared pool for each operation and
+   * returned afterwards, so channels with the same geometry reuse them and
+   * a closed channel holds none.
+   *
+   * @throws Exception On errors
+   */
+
+  @Test
+  public void testPooledBuffers()
+    throws Exception
+  {
+    final var bufferSize = BLOCK_SIZE * 7;
+    final var pool =
+      Class.forName("com.io7m.wendover.core.internal.AlignedBufferPool")
+        .getMethod("shared", int.class, int.class)
+        .invoke(null, Integer.valueOf(BLOCK_SIZE), Integer.valueOf(bufferSize));
+    final var idleCount =
+      pool.getClass().getMethod("idleCount");
+
+    assertEquals(0, idleCount.invoke(pool));
+
+    for (int index = 0; index < 3; ++index) {
+      try (var ch = this.openChecked(bufferSize)) {
+        ch.position(index * 100L);
+        ch.write(ByteBuffer.wrap("hello".getBytes(UTF_8)));
+        ch.position(0L);
+        ch.read(ByteBuffer.allocate(1000));
+        assertEquals(1, idleCount.invoke(pool));
+      }
+    }
+
+    final var ch = this.openChecked(bufferSize);
+    ch.close();
+    assertThrows(ClosedChannelException.class, () -> {
+      ch.read(ByteBuffer.allocate(1));
+    });
+    assertEquals(1, idleCount.invoke(pool));
+  }
+
+  /**
+   * Invalid arguments are rejected.
+   *
+   * @throws Exception On errors
+   */
+
+  @Test
+  public void testInvalid()
+    throws Exception
+  {
+    try (var file = FileChannel.open(this.file, CREATE, READ, WRITE)) {
+      assertThrows(IllegalArgumentException.class, () -> {
+        new DirectIOSeekableByteChannel(file, 0, 4096);
+      });
+      assertThrows(IllegalArgumentException.class, () -> {
+        new DirectIOSeekableByteChannel(file, 500, 4096);
+      });
+      assertThrows(IllegalArgumentException.class, () -> {
+        new DirectIOSeekableByteChannel(file, BLOCK_SIZE, 0);
+      });
+    }
+  }
+
+  /**
+   * A file that transfers no bytes fails the operation rather than being
+   * retried forever.
+   *
+   * @throws Exception On errors
+   */
+
+  @Test
+  public void testNoProgress()
+    throws Exception
+  {
+    final var file = Mockito.mock(FileChannel.class);
+    Mockito.when(file.size()).thenReturn(Long.valueOf(BLOCK_SIZE * 2L));
+
+    final var ch = new DirectIOSeekableByteChannel(file, BLOCK_SIZE, 4096);
+    assertThrows(IOException.class, () -> {
+      ch.read(ByteBuffer.allocate(10));
+    });
+    assertThrows(IOException.class, () -> {
+      ch.write(ByteBuffer.allocate(BLOCK_SIZE));
+    });
+  }
+
+  /**
+   * Negative positions are rejected.
+   *
+   * @throws Exception On errors
+   */
+
+  @Test
+  public void testPositionNegative()
+    throws Exception
+  {
+    try (var ch = this.openChecked(4096)) {
+      ch.position(10L);
+      assertThrows(IllegalArgumentException.class, () -> {
+        ch.position(-1L);
+      });
+      assertEquals(10L, ch.position());
+    }
+  }
+
+  /**
+   * A file channel that rejects any I/O that would not be permitted on a
+   * file opened for direct I/O.
+   */
+
+  private static final class AlignmentCheckingChannel
+    extends FileChannel
+  {
+    private final FileChannel delegate;
+
+    AlignmentCheckingChannel(
+      final FileChannel inDelegate)
+    {
+      this.delegate = inDelegate;
+    }
+
+    private static void check(
+      final ByteBuffer buffer,
+      final long position)
+    {
+      assertEquals(0L, position % BLOCK_SIZE, "Position is aligned");
+      assertEquals(0, buffer.remaining() % BLOCK_SIZE, "Length is aligned");
+      assertEquals(
+        0,
+        buffer.alignmentOffset(buffer.position(), BLOCK_SIZE),
+        "Address is aligned"
+      );
+    }
+
+    @Override
+    public int read(
+      final ByteBuffer dst,
+      final long position)
+      throws IOException
+    {
+      check(dst, position);
+      return this.delegate.read(dst, position);
+    }
+
+    @Override
+    public int write(
+      final ByteBuffer src,
+      final long position)
+      throws IOException
+    {
+      check(src, position);
+      return this.delegate.write(src, position);
+    }
+
+    @Override
+    public int read(
+      final ByteBuffer dst)
+    {
+      throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public long read(
+      final ByteBuffer[] dsts,
+      final int offset,
+      final int length)
+    {
+      throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public int write(
+      final ByteBuffer src)
+    {
+      throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public long write(
+      final ByteBuffer[] srcs,
+      final int offset,
+      final int length)
+    {
+      throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public long position()
+      throws IOException
+    {
+      return this.delegate.position();
+    }
+
+    @Override
+    public FileChannel position(
+      final long newPosition)
+      throws IOException
+    {
+      this.delegate.position(newPosition);
+      return this;
+    }
+
+    @Override
+    public long size()
+      throws IOException
+    {
+      return this.delegate.size();
+    }
+
+    @Override
+    public FileChannel truncate(
+      final long size)
+      throws IOException
+    {
+      this.delegate.truncate(size);
+      return this;
+    }
+
+    @Override
+    public void force(
+      final boolean metaData)
+      throws IOException
+    {
+      this.delegate.force(metaData);
+    }
+
+    @Override
+    public long transferTo(
+      final long position,
+      final long count,
+      final WritableByteChannel target)
+    {
+      throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public long transferFrom(
+      final ReadableByteChannel src,
+      final long position,
+      final long count)
+    {
+      throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public MappedByteBuffer map(
+      final MapMode mode,
+      final long position,
+      final long size)
+    {
+      throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public FileLock lock(
+      final long position,
+      final long size,
+      final boolean shared)
+    {
+      throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public FileLock tryLock(
+      final long position,
+      final long size,
+      final boolean shared)
+    {
+      throw new UnsupportedOperationException();
+    }
+
+    @Override
+    protected void implCloseChannel()
+      throws IOException
+    {
+      this.delegate.close();
+    }
+  }
+}
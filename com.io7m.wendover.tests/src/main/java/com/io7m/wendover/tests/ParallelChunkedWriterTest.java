@@ -0,0 +1,298 @@
+/*
+ * Copyright © 2026 Mark Raynsford <code@io7m.com> https://www.io7m.com
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY
+ * SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF OR
+ * IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+
+package com.io7m.wendover.tests;
+
+import com.io7m.wendover.core.ParallelChunkedWriter;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.ClosedChannelException;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.LockSupport;
+
+import static java.nio.file.StandardOpenOption.CREATE;
+import static java.nio.file.StandardOpenOption.READ;
+import static java.nio.file.StandardOpenOption.WRITE;
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+public final class ParallelChunkedWriterTest
+{
+  private static final int SIZE = 1 << 20;
+
+  private Path directory;
+  private Path file;
+  private byte[] data;
+  private ExecutorService executor;
+  private FileChannel channel;
+
+  @BeforeEach
+  public void setup()
+    throws IOException
+  {
+    this.directory =
+      WNTestDirectories.createTempDirectory();
+    this.file =
+      this.directory.resolve("file.bin");
+    this.executor =
+      Executors.newFixedThreadPool(4);
+    this.channel =
+      FileChannel.open(this.file, CREATE, READ, WRITE);
+
+    this.data = new byte[SIZE];
+    for (int index = 0; index < SIZE; ++index) {
+      this.data[index] = (byte) (index % 251);
+    }
+  }
+
+  @AfterEach
+  public void tearDown()
+    throws Exception
+  {
+    this.channel.close();
+    this.executor.shutdown();
+    this.executor.awaitTermination(10L, TimeUnit.SECONDS);
+    WNTestDirectories.deleteDirectory(this.directory);
+  }
+
+  /**
+   * Writing many payloads concurrently works.
+   *
+   * @throws Exception On errors
+   */
+
+  @Test
+  public void testWriteParallel()
+    throws Exception
+  {
+    final var writer =
+      new ParallelChunkedWriter(this.channel, this.executor, 4096);
+
+    final var futures = new ArrayList<CompletableFuture<Void>>();
+    final var payload = 100_000;
+    for (int offset = 0; offset < SIZE; offset += payload) {
+      final var length = Math.min(payload, SIZE - offset);
+      final var src = ByteBuffer.wrap(this.data, offset, length);
+      futures.add(writer.write(offset, src));
+      assertEquals(0, src.remaining());
+    }
+
+    for (final var future : futures) {
+      future.get();
+    }
+
+    assertEquals(SIZE, writer.contiguousWritten());
+    assertEquals(SIZE, writer.uppermostWritten());
+    assertArrayEquals(this.data, Files.readAllBytes(this.file));
+  }
+
+  /**
+   * The frontier only advances once all preceding data is written.
+   *
+   * @throws Exception On errors
+   */
+
+  @Test
+  public void testFrontierOutOfOrder()
+    throws Exception
+  {
+    final var writer =
+      new ParallelChunkedWriter(this.channel, Runnable::run, 10);
+
+    writer.write(100L, ByteBuffer.wrap(this.data, 100, 50)).get();
+    assertEquals(0L, writer.contiguousWritten());
+    assertEquals(150L, writer.uppermostWritten());
+
+    writer.write(50L, ByteBuffer.wrap(this.data, 50, 50)).get();
+    assertEquals(0L, writer.contiguousWritten());
+    assertEquals(150L, writer.uppermostWritten());
+
+    writer.write(200L, ByteBuffer.wrap(this.data, 200, 25)).get();
+    assertEquals(0L, writer.contiguousWritten());
+    assertEquals(225L, writer.uppermostWritten());
+
+    writer.write(0L, ByteBuffer.wrap(this.data, 0, 50)).get();
+    assertEquals(150L, writer.contiguousWritten());
+    assertEquals(225L, writer.uppermostWritten());
+
+    writer.write(150L, ByteBuffer.wrap(this.data, 150, 50)).get();
+    assertEquals(225L, writer.contiguousWritten());
+  }
+
+  /**
+   * Errors are propagated through the returned future.
+   *
+   * @throws Exception On errors
+   */
+
+  @Test
+  public void testWriteClosed()
+    throws Exception
+  {
+    final var writer =
+      new ParallelChunkedWriter(this.channel, this.executor, 10);
+
+    this.channel.close();
+
+    final var ex =
+      assertThrows(ExecutionException.class, () -> {
+        writer.write(0L, ByteBuffer.wrap(this.data, 0, 100)).get();
+      });
+
+    assertInstanceOf(ClosedChannelException.class, ex.getCause());
+    assertEquals(0L, writer.contiguousWritten());
+  }
+
+  /**
+   * A channel that writes no bytes fails the write rather than being retried
+   * forever.
+   *
+   * @throws Exception On errors
+   */
+
+  @Test
+  public void testWriteNoProgress()
+    throws Exception
+  {
+    final var stub = Mockito.mock(FileChannel.class);
+    final var writer = new ParallelChunkedWriter(stub, Runnable::run, 10);
+
+    final var ex =
+      assertThrows(ExecutionException.class, () -> {
+        writer.write(0L, ByteBuffer.wrap(this.data, 0, 100)).get();
+      });
+
+    assertInstanceOf(IOException.class, ex.getCause());
+    assertEquals(0L, writer.contiguousWritten());
+  }
+
+  /**
+   * A chunk size close to the largest integer does not overflow the chunk
+   * count.
+   *
+   * @throws Exception On errors
+   */
+
+  @Test
+  public void testWriteLargeChunkSize()
+    throws Exception
+  {
+    final var writer =
+      new ParallelChunkedWriter(this.channel, this.executor, Integer.MAX_VALUE);
+
+    writer.write(0L, ByteBuffer.wrap(this.data, 0, 100)).get();
+    assertEquals(100L, writer.contiguousWritten());
+
+    final var written = new byte[100];
+    this.channel.read(ByteBuffer.wrap(written), 0L);
+    assertArrayEquals(Arrays.copyOf(this.data, 100), written);
+  }
+
+  /**
+   * If the executor rejects a chunk, a chunk already in progress has
+   * finished by the time the rejection is raised.
+   *
+   * @throws Exception On errors
+   */
+
+  @Test
+  public void testWriteRejected()
+    throws Exception
+  {
+    final var started = new CountDownLatch(1);
+    final var proceed = new CountDownLatch(1);
+    final var stub = Mockito.mock(FileChannel.class);
+    Mockito.when(stub.write(Mockito.any(ByteBuffer.class), Mockito.anyLong()))
+      .thenAnswer(invocation -> {
+        started.countDown();
+        proceed.await();
+        final ByteBuffer buffer = invocation.getArgument(0);
+        final var count = buffer.remaining();
+        buffer.position(buffer.limit());
+        return Integer.valueOf(count);
+      });
+
+    final var submitted = new AtomicInteger(0);
+    final Executor rejecting = task -> {
+      if (submitted.incrementAndGet() == 1) {
+        this.executor.execute(task);
+        return;
+      }
+
+      /*
+       * Reject the second chunk while the first is in progress, and let the
+       * first finish only some time later.
+       */
+
+      try {
+        started.await();
+      } catch (final InterruptedException e) {
+        throw new IllegalStateException(e);
+      }
+      this.executor.execute(() -> {
+        LockSupport.parkNanos(100_000_000L);
+        proceed.countDown();
+      });
+      throw new RejectedExecutionException();
+    };
+
+    final var writer = new ParallelChunkedWriter(stub, rejecting, 10);
+
+    assertThrows(RejectedExecutionException.class, () -> {
+      writer.write(0L, ByteBuffer.wrap(this.data, 0, 100));
+    });
+    assertEquals(10L, writer.contiguousWritten());
+  }
+
+  /**
+   * Invalid parameters are rejected.
+   */
+
+  @Test
+  public void testInvalid()
+  {
+    assertThrows(IllegalArgumentException.class, () -> {
+      new ParallelChunkedWriter(this.channel, this.executor, 0);
+    });
+
+    final var writer =
+      new ParallelChunkedWriter(this.channel, this.executor, 10);
+
+    assertThrows(IllegalArgumentException.class, () -> {
+      writer.write(-1L, ByteBuffer.allocate(10));
+    });
+  }
+}
@@ -0,0 +1,357 @@
+/*
+ * Copyright © 2026 Mark Raynsford <code@io7m.com> https://www.io7m.com
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY
+ * SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF OR
+ * IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+
+package com.io7m.wendover.tests;
+
+import com.io7m.wendover.core.ByteBufferChannels;
+import com.io7m.wendover.core.ParallelRangeReader;
+import com.io7m.wendover.core.SubrangeSeekableByteChannel;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.SeekableByteChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.LockSupport;
+
+import static java.nio.file.StandardOpenOption.READ;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+public final class ParallelRangeReaderTest
+{
+  private static final int SIZE = 1 << 20;
+
+  private Path directory;
+  private Path file;
+  private byte[] data;
+  private ExecutorService executor;
+
+  @BeforeEach
+  public void setup()
+    throws IOException
+  {
+    this.directory =
+      WNTestDirectories.createTempDirectory();
+    this.file =
+      this.directory.resolve("file.bin");
+    this.executor =
+      Executors.newFixedThreadPool(4);
+
+    this.data = new byte[SIZE];
+    for (int index = 0; index < SIZE; ++index) {
+      this.data[index] = (byte) (index % 251);
+    }
+    Files.write(this.file, this.data);
+  }
+
+  @AfterEach
+  public void tearDown()
+    throws Exception
+  {
+    this.executor.shutdown();
+    this.executor.awaitTermination(10L, TimeUnit.SECONDS);
+    WNTestDirectories.deleteDirectory(this.directory);
+  }
+
+  private void checkData(
+    final ByteBuffer buffer,
+    final long position,
+    final int count)
+  {
+    for (int index = 0; index < count; ++index) {
+      assertEquals(
+        this.data[(int) position + index],
+        buffer.get(index),
+        "Byte at %d".formatted(Integer.valueOf(index))
+      );
+    }
+  }
+
+  /**
+   * Reading a region of a file channel in parallel works.
+   *
+   * @throws Exception On errors
+   */
+
+  @Test
+  public void testReadFileChannel()
+    throws Exception
+  {
+    final var reader = new ParallelRangeReader(this.executor, 4096);
+    final var buffer = ByteBuffer.allocateDirect(100_000);
+
+    try (var channel = FileChannel.open(this.file, READ)) {
+      assertEquals(100_000, reader.read(channel, 1001L, buffer));
+      assertEquals(0L, channel.position());
+    }
+
+    assertEquals(100_000, buffer.position());
+    this.checkData(buffer, 1001L, 100_000);
+  }
+
+  /**
+   * A chunk size close to the largest integer does not overflow the chunk
+   * count.
+   *
+   * @throws Exception On errors
+   */
+
+  @Test
+  public void testReadLargeChunkSize()
+    throws Exception
+  {
+    final var reader =
+      new ParallelRangeReader(this.executor, Integer.MAX_VALUE);
+    final var buffer = ByteBuffer.allocate(SIZE);
+
+    try (var channel = FileChannel.open(this.file, READ)) {
+      assertEquals(SIZE, reader.read(channel, 0L, buffer));
+    }
+    this.checkData(buffer, 0L, SIZE);
+  }
+
+  /**
+   * If the executor rejects a chunk, the rejection is raised only once a
+   * chunk already in progress has finished.
+   *
+   * @throws Exception On errors
+   */
+
+  @Test
+  public void testReadRejected()
+    throws Exception
+  {
+    final var opened = new CountDownLatch(1);
+    final var proceed = new CountDownLatch(1);
+    final var submitted = new AtomicInteger(0);
+
+    final Executor rejecting = task -> {
+      if (submitted.incrementAndGet() == 1) {
+        this.executor.execute(task);
+        return;
+      }
+
+      /*
+       * Reject the second chunk while the first is in progress, and let the
+       * first finish only some time later.
+       */
+
+      try {
+        opened.await();
+      } catch (final InterruptedException e) {
+        throw new IllegalStateException(e);
+      }
+      this.executor.execute(() -> {
+        LockSupport.parkNanos(100_000_000L);
+        proceed.countDown();
+      });
+      throw new RejectedExecutionException();
+    };
+
+    final var reader = new ParallelRangeReader(rejecting, 1000);
+    final var buffer = ByteBuffer.allocate(10_000);
+
+    assertThrows(RejectedExecutionException.class, () -> {
+      reader.read(() -> {
+        opened.countDown();
+        try {
+          proceed.await();
+        } catch (final InterruptedException e) {
+          throw new IllegalStateException(e);
+        }
+        return FileChannel.open(this.file, READ);
+      }, 0L, buffer);
+    });
+
+    assertEquals(0, buffer.position());
+    this.checkData(buffer, 0L, 1000);
+  }
+
+  /**
+   * Reading past the end of a channel returns the number of bytes actually
+   * read.
+   *
+   * @throws Exception On errors
+   */
+
+  @Test
+  public void testReadShort()
+    throws Exception
+  {
+    final var reader = new ParallelRangeReader(this.executor, 1000);
+    final var buffer = ByteBuffer.allocate(10_000);
+
+    try (var channel = FileChannel.open(this.file, READ)) {
+      assertEquals(4500, reader.read(channel, SIZE - 4500L, buffer));
+    }
+
+    assertEquals(4500, buffer.position());
+    this.checkData(buffer, SIZE - 4500L, 4500);
+  }
+
+  /**
+   * Reading into a buffer with a non-zero position works.
+   *
+   * @throws Exception On errors
+   */
+
+  @Test
+  public void testReadOffsetBuffer()
+    throws Exception
+  {
+    final var reader = new ParallelRangeReader(this.executor, 100);
+    final var buffer = ByteBuffer.allocate(1010);
+    buffer.position(10);
+
+    try (var channel = FileChannel.open(this.file, READ)) {
+      assertEquals(1000, reader.read(channel, 0L, buffer));
+    }
+
+    assertEquals(1010, buffer.position());
+    this.checkData(buffer.slice(10, 1000), 0L, 1000);
+  }
+
+  /**
+   * Reading through a factory of subrange channels works.
+   *
+   * @throws Exception On errors
+   */
+
+  @Test
+  public void testReadFactory()
+    throws Exception
+  {
+    final var opened = new AtomicInteger(0);
+    final var reader = new ParallelRangeReader(this.executor, 8192);
+    final var buffer = ByteBuffer.allocate(65536);
+
+    final var read =
+      reader.read(() -> {
+        opened.incrementAndGet();
+        return new SubrangeSeekableByteChannel(
+          FileChannel.open(this.file, READ),
+          4096L,
+          SIZE - 4096L
+        );
+      }, 100L, buffer);
+
+    assertEquals(65536, read);
+    assertEquals(8, opened.get());
+    this.checkData(buffer, 4196L, 65536);
+  }
+
+  /**
+   * Channels that can't be read concurrently are read sequentially.
+   *
+   * @throws Exception On errors
+   */
+
+  @Test
+  public void testReadSequentialFallback()
+    throws Exception
+  {
+    final var reader = new ParallelRangeReader(this.executor, 16);
+    final var buffer = ByteBuffer.allocate(1000);
+
+    try (var channel =
+           ByteBufferChannels.ofByteBuffer(ByteBuffer.wrap(this.data))) {
+      channel.position(7L);
+      assertEquals(1000, reader.read(channel, 500L, buffer));
+      assertEquals(7L, channel.position());
+    }
+
+    this.checkData(buffer, 500L, 1000);
+  }
+
+  /**
+   * A channel that reads no bytes fails the read rather than being retried
+   * forever.
+   *
+   * @throws Exception On errors
+   */
+
+  @Test
+  public void testReadNoProgress()
+    throws Exception
+  {
+    final var reader = new ParallelRangeReader(this.executor, 16);
+    final var channel = Mockito.mock(SeekableByteChannel.class);
+
+    assertThrows(IOException.class, () -> {
+      reader.read(channel, 0L, ByteBuffer.allocate(100));
+    });
+    assertThrows(IOException.class, () -> {
+      reader.read(() -> channel, 0L, ByteBuffer.allocate(100));
+    });
+  }
+
+  /**
+   * Errors in chunks are propagated.
+   *
+   * @throws Exception On errors
+   */
+
+  @Test
+  public void testReadFactoryFails()
+    throws Exception
+  {
+    final var reader = new ParallelRangeReader(this.executor, 16);
+    final var buffer = ByteBuffer.allocate(1000);
+
+    final var ex =
+      assertThrows(IOException.class, () -> {
+        reader.read(() -> {
+          throw new IOException("Failed!");
+        }, 0L, buffer);
+      });
+
+    assertEquals("Failed!", ex.getMessage());
+    assertEquals(0, buffer.position());
+  }
+
+  /**
+   * Invalid parameters are rejected.
+   */
+
+  @Test
+  public void testInvalid()
+  {
+    assertThrows(IllegalArgumentException.class, () -> {
+      new ParallelRangeReader(this.executor, 0);
+    });
+
+    final var reader = new ParallelRangeReader(this.executor, 16);
+    assertThrows(IllegalArgumentException.class, () -> {
+      reader.read(
+        ByteBufferChannels.ofByteBuffer(ByteBuffer.allocate(10)),
+        -1L,
+        ByteBuffer.allocate(10));
+    });
+  }
+}
@@ -0,0 +1,322 @@
+/*
+ * Copyright © 2026 Mark Raynsford <code@io7m.com> https://www.io7m.com
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY
+ * SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF OR
+ * IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+
+package com.io7m.wendover.tests;
+
+import com.io7m.wendover.core.ByteBufferChannels;
+import com.io7m.wendover.core.PrimitiveChannelAccessor;
+import com.io7m.wendover.core.SubrangeSeekableByteChannel;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+
+import java.io.EOFException;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.ClosedChannelException;
+import java.nio.channels.FileChannel;
+import java.nio.channels.SeekableByteChannel;
+import java.nio.file.Path;
+
+import static java.nio.file.StandardOpenOption.CREATE;
+import static java.nio.file.StandardOpenOption.READ;
+import static java.nio.file.StandardOpenOption.WRITE;
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public final class PrimitiveChannelAccessorTest
+{
+  private Path directory;
+
+  @BeforeEach
+  public void setup()
+    throws IOException
+  {
+    this.directory =
+      WNTestDirectories.createTempDirectory();
+  }
+
+  @AfterEach
+  public void tearDown()
+    throws IOException
+  {
+    WNTestDirectories.deleteDirectory(this.directory);
+  }
+
+  /**
+   * Scalar values are encoded in the requested byte order.
+   *
+   * @throws Exception On errors
+   */
+
+  @Test
+  public void testScalarsEncoding()
+    throws Exception
+  {
+    for (final var order : new ByteOrder[]{
+      ByteOrder.BIG_ENDIAN, ByteOrder.LITTLE_ENDIAN}) {
+      final var buffer = ByteBuffer.allocate(64);
+      final var channel = ByteBufferChannels.ofByteBuffer(buffer);
+      final var a = new PrimitiveChannelAccessor(channel, order, 16);
+
+      a.writeByte((byte) 0x7f);
+      a.writeShort((short) 0x1234);
+      a.writeInt(0x12345678);
+      a.writeLong(0x123456789abcdef0L);
+      a.writeFloat(1.5f);
+      a.writeDouble(-2.25);
+      assertEquals(27L, a.position());
+      assertEquals(0L, channel.position());
+
+      final var expected = ByteBuffer.allocate(64).order(order);
+      expected.put((byte) 0x7f);
+      expected.putShort((short) 0x1234);
+      expected.putInt(0x12345678);
+      expected.putLong(0x123456789abcdef0L);
+      expected.putFloat(1.5f);
+      expected.putDouble(-2.25);
+      assertArrayEquals(expected.array(), buffer.array());
+
+      a.position(0L);
+      assertEquals((byte) 0x7f, a.readByte());
+      assertEquals((short) 0x1234, a.readShort());
+      assertEquals(0x12345678, a.readInt());
+      assertEquals(0x123456789abcdef0L, a.readLong());
+      assertEquals(1.5f, a.readFloat());
+      assertEquals(-2.25, a.readDouble());
+      assertEquals(27L, a.position());
+
+      assertEquals(0x12345678, a.readInt(3L));
+      assertEquals(27L, a.position());
+    }
+  }
+
+  /**
+   * Arrays spanning many windows round-trip through a file.
+   *
+   * @throws Exception On errors
+   */
+
+  @Test
+  public void testArrays()
+    throws Exception
+  {
+    final var file = this.directory.resolve("data.bin");
+    try (var channel = FileChannel.open(file, CREATE, READ, WRITE)) {
+      final var a =
+        new PrimitiveChannelAccessor(channel, ByteOrder.LITTLE_ENDIAN, 24);
+
+      final var bytes = new byte[101];
+      final var shorts = new short[101];
+      final var ints = new int[101];
+      final var longs = new long[101];
+      final var floats = new float[101];
+      final var doubles = new double[101];
+      for (int index = 0; index < 101; ++index) {
+        bytes[index] = (byte) index;
+        shorts[index] = (short) (index * 300);
+        ints[index] = index * 100_000;
+        longs[index] = index * 10_000_000_000L;
+        floats[index] = index * 0.5f;
+        doubles[index] = index * 0.25;
+      }
+
+      a.writeBytes(bytes, 0, 101);
+      a.writeShorts(shorts, 0, 101);
+      a.writeInts(ints, 0, 101);
+      a.writeLongs(longs, 0, 101);
+      a.writeFloats(floats, 0, 101);
+      a.writeDoubles(doubles, 0, 101);
+      assertEquals(101L * 27L, channel.size());
+
+      final var bytesR = new byte[101];
+      final var shortsR = new short[101];
+      final var intsR = new int[101];
+      final var longsR = new long[101];
+      final var floatsR = new float[101];
+      final var doublesR = new double[101];
+
+      a.position(0L);
+      a.readBytes(bytesR, 0, 101);
+      a.readShorts(shortsR, 0, 101);
+      a.readInts(intsR, 0, 101);
+      a.readLongs(longsR, 0, 101);
+      a.readFloats(floatsR, 0, 101);
+      a.readDoubles(doublesR, 0, 101);
+
+      assertArrayEquals(bytes, bytesR);
+      assertArrayEquals(shorts, shortsR);
+      assertArrayEquals(ints, intsR);
+      assertArrayEquals(longs, longsR);
+      assertArrayEquals(floats, floatsR);
+      assertArrayEquals(doubles, doublesR);
+
+      final var part = new int[5];
+      a.position(101L * 3L);
+      a.readInts(part, 1, 3);
+      assertArrayEquals(new int[]{0, 0, 100_000, 200_000, 0}, part);
+      assertEquals(0L, channel.position());
+    }
+  }
+
+  /**
+   * Writes are visible to subsequent reads through the same accessor, and
+   * other modifications are visible after invalidation.
+   *
+   * @throws Exception On errors
+   */
+
+  @Test
+  public void testWindowCoherence()
+    throws Exception
+  {
+    final var buffer = ByteBuffer.allocate(32);
+    final var channel =
+      new SubrangeSeekableByteChannel(
+        ByteBufferChannels.ofByteBuffer(buffer), 0L, 32L);
+    final var a = new PrimitiveChannelAccessor(channel, ByteOrder.BIG_ENDIAN);
+    assertFalse(a.isDirect());
+
+    assertEquals(0, a.readInt(8L));
+    a.writeInt(8L, 23);
+    assertEquals(23, a.readInt(8L));
+
+    buffer.putInt(8, 42);
+    assertEquals(23, a.readInt(8L));
+    a.invalidate();
+    assertEquals(42, a.readInt(8L));
+  }
+
+  /**
+   * Values are read directly from the buffer of a buffer channel, and so
+   * modifications of the buffer are visible without invalidation.
+   *
+   * @throws Exception On errors
+   */
+
+  @Test
+  public void testDirect()
+    throws Exception
+  {
+    final var buffer = ByteBuffer.allocate(32);
+    final var channel = ByteBufferChannels.ofByteBuffer(buffer);
+    final var a =
+      new PrimitiveChannelAccessor(channel, ByteOrder.LITTLE_ENDIAN);
+    assertTrue(a.isDirect());
+
+    buffer.order(ByteOrder.LITTLE_ENDIAN).putInt(8, 42);
+    assertEquals(42, a.readInt(8L));
+
+    a.writeInts(new int[]{1, 2, 3, 4}, 0, 4);
+    assertEquals(3, buffer.getInt(8));
+
+    final var values = new int[4];
+    a.position(0L);
+    a.readInts(values, 0, 4);
+    assertArrayEquals(new int[]{1, 2, 3, 4}, values);
+
+    channel.truncate(12L);
+    assertThrows(EOFException.class, () -> a.readInt(12L));
+    channel.close();
+    assertThrows(ClosedChannelException.class, () -> a.readInt(0L));
+  }
+
+  /**
+   * Channels that own their buffers are read through a window, as the
+   * memory of the buffer is released when the channel is closed.
+   *
+   * @throws Exception On errors
+   */
+
+  @Test
+  public void testDirectOwned()
+    throws Exception
+  {
+    try (var channel = ByteBufferChannels.allocateDirect(32)) {
+      final var a =
+        new PrimitiveChannelAccessor(channel, ByteOrder.BIG_ENDIAN, 8);
+      assertFalse(a.isDirect());
+
+      a.writeLongs(new long[]{1L, 2L, 3L, 4L}, 0, 4);
+      final var values = new long[4];
+      a.position(0L);
+      a.readLongs(values, 0, 4);
+      assertArrayEquals(new long[]{1L, 2L, 3L, 4L}, values);
+    }
+  }
+
+  /**
+   * Reading beyond the end of the channel fails.
+   *
+   * @throws Exception On errors
+   */
+
+  @Test
+  public void testEOF()
+    throws Exception
+  {
+    final var channel = ByteBufferChannels.ofByteBuffer(ByteBuffer.allocate(6));
+    final var a = new PrimitiveChannelAccessor(channel, ByteOrder.BIG_ENDIAN);
+
+    assertEquals(0, a.readInt(2L));
+    assertThrows(EOFException.class, () -> a.readInt(3L));
+    assertThrows(EOFException.class, () -> a.readLongs(new long[1], 0, 1));
+    assertThrows(IOException.class, () -> a.writeLong(0L, 1L));
+  }
+
+  /**
+   * Invalid arguments are rejected.
+   */
+
+  @Test
+  public void testInvalid()
+  {
+    final var channel = ByteBufferChannels.ofByteBuffer(ByteBuffer.allocate(6));
+    assertThrows(IllegalArgumentException.class, () -> {
+      new PrimitiveChannelAccessor(channel, ByteOrder.BIG_ENDIAN, 7);
+    });
+
+    final var a = new PrimitiveChannelAccessor(channel, ByteOrder.BIG_ENDIAN);
+    assertThrows(IllegalArgumentException.class, () -> a.position(-1L));
+    assertThrows(IllegalArgumentException.class, () -> a.readInt(-1L));
+    assertThrows(IndexOutOfBoundsException.class, () -> {
+      a.readInts(new int[2], 1, 2);
+    });
+  }
+
+  /**
+   * A channel that reads no bytes fails the read rather than being retried
+   * forever.
+   *
+   * @throws Exception On errors
+   */
+
+  @Test
+  public void testReadNoProgress()
+    throws Exception
+  {
+    final var channel = Mockito.mock(SeekableByteChannel.class);
+    final var a = new PrimitiveChannelAccessor(channel, ByteOrder.BIG_ENDIAN);
+
+    final var ex = assertThrows(IOException.class, () -> a.readInt(0L));
+    assertEquals(IOException.class, ex.getClass());
+  }
+}
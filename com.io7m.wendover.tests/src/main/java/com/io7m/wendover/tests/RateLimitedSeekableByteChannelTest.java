@@ -0,0 +1,145 @@
+/*
+ * Copyright © 2026 Mark Raynsford <code@io7m.com> https://www.io7m.com
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY
+ * SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF OR
+ * IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+
+package com.io7m.wendover.tests;
+
+import com.io7m.wendover.core.ByteBufferChannels;
+import com.io7m.wendover.core.RateLimitedSeekableByteChannel;
+import com.io7m.wendover.core.SubrangeSeekableByteChannel;
+import com.io7m.wendover.core.TokenBucket;
+import org.junit.jupiter.api.Test;
+
+import java.nio.ByteBuffer;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public final class RateLimitedSeekableByteChannelTest
+{
+  private static final String ALPHABET =
+    "ABCDEFGHIJKLMNOPQRSTUVWXYZ";
+
+  /**
+   * Reads are limited to the burst size and take bytes from the bucket.
+   *
+   * @throws Exception On errors
+   */
+
+  @Test
+  public void testReadLimited()
+    throws Exception
+  {
+    final var clock = new AtomicLong(1_000_000_000_000L);
+    final var reads = new TokenBucket(1_000_000L, 8L, clock::get);
+    final var writes = new TokenBucket(1_000_000L, 8L, clock::get);
+    final var base =
+      ByteBufferChannels.ofByteBuffer(
+        ByteBuffer.wrap(ALPHABET.getBytes(UTF_8)));
+
+    try (var ch = new RateLimitedSeekableByteChannel(base, reads, writes)) {
+      assertEquals(reads, ch.reads());
+      assertEquals(writes, ch.writes());
+
+      final var data = ByteBuffer.allocate(32);
+      assertEquals(8, ch.read(data));
+      assertEquals(8, data.position());
+      assertEquals(32, data.limit());
+      assertFalse(reads.tryAcquire(1L));
+      assertTrue(writes.tryAcquire(8L));
+
+      clock.addAndGet(1_000_000_000L);
+      ch.position(22L);
+      assertEquals(4, ch.read(data));
+      assertEquals(12, data.position());
+      assertTrue(reads.tryAcquire(4L));
+      assertFalse(reads.tryAcquire(1L));
+
+      clock.addAndGet(1_000_000_000L);
+      assertEquals(-1, ch.read(data));
+      assertTrue(reads.tryAcquire(8L));
+
+      assertEquals(
+        "ABCDEFGHWXYZ",
+        new String(data.array(), 0, data.position(), UTF_8)
+      );
+    }
+    assertFalse(base.isOpen());
+  }
+
+  /**
+   * Writes are limited to the burst size and take bytes from the bucket.
+   *
+   * @throws Exception On errors
+   */
+
+  @Test
+  public void testWriteLimited()
+    throws Exception
+  {
+    final var clock = new AtomicLong(1_000_000_000_000L);
+    final var bucket = new TokenBucket(1_000_000L, 8L, clock::get);
+    final var target = ByteBuffer.allocate(26);
+
+    try (var ch = new RateLimitedSeekableByteChannel(
+      ByteBufferChannels.ofByteBuffer(target), bucket, bucket)) {
+      final var src = ByteBuffer.wrap(ALPHABET.getBytes(UTF_8));
+      while (src.hasRemaining()) {
+        clock.addAndGet(1_000_000_000L);
+        final var w = ch.write(src);
+        assertTrue(w <= 8);
+        assertTrue(bucket.tryAcquire(8L - w));
+        assertFalse(bucket.tryAcquire(1L));
+      }
+      assertEquals(26L, ch.position());
+    }
+    assertEquals(ALPHABET, new String(target.array(), UTF_8));
+  }
+
+  /**
+   * A bucket shared between subranges limits their combined reads.
+   *
+   * @throws Exception On errors
+   */
+
+  @Test
+  public void testSharedBucket()
+    throws Exception
+  {
+    final var clock = new AtomicLong(1_000_000_000_000L);
+    final var bucket = new TokenBucket(1_000_000L, 10L, clock::get);
+    final var base =
+      ByteBufferChannels.ofByteBuffer(
+        ByteBuffer.wrap(ALPHABET.getBytes(UTF_8)));
+
+    final var ch0 =
+      new RateLimitedSeekableByteChannel(
+        new SubrangeSeekableByteChannel(base, 0L, 13L), bucket, bucket);
+    final var ch1 =
+      new RateLimitedSeekableByteChannel(
+        new SubrangeSeekableByteChannel(base, 13L, 13L), bucket, bucket);
+
+    assertTrue(bucket.tryAcquire(4L));
+    assertEquals(6, ch0.read(ByteBuffer.allocate(6)));
+    assertFalse(bucket.tryAcquire(1L));
+
+    clock.addAndGet(10_000L);
+    assertEquals(10, ch1.read(ByteBuffer.allocate(13)));
+    assertFalse(bucket.tryAcquire(1L));
+  }
+}
@@ -0,0 +1,263 @@
+/*
+ * Copyright © 2026 Mark Raynsford <code@io7m.com> https://www.io7m.com
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY
+ * SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF OR
+ * IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+
+package com.io7m.wendover.tests;
+
+import com.io7m.wendover.core.ByteBufferChannels;
+import com.io7m.wendover.core.ReadAheadSeekableByteChannel;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.ClosedChannelException;
+import java.nio.channels.FileChannel;
+import java.nio.channels.SeekableByteChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.Random;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static java.nio.file.StandardOpenOption.READ;
+import static java.nio.file.StandardOpenOption.WRITE;
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public final class ReadAheadSeekableByteChannelTest
+{
+  private Path directory;
+  private Path file;
+  private byte[] data;
+  private ExecutorService executor;
+
+  @BeforeEach
+  public void setup()
+    throws IOException
+  {
+    this.directory =
+      WNTestDirectories.createTempDirectory();
+    this.file =
+      this.directory.resolve("data.bin");
+
+    this.data = new byte[1_000_003];
+    new Random(0x5eedL).nextBytes(this.data);
+    Files.write(this.file, this.data);
+
+    this.executor = Executors.newFixedThreadPool(2);
+  }
+
+  @AfterEach
+  public void tearDown()
+    throws IOException
+  {
+    this.executor.shutdown();
+    WNTestDirectories.deleteDirectory(this.directory);
+  }
+
+  private static byte[] readAll(
+    final SeekableByteChannel channel,
+    final int chunk)
+    throws IOException
+  {
+    final var out = ByteBuffer.allocate(Math.toIntExact(channel.size()));
+    final var buffer = ByteBuffer.allocate(chunk);
+    while (true) {
+      buffer.clear();
+      if (channel.read(buffer) == -1) {
+        break;
+      }
+      out.put(buffer.flip());
+    }
+    return out.array();
+  }
+
+  /**
+   * Sequential scans return the data, and are served by blocks that were
+   * read ahead.
+   *
+   * @throws Exception On errors
+   */
+
+  @Test
+  public void testSequentialScan()
+    throws Exception
+  {
+    try (var ch = new ReadAheadSeekableByteChannel(
+      FileChannel.open(this.file, READ), this.executor, 4096)) {
+      assertArrayEquals(this.data, readAll(ch, 1000));
+      assertTrue(ch.blocksReadAhead() > 200L);
+      assertEquals(-1, ch.read(ByteBuffer.allocate(1)));
+    }
+  }
+
+  /**
+   * Reads larger than a block, and delegates that do not support absolute
+   * I/O, work.
+   *
+   * @throws Exception On errors
+   */
+
+  @Test
+  public void testLargeReadsStatefulDelegate()
+    throws Exception
+  {
+    final var delegate =
+      ByteBufferChannels.ofByteBuffer(ByteBuffer.wrap(this.data));
+
+    try (var ch = new ReadAheadSeekableByteChannel(delegate, this.executor, 512)) {
+      assertArrayEquals(this.data, readAll(ch, 5000));
+      assertEquals(0L, delegate.position());
+    }
+  }
+
+  /**
+   * Random reads return the correct data.
+   *
+   * @throws Exception On errors
+   */
+
+  @Test
+  public void testRandomReads()
+    throws Exception
+  {
+    final var random = new Random(1L);
+    try (var ch = new ReadAheadSeekableByteChannel(
+      FileChannel.open(this.file, READ), this.executor, 4096)) {
+      for (int index = 0; index < 500; ++index) {
+        final var start = random.nextInt(this.data.length);
+        final var buffer = ByteBuffer.allocate(random.nextInt(10_000) + 1);
+
+        ch.position(start);
+        for (int run = 0; run < 3; ++run) {
+          final var position = Math.toIntExact(ch.position());
+          buffer.clear();
+          final var r = ch.read(buffer);
+          if (r == -1) {
+            assertEquals(this.data.length, position);
+            break;
+          }
+          assertArrayEquals(
+            Arrays.copyOfRange(this.data, position, position + r),
+            Arrays.copyOf(buffer.array(), r)
+          );
+        }
+      }
+    }
+  }
+
+  /**
+   * Writes are visible to subsequent reads.
+   *
+   * @throws Exception On errors
+   */
+
+  @Test
+  public void testWriteInvalidates()
+    throws Exception
+  {
+    try (var ch = new ReadAheadSeekableByteChannel(
+      FileChannel.open(this.file, READ, WRITE), this.executor, 16)) {
+      final var buffer = ByteBuffer.allocate(4);
+      for (int index = 0; index < 8; ++index) {
+        ch.read(buffer.clear());
+      }
+
+      ch.position(40L);
+      ch.write(ByteBuffer.wrap("ABCD".getBytes(UTF_8)));
+      assertEquals(44L, ch.position());
+
+      ch.position(32L);
+      final var check = ByteBuffer.allocate(12);
+      assertEquals(12, ch.read(check));
+      assertArrayEquals(
+        "ABCD".getBytes(UTF_8),
+        Arrays.copyOfRange(check.array(), 8, 12)
+      );
+
+      ch.truncate(10L);
+      assertEquals(10L, ch.size());
+      assertEquals(10L, ch.position());
+      assertEquals(-1, ch.read(check.clear()));
+    }
+  }
+
+  /**
+   * Closing the channel closes the delegate.
+   *
+   * @throws Exception On errors
+   */
+
+  @Test
+  public void testClose()
+    throws Exception
+  {
+    final var delegate = FileChannel.open(this.file, READ);
+    final var ch = new ReadAheadSeekableByteChannel(delegate, this.executor, 16);
+    ch.close();
+    ch.close();
+    assertFalse(ch.isOpen());
+    assertFalse(delegate.isOpen());
+    assertThrows(ClosedChannelException.class, () -> {
+      ch.read(ByteBuffer.allocate(1));
+    });
+  }
+
+  /**
+   * A delegate that reads no bytes fails the read rather than being retried
+   * forever.
+   *
+   * @throws Exception On errors
+   */
+
+  @Test
+  public void testReadNoProgress()
+    throws Exception
+  {
+    final var delegate = Mockito.mock(SeekableByteChannel.class);
+    final var ch = new ReadAheadSeekableByteChannel(delegate, this.executor, 16);
+    assertThrows(IOException.class, () -> {
+      ch.read(ByteBuffer.allocate(4));
+    });
+  }
+
+  /**
+   * Negative positions are rejected.
+   *
+   * @throws Exception On errors
+   */
+
+  @Test
+  public void testPositionNegative()
+    throws Exception
+  {
+    final var delegate = FileChannel.open(this.file, READ);
+    try (var ch = new ReadAheadSeekableByteChannel(delegate, this.executor, 16)) {
+      ch.position(10L);
+      assertThrows(IllegalArgumentException.class, () -> {
+        ch.position(-1L);
+      });
+      assertEquals(10L, ch.position());
+    }
+  }
+}
@@ -0,0 +1,378 @@
+/*
+ * Copyright © 2026 Mark Raynsford <code@io7m.com> https://www.io7m.com
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY
+ * SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF OR
+ * IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+
+package com.io7m.wendover.tests;
+
+import com.io7m.wendover.core.ByteBufferChannels;
+import com.io7m.wendover.core.DelegatingSeekableByteChannel;
+import com.io7m.wendover.core.ReplicatingSeekableByteChannel;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.SeekableByteChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayDeque;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static java.nio.file.StandardOpenOption.CREATE;
+import static java.nio.file.StandardOpenOption.READ;
+import static java.nio.file.StandardOpenOption.WRITE;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTimeoutPreemptively;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public final class ReplicatingSeekableByteChannelTest
+{
+  private Path directory;
+  private Path primary;
+  private Path secondary0;
+  private Path secondary1;
+  private ExecutorService executor;
+
+  @BeforeEach
+  public void setup()
+    throws IOException
+  {
+    this.directory =
+      WNTestDirectories.createTempDirectory();
+    this.primary =
+      this.directory.resolve("primary.bin");
+    this.secondary0 =
+      this.directory.resolve("secondary0.bin");
+    this.secondary1 =
+      this.directory.resolve("secondary1.bin");
+    this.executor =
+      Executors.newSingleThreadExecutor();
+  }
+
+  @AfterEach
+  public void tearDown()
+    throws IOException
+  {
+    this.executor.shutdown();
+    WNTestDirectories.deleteDirectory(this.directory);
+  }
+
+  private static FileChannel open(
+    final Path file)
+    throws IOException
+  {
+    return FileChannel.open(file, CREATE, READ, WRITE);
+  }
+
+  private static ByteBuffer text(
+    final String text)
+  {
+    return ByteBuffer.wrap(text.getBytes(UTF_8));
+  }
+
+  private void checkReplicas(
+    final String expected)
+    throws IOException
+  {
+    assertEquals(expected, Files.readString(this.primary, UTF_8));
+    assertEquals(expected, Files.readString(this.secondary0, UTF_8));
+    assertEquals(expected, Files.readString(this.secondary1, UTF_8));
+  }
+
+  /**
+   * Writes and truncations are replicated synchronously.
+   *
+   * @throws Exception On errors
+   */
+
+  @Test
+  public void testSynchronous()
+    throws Exception
+  {
+    try (var ch = ReplicatingSeekableByteChannel.synchronous(
+      open(this.primary),
+      List.of(open(this.secondary0), open(this.secondary1)),
+      false)) {
+      assertFalse(ch.isAsynchronous());
+      assertEquals(10, ch.write(text("ABCDEFGHIJ")));
+      ch.position(3L);
+      assertEquals(3, ch.write(text("def")));
+      ch.truncate(8L);
+      assertEquals(8L, ch.size());
+
+      assertEquals("ABCdefGH", Files.readString(this.secondary0, UTF_8));
+    }
+    this.checkReplicas("ABCdefGH");
+  }
+
+  /**
+   * Writes and truncations are replicated asynchronously, in order.
+   *
+   * @throws Exception On errors
+   */
+
+  @Test
+  public void testAsynchronous()
+    throws Exception
+  {
+    final var expected = new StringBuilder();
+
+    try (var ch = ReplicatingSeekableByteChannel.asynchronous(
+      open(this.primary),
+      List.of(open(this.secondary0), open(this.secondary1)),
+      false,
+      this.executor,
+      4)) {
+      assertTrue(ch.isAsynchronous());
+
+      final var buffer = ByteBuffer.allocate(16);
+      for (int index = 0; index < 500; ++index) {
+        final var line = "%08d\n".formatted(Integer.valueOf(index));
+        buffer.clear();
+        buffer.put(line.getBytes(UTF_8));
+        buffer.flip();
+        ch.write(buffer);
+        expected.append(line);
+      }
+
+      ch.truncate(4500L);
+      expected.setLength(4500);
+      ch.position(0L);
+      ch.write(text("X"));
+      expected.setCharAt(0, 'X');
+
+      ch.flush();
+      assertEquals(
+        expected.toString(), Files.readString(this.secondary1, UTF_8));
+    }
+    this.checkReplicas(expected.toString());
+  }
+
+  /**
+   * Adjacent queued writes are coalesced into a single write.
+   *
+   * @throws Exception On errors
+   */
+
+  @Test
+  public void testAsynchronousCoalesced()
+    throws Exception
+  {
+    final var tasks = new ArrayDeque<Runnable>();
+    final Executor manual = tasks::add;
+    final var secondary =
+      new CountingChannel(
+        ByteBufferChannels.ofByteBuffer(ByteBuffer.allocate(32)));
+
+    try (var ch = ReplicatingSeekableByteChannel.asynchronous(
+      ByteBufferChannels.ofByteBuffer(ByteBuffer.allocate(32)),
+      List.of(secondary),
+      false,
+      manual,
+      16)) {
+      ch.write(text("ABC"));
+      ch.write(text("DEF"));
+      ch.write(text("GHI"));
+      ch.position(20L);
+      ch.write(text("XYZ"));
+
+      assertEquals(1, tasks.size());
+      tasks.remove().run();
+      assertEquals(2, secondary.writes);
+
+      final var data = ByteBuffer.allocate(32);
+      secondary.position(0L);
+      secondary.read(data);
+      assertEquals(
+        "ABCDEFGHI", new String(data.array(), 0, 9, UTF_8));
+      assertEquals(
+        "XYZ", new String(data.array(), 20, 3, UTF_8));
+    }
+  }
+
+  /**
+   * Failing secondary channels are detached if the channel is
+   * failure-tolerant.
+   *
+   * @throws Exception On errors
+   */
+
+  @Test
+  public void testFailureTolerant()
+    throws Exception
+  {
+    final var small =
+      ByteBufferChannels.ofByteBuffer(ByteBuffer.allocate(4));
+
+    try (var ch = ReplicatingSeekableByteChannel.synchronous(
+      open(this.primary),
+      List.of(open(this.secondary0), small),
+      true)) {
+      ch.write(text("ABCDEFGH"));
+      ch.write(text("IJ"));
+      assertEquals(Set.of(Integer.valueOf(1)), ch.secondaryFailures().keySet());
+    }
+
+    assertEquals("ABCDEFGHIJ", Files.readString(this.secondary0, UTF_8));
+    assertFalse(small.isOpen());
+  }
+
+  /**
+   * Failing secondary channels fail writes if the channel is not
+   * failure-tolerant.
+   *
+   * @throws Exception On errors
+   */
+
+  @Test
+  public void testFailureSynchronous()
+    throws Exception
+  {
+    final var ch = ReplicatingSeekableByteChannel.synchronous(
+      open(this.primary),
+      List.of(ByteBufferChannels.ofByteBuffer(ByteBuffer.allocate(4))),
+      false);
+
+    assertThrows(IOException.class, () -> ch.write(text("ABCDEFGH")));
+    assertThrows(IOException.class, () -> ch.write(text("IJ")));
+    assertThrows(IOException.class, ch::close);
+    assertFalse(ch.isOpen());
+    assertEquals("ABCDEFGH", Files.readString(this.primary, UTF_8));
+  }
+
+  /**
+   * Failures during asynchronous replication are raised by flushes.
+   *
+   * @throws Exception On errors
+   */
+
+  @Test
+  public void testFailureAsynchronous()
+    throws Exception
+  {
+    final var ch = ReplicatingSeekableByteChannel.asynchronous(
+      open(this.primary),
+      List.of(ByteBufferChannels.ofByteBuffer(ByteBuffer.allocate(4))),
+      false,
+      this.executor,
+      4);
+
+    ch.write(text("ABCDEFGH"));
+    final var ex = assertThrows(IOException.class, ch::flush);
+    assertInstanceOf(IOException.class, ex.getCause());
+    assertThrows(IOException.class, () -> ch.write(text("IJ")));
+    assertThrows(IOException.class, ch::close);
+    assertFalse(ch.isOpen());
+  }
+
+  /**
+   * Runtime exceptions raised by secondary channels during asynchronous
+   * replication detach them rather than stopping replication.
+   *
+   * @throws Exception On errors
+   */
+
+  @Test
+  public void testRuntimeFailureAsynchronous()
+    throws Exception
+  {
+    final var unsupported =
+      new DelegatingSeekableByteChannel(open(this.secondary0))
+      {
+        @Override
+        public SeekableByteChannel truncate(
+          final long size)
+        {
+          throw new UnsupportedOperationException();
+        }
+      };
+
+    assertTimeoutPreemptively(Duration.ofSeconds(30L), () -> {
+      try (var ch = ReplicatingSeekableByteChannel.asynchronous(
+        open(this.primary),
+        List.of(unsupported, open(this.secondary1)),
+        true,
+        this.executor,
+        1)) {
+        ch.write(text("ABCDEFGH"));
+        ch.truncate(4L);
+        ch.write(text("IJ"));
+        ch.flush();
+
+        final var failures = ch.secondaryFailures();
+        assertEquals(Set.of(Integer.valueOf(0)), failures.keySet());
+        assertInstanceOf(
+          UnsupportedOperationException.class,
+          failures.get(Integer.valueOf(0)).getCause());
+      }
+    });
+
+    assertEquals("ABCDIJ", Files.readString(this.secondary1, UTF_8));
+  }
+
+  /**
+   * Invalid arguments are rejected.
+   *
+   * @throws Exception On errors
+   */
+
+  @Test
+  public void testInvalid()
+    throws Exception
+  {
+    final var channel =
+      ByteBufferChannels.ofByteBuffer(ByteBuffer.allocate(4));
+
+    assertThrows(IllegalArgumentException.class, () -> {
+      ReplicatingSeekableByteChannel.synchronous(channel, List.of(), false);
+    });
+    assertThrows(IllegalArgumentException.class, () -> {
+      ReplicatingSeekableByteChannel.asynchronous(
+        channel, List.of(channel), false, this.executor, 0);
+    });
+  }
+
+  private static final class CountingChannel
+    extends DelegatingSeekableByteChannel
+  {
+    private int writes;
+
+    CountingChannel(
+      final SeekableByteChannel inDelegate)
+    {
+      super(inDelegate);
+    }
+
+    @Override
+    public int write(
+      final ByteBuffer src)
+      throws IOException
+    {
+      ++this.writes;
+      return super.write(src);
+    }
+  }
+}
@@ -0,0 +1,229 @@
+/*
+ * Copyright © 2026 Mark Raynsford <code@io7m.com> https://www.io7m.com
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY
+ * SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF OR
+ * IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+
+package com.io7m.wendover.tests;
+
+import com.io7m.wendover.core.RingBufferPipe;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.Timeout;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.ClosedByInterruptException;
+import java.nio.channels.ClosedChannelException;
+import java.util.Random;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.zip.CRC32C;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public final class RingBufferPipeTest
+{
+  /**
+   * Data written by one thread is read in order by another thread.
+   *
+   * @throws Exception On errors
+   */
+
+  @Test
+  @Timeout(60L)
+  public void testStreaming()
+    throws Exception
+  {
+    final var pipe = new RingBufferPipe(1000);
+    assertEquals(1000, pipe.capacity());
+
+    final var data = new byte[4_000_000];
+    new Random(0x5eedL).nextBytes(data);
+
+    final var expected = new CRC32C();
+    expected.update(data);
+
+    final var producer = CompletableFuture.runAsync(() -> {
+      final var random = new Random(1L);
+      final var src = ByteBuffer.wrap(data);
+      try (var sink = pipe.sink()) {
+        while (src.hasRemaining()) {
+          final var size = Math.min(random.nextInt(3000) + 1, src.remaining());
+          final var slice = src.slice(src.position(), size);
+          assertEquals(size, sink.write(slice));
+          src.position(src.position() + size);
+        }
+      } catch (final IOException e) {
+        throw new IllegalStateException(e);
+      }
+    });
+
+    final var received = new CRC32C();
+    var total = 0L;
+    try (var source = pipe.source()) {
+      final var random = new Random(2L);
+      while (true) {
+        final var dst = ByteBuffer.allocate(random.nextInt(2500) + 1);
+        final var r = source.read(dst);
+        if (r == -1) {
+          break;
+        }
+        dst.flip();
+        received.update(dst);
+        total += r;
+      }
+    }
+
+    producer.get();
+    assertEquals(data.length, total);
+    assertEquals(expected.getValue(), received.getValue());
+  }
+
+  /**
+   * Remaining data is read after the sink is closed, followed by
+   * end-of-stream.
+   *
+   * @throws Exception On errors
+   */
+
+  @Test
+  public void testDrainAfterClose()
+    throws Exception
+  {
+    final var pipe = new RingBufferPipe(8);
+    final var sink = pipe.sink();
+    final var source = pipe.source();
+
+    sink.write(ByteBuffer.wrap("ABCDEF".getBytes(UTF_8)));
+    sink.close();
+    assertFalse(sink.isOpen());
+
+    final var dst = ByteBuffer.allocate(4);
+    assertEquals(4, source.read(dst));
+    assertArrayEquals("ABCD".getBytes(UTF_8), dst.array());
+    assertEquals(2, source.read(dst.clear()));
+    assertEquals(-1, source.read(dst.clear()));
+    assertEquals(0, source.read(ByteBuffer.allocate(0)));
+
+    assertThrows(ClosedChannelException.class, () -> {
+      sink.write(ByteBuffer.allocate(1));
+    });
+  }
+
+  /**
+   * Writing fails once the source is closed, including a writer that is
+   * waiting for space.
+   *
+   * @throws Exception On errors
+   */
+
+  @Test
+  @Timeout(60L)
+  public void testSourceClosed()
+    throws Exception
+  {
+    final var pipe = new RingBufferPipe(4);
+    final var sink = pipe.sink();
+    final var source = pipe.source();
+
+    final var blocked = CompletableFuture.runAsync(() -> {
+      try {
+        sink.write(ByteBuffer.allocate(16));
+      } catch (final IOException e) {
+        throw new IllegalStateException(e);
+      }
+    });
+
+    Thread.sleep(100L);
+    source.close();
+
+    final var ex = assertThrows(ExecutionException.class, blocked::get);
+    assertInstanceOf(IOException.class, ex.getCause().getCause());
+
+    assertThrows(ClosedChannelException.class, () -> {
+      source.read(ByteBuffer.allocate(1));
+    });
+  }
+
+  /**
+   * Interrupting a waiting reader closes the source.
+   *
+   * @throws Exception On errors
+   */
+
+  @Test
+  @Timeout(60L)
+  public void testInterrupt()
+    throws Exception
+  {
+    final var pipe = new RingBufferPipe(4);
+    final var error = new AtomicReference<Throwable>();
+
+    final var thread = new Thread(() -> {
+      try {
+        pipe.source().read(ByteBuffer.allocate(1));
+      } catch (final Throwable e) {
+        error.set(e);
+      }
+    });
+    thread.start();
+    Thread.sleep(100L);
+    thread.interrupt();
+    thread.join();
+
+    assertInstanceOf(ClosedByInterruptException.class, error.get());
+    assertFalse(pipe.source().isOpen());
+  }
+
+  /**
+   * Invalid capacities are rejected.
+   */
+
+  @Test
+  public void testInvalid()
+  {
+    assertThrows(IllegalArgumentException.class, () -> {
+      new RingBufferPipe(0);
+    });
+  }
+
+  /**
+   * The head and tail counters have at least a cache line of padding on
+   * either side, regardless of how the JVM orders fields.
+   *
+   * @throws Exception On errors
+   */
+
+  @Test
+  public void testCounterPadding()
+    throws Exception
+  {
+    final var clazz =
+      Class.forName("com.io7m.wendover.core.internal.PaddedLong");
+    final var instance =
+      clazz.getConstructor(long.class).newInstance(Long.valueOf(0L));
+
+    final var value = WNObjectLayouts.fieldOffset(clazz, "value");
+    final var before = value - WNObjectLayouts.firstFieldOffset(clazz);
+    final var after = WNObjectLayouts.shallowSize(instance) - (value + 8L);
+    assertTrue(before >= 64L, "Padding before %d".formatted(before));
+    assertTrue(after >= 64L, "Padding after %d".formatted(after));
+  }
+}
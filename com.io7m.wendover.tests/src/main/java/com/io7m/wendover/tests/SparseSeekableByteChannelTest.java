@@ -0,0 +1,221 @@
+/*
+ * Copyright © 2026 Mark Raynsford <code@io7m.com> https://www.io7m.com
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY
+ * SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF OR
+ * IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+
+package com.io7m.wendover.tests;
+
+import com.io7m.wendover.core.SparseExtent;
+import com.io7m.wendover.core.SparseSeekableByteChannel;
+import org.junit.jupiter.api.Test;
+
+import java.nio.ByteBuffer;
+import java.nio.channels.ClosedChannelException;
+import java.util.List;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+public final class SparseSeekableByteChannelTest
+{
+  /**
+   * Holes read as zeros and do not allocate storage.
+   *
+   * @throws Exception On errors
+   */
+
+  @Test
+  public void testHoles()
+    throws Exception
+  {
+    try (var ch = new SparseSeekableByteChannel(4)) {
+      ch.position(1_000_000L);
+      ch.write(ByteBuffer.wrap("X".getBytes(UTF_8)));
+      assertEquals(1_000_001L, ch.size());
+      assertEquals(4L, ch.allocatedBytes());
+      assertEquals(
+        List.of(new SparseExtent(1_000_000L, 1L)),
+        ch.extents()
+      );
+
+      final var data = new byte[6];
+      ch.position(999_996L);
+      assertEquals(5, ch.read(ByteBuffer.wrap(data)));
+      assertArrayEquals("\0\0\0\0X\0".getBytes(UTF_8), data);
+      assertEquals(-1, ch.read(ByteBuffer.wrap(data)));
+    }
+  }
+
+  /**
+   * Adjacent blocks are merged into single extents.
+   *
+   * @throws Exception On errors
+   */
+
+  @Test
+  public void testExtentsMerged()
+    throws Exception
+  {
+    try (var ch = new SparseSeekableByteChannel(4)) {
+      ch.position(2L);
+      ch.write(ByteBuffer.wrap("abcdefg".getBytes(UTF_8)));
+      ch.position(20L);
+      ch.write(ByteBuffer.wrap("uv".getBytes(UTF_8)));
+      ch.position(30L);
+      ch.write(ByteBuffer.wrap("z".getBytes(UTF_8)));
+
+      assertEquals(
+        List.of(
+          new SparseExtent(0L, 12L),
+          new SparseExtent(20L, 4L),
+          new SparseExtent(28L, 3L)
+        ),
+        ch.extents()
+      );
+
+      final var data = new byte[9];
+      ch.position(2L);
+      assertEquals(9, ch.read(ByteBuffer.wrap(data)));
+      assertArrayEquals("abcdefg\0\0".getBytes(UTF_8), data);
+    }
+  }
+
+  /**
+   * Writing zeros into a hole does not allocate storage, but writing zeros
+   * into allocated blocks overwrites them.
+   *
+   * @throws Exception On errors
+   */
+
+  @Test
+  public void testZeroWrites()
+    throws Exception
+  {
+    try (var ch = new SparseSeekableByteChannel(4)) {
+      assertEquals(16, ch.write(ByteBuffer.allocate(16)));
+      assertEquals(16L, ch.size());
+      assertEquals(0L, ch.allocatedBytes());
+      assertEquals(List.of(), ch.extents());
+
+      ch.position(0L);
+      ch.write(ByteBuffer.wrap("ab".getBytes(UTF_8)));
+      ch.position(0L);
+      ch.write(ByteBuffer.allocate(1));
+
+      final var data = new byte[2];
+      ch.position(0L);
+      ch.read(ByteBuffer.wrap(data));
+      assertArrayEquals("\0b".getBytes(UTF_8), data);
+    }
+  }
+
+  /**
+   * Truncation releases blocks and truncated data does not reappear.
+   *
+   * @throws Exception On errors
+   */
+
+  @Test
+  public void testTruncate()
+    throws Exception
+  {
+    try (var ch = new SparseSeekableByteChannel(4)) {
+      ch.write(ByteBuffer.wrap("abcdefghijklmnop".getBytes(UTF_8)));
+      assertEquals(16L, ch.allocatedBytes());
+
+      ch.truncate(6L);
+      assertEquals(6L, ch.size());
+      assertEquals(6L, ch.position());
+      assertEquals(8L, ch.allocatedBytes());
+      assertEquals(List.of(new SparseExtent(0L, 6L)), ch.extents());
+
+      ch.truncate(4L);
+      assertEquals(4L, ch.allocatedBytes());
+
+      ch.position(9L);
+      ch.write(ByteBuffer.wrap("z".getBytes(UTF_8)));
+
+      final var data = new byte[10];
+      ch.position(0L);
+      assertEquals(10, ch.read(ByteBuffer.wrap(data)));
+      assertArrayEquals("abcd\0\0\0\0\0z".getBytes(UTF_8), data);
+    }
+  }
+
+  /**
+   * Closed channels reject I/O.
+   *
+   * @throws Exception On errors
+   */
+
+  @Test
+  public void testClose()
+    throws Exception
+  {
+    final var ch = new SparseSeekableByteChannel(4);
+    ch.close();
+    ch.close();
+    assertFalse(ch.isOpen());
+
+    assertThrows(ClosedChannelException.class, () -> {
+      ch.read(ByteBuffer.allocate(1));
+    });
+    assertThrows(ClosedChannelException.class, () -> {
+      ch.write(ByteBuffer.allocate(1));
+    });
+  }
+
+  /**
+   * Invalid arguments are rejected.
+   */
+
+  @Test
+  public void testInvalid()
+  {
+    assertThrows(IllegalArgumentException.class, () -> {
+      new SparseSeekableByteChannel(0);
+    });
+    assertThrows(IllegalArgumentException.class, () -> {
+      new SparseExtent(-1L, 1L);
+    });
+    assertThrows(IllegalArgumentException.class, () -> {
+      new SparseExtent(0L, 0L);
+    });
+    assertThrows(IllegalArgumentException.class, () -> {
+      new SparseExtent(Long.MAX_VALUE, 1L);
+    });
+  }
+
+  /**
+   * Negative positions are rejected.
+   *
+   * @throws Exception On errors
+   */
+
+  @Test
+  public void testPositionNegative()
+    throws Exception
+  {
+    try (var ch = new SparseSeekableByteChannel(4)) {
+      ch.position(10L);
+      assertThrows(IllegalArgumentException.class, () -> {
+        ch.position(-1L);
+      });
+      assertEquals(10L, ch.position());
+    }
+  }
+}
@@ -0,0 +1,382 @@
+/*
+ * Copyright © 2026 Mark Raynsford <code@io7m.com> https://www.io7m.com
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY
+ * SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF OR
+ * IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+
+package com.io7m.wendover.tests;
+
+import com.io7m.wendover.core.ByteBufferChannels;
+import com.io7m.wendover.core.StripedSeekableByteChannel;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.ClosedChannelException;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.LockSupport;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static java.nio.file.StandardOpenOption.CREATE;
+import static java.nio.file.StandardOpenOption.READ;
+import static java.nio.file.StandardOpenOption.WRITE;
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public final class StripedSeekableByteChannelTest
+{
+  private static final String ALPHABET =
+    "ABCDEFGHIJKLMNOPQRSTUVWXYZ";
+
+  private Path directory;
+  private List<Path> files;
+  private ExecutorService executor;
+
+  @BeforeEach
+  public void setup()
+    throws IOException
+  {
+    this.directory =
+      WNTestDirectories.createTempDirectory();
+    this.files = new ArrayList<>();
+    for (int index = 0; index < 3; ++index) {
+      this.files.add(this.directory.resolve("stripe%d.bin".formatted(index)));
+    }
+    this.executor =
+      Executors.newFixedThreadPool(3);
+  }
+
+  @AfterEach
+  public void tearDown()
+    throws IOException
+  {
+    this.executor.shutdown();
+    WNTestDirectories.deleteDirectory(this.directory);
+  }
+
+  private List<FileChannel> open()
+    throws IOException
+  {
+    final var channels = new ArrayList<FileChannel>();
+    for (final var file : this.files) {
+      channels.add(FileChannel.open(file, CREATE, READ, WRITE));
+    }
+    return channels;
+  }
+
+  /**
+   * Writing distributes stripes across the delegates in turn.
+   *
+   * @throws Exception On errors
+   */
+
+  @Test
+  public void testWriteDistributes()
+    throws Exception
+  {
+    try (var ch = new StripedSeekableByteChannel(this.open(), 4, this.executor)) {
+      assertEquals(0L, ch.size());
+      assertEquals(26, ch.write(ByteBuffer.wrap(ALPHABET.getBytes(UTF_8))));
+      assertEquals(26L, ch.size());
+      assertEquals(26L, ch.position());
+    }
+
+    assertEquals("ABCDMNOPYZ", Files.readString(this.files.get(0), UTF_8));
+    assertEquals("EFGHQRST", Files.readString(this.files.get(1), UTF_8));
+    assertEquals("IJKLUVWX", Files.readString(this.files.get(2), UTF_8));
+  }
+
+  /**
+   * The size of existing striped data is recovered, and reads from arbitrary
+   * positions work.
+   *
+   * @throws Exception On errors
+   */
+
+  @Test
+  public void testReadPositioned()
+    throws Exception
+  {
+    try (var ch = new StripedSeekableByteChannel(this.open(), 4, this.executor)) {
+      ch.write(ByteBuffer.wrap(ALPHABET.getBytes(UTF_8)));
+    }
+
+    try (var ch = new StripedSeekableByteChannel(this.open(), 4, this.executor)) {
+      assertEquals(26L, ch.size());
+
+      for (int start = 0; start < 26; ++start) {
+        for (int length = 1; length <= 26 - start; ++length) {
+          final var data = new byte[length];
+          ch.position(start);
+          assertEquals(length, ch.read(ByteBuffer.wrap(data)));
+          assertArrayEquals(
+            ALPHABET.substring(start, start + length).getBytes(UTF_8),
+            data
+          );
+          assertEquals(start + length, ch.position());
+        }
+      }
+
+      final var rest = new byte[8];
+      ch.position(22L);
+      assertEquals(4, ch.read(ByteBuffer.wrap(rest)));
+      assertArrayEquals("WXYZ\0\0\0\0".getBytes(UTF_8), rest);
+      assertEquals(-1, ch.read(ByteBuffer.wrap(rest)));
+    }
+  }
+
+  /**
+   * Overwriting data in the middle of the channel works.
+   *
+   * @throws Exception On errors
+   */
+
+  @Test
+  public void testOverwrite()
+    throws Exception
+  {
+    try (var ch = new StripedSeekableByteChannel(this.open(), 4, this.executor)) {
+      ch.write(ByteBuffer.wrap(ALPHABET.getBytes(UTF_8)));
+      ch.position(2L);
+      assertEquals(10, ch.write(ByteBuffer.wrap("abcdefghij".getBytes(UTF_8))));
+      assertEquals(26L, ch.size());
+
+      final var data = new byte[26];
+      ch.position(0L);
+      assertEquals(26, ch.read(ByteBuffer.wrap(data)));
+      assertEquals("ABabcdefghijMNOPQRSTUVWXYZ", new String(data, UTF_8));
+    }
+  }
+
+  /**
+   * Truncation shrinks each delegate to its share of the data.
+   *
+   * @throws Exception On errors
+   */
+
+  @Test
+  public void testTruncate()
+    throws Exception
+  {
+    try (var ch = new StripedSeekableByteChannel(this.open(), 4, this.executor)) {
+      ch.write(ByteBuffer.wrap(ALPHABET.getBytes(UTF_8)));
+      ch.truncate(10L);
+      assertEquals(10L, ch.size());
+      assertEquals(10L, ch.position());
+    }
+
+    assertEquals("ABCD", Files.readString(this.files.get(0), UTF_8));
+    assertEquals("EFGH", Files.readString(this.files.get(1), UTF_8));
+    assertEquals("IJ", Files.readString(this.files.get(2), UTF_8));
+
+    try (var ch = new StripedSeekableByteChannel(this.open(), 4, this.executor)) {
+      assertEquals(10L, ch.size());
+    }
+  }
+
+  /**
+   * Delegates that do not support absolute I/O work.
+   *
+   * @throws Exception On errors
+   */
+
+  @Test
+  public void testByteBufferDelegates()
+    throws Exception
+  {
+    final var buffers = List.of(
+      ByteBuffer.allocate(8),
+      ByteBuffer.allocate(8)
+    );
+    final var delegates = List.of(
+      ByteBufferChannels.ofByteBuffer(buffers.get(0)),
+      ByteBufferChannels.ofByteBuffer(buffers.get(1))
+    );
+
+    try (var ch = new StripedSeekableByteChannel(delegates, 2, this.executor)) {
+      assertEquals(16L, ch.size());
+      ch.write(ByteBuffer.wrap("0123456789abcdef".getBytes(UTF_8)));
+      assertEquals(0L, delegates.get(0).position());
+    }
+
+    assertEquals("014589cd", new String(buffers.get(0).array(), UTF_8));
+    assertEquals("2367abef", new String(buffers.get(1).array(), UTF_8));
+  }
+
+  /**
+   * Closing the channel closes the delegates.
+   *
+   * @throws Exception On errors
+   */
+
+  @Test
+  public void testClose()
+    throws Exception
+  {
+    final var delegates = this.open();
+    final var ch = new StripedSeekableByteChannel(delegates, 4, this.executor);
+    ch.close();
+    ch.close();
+
+    assertFalse(ch.isOpen());
+    for (final var delegate : delegates) {
+      assertFalse(delegate.isOpen());
+    }
+    assertThrows(ClosedChannelException.class, () -> {
+      ch.read(ByteBuffer.allocate(1));
+    });
+  }
+
+  /**
+   * Writes whose end would exceed the largest position are rejected before
+   * any delegate is touched, and reads there are at EOF.
+   *
+   * @throws Exception On errors
+   */
+
+  @Test
+  public void testWriteOverflow()
+    throws Exception
+  {
+    final var buffer = ByteBuffer.allocate(8);
+    final var delegates =
+      List.of(ByteBufferChannels.ofByteBuffer(buffer));
+
+    try (var ch = new StripedSeekableByteChannel(delegates, 4, this.executor)) {
+      ch.position(Long.MAX_VALUE - 1L);
+      assertEquals(-1, ch.read(ByteBuffer.allocate(4)));
+      assertThrows(ArithmeticException.class, () -> {
+        ch.write(ByteBuffer.allocate(4));
+      });
+      assertEquals(8L, ch.size());
+    }
+  }
+
+  /**
+   * If the executor rejects the I/O for a delegate, the I/O already in
+   * progress on other delegates has finished by the time the rejection is
+   * raised.
+   *
+   * @throws Exception On errors
+   */
+
+  @Test
+  public void testWriteRejected()
+    throws Exception
+  {
+    final var started = new CountDownLatch(1);
+    final var proceed = new CountDownLatch(1);
+    final var finished = new AtomicBoolean(false);
+    final var stub = Mockito.mock(FileChannel.class);
+    Mockito.when(stub.write(Mockito.any(ByteBuffer.class), Mockito.anyLong()))
+      .thenAnswer(invocation -> {
+        started.countDown();
+        proceed.await();
+        final ByteBuffer buffer = invocation.getArgument(0);
+        final var count = buffer.remaining();
+        buffer.position(buffer.limit());
+        finished.set(true);
+        return Integer.valueOf(count);
+      });
+
+    final var submitted = new AtomicInteger(0);
+    final Executor rejecting = task -> {
+      if (submitted.incrementAndGet() == 1) {
+        this.executor.execute(task);
+        return;
+      }
+
+      try {
+        started.await();
+      } catch (final InterruptedException e) {
+        throw new IllegalStateException(e);
+      }
+      this.executor.execute(() -> {
+        LockSupport.parkNanos(100_000_000L);
+        proceed.countDown();
+      });
+      throw new RejectedExecutionException();
+    };
+
+    final var delegates = List.of(
+      stub,
+      ByteBufferChannels.ofByteBuffer(ByteBuffer.allocate(4)),
+      ByteBufferChannels.ofByteBuffer(ByteBuffer.allocate(4))
+    );
+
+    final var ch = new StripedSeekableByteChannel(delegates, 4, rejecting);
+    assertThrows(RejectedExecutionException.class, () -> {
+      ch.write(ByteBuffer.wrap(ALPHABET.getBytes(UTF_8), 0, 12));
+    });
+    assertTrue(finished.get());
+    assertEquals(0L, ch.position());
+  }
+
+  /**
+   * Negative positions are rejected.
+   *
+   * @throws Exception On errors
+   */
+
+  @Test
+  public void testPositionNegative()
+    throws Exception
+  {
+    try (var ch = new StripedSeekableByteChannel(this.open(), 4, this.executor)) {
+      ch.position(10L);
+      assertThrows(IllegalArgumentException.class, () -> {
+        ch.position(-1L);
+      });
+      assertEquals(10L, ch.position());
+    }
+  }
+
+  /**
+   * Invalid arguments are rejected.
+   *
+   * @throws Exception On errors
+   */
+
+  @Test
+  public void testInvalid()
+    throws Exception
+  {
+    assertThrows(IllegalArgumentException.class, () -> {
+      new StripedSeekableByteChannel(List.of(), 4, this.executor);
+    });
+    assertThrows(IllegalArgumentException.class, () -> {
+      new StripedSeekableByteChannel(
+        List.of(ByteBufferChannels.ofByteBuffer(ByteBuffer.allocate(1))),
+        0,
+        this.executor
+      );
+    });
+  }
+}
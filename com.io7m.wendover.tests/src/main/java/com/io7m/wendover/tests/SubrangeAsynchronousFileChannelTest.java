@@ -0,0 +1,334 @@
+/*
+ * Copyright © 2026 Mark Raynsford <code@io7m.com> https://www.io7m.com
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY
+ * SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF OR
+ * IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+
+package com.io7m.wendover.tests;
+
+import com.io7m.wendover.core.CloseOperationType;
+import com.io7m.wendover.core.SubrangeAsynchronousFileChannel;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.AsynchronousFileChannel;
+import java.nio.channels.ClosedChannelException;
+import java.nio.channels.CompletionHandler;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static java.nio.file.StandardOpenOption.READ;
+import static java.nio.file.StandardOpenOption.WRITE;
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public final class SubrangeAsynchronousFileChannelTest
+{
+  private Path directory;
+  private Path file;
+
+  @BeforeEach
+  public void setup()
+    throws IOException
+  {
+    this.directory =
+      WNTestDirectories.createTempDirectory();
+    this.file =
+      this.directory.resolve("file.bin");
+
+    Files.writeString(this.file, "AAAABBBBCCCCDDDD", UTF_8);
+  }
+
+  @AfterEach
+  public void tearDown()
+    throws IOException
+  {
+    WNTestDirectories.deleteDirectory(this.directory);
+  }
+
+  /**
+   * Reading data into a buffer that only has a small amount of space works.
+   *
+   * @throws Exception On errors
+   */
+
+  @Test
+  public void testReadShortTargetBuffer()
+    throws Exception
+  {
+    final var data = new byte[2];
+    final var buffer = ByteBuffer.wrap(data);
+
+    try (var fileChannel = AsynchronousFileChannel.open(this.file, READ)) {
+      try (var ch =
+             new SubrangeAsynchronousFileChannel(fileChannel, 2L, 4L)) {
+        assertEquals(4L, ch.size());
+        final var r = ch.read(buffer, 0L).get();
+        assertEquals(2, r);
+        assertEquals(2, buffer.position());
+        assertArrayEquals("AA".getBytes(UTF_8), data);
+      }
+    }
+  }
+
+  /**
+   * Reading data into a buffer that has a larger amount of space than the
+   * channel works, and the buffer limit is restored.
+   *
+   * @throws Exception On errors
+   */
+
+  @Test
+  public void testReadShortSourceChannel()
+    throws Exception
+  {
+    final var data = new byte[8];
+    final var buffer = ByteBuffer.wrap(data);
+
+    try (var fileChannel = AsynchronousFileChannel.open(this.file, READ)) {
+      try (var ch =
+             new SubrangeAsynchronousFileChannel(fileChannel, 2L, 2L)) {
+        final var r = ch.read(buffer, 0L).get();
+        assertEquals(2, r);
+        assertEquals(2, buffer.position());
+        assertEquals(8, buffer.limit());
+        assertArrayEquals("AA\0\0\0\0\0\0".getBytes(UTF_8), data);
+      }
+    }
+  }
+
+  /**
+   * Reading data from a specific position works.
+   *
+   * @throws Exception On errors
+   */
+
+  @Test
+  public void testReadPositioned()
+    throws Exception
+  {
+    final var data = new byte[8];
+    final var buffer = ByteBuffer.wrap(data);
+
+    try (var fileChannel = AsynchronousFileChannel.open(this.file, READ)) {
+      try (var ch =
+             new SubrangeAsynchronousFileChannel(fileChannel, 2L, 14L)) {
+        final var r = ch.read(buffer, 4L).get();
+        assertEquals(8, r);
+        assertArrayEquals("BBCCCCDD".getBytes(UTF_8), data);
+      }
+    }
+  }
+
+  /**
+   * Reading data at EOF returns -1.
+   *
+   * @throws Exception On errors
+   */
+
+  @Test
+  public void testReadEOF()
+    throws Exception
+  {
+    final var buffer = ByteBuffer.allocate(8);
+
+    try (var fileChannel = AsynchronousFileChannel.open(this.file, READ)) {
+      try (var ch =
+             new SubrangeAsynchronousFileChannel(fileChannel, 2L, 2L)) {
+        assertEquals(-1, ch.read(buffer, 2L).get());
+        assertEquals(-1, ch.read(buffer, 100L).get());
+        assertEquals(0, buffer.position());
+      }
+    }
+  }
+
+  /**
+   * Negative positions are rejected.
+   *
+   * @throws Exception On errors
+   */
+
+  @Test
+  public void testReadNegative()
+    throws Exception
+  {
+    final var buffer = ByteBuffer.allocate(8);
+
+    try (var fileChannel = AsynchronousFileChannel.open(this.file, READ)) {
+      try (var ch =
+             new SubrangeAsynchronousFileChannel(fileChannel, 2L, 2L)) {
+        assertThrows(IllegalArgumentException.class, () -> {
+          ch.read(buffer, -1L);
+        });
+      }
+    }
+  }
+
+  /**
+   * Reading with a completion handler works.
+   *
+   * @throws Exception On errors
+   */
+
+  @Test
+  public void testReadHandler()
+    throws Exception
+  {
+    final var data = new byte[4];
+    final var buffer = ByteBuffer.wrap(data);
+    final var future = new CompletableFuture<Integer>();
+
+    try (var fileChannel = AsynchronousFileChannel.open(this.file, READ)) {
+      try (var ch =
+             new SubrangeAsynchronousFileChannel(fileChannel, 4L, 8L)) {
+        ch.read(buffer, 2L, "x", new CompletionHandler<Integer, String>()
+        {
+          @Override
+          public void completed(
+            final Integer result,
+            final String attachment)
+          {
+            assertEquals("x", attachment);
+            future.complete(result);
+          }
+
+          @Override
+          public void failed(
+            final Throwable exc,
+            final String attachment)
+          {
+            future.completeExceptionally(exc);
+          }
+        });
+
+        assertEquals(4, future.get());
+        assertArrayEquals("BBCC".getBytes(UTF_8), data);
+      }
+    }
+  }
+
+  /**
+   * Writes are translated and limited.
+   *
+   * @throws Exception On errors
+   */
+
+  @Test
+  public void testWriteLimited()
+    throws Exception
+  {
+    final var fileChannel =
+      AsynchronousFileChannel.open(this.file, READ, WRITE);
+
+    try (var ch = new SubrangeAsynchronousFileChannel(fileChannel, 4L, 4L)) {
+      final var src = ByteBuffer.wrap("xyzxyz".getBytes(UTF_8));
+      assertEquals(3, ch.write(src, 1L).get());
+      assertEquals(3, src.position());
+      assertEquals(6, src.limit());
+      assertEquals(0, ch.write(src, 4L).get());
+      ch.force(false);
+    }
+
+    assertEquals("AAAABxyzCCCCDDDD", Files.readString(this.file, UTF_8));
+  }
+
+  /**
+   * Reading closed channels fails.
+   *
+   * @throws Exception On errors
+   */
+
+  @Test
+  public void testClosed()
+    throws Exception
+  {
+    final var called = new AtomicInteger(0);
+    final CloseOperationType<SubrangeAsynchronousFileChannel> onClose =
+      context -> called.incrementAndGet();
+
+    final var fileChannel =
+      AsynchronousFileChannel.open(this.file, READ);
+    final var ch =
+      new SubrangeAsynchronousFileChannel(fileChannel, 0L, 4L, onClose);
+
+    assertTrue(ch.isOpen());
+    ch.close();
+    ch.close();
+    assertFalse(ch.isOpen());
+    assertFalse(fileChannel.isOpen());
+    assertEquals(1, called.get());
+
+    final var ex =
+      assertThrows(ExecutionException.class, () -> {
+        ch.read(ByteBuffer.allocate(4), 0L).get();
+      });
+    assertInstanceOf(ClosedChannelException.class, ex.getCause());
+    assertThrows(ClosedChannelException.class, ch::size);
+  }
+
+  /**
+   * Truncation and locking aren't supported.
+   *
+   * @throws Exception On errors
+   */
+
+  @Test
+  public void testUnsupported()
+    throws Exception
+  {
+    try (var fileChannel = AsynchronousFileChannel.open(this.file, READ)) {
+      try (var ch =
+             new SubrangeAsynchronousFileChannel(fileChannel, 0L, 4L)) {
+        assertThrows(UnsupportedOperationException.class, () -> {
+          ch.truncate(0L);
+        });
+        assertThrows(UnsupportedOperationException.class, ch::lock);
+        assertThrows(UnsupportedOperationException.class, ch::tryLock);
+      }
+    }
+  }
+
+  /**
+   * Ranges that are negative or whose end overflows are rejected.
+   *
+   * @throws Exception On errors
+   */
+
+  @Test
+  public void testInvalidRange()
+    throws Exception
+  {
+    try (var fileChannel = AsynchronousFileChannel.open(this.file, READ)) {
+      assertThrows(IllegalArgumentException.class, () -> {
+        new SubrangeAsynchronousFileChannel(fileChannel, -1L, 4L);
+      });
+      assertThrows(IllegalArgumentException.class, () -> {
+        new SubrangeAsynchronousFileChannel(fileChannel, 0L, -1L);
+      });
+      assertThrows(IllegalArgumentException.class, () -> {
+        new SubrangeAsynchronousFileChannel(fileChannel, 2L, Long.MAX_VALUE);
+      });
+    }
+  }
+}
@@ -16,8 +16,12 @@
 
 package com.io7m.wendover.tests;
 
+import com.io7m.wendover.core.ByteBufferChannels;
 import com.io7m.wendover.core.CloseOperationType;
 import com.io7m.wendover.core.SubrangeSeekableByteChannel;
+import jdk.jfr.Recording;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
 import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -26,8 +30,18 @@ import java.io.IOException;
 import java.nio.ByteBuffer;
 import java.nio.channels.FileChannel;
 import java.nio.channels.NonWritableChannelException;
+import java.nio.channels.SeekableByteChannel;
 import java.nio.file.Files;
 import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicInteger;
 
 import static java.nio.charset.StandardCharsets.UTF_8;
@@ -38,6 +52,7 @@ import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
 
 public final class SubrangeSeekableByteChannelTest
 {
@@ -248,4 +263,317 @@ public final class SubrangeSeekableByteChannelTest
       }
     }
   }
+
+  /**
+   * Reading and writing never modifies the position of a file channel
+   * delegate, so subranges can share a delegate.
+   *
+   * @throws Exception On errors
+   */
+
+  @Test
+  public void testSharedDelegatePositionUnchanged()
+    throws Exception
+  {
+    try (var fileChannel = FileChannel.open(this.file, WRITE, READ)) {
+      fileChannel.write(ByteBuffer.wrap("AAAABBBBCCCCDDDD".getBytes(UTF_8)));
+      fileChannel.position(3L);
+
+      final var ch0 = new SubrangeSeekableByteChannel(fileChannel, 4L, 4L);
+      final var ch1 = new SubrangeSeekableByteChannel(fileChannel, 8L, 4L);
+
+      final var data0 = new byte[2];
+      final var data1 = new byte[2];
+      assertEquals(2, ch0.read(ByteBuffer.wrap(data0)));
+      assertEquals(2, ch1.read(ByteBuffer.wrap(data1)));
+      assertEquals(2, ch0.write(ByteBuffer.wrap("xy".getBytes(UTF_8))));
+      assertEquals(3L, fileChannel.position());
+
+      assertArrayEquals("BB".getBytes(UTF_8), data0);
+      assertArrayEquals("CC".getBytes(UTF_8), data1);
+      assertEquals("AAAABBxyCCCCDDDD", Files.readString(this.file, UTF_8));
+    }
+  }
+
+  /**
+   * Writing from a buffer that doesn't start at position zero works.
+   *
+   * @throws Exception On errors
+   */
+
+  @Test
+  public void testWriteOffsetSource()
+    throws Exception
+  {
+    try (var fileChannel = FileChannel.open(this.file, WRITE, READ)) {
+      fileChannel.write(ByteBuffer.wrap("AAAABBBBCCCCDDDD".getBytes(UTF_8)));
+
+      try (var ch = new SubrangeSeekableByteChannel(fileChannel, 4L, 4L)) {
+        final var src = ByteBuffer.wrap("0123456789".getBytes(UTF_8));
+        src.position(6);
+        assertEquals(4, ch.write(src));
+        assertEquals(10, src.position());
+        assertEquals(10, src.limit());
+        assertEquals(4L, ch.position());
+        assertEquals(0, ch.write(src));
+      }
+      assertEquals("AAAA6789CCCCDDDD", Files.readString(this.file, UTF_8));
+    }
+  }
+
+  /**
+   * Writing to a delegate that isn't a file channel works.
+   *
+   * @throws Exception On errors
+   */
+
+  @Test
+  public void testWriteNonFileDelegate()
+    throws Exception
+  {
+    final var backing = new byte[8];
+    final var delegate =
+      ByteBufferChannels.ofByteBuffer(ByteBuffer.wrap(backing));
+
+    try (var ch = new SubrangeSeekableByteChannel(delegate, 2L, 4L)) {
+      final var src = ByteBuffer.wrap("ABCD".getBytes(UTF_8));
+      assertEquals(4, ch.write(src));
+      assertEquals(4, src.position());
+      assertEquals(0L, delegate.position());
+
+      ch.position(1L);
+      final var data = new byte[4];
+      assertEquals(3, ch.read(ByteBuffer.wrap(data)));
+      assertArrayEquals("BCD\0".getBytes(UTF_8), data);
+      assertEquals(-1, ch.read(ByteBuffer.wrap(data)));
+    }
+    assertArrayEquals("\0\0ABCD\0\0".getBytes(UTF_8), backing);
+  }
+
+  /**
+   * Concurrent readers of a single channel each claim distinct parts of the
+   * channel, so every byte is read exactly once.
+   *
+   * @throws Exception On errors
+   */
+
+  @Test
+  public void testConcurrentReadsClaimDistinctRanges()
+    throws Exception
+  {
+    final var size = 65536;
+    try (var fileChannel = this.patternFile(size)) {
+      final var ch = new SubrangeSeekableByteChannel(fileChannel, 0L, size);
+      final var executor = Executors.newFixedThreadPool(8);
+
+      try {
+        final var tasks = new ArrayList<Callable<Long>>();
+        for (int index = 0; index < 8; ++index) {
+          tasks.add(() -> {
+            final var buffer = ByteBuffer.allocate(100);
+            var total = 0L;
+            while (true) {
+              buffer.clear();
+              final var r = ch.read(buffer);
+              if (r == -1) {
+                return Long.valueOf(total);
+              }
+              checkPattern(buffer);
+              total += r;
+            }
+          });
+        }
+
+        var total = 0L;
+        for (final var future : executor.invokeAll(tasks)) {
+          total += future.get().longValue();
+        }
+        assertEquals(size, total);
+        assertEquals(size, ch.position());
+      } finally {
+        executor.shutdown();
+        executor.awaitTermination(10L, TimeUnit.SECONDS);
+      }
+    }
+  }
+
+  /**
+   * Thousands of virtual threads reading from subranges that share a
+   * delegate never pin their carrier threads.
+   *
+   * @throws Exception On errors
+   */
+
+  @Test
+  public void testVirtualThreadsNotPinned()
+    throws Exception
+  {
+    final var executorOpt = virtualThreadExecutor();
+    assumeTrue(executorOpt.isPresent(), "Virtual threads are unavailable.");
+
+    final var size = 65536;
+    final var channelCount = 4;
+    final var channelSize = size / channelCount;
+    final var output = this.directory.resolve("pinning.jfr");
+
+    try (var fileChannel = this.patternFile(size);
+         var recording = new Recording()) {
+      final var channels = new ArrayList<SeekableByteChannel>();
+      for (int index = 0; index < channelCount; ++index) {
+        channels.add(new SubrangeSeekableByteChannel(
+          fileChannel,
+          (long) index * channelSize,
+          channelSize
+        ));
+      }
+
+      recording.enable("jdk.VirtualThreadPinned")
+        .withThreshold(Duration.ZERO)
+        .withStackTrace();
+      recording.start();
+
+      final var executor = executorOpt.get();
+      try {
+        final var futures = new ArrayList<Future<?>>();
+        for (int index = 0; index < 5000; ++index) {
+          final var ch = channels.get(index % channelCount);
+          futures.add(executor.submit(() -> {
+            final var buffer = ByteBuffer.allocate(64);
+            if (ch.read(buffer) == -1) {
+              ch.position(0L);
+            }
+            checkPattern(buffer);
+            return null;
+          }));
+        }
+        for (final var future : futures) {
+          future.get();
+        }
+      } finally {
+        executor.shutdown();
+        assertTrue(executor.awaitTermination(30L, TimeUnit.SECONDS));
+      }
+
+      recording.stop();
+      recording.dump(output);
+      assertEquals(0L, fileChannel.position());
+    }
+
+    final List<RecordedEvent> pinned =
+      RecordingFile.readAllEvents(output)
+        .stream()
+        .filter(e -> "jdk.VirtualThreadPinned".equals(e.getEventType().getName()))
+        .toList();
+
+    assertEquals(List.of(), pinned);
+  }
+
+  /**
+   * A channel that has not yet been used holds no objects of its own
+   * beyond the channel itself, and the channel is small.
+   *
+   * @throws Exception On errors
+   */
+
+  @Test
+  public void testInstanceFootprint()
+    throws Exception
+  {
+    final var delegate =
+      ByteBufferChannels.ofByteBuffer(ByteBuffer.allocate(16));
+    final CloseOperationType<SubrangeSeekableByteChannel> onClose =
+      context -> {
+
+      };
+
+    final var channels = new ArrayList<SubrangeSeekableByteChannel>();
+    for (int index = 0; index < 16; ++index) {
+      channels.add(new SubrangeSeekableByteChannel(delegate, 0L, 16L, onClose));
+    }
+
+    for (final var channel : channels) {
+      for (final var reference : WNObjectLayouts.references(channel)) {
+        assertTrue(
+          reference == delegate || reference == onClose,
+          "Channel must not hold %s".formatted(reference)
+        );
+      }
+    }
+
+    final var channel = channels.get(0);
+    final var footprint = WNObjectLayouts.shallowSize(channel);
+    assertTrue(
+      footprint <= 64L,
+      "Channel footprint %d must be at most 64".formatted(
+        Long.valueOf(footprint))
+    );
+
+    channel.read(ByteBuffer.allocate(1));
+    assertEquals(1L, channel.position());
+  }
+
+  /**
+   * Ranges that are negative or whose end overflows are rejected, and the
+   * largest valid range can be addressed up to its end.
+   *
+   * @throws Exception On errors
+   */
+
+  @Test
+  public void testInvalidRange()
+    throws Exception
+  {
+    final var delegate =
+      ByteBufferChannels.ofByteBuffer(ByteBuffer.allocate(16));
+
+    assertThrows(IllegalArgumentException.class, () -> {
+      new SubrangeSeekableByteChannel(delegate, -1L, 4L);
+    });
+    assertThrows(IllegalArgumentException.class, () -> {
+      new SubrangeSeekableByteChannel(delegate, 0L, -1L);
+    });
+    assertThrows(IllegalArgumentException.class, () -> {
+      new SubrangeSeekableByteChannel(delegate, 2L, Long.MAX_VALUE);
+    });
+
+    final var ch =
+      new SubrangeSeekableByteChannel(delegate, 2L, Long.MAX_VALUE - 2L);
+    ch.position(Long.MAX_VALUE);
+    assertEquals(Long.MAX_VALUE - 2L, ch.position());
+    assertEquals(-1, ch.read(ByteBuffer.allocate(1)));
+  }
+
+  private static Optional<ExecutorService> virtualThreadExecutor()
+    throws Exception
+  {
+    try {
+      final var method =
+        Executors.class.getMethod("newVirtualThreadPerTaskExecutor");
+      return Optional.of((ExecutorService) method.invoke(null));
+    } catch (final NoSuchMethodException e) {
+      return Optional.empty();
+    }
+  }
+
+  private static void checkPattern(
+    final ByteBuffer buffer)
+  {
+    for (int index = 1; index < buffer.position(); ++index) {
+      final var previous = Byte.toUnsignedInt(buffer.get(index - 1));
+      final var current = Byte.toUnsignedInt(buffer.get(index));
+      assertEquals((previous + 1) % 251, current);
+    }
+  }
+
+  private FileChannel patternFile(
+    final int size)
+    throws IOException
+  {
+    final var data = new byte[size];
+    for (int index = 0; index < size; ++index) {
+      data[index] = (byte) (index % 251);
+    }
+    Files.write(this.file, data);
+    return FileChannel.open(this.file, READ);
+  }
 }
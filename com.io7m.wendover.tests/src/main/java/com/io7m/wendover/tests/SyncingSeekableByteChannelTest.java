@@ -0,0 +1,286 @@
+/*
+ * Copyright © 2026 Mark Raynsford <code@io7m.com> https://www.io7m.com
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY
+ * SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF OR
+ * IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+
+package com.io7m.wendover.tests;
+
+import com.io7m.wendover.core.SyncPolicy;
+import com.io7m.wendover.core.SyncingSeekableByteChannel;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.concurrent.CountDownLatch;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static java.nio.file.StandardOpenOption.CREATE;
+import static java.nio.file.StandardOpenOption.READ;
+import static java.nio.file.StandardOpenOption.WRITE;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+public final class SyncingSeekableByteChannelTest
+{
+  private Path directory;
+  private Path file;
+
+  @BeforeEach
+  public void setup()
+    throws IOException
+  {
+    this.directory =
+      WNTestDirectories.createTempDirectory();
+    this.file =
+      this.directory.resolve("data.bin");
+  }
+
+  @AfterEach
+  public void tearDown()
+    throws IOException
+  {
+    WNTestDirectories.deleteDirectory(this.directory);
+  }
+
+  private SyncingSeekableByteChannel open(
+    final SyncPolicy policy)
+    throws IOException
+  {
+    return new SyncingSeekableByteChannel(
+      FileChannel.open(this.file, CREATE, READ, WRITE),
+      policy
+    );
+  }
+
+  private static void write(
+    final SyncingSeekableByteChannel ch,
+    final String text)
+    throws IOException
+  {
+    ch.write(ByteBuffer.wrap(text.getBytes(UTF_8)));
+  }
+
+  /**
+   * Data is forced only when the channel is closed.
+   *
+   * @throws Exception On errors
+   */
+
+  @Test
+  public void testOnCloseOnly()
+    throws Exception
+  {
+    final var ch = this.open(SyncPolicy.onCloseOnly(false));
+    write(ch, "ABCDEFGH");
+    write(ch, "IJKLMNOP");
+    assertEquals(0L, ch.syncCount());
+    assertEquals(0L, ch.durableOffset());
+    assertEquals(16L, ch.writtenOffset());
+
+    ch.close();
+    ch.close();
+    assertFalse(ch.isOpen());
+    assertEquals(1L, ch.syncCount());
+    assertEquals(16L, ch.durableOffset());
+    assertEquals("ABCDEFGHIJKLMNOP", Files.readString(this.file, UTF_8));
+  }
+
+  /**
+   * Data is forced each time the byte interval is reached.
+   *
+   * @throws Exception On errors
+   */
+
+  @Test
+  public void testEveryBytes()
+    throws Exception
+  {
+    try (var ch = this.open(SyncPolicy.everyBytes(10L, true))) {
+      write(ch, "ABCDEF");
+      assertEquals(0L, ch.syncCount());
+      write(ch, "GHIJKL");
+      assertEquals(1L, ch.syncCount());
+      assertEquals(12L, ch.durableOffset());
+      write(ch, "MNOPQR");
+      assertEquals(1L, ch.syncCount());
+      write(ch, "STUVWX");
+      assertEquals(2L, ch.syncCount());
+      assertEquals(24L, ch.durableOffset());
+
+      ch.position(4L);
+      write(ch, "efghijklmn");
+      assertEquals(3L, ch.syncCount());
+      assertEquals(24L, ch.durableOffset());
+    }
+  }
+
+  /**
+   * Data is forced on the first write after the time interval has elapsed.
+   *
+   * @throws Exception On errors
+   */
+
+  @Test
+  public void testEveryInterval()
+    throws Exception
+  {
+    try (var ch = this.open(SyncPolicy.everyInterval(Duration.ofHours(1L), false))) {
+      write(ch, "ABCD");
+      write(ch, "EFGH");
+      assertEquals(0L, ch.syncCount());
+    }
+
+    final var huge = Duration.ofSeconds(Long.MAX_VALUE);
+    try (var ch = this.open(SyncPolicy.everyInterval(huge, false))) {
+      write(ch, "ABCD");
+      assertEquals(0L, ch.syncCount());
+    }
+
+    try (var ch = this.open(SyncPolicy.everyInterval(Duration.ofNanos(1L), false))) {
+      Thread.sleep(1L);
+      write(ch, "ABCD");
+      assertEquals(1L, ch.syncCount());
+      assertEquals(4L, ch.durableOffset());
+      Thread.sleep(1L);
+      write(ch, "EFGH");
+      assertEquals(2L, ch.syncCount());
+      assertEquals(8L, ch.durableOffset());
+    }
+  }
+
+  /**
+   * Data is forced only at explicit barriers.
+   *
+   * @throws Exception On errors
+   */
+
+  @Test
+  public void testExplicitOnly()
+    throws Exception
+  {
+    final var ch = this.open(SyncPolicy.explicitOnly(false));
+    try {
+      write(ch, "ABCD");
+      assertEquals(0L, ch.durableOffset());
+      assertEquals(4L, ch.barrier());
+      assertEquals(1L, ch.syncCount());
+
+      assertEquals(4L, ch.barrier());
+      assertEquals(1L, ch.syncCount());
+
+      write(ch, "EFGH");
+      ch.truncate(2L);
+      assertEquals(2L, ch.durableOffset());
+      assertEquals(2L, ch.writtenOffset());
+      assertEquals(2L, ch.barrier());
+      assertEquals(2L, ch.syncCount());
+
+      write(ch, "XY");
+    } finally {
+      ch.close();
+    }
+    assertEquals(2L, ch.syncCount());
+    assertEquals(2L, ch.durableOffset());
+  }
+
+  /**
+   * A seek waits for a write in progress, so the written offset is taken
+   * from the position at the end of the write.
+   *
+   * @throws Exception On errors
+   */
+
+  @Test
+  public void testSeekWaitsForWrite()
+    throws Exception
+  {
+    final var entered = new CountDownLatch(1);
+    final var release = new CountDownLatch(1);
+    final var file = Mockito.mock(FileChannel.class);
+    Mockito.when(file.write(Mockito.any(ByteBuffer.class))).thenAnswer(i -> {
+      entered.countDown();
+      release.await();
+      return Integer.valueOf(5);
+    });
+    Mockito.when(file.position()).thenReturn(Long.valueOf(5L));
+
+    final var ch =
+      new SyncingSeekableByteChannel(file, SyncPolicy.explicitOnly(false));
+
+    final var writer = new Thread(() -> {
+      try {
+        ch.write(ByteBuffer.allocate(5));
+      } catch (final IOException e) {
+        throw new IllegalStateException(e);
+      }
+    });
+    writer.start();
+    entered.await();
+
+    final var seeker = new Thread(() -> {
+      try {
+        ch.position(0L);
+      } catch (final IOException e) {
+        throw new IllegalStateException(e);
+      }
+    });
+    seeker.start();
+    while (seeker.getState() != Thread.State.WAITING
+           && seeker.getState() != Thread.State.TERMINATED) {
+      Thread.onSpinWait();
+    }
+
+    release.countDown();
+    writer.join();
+    seeker.join();
+
+    final var order = Mockito.inOrder(file);
+    order.verify(file).write(Mockito.any(ByteBuffer.class));
+    order.verify(file).position();
+    order.verify(file).position(0L);
+    assertEquals(5L, ch.writtenOffset());
+  }
+
+  /**
+   * Invalid policies are rejected.
+   *
+   * @throws Exception On errors
+   */
+
+  @Test
+  public void testInvalidPolicy()
+    throws Exception
+  {
+    assertThrows(IllegalArgumentException.class, () -> {
+      SyncPolicy.everyBytes(0L, false);
+    });
+    assertThrows(IllegalArgumentException.class, () -> {
+      SyncPolicy.everyInterval(Duration.ZERO, false);
+    });
+    assertThrows(IllegalArgumentException.class, () -> {
+      new SyncPolicy(-1L, Duration.ZERO, false, false);
+    });
+    assertThrows(IllegalArgumentException.class, () -> {
+      new SyncPolicy(0L, Duration.ofSeconds(-1L), false, false);
+    });
+  }
+}
@@ -0,0 +1,180 @@
+/*
+ * Copyright © 2026 Mark Raynsford <code@io7m.com> https://www.io7m.com
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY
+ * SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF OR
+ * IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+
+package com.io7m.wendover.tests;
+
+import com.io7m.wendover.core.TokenBucket;
+import org.junit.jupiter.api.Test;
+
+import java.io.InterruptedIOException;
+import java.util.ArrayList;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public final class TokenBucketTest
+{
+  /**
+   * A full bucket allows a burst, and then refills at the configured rate.
+   *
+   * @throws Exception On errors
+   */
+
+  @Test
+  public void testBurstAndRefill()
+    throws Exception
+  {
+    final var clock = new AtomicLong(0L);
+    final var bucket = new TokenBucket(1000L, 100L, clock::get);
+
+    clock.set(1_000_000_000L);
+    assertTrue(bucket.tryAcquire(100L));
+    assertFalse(bucket.tryAcquire(1L));
+
+    clock.addAndGet(50_000_000L);
+    assertTrue(bucket.tryAcquire(50L));
+    assertFalse(bucket.tryAcquire(1L));
+
+    clock.addAndGet(10_000_000_000L);
+    assertTrue(bucket.tryAcquire(100L));
+    assertFalse(bucket.tryAcquire(1L));
+
+    bucket.release(20L);
+    assertTrue(bucket.tryAcquire(20L));
+    assertFalse(bucket.tryAcquire(1L));
+
+    assertTrue(bucket.tryAcquire(0L));
+  }
+
+  /**
+   * At rates above one byte per nanosecond, small acquisitions still cost
+   * time rather than being free.
+   *
+   * @throws Exception On errors
+   */
+
+  @Test
+  public void testFastRateRoundsUp()
+    throws Exception
+  {
+    final var clock = new AtomicLong(0L);
+    final var bucket = new TokenBucket(4_000_000_000L, 8L, clock::get);
+
+    assertTrue(bucket.tryAcquire(1L));
+    assertTrue(bucket.tryAcquire(1L));
+    assertFalse(bucket.tryAcquire(1L));
+
+    clock.addAndGet(2L);
+    assertTrue(bucket.tryAcquire(8L));
+    assertFalse(bucket.tryAcquire(1L));
+  }
+
+  /**
+   * Threads sharing a bucket are limited to its aggregate rate.
+   *
+   * @throws Exception On errors
+   */
+
+  @Test
+  public void testSharedRate()
+    throws Exception
+  {
+    final var bucket = new TokenBucket(100_000L, 1_000L);
+    final var threads = new ArrayList<Thread>();
+    final var time = System.nanoTime();
+
+    for (int index = 0; index < 4; ++index) {
+      final var thread = new Thread(() -> {
+        try {
+          for (int k = 0; k < 10; ++k) {
+            bucket.acquire(1_000L);
+          }
+        } catch (final InterruptedIOException e) {
+          throw new IllegalStateException(e);
+        }
+      });
+      threads.add(thread);
+      thread.start();
+    }
+    for (final var thread : threads) {
+      thread.join();
+    }
+
+    /*
+     * 40000 bytes at 100000 bytes per second, less the initial burst,
+     * must take at least 390 milliseconds.
+     */
+
+    final var elapsed = System.nanoTime() - time;
+    assertTrue(
+      elapsed >= 380_000_000L,
+      "Elapsed %d".formatted(Long.valueOf(elapsed))
+    );
+  }
+
+  /**
+   * Interrupting a waiting thread aborts the acquisition, and leaves the
+   * thread's interrupt status set.
+   *
+   * @throws Exception On errors
+   */
+
+  @Test
+  public void testInterrupted()
+    throws Exception
+  {
+    final var bucket = new TokenBucket(1L, 1L);
+    bucket.acquire(1L);
+
+    Thread.currentThread().interrupt();
+    assertThrows(InterruptedIOException.class, () -> bucket.acquire(1L));
+    assertTrue(Thread.interrupted());
+  }
+
+  /**
+   * Invalid arguments are rejected.
+   *
+   * @throws Exception On errors
+   */
+
+  @Test
+  public void testInvalid()
+    throws Exception
+  {
+    assertThrows(IllegalArgumentException.class, () -> {
+      new TokenBucket(0L, 1L);
+    });
+    assertThrows(IllegalArgumentException.class, () -> {
+      new TokenBucket(1L, 0L);
+    });
+    assertThrows(IllegalArgumentException.class, () -> {
+      new TokenBucket(1L, Long.MAX_VALUE);
+    });
+
+    final var bucket = new TokenBucket(10L, 10L);
+    assertEquals(10L, bucket.bytesPerSecond());
+    assertEquals(10L, bucket.burst());
+    assertThrows(IllegalArgumentException.class, () -> {
+      bucket.tryAcquire(11L);
+    });
+    assertThrows(IllegalArgumentException.class, () -> {
+      bucket.acquire(-1L);
+    });
+  }
+}
@@ -0,0 +1,147 @@
+/*
+ * Copyright © 2026 Mark Raynsford <code@io7m.com> https://www.io7m.com
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY
+ * SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF OR
+ * IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+
+
+package com.io7m.wendover.tests;
+
+import net.bytebuddy.agent.ByteBuddyAgent;
+import sun.misc.Unsafe;
+
+import java.lang.instrument.Instrumentation;
+import java.lang.reflect.Field;
+import java.lang.reflect.Modifier;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Functions to inspect the layout of objects in memory, using the
+ * instrumentation API for object sizes and field offsets for everything
+ * else. No reflective access to the inspected classes is required, and so
+ * the functions work on the module path.
+ */
+
+public final class WNObjectLayouts
+{
+  private static final Unsafe UNSAFE = findUnsafe();
+  private static Instrumentation INSTRUMENTATION;
+
+  private WNObjectLayouts()
+  {
+
+  }
+
+  private static Unsafe findUnsafe()
+  {
+    try {
+      final var field = Unsafe.class.getDeclaredField("theUnsafe");
+      field.setAccessible(true);
+      return (Unsafe) field.get(null);
+    } catch (final ReflectiveOperationException e) {
+      throw new IllegalStateException(e);
+    }
+  }
+
+  private static synchronized Instrumentation instrumentation()
+  {
+    if (INSTRUMENTATION == null) {
+      INSTRUMENTATION = ByteBuddyAgent.install();
+    }
+    return INSTRUMENTATION;
+  }
+
+  private static List<Field> instanceFields(
+    final Class<?> clazz)
+  {
+    final var fields = new ArrayList<Field>();
+    for (var c = clazz; c != null; c = c.getSuperclass()) {
+      for (final var field : c.getDeclaredFields()) {
+        if (!Modifier.isStatic(field.getModifiers())) {
+          fields.add(field);
+        }
+      }
+    }
+    return fields;
+  }
+
+  /**
+   * @param object The object
+   *
+   * @return The size of the object itself, excluding any objects it refers to
+   */
+
+  public static long shallowSize(
+    final Object object)
+  {
+    return instrumentation().getObjectSize(object);
+  }
+
+  /**
+   * @param clazz The class
+   * @param name  The name of a field declared in the class or a superclass
+   *
+   * @return The offset of the field from the start of an instance
+   */
+
+  public static long fieldOffset(
+    final Class<?> clazz,
+    final String name)
+  {
+    return instanceFields(clazz)
+      .stream()
+      .filter(f -> name.equals(f.getName()))
+      .mapToLong(UNSAFE::objectFieldOffset)
+      .findFirst()
+      .orElseThrow();
+  }
+
+  /**
+   * @param clazz The class
+   *
+   * @return The smallest offset of any instance field of the class
+   */
+
+  public static long firstFieldOffset(
+    final Class<?> clazz)
+  {
+    return instanceFields(clazz)
+      .stream()
+      .mapToLong(UNSAFE::objectFieldOffset)
+      .min()
+      .orElseThrow();
+  }
+
+  /**
+   * @param object The object
+   *
+   * @return The non-null values of all reference fields of the object
+   */
+
+  public static List<Object> references(
+    final Object object)
+  {
+    final var values = new ArrayList<Object>();
+    for (final var field : instanceFields(object.getClass())) {
+      if (!field.getType().isPrimitive()) {
+        final var value =
+          UNSAFE.getObject(object, UNSAFE.objectFieldOffset(field));
+        if (value != null) {
+          values.add(value);
+        }
+      }
+    }
+    return values;
+  }
+}
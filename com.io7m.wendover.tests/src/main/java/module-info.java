@@ -30,5 +30,10 @@ open module com.io7m.wendover.tests
 
   requires org.slf4j;
 
+  requires java.instrument;
+  requires java.management;
+  requires jdk.jfr;
+  requires jdk.unsupported;
+
   exports com.io7m.wendover.tests;
 }
\ No newline at end of file